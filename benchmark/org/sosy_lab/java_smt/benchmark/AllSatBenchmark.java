@@ -0,0 +1,104 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.java_smt.api.BasicProverEnvironment.AllSatCallback;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * Measures {@link ProverEnvironment#allSat} over Boolean predicates, like in the AllSatExample.
+ * Each benchmark returns the number of reported assignments, which depends on whether the prover
+ * reports partial assignments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AllSatBenchmark {
+
+  @Param({"8", "12"})
+  public int numberOfPredicates;
+
+  private ProverEnvironment prover;
+  private ImmutableList<BooleanFormula> predicates;
+  private BooleanFormula disjunction;
+  private BooleanFormula randomCnf;
+
+  @Setup(Level.Trial)
+  public void setUp(SolverContextState state) {
+    predicates = BenchmarkFormulas.variables(state.bmgr, "p", numberOfPredicates);
+    disjunction = state.bmgr.or(predicates);
+    randomCnf =
+        state.bmgr.and(
+            BenchmarkFormulas.randomClauses(state.bmgr, predicates, 2 * numberOfPredicates));
+    prover = state.context.newProverEnvironment(ProverOptions.GENERATE_ALL_SAT);
+  }
+
+  @TearDown(Level.Trial)
+  public void closeProver() {
+    if (prover != null) {
+      prover.close();
+    }
+  }
+
+  /** Without partial assignments, this formula has one assignment less than all combinations. */
+  @Benchmark
+  public int disjunction() throws SolverException, InterruptedException {
+    return allSat(disjunction);
+  }
+
+  @Benchmark
+  public int randomCnf() throws SolverException, InterruptedException {
+    return allSat(randomCnf);
+  }
+
+  private int allSat(BooleanFormula formula) throws SolverException, InterruptedException {
+    prover.push(formula);
+    try {
+      return prover.allSat(
+          new AllSatCallback<>() {
+            private int count = 0;
+
+            @Override
+            public void apply(List<BooleanFormula> pModel) {
+              count++;
+            }
+
+            @Override
+            public Integer getResult() {
+              return count;
+            }
+          },
+          predicates);
+    } finally {
+      prover.pop();
+    }
+  }
+}
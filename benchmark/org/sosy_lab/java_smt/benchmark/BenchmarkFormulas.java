@@ -0,0 +1,69 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+
+/**
+ * Generator for deterministic Boolean benchmark formulas. We only use Boolean logic, because it is
+ * supported by all solvers and keeps the solving time small compared to the wrapper overhead.
+ */
+final class BenchmarkFormulas {
+
+  private static final long SEED = 42;
+
+  private BenchmarkFormulas() {}
+
+  static ImmutableList<BooleanFormula> variables(
+      BooleanFormulaManager bmgr, String prefix, int number) {
+    ImmutableList.Builder<BooleanFormula> vars = ImmutableList.builder();
+    for (int i = 0; i < number; i++) {
+      vars.add(bmgr.makeVariable(prefix + i));
+    }
+    return vars.build();
+  }
+
+  /**
+   * Build a random 3-CNF formula. With a ratio of clauses to variables below 4, the formula is
+   * satisfiable with high probability.
+   */
+  static ImmutableList<BooleanFormula> randomClauses(
+      BooleanFormulaManager bmgr, List<BooleanFormula> vars, int numberOfClauses) {
+    Random random = new Random(SEED);
+    ImmutableList.Builder<BooleanFormula> clauses = ImmutableList.builder();
+    for (int i = 0; i < numberOfClauses; i++) {
+      List<BooleanFormula> literals = new ArrayList<>(3);
+      for (int j = 0; j < 3; j++) {
+        BooleanFormula var = vars.get(random.nextInt(vars.size()));
+        literals.add(random.nextBoolean() ? var : bmgr.not(var));
+      }
+      clauses.add(bmgr.or(literals));
+    }
+    return clauses.build();
+  }
+
+  /**
+   * Build a formula whose DAG is linear in the given depth, but whose unfolded tree is exponential.
+   * This is the worst case for any traversal that does not cache visited subformulas.
+   */
+  static BooleanFormula sharedDag(BooleanFormulaManager bmgr, String prefix, int depth) {
+    BooleanFormula f = bmgr.makeVariable(prefix + "init");
+    for (int i = 0; i < depth; i++) {
+      BooleanFormula x = bmgr.makeVariable(prefix + "x" + i);
+      BooleanFormula y = bmgr.makeVariable(prefix + "y" + i);
+      f = bmgr.or(bmgr.and(f, x), bmgr.and(bmgr.not(f), y));
+    }
+    return f;
+  }
+}
@@ -0,0 +1,65 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.FormulaType;
+
+/** Measures the creation of variables and of large conjunctions and disjunctions. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormulaConstructionBenchmark {
+
+  @Param({"1000", "10000"})
+  public int size;
+
+  private ImmutableList<BooleanFormula> vars;
+
+  @Setup(Level.Trial)
+  public void setUp(SolverContextState state) {
+    vars = BenchmarkFormulas.variables(state.bmgr, "v", size);
+  }
+
+  /** The variables already exist in the context, so this measures the lookup and wrapping. */
+  @Benchmark
+  public void makeVariable(SolverContextState state, Blackhole blackhole) {
+    for (int i = 0; i < size; i++) {
+      blackhole.consume(state.fmgr.makeVariable(FormulaType.BooleanType, "v" + i));
+    }
+  }
+
+  @Benchmark
+  public BooleanFormula and(SolverContextState state) {
+    return state.bmgr.and(vars);
+  }
+
+  @Benchmark
+  public BooleanFormula or(SolverContextState state) {
+    return state.bmgr.or(vars);
+  }
+}
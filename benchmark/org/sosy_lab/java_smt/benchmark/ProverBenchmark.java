@@ -0,0 +1,88 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.benchmark;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.Model.ValueAssignment;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * Measures the interaction with a prover: stack operations, satisfiability checks and model
+ * listing. The asserted formula is an easy satisfiable 3-CNF, such that the wrapper overhead is
+ * visible in the results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProverBenchmark {
+
+  @Param({"100", "1000"})
+  public int numberOfVariables;
+
+  private ProverEnvironment prover;
+  private BooleanFormula extraConstraint;
+
+  @Setup(Level.Trial)
+  public void setUp(SolverContextState state) throws SolverException, InterruptedException {
+    ImmutableList<BooleanFormula> vars =
+        BenchmarkFormulas.variables(state.bmgr, "p", numberOfVariables);
+    extraConstraint = state.bmgr.or(vars);
+    prover = state.context.newProverEnvironment(ProverOptions.GENERATE_MODELS);
+    prover.addConstraint(
+        state.bmgr.and(BenchmarkFormulas.randomClauses(state.bmgr, vars, 3 * numberOfVariables)));
+    // the benchmarks expect a satisfiable base-level, and the model requires a previous check.
+    Preconditions.checkState(!prover.isUnsat(), "benchmark formula should be satisfiable");
+  }
+
+  @TearDown(Level.Trial)
+  public void closeProver() {
+    if (prover != null) {
+      prover.close();
+    }
+  }
+
+  @Benchmark
+  public boolean pushIsUnsatPop() throws SolverException, InterruptedException {
+    prover.push(extraConstraint);
+    try {
+      return prover.isUnsat();
+    } finally {
+      prover.pop();
+    }
+  }
+
+  @Benchmark
+  public ImmutableList<ValueAssignment> modelAsList() throws SolverException {
+    try (Model model = prover.getModel()) {
+      return model.asList();
+    }
+  }
+}
@@ -0,0 +1,60 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+
+/** Measures the export and import of formulas in SMT-LIB2 format. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+  @Param({"100", "1000"})
+  public int numberOfVariables;
+
+  private BooleanFormula formula;
+  private String dump;
+
+  @Setup(Level.Trial)
+  public void setUp(SolverContextState state) {
+    ImmutableList<BooleanFormula> vars =
+        BenchmarkFormulas.variables(state.bmgr, "s", numberOfVariables);
+    formula =
+        state.bmgr.and(BenchmarkFormulas.randomClauses(state.bmgr, vars, 3 * numberOfVariables));
+    dump = state.fmgr.dumpFormula(formula).toString();
+  }
+
+  @Benchmark
+  public String dumpFormula(SolverContextState state) {
+    return state.fmgr.dumpFormula(formula).toString();
+  }
+
+  @Benchmark
+  public BooleanFormula parse(SolverContextState state) {
+    return state.fmgr.parse(dump);
+  }
+}
@@ -0,0 +1,71 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.java_smt.SolverContextFactory;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.SolverContext;
+
+/**
+ * Provides one {@link SolverContext} per trial. The benchmarks are parameterized over all {@link
+ * Solvers}. Solvers without native libraries for the current platform fail during setup, and JMH
+ * continues with the next parameter. Use {@code -p solver=Z3,CVC5} to restrict the run.
+ */
+@State(Scope.Benchmark)
+public class SolverContextState {
+
+  @Param({
+    "OPENSMT",
+    "MATHSAT5",
+    "SMTINTERPOL",
+    "Z3",
+    "PRINCESS",
+    "BOOLECTOR",
+    "CVC4",
+    "CVC5",
+    "YICES2",
+    "BITWUZLA"
+  })
+  public Solvers solver;
+
+  public SolverContext context;
+  public FormulaManager fmgr;
+  public BooleanFormulaManager bmgr;
+
+  @Setup(Level.Trial)
+  public void setUpContext() throws InvalidConfigurationException {
+    context =
+        SolverContextFactory.createSolverContext(
+            Configuration.defaultConfiguration(),
+            LogManager.createNullLogManager(),
+            ShutdownNotifier.createDummy(),
+            solver);
+    fmgr = context.getFormulaManager();
+    bmgr = fmgr.getBooleanFormulaManager();
+  }
+
+  @TearDown(Level.Trial)
+  public void closeContext() {
+    if (context != null) {
+      context.close();
+    }
+  }
+}
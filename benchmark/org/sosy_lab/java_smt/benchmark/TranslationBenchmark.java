@@ -0,0 +1,95 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.java_smt.SolverContextFactory;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.SolverContext;
+
+/**
+ * Measures the translation of formulas from a context of SMTInterpol into the context of the
+ * benchmarked solver, compared to dumping and parsing the formula in SMT-LIB2 format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TranslationBenchmark {
+
+  @Param({"100", "1000"})
+  public int depth;
+
+  private SolverContext source;
+  private FormulaManager sourceFmgr;
+  private BooleanFormulaManager sourceBmgr;
+  private BooleanFormula formula;
+  private int counter = 0;
+
+  @Setup(Level.Trial)
+  public void setUp() throws InvalidConfigurationException {
+    source =
+        SolverContextFactory.createSolverContext(
+            Configuration.defaultConfiguration(),
+            LogManager.createNullLogManager(),
+            ShutdownNotifier.createDummy(),
+            Solvers.SMTINTERPOL);
+    sourceFmgr = source.getFormulaManager();
+    sourceBmgr = sourceFmgr.getBooleanFormulaManager();
+    formula = BenchmarkFormulas.sharedDag(sourceBmgr, "t", depth);
+  }
+
+  @TearDown(Level.Trial)
+  public void closeSource() {
+    if (source != null) {
+      source.close();
+    }
+  }
+
+  /** The translation via SMT-LIB2, i.e., the former default for translating formulas. */
+  @Benchmark
+  public BooleanFormula dumpAndParse(SolverContextState state) {
+    return state.fmgr.parse(sourceFmgr.dumpFormula(formula).toString());
+  }
+
+  /** Translating the same formula again, e.g., for several provers on the same query. */
+  @Benchmark
+  public BooleanFormula translateFromRepeated(SolverContextState state) {
+    return state.fmgr.translateFrom(formula, sourceFmgr);
+  }
+
+  /** Translating a new formula that shares all but one subterm with earlier translations. */
+  @Benchmark
+  public BooleanFormula translateFromIncremental(SolverContextState state) {
+    BooleanFormula extended = sourceBmgr.and(formula, sourceBmgr.makeVariable("n" + counter++));
+    return state.fmgr.translateFrom(extended, sourceFmgr);
+  }
+}
@@ -0,0 +1,90 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.java_smt.api.BitvectorFormula;
+import org.sosy_lab.java_smt.api.BitvectorFormulaManager;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.FormulaType;
+import org.sosy_lab.java_smt.api.FormulaType.BitvectorType;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.UFManager;
+import org.sosy_lab.java_smt.utils.SolverUtils;
+import org.sosy_lab.java_smt.utils.UfElimination;
+
+/**
+ * Measures the Ackermannization of a bitvector formula with many applications of the same UF. Half
+ * of the applications have a constant as first argument, such that they can not be equal to each
+ * other if their constants differ. Solvers without bitvector support fail during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UfEliminationBenchmark {
+
+  private static final int WIDTH = 32;
+
+  /** Number of different constants used as arguments of UF applications. */
+  private static final int CONSTANTS = 16;
+
+  @Param({"100", "1000"})
+  public int applications;
+
+  private BooleanFormula formula;
+
+  @Setup(Level.Trial)
+  public void setUp(SolverContextState state) {
+    BitvectorFormulaManager bvmgr = state.fmgr.getBitvectorFormulaManager();
+    UFManager ufmgr = state.fmgr.getUFManager();
+    BitvectorType type = FormulaType.getBitvectorTypeWithSize(WIDTH);
+    FunctionDeclaration<BitvectorFormula> uf = ufmgr.declareUF("uf", type, type, type);
+    List<BooleanFormula> atoms = new ArrayList<>(applications);
+    BitvectorFormula previous = bvmgr.makeVariable(WIDTH, "x0");
+    for (int i = 1; i <= applications; i++) {
+      BitvectorFormula x = bvmgr.makeVariable(WIDTH, "x" + i);
+      BitvectorFormula first = i % 2 == 0 ? bvmgr.makeBitvector(WIDTH, i % CONSTANTS) : previous;
+      BitvectorFormula application = ufmgr.callUF(uf, first, previous);
+      atoms.add(bvmgr.lessOrEquals(application, x, false));
+      previous = x;
+    }
+    formula = state.bmgr.and(atoms);
+  }
+
+  /** Ackermannization including the constraints for functional consistency. */
+  @Benchmark
+  public BooleanFormula eliminateUfs(SolverContextState state) {
+    return SolverUtils.ufElimination(state.fmgr).eliminateUfs(formula);
+  }
+
+  /** Ackermannization without requesting the constraints for functional consistency. */
+  @Benchmark
+  public BooleanFormula eliminateUfsWithoutConstraints(SolverContextState state) {
+    return SolverUtils.ufElimination(state.fmgr)
+        .eliminateUfs(formula, UfElimination.Result.empty(state.fmgr))
+        .getFormula();
+  }
+}
@@ -0,0 +1,75 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.visitors.DefaultFormulaVisitor;
+import org.sosy_lab.java_smt.api.visitors.FormulaTransformationVisitor;
+import org.sosy_lab.java_smt.api.visitors.TraversalProcess;
+
+/**
+ * Measures the recursive visitation and transformation of a formula with many shared subformulas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VisitorBenchmark {
+
+  @Param({"100", "1000"})
+  public int depth;
+
+  private BooleanFormula formula;
+
+  @Setup(Level.Trial)
+  public void setUp(SolverContextState state) {
+    formula = BenchmarkFormulas.sharedDag(state.bmgr, "d", depth);
+  }
+
+  @Benchmark
+  public int visitRecursively(SolverContextState state) {
+    NodeCounter counter = new NodeCounter();
+    state.fmgr.visitRecursively(formula, counter);
+    return counter.nodes;
+  }
+
+  /** The identity transformation rebuilds every node of the formula. */
+  @Benchmark
+  public BooleanFormula transformRecursively(SolverContextState state) {
+    return state.fmgr.transformRecursively(
+        formula, new FormulaTransformationVisitor(state.fmgr) {});
+  }
+
+  private static final class NodeCounter extends DefaultFormulaVisitor<TraversalProcess> {
+
+    private int nodes = 0;
+
+    @Override
+    protected TraversalProcess visitDefault(Formula f) {
+      nodes++;
+      return TraversalProcess.CONTINUE;
+    }
+  }
+}
@@ -28,8 +28,11 @@ import org.sosy_lab.java_smt.api.SolverContext;
 import org.sosy_lab.java_smt.basicimpl.AbstractNumeralFormulaManager.NonLinearArithmetic;
 import org.sosy_lab.java_smt.delegate.debugging.DebuggingSolverContext;
 import org.sosy_lab.java_smt.delegate.logging.LoggingSolverContext;
+import org.sosy_lab.java_smt.delegate.portfolio.PortfolioSolverContext;
+import org.sosy_lab.java_smt.delegate.querycache.QueryCacheSolverContext;
 import org.sosy_lab.java_smt.delegate.statistics.StatisticsSolverContext;
 import org.sosy_lab.java_smt.delegate.synchronize.SynchronizedSolverContext;
+import org.sosy_lab.java_smt.delegate.trace.TraceSolverContext;
 import org.sosy_lab.java_smt.solvers.bitwuzla.BitwuzlaSolverContext;
 import org.sosy_lab.java_smt.solvers.boolector.BoolectorSolverContext;
 import org.sosy_lab.java_smt.solvers.cvc4.CVC4SolverContext;
@@ -92,9 +95,30 @@ public class SolverContextFactory {
       description = "Sequentialize all solver actions to allow concurrent access!")
   private boolean synchronize = false;
 
+  @Option(
+      secure = true,
+      description =
+          "Race several solvers on each satisfiability check, "
+              + "see the options solver.portfolio.* for details.")
+  private boolean usePortfolio = false;
+
+  @Option(
+      secure = true,
+      description =
+          "Answer repeated satisfiability checks from a cache, "
+              + "see the options solver.queryCache.* for details.")
+  private boolean useQueryCache = false;
+
   @Option(secure = true, description = "Apply additional checks to catch common user errors.")
   private boolean useDebugMode = false;
 
+  @Option(
+      secure = true,
+      description =
+          "Record all interactions with the provers into a trace file that can be replayed "
+              + "with any solver, see the options solver.trace.* for details.")
+  private boolean recordTrace = false;
+
   @Option(
       secure = true,
       description = "Counts all operations and interactions towards the SMT solver.")
@@ -224,15 +248,29 @@ public class SolverContextFactory {
     if (useLogger) {
       context = new LoggingSolverContext(logger, context);
     }
+    if (usePortfolio) {
+      context = new PortfolioSolverContext(config, logger, shutdownNotifier, context, loader);
+    }
     if (synchronize) {
       context = new SynchronizedSolverContext(config, logger, shutdownNotifier, context);
     }
+    if (useQueryCache) {
+      context = new QueryCacheSolverContext(config, logger, context);
+    }
     if (useDebugMode) {
       context = new DebuggingSolverContext(solverToCreate, config, context);
     }
+    if (recordTrace) {
+      try {
+        context = new TraceSolverContext(config, logger, context);
+      } catch (InvalidConfigurationException e) {
+        context.close();
+        throw e;
+      }
+    }
     if (collectStatistics) {
       // statistics need to be the most outer wrapping layer.
-      context = new StatisticsSolverContext(context);
+      context = new StatisticsSolverContext(config, logger, context);
     }
 
     return context;
@@ -9,6 +9,9 @@
 package org.sosy_lab.java_smt.api;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.rationals.Rational;
 import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
@@ -113,6 +116,41 @@ public interface Evaluator extends AutoCloseable {
    */
   @Nullable FloatingPointNumber evaluate(FloatingPointFormula formula);
 
+  /**
+   * Evaluate several formulas at once, like {@link #evaluate(Formula)} for each of them. Depending
+   * on the solver, this can be considerably cheaper than evaluating each formula on its own.
+   *
+   * @param formulas Input formulas, none of them may be an array formula.
+   * @return an unmodifiable list with the evaluation of each formula at the same position, or
+   *     <code>null</code> for formulas without evaluation.
+   * @throws IllegalArgumentException if a formula has unexpected type, e.g. Array.
+   */
+  default List<@Nullable Object> evaluateAll(List<? extends Formula> formulas) {
+    List<@Nullable Object> result = new ArrayList<>(formulas.size());
+    for (Formula formula : formulas) {
+      result.add(evaluate(formula));
+    }
+    return Collections.unmodifiableList(result);
+  }
+
+  /** Type-safe evaluation of several boolean formulas at once, see {@link #evaluateAll(List)}. */
+  default List<@Nullable Boolean> evaluateAllBooleans(List<BooleanFormula> formulas) {
+    List<@Nullable Boolean> result = new ArrayList<>(formulas.size());
+    for (Object value : evaluateAll(formulas)) {
+      result.add((Boolean) value);
+    }
+    return Collections.unmodifiableList(result);
+  }
+
+  /** Type-safe evaluation of several bitvector formulas at once, see {@link #evaluateAll(List)}. */
+  default List<@Nullable BigInteger> evaluateAllBitvectors(List<BitvectorFormula> formulas) {
+    List<@Nullable BigInteger> result = new ArrayList<>(formulas.size());
+    for (Object value : evaluateAll(formulas)) {
+      result.add((BigInteger) value);
+    }
+    return Collections.unmodifiableList(result);
+  }
+
   /**
    * Free resources associated with this evaluator (existing {@link Formula} instances stay valid,
    * but {@link #evaluate(Formula)} etc. must not be called again).
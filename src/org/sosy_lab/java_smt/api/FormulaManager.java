@@ -8,8 +8,15 @@
 
 package org.sosy_lab.java_smt.api;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import org.sosy_lab.common.Appender;
@@ -147,6 +154,34 @@ public interface FormulaManager {
    */
   BooleanFormula parse(String s) throws IllegalArgumentException;
 
+  /**
+   * Parse a boolean formula given in an SMTLIB file format from a stream, like {@link
+   * #parse(String)}.
+   *
+   * <p>The input is tokenized while it is read, thus large scripts do not need to be kept in memory
+   * as a whole. Comments and unsupported commands are dropped before the remaining script is passed
+   * to the SMT solver. The reader is not closed by this method.
+   *
+   * @return A single formula from the assertion in the internal representation.
+   * @throws IOException If reading from the input fails.
+   * @throws IllegalArgumentException If the input cannot be parsed.
+   */
+  BooleanFormula parse(Reader input) throws IOException, IllegalArgumentException;
+
+  /**
+   * Parse a boolean formula from a file in SMTLIB format (encoded in UTF-8), like {@link
+   * #parse(String)}.
+   *
+   * @see #parse(Reader)
+   * @throws IOException If reading the file fails.
+   * @throws IllegalArgumentException If the file content cannot be parsed.
+   */
+  default BooleanFormula parse(Path file) throws IOException, IllegalArgumentException {
+    try (Reader input = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      return parse(input);
+    }
+  }
+
   /**
    * Serialize an input formula to an SMT-LIB format. Very useful when passing formulas between
    * different solvers.
@@ -233,6 +268,16 @@ public interface FormulaManager {
    */
   <T extends Formula> T transformRecursively(T f, FormulaTransformationVisitor pFormulaVisitor);
 
+  /**
+   * Create a session for transforming many formulas with the same {@link
+   * FormulaTransformationVisitor}, see {@link #transformRecursively}. The session caches the
+   * transformed sub terms across calls, thus sub terms that are shared between the transformed
+   * formulas are visited only once.
+   *
+   * @param pFormulaVisitor Transformation described by the user.
+   */
+  TransformationSession newTransformationSession(FormulaTransformationVisitor pFormulaVisitor);
+
   /**
    * Extract the names of all free variables and UFs in a formula.
    *
@@ -264,6 +309,27 @@ public interface FormulaManager {
    */
   <T extends Formula> T substitute(T f, Map<? extends Formula, ? extends Formula> fromToMapping);
 
+  /**
+   * Substitute every occurrence of any item from {@code changeFrom} in all given formulas to the
+   * corresponding occurrence from {@code changeTo}, see {@link #substitute(Formula, Map)}. Sub
+   * terms that are shared between the formulas are substituted only once.
+   *
+   * @param formulas Formulas to change.
+   * @param fromToMapping Mapping of old and new formula parts.
+   * @return Formulas with parts replaced, in the order of the given formulas.
+   */
+  <T extends Formula> ImmutableList<T> substitute(
+      Collection<T> formulas, Map<? extends Formula, ? extends Formula> fromToMapping);
+
+  /**
+   * Create a session for applying the same substitution to many formulas, see {@link
+   * #substitute(Formula, Map)}. The session caches the substituted sub terms across calls.
+   *
+   * @param fromToMapping Mapping of old and new formula parts. The mapping is used by the session
+   *     until it is discarded and must not be changed.
+   */
+  TransformationSession newSubstitution(Map<? extends Formula, ? extends Formula> fromToMapping);
+
   /**
    * Translates the formula from another context into the context represented by {@code this}.
    * Default implementation relies on string serialization ({@link #dumpFormula(BooleanFormula)} and
@@ -17,6 +17,8 @@ import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.google.errorprone.annotations.Immutable;
 import java.util.List;
 import java.util.Set;
@@ -26,14 +28,26 @@ import org.sosy_lab.java_smt.api.NumeralFormula.RationalFormula;
 /**
  * Type of a formula.
  *
+ * <p>The instances of bitvector, floating-point, and array types are interned, i.e., equal types
+ * are represented by the same instance, as long as it is in use. This avoids allocating a new
+ * instance whenever the type of a formula is computed.
+ *
  * @param <T> Formula class corresponding to the given formula type.
  */
 @SuppressWarnings("checkstyle:constantname")
 @Immutable
 public abstract class FormulaType<T extends Formula> {
 
+  /** Canonical instances of the parameterized types. */
+  private static final Interner<FormulaType<?>> INTERNER = Interners.newWeakInterner();
+
   private FormulaType() {}
 
+  @SuppressWarnings("unchecked")
+  private static <T extends FormulaType<?>> T intern(T pType) {
+    return (T) INTERNER.intern(pType);
+  }
+
   public boolean isArrayType() {
     return false;
   }
@@ -157,11 +171,24 @@ public abstract class FormulaType<T extends Formula> {
       };
 
   public static BitvectorType getBitvectorTypeWithSize(int size) {
-    return new BitvectorType(size);
+    if (size > 0 && size <= BitvectorType.SMALL_TYPES.length) {
+      return BitvectorType.SMALL_TYPES[size - 1];
+    }
+    return intern(new BitvectorType(size));
   }
 
   @Immutable
   public static final class BitvectorType extends FormulaType<BitvectorFormula> {
+
+    /** The most common bitvector types, which we keep without lookup in the interner. */
+    private static final BitvectorType[] SMALL_TYPES = new BitvectorType[64];
+
+    static {
+      for (int i = 0; i < SMALL_TYPES.length; i++) {
+        SMALL_TYPES[i] = intern(new BitvectorType(i + 1));
+      }
+    }
+
     private final int size;
 
     private BitvectorType(int size) {
@@ -206,7 +233,7 @@ public abstract class FormulaType<T extends Formula> {
   }
 
   public static FloatingPointType getFloatingPointType(int exponentSize, int mantissaSize) {
-    return new FloatingPointType(exponentSize, mantissaSize);
+    return intern(new FloatingPointType(exponentSize, mantissaSize));
   }
 
   public static FloatingPointType getSinglePrecisionFloatingPointType() {
@@ -221,9 +248,11 @@ public abstract class FormulaType<T extends Formula> {
   public static final class FloatingPointType extends FormulaType<FloatingPointFormula> {
 
     private static final FloatingPointType SINGLE_PRECISION_FP_TYPE =
-        new FloatingPointType(SINGLE_PRECISION_EXPONENT_SIZE, SINGLE_PRECISION_MANTISSA_SIZE);
+        intern(
+            new FloatingPointType(SINGLE_PRECISION_EXPONENT_SIZE, SINGLE_PRECISION_MANTISSA_SIZE));
     private static final FloatingPointType DOUBLE_PRECISION_FP_TYPE =
-        new FloatingPointType(DOUBLE_PRECISION_EXPONENT_SIZE, DOUBLE_PRECISION_MANTISSA_SIZE);
+        intern(
+            new FloatingPointType(DOUBLE_PRECISION_EXPONENT_SIZE, DOUBLE_PRECISION_MANTISSA_SIZE));
 
     private final int exponentSize;
     private final int mantissaSize;
@@ -305,7 +334,7 @@ public abstract class FormulaType<T extends Formula> {
   @SuppressWarnings("MethodTypeParameterName")
   public static <TD extends Formula, TR extends Formula> ArrayFormulaType<TD, TR> getArrayType(
       FormulaType<TD> pDomainSort, FormulaType<TR> pRangeSort) {
-    return new ArrayFormulaType<>(pDomainSort, pRangeSort);
+    return intern(new ArrayFormulaType<>(pDomainSort, pRangeSort));
   }
 
   @SuppressWarnings("ClassTypeParameterName")
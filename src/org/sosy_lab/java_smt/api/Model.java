@@ -8,12 +8,19 @@
 
 package org.sosy_lab.java_smt.api;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 import org.sosy_lab.java_smt.api.Model.ValueAssignment;
 
 /**
@@ -58,6 +65,35 @@ public interface Model extends Evaluator, Iterable<ValueAssignment>, AutoCloseab
   /** Build a list of assignments that stays valid after closing the model. */
   ImmutableList<ValueAssignment> asList();
 
+  /**
+   * Stream over all values present in the model, like {@link #iterator()}. Some solvers decode the
+   * assignments lazily, such that a consumer that stops early does not pay for decoding the whole
+   * model. The stream must be consumed before the model is closed.
+   */
+  default Stream<ValueAssignment> stream() {
+    return asList().stream();
+  }
+
+  /**
+   * Build a list of the assignments of all symbols whose name matches the given filter, see {@link
+   * ValueAssignment#getName()}. The result is the same as filtering {@link #asList()}, but some
+   * solvers only decode the assignments of matching symbols.
+   */
+  default ImmutableList<ValueAssignment> asList(Predicate<String> nameFilter) {
+    return stream().filter(a -> nameFilter.test(a.getName())).collect(toImmutableList());
+  }
+
+  /**
+   * Build a list of the assignments whose key is one of the given formulas, e.g., a variable of
+   * simple type, or the application of an uninterpreted function to concrete arguments, see {@link
+   * ValueAssignment#getKey()}. The result is the same as filtering {@link #asList()}, but some
+   * solvers only decode the assignments of the given symbols.
+   */
+  default ImmutableList<ValueAssignment> assignmentsFor(Collection<? extends Formula> keys) {
+    Set<Formula> keySet = ImmutableSet.copyOf(keys);
+    return stream().filter(a -> keySet.contains(a.getKey())).collect(toImmutableList());
+  }
+
   /**
    * Pretty-printing of the model values.
    *
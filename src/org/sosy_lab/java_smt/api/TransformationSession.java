@@ -0,0 +1,37 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.api;
+
+import org.sosy_lab.java_smt.api.visitors.FormulaTransformationVisitor;
+
+/**
+ * A recursive transformation of formulas that keeps its cache of transformed sub terms across
+ * calls. It can be created via {@link FormulaManager#newTransformationSession} for any {@link
+ * FormulaTransformationVisitor}, or via {@link FormulaManager#newSubstitution} for a substitution.
+ *
+ * <p>Applying the same transformation with {@link FormulaManager#transformRecursively} to many
+ * formulas that share large sub terms traverses the shared sub terms again for each formula. A
+ * session transforms each sub term only once, as long as its result is cached. The cache is bounded
+ * and is cleared after a call that let it grow too large, or explicitly via {@link #clearCache()}.
+ *
+ * <p>The visitor of a session should not depend on state that changes between calls, because the
+ * cached results of earlier calls are reused. A session belongs to the context of the formula
+ * manager that created it, must not be used after the context was closed, and is not thread-safe.
+ */
+public interface TransformationSession {
+
+  /**
+   * Transform the formula recursively, see {@link FormulaManager#transformRecursively}, reusing the
+   * results for all sub terms that were already transformed in this session.
+   */
+  <T extends Formula> T transform(T f);
+
+  /** Remove all cached results of this session. */
+  void clearCache();
+}
@@ -10,6 +10,9 @@ package org.sosy_lab.java_smt.basicimpl;
 
 import com.google.common.base.Preconditions;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.rationals.Rational;
 import org.sosy_lab.java_smt.api.ArrayFormula;
@@ -109,6 +112,26 @@ public abstract class AbstractEvaluator<TFormulaInfo, TType, TEnv> implements Ev
     return evaluateImpl(creator.extractInfo(f));
   }
 
+  @Override
+  public final List<@Nullable Object> evaluateAll(List<? extends Formula> pFormulas) {
+    Preconditions.checkState(!isClosed());
+    List<TFormulaInfo> terms = new ArrayList<>(pFormulas.size());
+    for (Formula f : pFormulas) {
+      Preconditions.checkArgument(
+          !(f instanceof ArrayFormula),
+          "cannot compute a simple constant evaluation for an array-formula");
+      terms.add(creator.extractInfo(f));
+    }
+    List<@Nullable TFormulaInfo> evaluations = evalAllImpl(terms);
+    Preconditions.checkState(evaluations.size() == terms.size());
+    List<@Nullable Object> result = new ArrayList<>(terms.size());
+    for (int i = 0; i < terms.size(); i++) {
+      TFormulaInfo evaluation = evaluations.get(i);
+      result.add(evaluation == null ? null : creator.convertValue(terms.get(i), evaluation));
+    }
+    return Collections.unmodifiableList(result);
+  }
+
   /**
    * Simplify the given formula and replace all symbols with their model values. If a symbol is not
    * set in the model and evaluation aborts, return <code>null</code>.
@@ -116,6 +139,19 @@ public abstract class AbstractEvaluator<TFormulaInfo, TType, TEnv> implements Ev
   @Nullable
   protected abstract TFormulaInfo evalImpl(TFormulaInfo formula);
 
+  /**
+   * Evaluate several formulas like {@link #evalImpl}, the result contains the evaluation of each
+   * formula at the same position. Solvers that can evaluate several terms with one native call
+   * should override this method.
+   */
+  protected List<@Nullable TFormulaInfo> evalAllImpl(List<TFormulaInfo> formulas) {
+    List<@Nullable TFormulaInfo> result = new ArrayList<>(formulas.size());
+    for (TFormulaInfo formula : formulas) {
+      result.add(evalImpl(formula));
+    }
+    return result;
+  }
+
   /**
    * Simplify the given formula and replace all symbols with their model values. If a symbol is not
    * set in the model and evaluation aborts, return <code>null</code>. Afterwards convert the
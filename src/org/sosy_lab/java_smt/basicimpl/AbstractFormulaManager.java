@@ -14,14 +14,23 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.CharMatcher;
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableBiMap;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.Appender;
 import org.sosy_lab.common.Appenders;
@@ -43,6 +52,7 @@ import org.sosy_lab.java_smt.api.SLFormulaManager;
 import org.sosy_lab.java_smt.api.SolverException;
 import org.sosy_lab.java_smt.api.StringFormulaManager;
 import org.sosy_lab.java_smt.api.Tactic;
+import org.sosy_lab.java_smt.api.TransformationSession;
 import org.sosy_lab.java_smt.api.visitors.FormulaTransformationVisitor;
 import org.sosy_lab.java_smt.api.visitors.FormulaVisitor;
 import org.sosy_lab.java_smt.api.visitors.TraversalProcess;
@@ -101,6 +111,9 @@ public abstract class AbstractFormulaManager<TFormulaInfo, TType, TEnv, TFuncDec
 
   private static final char ESCAPE = '$'; // just some allowed symbol, can be any char
 
+  /** Maximum number of cached subterms for translating formulas from one other context. */
+  private static final int TRANSLATION_CACHE_SIZE = 100_000;
+
   private final @Nullable AbstractArrayFormulaManager<TFormulaInfo, TType, TEnv, TFuncDecl>
       arrayManager;
 
@@ -131,6 +144,17 @@ public abstract class AbstractFormulaManager<TFormulaInfo, TType, TEnv, TFuncDec
 
   private final FormulaCreator<TFormulaInfo, TType, TEnv, TFuncDecl> formulaCreator;
 
+  /**
+   * Caches for translating formulas from other contexts into this context, one cache per other
+   * context. The caches are dropped as soon as the other context is no longer referenced.
+   */
+  private final LoadingCache<FormulaManager, Cache<Formula, Formula>> translationCaches =
+      CacheBuilder.newBuilder()
+          .weakKeys()
+          .build(
+              CacheLoader.from(
+                  () -> CacheBuilder.newBuilder().maximumSize(TRANSLATION_CACHE_SIZE).build()));
+
   /** Builds a solver from the given theory implementations. */
   @SuppressWarnings("checkstyle:parameternumber")
   protected AbstractFormulaManager(
@@ -275,19 +299,47 @@ public abstract class AbstractFormulaManager<TFormulaInfo, TType, TEnv, TFuncDec
    * only occur as the last command.
    */
   private String sanitize(String formulaStr) {
-    List<String> tokens = Tokenizer.tokenize(formulaStr);
+    try {
+      return sanitize(new StringReader(formulaStr));
+    } catch (IOException e) {
+      throw new AssertionError("StringReader does not throw IOException", e);
+    }
+  }
 
+  /**
+   * Takes a SMT-LIB2 script from a stream and cleans it up like {@link #sanitize(String)}. The
+   * commands are processed while the input is read, thus only the cleaned up script is kept in
+   * memory, but not the input.
+   */
+  private String sanitize(Reader input) throws IOException {
     StringBuilder builder = new StringBuilder();
-    int pos = 0; // index of the current token
+    Tokenizer.tokenize(input, new ScriptSanitizer(builder));
+    return builder.toString();
+  }
+
+  /** Filters the commands of an SMT-LIB2 script, see {@link #sanitize(String)}. */
+  private static final class ScriptSanitizer implements Consumer<String> {
+
+    private final StringBuilder builder;
+    private int pos = 0; // index of the current token
+    private boolean exited = false;
+
+    private ScriptSanitizer(StringBuilder pBuilder) {
+      builder = pBuilder;
+    }
+
+    @Override
+    public void accept(String token) {
+      // The (exit) command must be the last command of the input
+      Preconditions.checkArgument(!exited);
 
-    for (String token : tokens) {
       if (Tokenizer.isSetLogicToken(token)) {
         // Skip the (set-logic ...) command at the beginning of the input
         Preconditions.checkArgument(pos == 0);
 
       } else if (Tokenizer.isExitToken(token)) {
         // Skip the (exit) command at the end of the input
-        Preconditions.checkArgument(pos == tokens.size() - 1);
+        exited = true;
 
       } else if (Tokenizer.isDeclarationToken(token)
           || Tokenizer.isDefinitionToken(token)
@@ -322,7 +374,6 @@ public abstract class AbstractFormulaManager<TFormulaInfo, TType, TEnv, TFuncDec
       }
       pos++;
     }
-    return builder.toString();
   }
 
   @Override
@@ -330,6 +381,11 @@ public abstract class AbstractFormulaManager<TFormulaInfo, TType, TEnv, TFuncDec
     return formulaCreator.encapsulateBoolean(parseImpl(sanitize(formulaStr)));
   }
 
+  @Override
+  public BooleanFormula parse(Reader input) throws IOException, IllegalArgumentException {
+    return formulaCreator.encapsulateBoolean(parseImpl(sanitize(input)));
+  }
+
   protected abstract String dumpFormulaImpl(TFormulaInfo t) throws IOException;
 
   @Override
@@ -454,6 +510,12 @@ public abstract class AbstractFormulaManager<TFormulaInfo, TType, TEnv, TFuncDec
     return formulaCreator.transformRecursively(pFormulaVisitor, f);
   }
 
+  @Override
+  public TransformationSession newTransformationSession(
+      FormulaTransformationVisitor pFormulaVisitor) {
+    return new TransformationSessionImpl(formulaCreator, pFormulaVisitor);
+  }
+
   /**
    * Extract names of all free variables in a formula.
    *
@@ -480,12 +542,23 @@ public abstract class AbstractFormulaManager<TFormulaInfo, TType, TEnv, TFuncDec
     return found.buildKeepingLast();
   }
 
+  /**
+   * Translate the formula from another context by visiting it and rebuilding it in this context.
+   * Translated subterms are cached per other context, such that shared and repeatedly translated
+   * subterms are handled only once. If the formula contains an operation that can not be rebuilt
+   * directly, we fall back to dumping and parsing the formula in SMT-LIB2 format.
+   */
   @Override
   public BooleanFormula translateFrom(BooleanFormula formula, FormulaManager otherManager) {
     if (this == otherManager) {
       return formula; // shortcut
     }
-    return parse(otherManager.dumpFormula(formula).toString());
+    try {
+      return new FormulaTranslator(this, otherManager, translationCaches.getUnchecked(otherManager))
+          .translate(formula);
+    } catch (UnsupportedOperationException | IllegalArgumentException e) {
+      return parse(otherManager.dumpFormula(formula).toString());
+    }
   }
 
   @Override
@@ -548,34 +621,59 @@ public abstract class AbstractFormulaManager<TFormulaInfo, TType, TEnv, TFuncDec
   @Override
   public <T extends Formula> T substitute(
       final T pF, final Map<? extends Formula, ? extends Formula> pFromToMapping) {
-    return transformRecursively(
-        pF,
-        new FormulaTransformationVisitor(this) {
-          @Override
-          public Formula visitFreeVariable(Formula f, String name) {
-            return replace(f);
-          }
+    return transformRecursively(pF, new SubstitutionVisitor(pFromToMapping));
+  }
 
-          @Override
-          public Formula visitFunction(
-              Formula f, List<Formula> newArgs, FunctionDeclaration<?> functionDeclaration) {
-            Formula out = pFromToMapping.get(f);
-            if (out == null) {
-              return makeApplication(functionDeclaration, newArgs);
-            } else {
-              return out;
-            }
-          }
+  @Override
+  public <T extends Formula> ImmutableList<T> substitute(
+      Collection<T> pFormulas, Map<? extends Formula, ? extends Formula> pFromToMapping) {
+    TransformationSession substitution = newSubstitution(pFromToMapping);
+    ImmutableList.Builder<T> result = ImmutableList.builderWithExpectedSize(pFormulas.size());
+    for (T f : pFormulas) {
+      result.add(substitution.transform(f));
+    }
+    return result.build();
+  }
 
-          private Formula replace(Formula f) {
-            Formula out = pFromToMapping.get(f);
-            if (out == null) {
-              return f;
-            } else {
-              return out;
-            }
-          }
-        });
+  @Override
+  public TransformationSession newSubstitution(
+      Map<? extends Formula, ? extends Formula> pFromToMapping) {
+    return newTransformationSession(new SubstitutionVisitor(pFromToMapping));
+  }
+
+  private final class SubstitutionVisitor extends FormulaTransformationVisitor {
+
+    private final Map<? extends Formula, ? extends Formula> fromToMapping;
+
+    private SubstitutionVisitor(Map<? extends Formula, ? extends Formula> pFromToMapping) {
+      super(AbstractFormulaManager.this);
+      fromToMapping = checkNotNull(pFromToMapping);
+    }
+
+    @Override
+    public Formula visitFreeVariable(Formula f, String name) {
+      return replace(f);
+    }
+
+    @Override
+    public Formula visitFunction(
+        Formula f, List<Formula> newArgs, FunctionDeclaration<?> functionDeclaration) {
+      Formula out = fromToMapping.get(f);
+      if (out == null) {
+        return makeApplication(functionDeclaration, newArgs);
+      } else {
+        return out;
+      }
+    }
+
+    private Formula replace(Formula f) {
+      Formula out = fromToMapping.get(f);
+      if (out == null) {
+        return f;
+      } else {
+        return out;
+      }
+    }
   }
 
   /**
@@ -12,14 +12,17 @@ import static com.google.common.base.Preconditions.checkState;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Multimap;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.java_smt.api.BasicProverEnvironment;
@@ -134,6 +137,17 @@ public abstract class AbstractProver<T> implements BasicProverEnvironment<T> {
     return builder.build();
   }
 
+  /** Returns all asserted formulas by the ids that were returned for their assertions. */
+  protected ImmutableMap<T, BooleanFormula> getAssertedFormulasById() {
+    Map<T, BooleanFormula> formulas = new LinkedHashMap<>();
+    for (Multimap<BooleanFormula, T> level : assertedFormulas) {
+      for (Map.Entry<BooleanFormula, T> entry : level.entries()) {
+        formulas.put(entry.getValue(), entry.getKey());
+      }
+    }
+    return ImmutableMap.copyOf(formulas);
+  }
+
   /**
    * This method registers the Evaluator to be cleaned up before the next change on the prover
    * stack.
@@ -14,10 +14,12 @@ import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.List;
 import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.BooleanFormulaManager;
 import org.sosy_lab.java_smt.api.Evaluator;
+import org.sosy_lab.java_smt.api.FormulaManager;
 import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
 import org.sosy_lab.java_smt.api.SolverException;
 
@@ -25,18 +27,22 @@ import org.sosy_lab.java_smt.api.SolverException;
  * This class is a utility-class to avoid repeated implementation of the AllSAT computation.
  *
  * <p>If a solver does not support direct AllSAT computation, please inherit from this class.
+ *
+ * <p>The model-based computation reports partial assignments where possible: important predicates
+ * that are Boolean variables and are not needed to satisfy the asserted formulas in a model are
+ * left out, see {@link AllSatGeneralizer}.
  */
 public abstract class AbstractProverWithAllSat<T> extends AbstractProver<T> {
 
   protected final ShutdownNotifier shutdownNotifier;
+  private final FormulaManager fmgr;
   private final BooleanFormulaManager bmgr;
 
   protected AbstractProverWithAllSat(
-      Set<ProverOptions> pOptions,
-      BooleanFormulaManager pBmgr,
-      ShutdownNotifier pShutdownNotifier) {
+      Set<ProverOptions> pOptions, FormulaManager pMgr, ShutdownNotifier pShutdownNotifier) {
     super(pOptions);
-    bmgr = pBmgr;
+    fmgr = pMgr;
+    bmgr = pMgr.getBooleanFormulaManager();
     shutdownNotifier = pShutdownNotifier;
   }
 
@@ -67,22 +73,32 @@ public abstract class AbstractProverWithAllSat<T> extends AbstractProver<T> {
   private <R> void iterateOverAllModels(
       AllSatCallback<R> callback, List<BooleanFormula> importantPredicates)
       throws SolverException, InterruptedException {
+    // the generalizer only considers the assertions from before the first blocking clause.
+    AllSatGeneralizer generalizer =
+        AllSatGeneralizer.create(fmgr, getAssertedFormulas(), importantPredicates);
+    @Nullable Boolean[] predicateValues = new Boolean[importantPredicates.size()];
+
     while (!isUnsat()) {
       shutdownNotifier.shutdownIfNecessary();
 
-      ImmutableList.Builder<BooleanFormula> valuesOfModel = ImmutableList.builder();
       try (Evaluator evaluator = getEvaluatorWithoutChecks()) {
-        for (BooleanFormula formula : importantPredicates) {
-          Boolean value = evaluator.evaluate(formula);
-          if (value == null) {
-            // This is a legal return value for evaluation.
-            // The value doesn't matter. We ignore this assignment.
-            // This step aim for shortcutting the ALLSAT-loop.
-          } else if (value) {
-            valuesOfModel.add(formula);
-          } else {
-            valuesOfModel.add(bmgr.not(formula));
-          }
+        for (int i = 0; i < predicateValues.length; i++) {
+          predicateValues[i] = evaluator.evaluate(importantPredicates.get(i));
+        }
+        generalizer.generalize(evaluator, predicateValues);
+      }
+
+      ImmutableList.Builder<BooleanFormula> valuesOfModel = ImmutableList.builder();
+      for (int i = 0; i < predicateValues.length; i++) {
+        BooleanFormula formula = importantPredicates.get(i);
+        if (predicateValues[i] == null) {
+          // This is a legal return value for evaluation.
+          // The value doesn't matter. We ignore this assignment.
+          // This step aim for shortcutting the ALLSAT-loop.
+        } else if (predicateValues[i]) {
+          valuesOfModel.add(formula);
+        } else {
+          valuesOfModel.add(bmgr.not(formula));
         }
       }
 
@@ -0,0 +1,576 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Ints;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.Evaluator;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.FunctionDeclarationKind;
+import org.sosy_lab.java_smt.api.QuantifiedFormulaManager.Quantifier;
+import org.sosy_lab.java_smt.api.visitors.BooleanFormulaVisitor;
+
+/**
+ * Shrinks the assignments that are reported by a model-based AllSAT computation.
+ *
+ * <p>For each model, we determine which atoms of the Boolean skeleton of the asserted formulas are
+ * needed to justify that all assertions are satisfied, e.g., only one satisfied operand of a
+ * disjunction is needed. An important predicate that is a Boolean variable, is not needed for the
+ * justification, and does not appear inside any other atom or predicate, can take any value without
+ * violating the assertions. Such predicates are dropped from the reported assignment and from the
+ * blocking clause, which covers several models with one assignment and thus saves sat checks.
+ *
+ * <p>Dropped predicates are restored if the assignment would otherwise overlap with an assignment
+ * that was reported before, such that all reported assignments are disjoint.
+ *
+ * <p>The Boolean skeleton is extracted once and then evaluated in Java for each model. Only atoms
+ * that are not important predicates are evaluated by the solver, and only if they are needed.
+ */
+final class AllSatGeneralizer {
+
+  private enum Kind {
+    CONSTANT,
+    ATOM,
+    NOT,
+    AND,
+    OR,
+    XOR,
+    EQUIVALENCE,
+    IMPLICATION,
+    IF_THEN_ELSE,
+  }
+
+  // values of nodes in the current model
+  private static final byte UNEVALUATED = 0;
+  private static final byte FALSE = 1;
+  private static final byte TRUE = 2;
+  private static final byte UNKNOWN = 3;
+
+  /** A node of the Boolean skeleton. Quantified formulas are atoms. */
+  private static final class Node {
+    final Kind kind;
+    final int[] children;
+    final @Nullable BooleanFormula atom;
+    final boolean isVariable;
+    final boolean constant;
+
+    Node(
+        Kind pKind,
+        int[] pChildren,
+        @Nullable BooleanFormula pAtom,
+        boolean pIsVariable,
+        boolean pConstant) {
+      kind = pKind;
+      children = pChildren;
+      atom = pAtom;
+      isVariable = pIsVariable;
+      constant = pConstant;
+    }
+  }
+
+  private final ImmutableList<Node> nodes;
+  private final int[] roots;
+
+  /** Skeleton node of each predicate. */
+  private final int[] predicateNodes;
+
+  /** Indices of predicates that can be dropped if they are not needed for the justification. */
+  private final BitSet droppable;
+
+  /** Previously reported assignments as positive and negative predicate indices. */
+  private final List<BitSet> reportedPositive = new ArrayList<>();
+
+  private final List<BitSet> reportedNegative = new ArrayList<>();
+
+  private AllSatGeneralizer(
+      ImmutableList<Node> pNodes, int[] pRoots, int[] pPredicateNodes, BitSet pDroppable) {
+    nodes = pNodes;
+    roots = pRoots;
+    predicateNodes = pPredicateNodes;
+    droppable = pDroppable;
+  }
+
+  /**
+   * Create a generalizer for the given assertions and predicates. If no predicate can ever be
+   * dropped or the solver does not support the necessary formula traversal, the generalizer keeps
+   * all values unchanged.
+   */
+  static AllSatGeneralizer create(
+      FormulaManager pMgr,
+      Collection<BooleanFormula> pAssertions,
+      List<BooleanFormula> pPredicates) {
+    try {
+      SkeletonBuilder builder = new SkeletonBuilder(pMgr.getBooleanFormulaManager());
+      int[] roots = new int[pAssertions.size()];
+      int r = 0;
+      for (BooleanFormula assertion : pAssertions) {
+        roots[r++] = builder.indexOf(assertion);
+      }
+      // predicates are part of the skeleton, even if they do not appear in the assertions.
+      int[] predicateNodes = new int[pPredicates.size()];
+      for (int i = 0; i < predicateNodes.length; i++) {
+        predicateNodes[i] = builder.indexOf(pPredicates.get(i));
+      }
+      ImmutableList<Node> nodes = builder.build();
+
+      // only Boolean variables can be assigned freely
+      Map<BooleanFormula, Integer> candidates = new HashMap<>();
+      for (int i = 0; i < predicateNodes.length; i++) {
+        if (nodes.get(predicateNodes[i]).isVariable) {
+          candidates.put(pPredicates.get(i), i);
+        }
+      }
+
+      // a variable that appears inside another predicate determines the value of that predicate
+      for (int i = 0; i < predicateNodes.length && !candidates.isEmpty(); i++) {
+        if (!nodes.get(predicateNodes[i]).isVariable) {
+          candidates.keySet().removeAll(pMgr.extractVariablesAndUFs(pPredicates.get(i)).values());
+        }
+      }
+
+      // a variable that appears inside an atom can not be assigned independently of the atom
+      for (Node node : nodes) {
+        if (candidates.isEmpty()) {
+          return withoutGeneralization(pPredicates.size());
+        }
+        if (node.kind == Kind.ATOM && !node.isVariable) {
+          candidates.keySet().removeAll(pMgr.extractVariablesAndUFs(node.atom).values());
+        }
+      }
+      if (candidates.isEmpty()) {
+        return withoutGeneralization(pPredicates.size());
+      }
+
+      BitSet droppable = new BitSet(pPredicates.size());
+      candidates.values().forEach(droppable::set);
+      return new AllSatGeneralizer(nodes, roots, predicateNodes, droppable);
+
+    } catch (UnsupportedOperationException e) {
+      // the solver does not support visiting formulas
+      return withoutGeneralization(pPredicates.size());
+    }
+  }
+
+  /** Create a generalizer that never drops a predicate. */
+  private static AllSatGeneralizer withoutGeneralization(int pNumberOfPredicates) {
+    return new AllSatGeneralizer(
+        ImmutableList.of(), new int[0], new int[pNumberOfPredicates], new BitSet());
+  }
+
+  /**
+   * Replace the values of all predicates by null that are not needed for the current model.
+   *
+   * @param evaluator an evaluator for the current model.
+   * @param values the values of the predicates in the current model, null for unknown values. The
+   *     array is modified in place.
+   */
+  void generalize(Evaluator evaluator, @Nullable Boolean[] values) {
+    checkNotNull(evaluator);
+    checkNotNull(values);
+    if (droppable.isEmpty()) {
+      // no predicate can be dropped, thus also no reported assignment needs to be remembered
+      return;
+    }
+    BitSet neededNodes = new Justification(evaluator, values).neededNodes();
+    if (neededNodes != null) {
+      BitSet dropped = new BitSet(values.length);
+      for (int i = droppable.nextSetBit(0); i >= 0; i = droppable.nextSetBit(i + 1)) {
+        if (values[i] != null && !neededNodes.get(predicateNodes[i])) {
+          dropped.set(i);
+        }
+      }
+      restoreDisjointness(values, dropped);
+      for (int i = dropped.nextSetBit(0); i >= 0; i = dropped.nextSetBit(i + 1)) {
+        values[i] = null;
+      }
+    }
+
+    BitSet positive = new BitSet(values.length);
+    BitSet negative = new BitSet(values.length);
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] != null) {
+        (values[i] ? positive : negative).set(i);
+      }
+    }
+    reportedPositive.add(positive);
+    reportedNegative.add(negative);
+  }
+
+  /**
+   * The current model differs from each reported assignment in at least one predicate. If all such
+   * predicates would be dropped, we keep one of them.
+   */
+  private void restoreDisjointness(@Nullable Boolean[] values, BitSet dropped) {
+    if (dropped.isEmpty()) {
+      return;
+    }
+    BitSet positive = new BitSet(values.length);
+    BitSet negative = new BitSet(values.length);
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] != null && !dropped.get(i)) {
+        (values[i] ? positive : negative).set(i);
+      }
+    }
+    for (int j = 0; j < reportedPositive.size(); j++) {
+      BitSet otherPositive = reportedPositive.get(j);
+      BitSet otherNegative = reportedNegative.get(j);
+      if (!otherPositive.intersects(negative) && !otherNegative.intersects(positive)) {
+        for (int i = dropped.nextSetBit(0); i >= 0; i = dropped.nextSetBit(i + 1)) {
+          if (values[i] ? otherNegative.get(i) : otherPositive.get(i)) {
+            dropped.clear(i);
+            (values[i] ? positive : negative).set(i);
+            break;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Computes the nodes that justify the value of all assertions in a model. The skeleton is
+   * traversed top-down with an explicit waitlist, and the values of subformulas are only computed
+   * when we need to choose between several operands.
+   */
+  private final class Justification {
+
+    private final Evaluator evaluator;
+    private final byte[] nodeValues = new byte[nodes.size()];
+    private final BitSet justifiedTrue = new BitSet(nodes.size());
+    private final BitSet justifiedFalse = new BitSet(nodes.size());
+    private final Deque<Integer> waitlist = new ArrayDeque<>();
+
+    private Justification(Evaluator pEvaluator, @Nullable Boolean[] pPredicateValues) {
+      evaluator = pEvaluator;
+      for (int i = 0; i < predicateNodes.length; i++) {
+        nodeValues[predicateNodes[i]] = toByte(pPredicateValues[i]);
+      }
+    }
+
+    /** Returns the needed nodes, or null if the model does not determine all needed values. */
+    @Nullable BitSet neededNodes() {
+      for (int root : roots) {
+        if (!require(root, true)) {
+          return null;
+        }
+      }
+      while (!waitlist.isEmpty()) {
+        int node = waitlist.pop();
+        boolean expected = justifiedTrue.get(node);
+        if (!justify(nodes.get(node), expected)) {
+          return null;
+        }
+      }
+      BitSet needed = (BitSet) justifiedTrue.clone();
+      needed.or(justifiedFalse);
+      return needed;
+    }
+
+    /** Add the children that are needed for the node to have the expected value. */
+    private boolean justify(Node node, boolean expected) {
+      int[] children = node.children;
+      switch (node.kind) {
+        case CONSTANT:
+        case ATOM:
+          return true;
+        case NOT:
+          return require(children[0], !expected);
+        case AND:
+          return expected ? requireAll(children, true) : requireOneOf(children, false);
+        case OR:
+          return expected ? requireOneOf(children, true) : requireAll(children, false);
+        case IMPLICATION:
+          if (!expected) {
+            return require(children[0], true) && require(children[1], false);
+          } else if (value(children[0]) == FALSE) {
+            return require(children[0], false);
+          } else {
+            return value(children[1]) == TRUE && require(children[1], true);
+          }
+        case IF_THEN_ELSE:
+          byte condition = value(children[0]);
+          return condition != UNKNOWN
+              && require(children[0], condition == TRUE)
+              && require(children[condition == TRUE ? 1 : 2], expected);
+        case XOR:
+        case EQUIVALENCE:
+          return requireModelValue(children[0]) && requireModelValue(children[1]);
+        default:
+          throw new AssertionError("unexpected node " + node.kind);
+      }
+    }
+
+    private boolean requireAll(int[] children, boolean value) {
+      for (int child : children) {
+        if (!require(child, value)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /** One operand with the given value is sufficient, we prefer an already justified one. */
+    private boolean requireOneOf(int[] children, boolean value) {
+      BitSet justified = value ? justifiedTrue : justifiedFalse;
+      for (int child : children) {
+        if (justified.get(child)) {
+          return true;
+        }
+      }
+      for (int child : children) {
+        if (value(child) == toByte(value)) {
+          return require(child, value);
+        }
+      }
+      return false;
+    }
+
+    private boolean requireModelValue(int node) {
+      byte value = value(node);
+      return value != UNKNOWN && require(node, value == TRUE);
+    }
+
+    /** Require a value for the node, returns false if the node has a different value. */
+    private boolean require(int node, boolean value) {
+      if (value ? justifiedFalse.get(node) : justifiedTrue.get(node)) {
+        return false; // only possible for unknown values
+      }
+      BitSet justified = value ? justifiedTrue : justifiedFalse;
+      if (!justified.get(node)) {
+        justified.set(node);
+        waitlist.push(node);
+      }
+      return true;
+    }
+
+    /** Evaluate a node bottom-up with an explicit stack. */
+    private byte value(int pNode) {
+      if (nodeValues[pNode] != UNEVALUATED) {
+        return nodeValues[pNode];
+      }
+      Deque<Integer> stack = new ArrayDeque<>();
+      stack.push(pNode);
+      while (!stack.isEmpty()) {
+        int index = stack.peek();
+        if (nodeValues[index] != UNEVALUATED) {
+          stack.pop();
+          continue;
+        }
+        Node node = nodes.get(index);
+        boolean ready = true;
+        for (int child : node.children) {
+          if (nodeValues[child] == UNEVALUATED) {
+            stack.push(child);
+            ready = false;
+          }
+        }
+        if (ready) {
+          nodeValues[index] = combine(node);
+          stack.pop();
+        }
+      }
+      return nodeValues[pNode];
+    }
+
+    /** Three-valued evaluation of a node whose children are evaluated. */
+    private byte combine(Node node) {
+      int[] children = node.children;
+      switch (node.kind) {
+        case CONSTANT:
+          return toByte(node.constant);
+        case ATOM:
+          return toByte(evaluator.evaluate(node.atom));
+        case NOT:
+          return negate(nodeValues[children[0]]);
+        case AND:
+          return combineJunction(children, FALSE);
+        case OR:
+          return combineJunction(children, TRUE);
+        case IMPLICATION:
+          return combineJunction(
+              new byte[] {negate(nodeValues[children[0]]), nodeValues[children[1]]}, TRUE);
+        case XOR:
+        case EQUIVALENCE:
+          byte value1 = nodeValues[children[0]];
+          byte value2 = nodeValues[children[1]];
+          if (value1 == UNKNOWN || value2 == UNKNOWN) {
+            return UNKNOWN;
+          }
+          return toByte((value1 == value2) == (node.kind == Kind.EQUIVALENCE));
+        case IF_THEN_ELSE:
+          byte condition = nodeValues[children[0]];
+          byte thenValue = nodeValues[children[1]];
+          byte elseValue = nodeValues[children[2]];
+          if (condition == UNKNOWN) {
+            return thenValue == elseValue ? thenValue : UNKNOWN;
+          }
+          return condition == TRUE ? thenValue : elseValue;
+        default:
+          throw new AssertionError("unexpected node " + node.kind);
+      }
+    }
+
+    /** Conjunction (dominant value FALSE) or disjunction (dominant value TRUE). */
+    private byte combineJunction(int[] children, byte dominant) {
+      byte[] values = new byte[children.length];
+      for (int i = 0; i < children.length; i++) {
+        values[i] = nodeValues[children[i]];
+      }
+      return combineJunction(values, dominant);
+    }
+
+    private byte combineJunction(byte[] values, byte dominant) {
+      boolean unknown = false;
+      for (byte value : values) {
+        if (value == dominant) {
+          return dominant;
+        }
+        unknown |= value == UNKNOWN;
+      }
+      return unknown ? UNKNOWN : negate(dominant);
+    }
+  }
+
+  private static byte toByte(@Nullable Boolean value) {
+    if (value == null) {
+      return UNKNOWN;
+    }
+    return value ? TRUE : FALSE;
+  }
+
+  private static byte negate(byte value) {
+    switch (value) {
+      case TRUE:
+        return FALSE;
+      case FALSE:
+        return TRUE;
+      default:
+        return value;
+    }
+  }
+
+  /** Extracts the Boolean skeleton of formulas into a list of nodes. */
+  private static final class SkeletonBuilder implements BooleanFormulaVisitor<Node> {
+
+    private final BooleanFormulaManager bmgr;
+    private final Map<BooleanFormula, Integer> indices = new HashMap<>();
+    private final List<@Nullable Node> nodes = new ArrayList<>();
+    private final Deque<BooleanFormula> waitlist = new ArrayDeque<>();
+
+    private SkeletonBuilder(BooleanFormulaManager pBmgr) {
+      bmgr = pBmgr;
+    }
+
+    /** Get the index of the formula's node, the node is created by {@link #build}. */
+    private int indexOf(BooleanFormula formula) {
+      Integer index = indices.get(formula);
+      if (index == null) {
+        index = nodes.size();
+        indices.put(formula, index);
+        nodes.add(null);
+        waitlist.push(formula);
+      }
+      return index;
+    }
+
+    private ImmutableList<Node> build() {
+      while (!waitlist.isEmpty()) {
+        BooleanFormula formula = waitlist.pop();
+        nodes.set(indices.get(formula), bmgr.visit(formula, this));
+      }
+      return ImmutableList.copyOf(nodes);
+    }
+
+    private Node inner(Kind kind, List<BooleanFormula> children) {
+      List<Integer> childIndices = new ArrayList<>(children.size());
+      for (BooleanFormula child : children) {
+        childIndices.add(indexOf(child));
+      }
+      return new Node(kind, Ints.toArray(childIndices), null, false, false);
+    }
+
+    private Node leaf(BooleanFormula atom, boolean isVariable) {
+      return new Node(Kind.ATOM, new int[0], atom, isVariable, false);
+    }
+
+    @Override
+    public Node visitConstant(boolean value) {
+      return new Node(Kind.CONSTANT, new int[0], null, false, value);
+    }
+
+    @Override
+    public Node visitBoundVar(BooleanFormula var, int deBruijnIdx) {
+      return leaf(var, false);
+    }
+
+    @Override
+    public Node visitNot(BooleanFormula operand) {
+      return inner(Kind.NOT, ImmutableList.of(operand));
+    }
+
+    @Override
+    public Node visitAnd(List<BooleanFormula> operands) {
+      return inner(Kind.AND, operands);
+    }
+
+    @Override
+    public Node visitOr(List<BooleanFormula> operands) {
+      return inner(Kind.OR, operands);
+    }
+
+    @Override
+    public Node visitXor(BooleanFormula operand1, BooleanFormula operand2) {
+      return inner(Kind.XOR, ImmutableList.of(operand1, operand2));
+    }
+
+    @Override
+    public Node visitEquivalence(BooleanFormula operand1, BooleanFormula operand2) {
+      return inner(Kind.EQUIVALENCE, ImmutableList.of(operand1, operand2));
+    }
+
+    @Override
+    public Node visitImplication(BooleanFormula operand1, BooleanFormula operand2) {
+      return inner(Kind.IMPLICATION, ImmutableList.of(operand1, operand2));
+    }
+
+    @Override
+    public Node visitIfThenElse(
+        BooleanFormula condition, BooleanFormula thenFormula, BooleanFormula elseFormula) {
+      return inner(Kind.IF_THEN_ELSE, ImmutableList.of(condition, thenFormula, elseFormula));
+    }
+
+    @Override
+    public Node visitQuantifier(
+        Quantifier quantifier,
+        BooleanFormula quantifiedAST,
+        List<Formula> boundVars,
+        BooleanFormula body) {
+      return leaf(quantifiedAST, false);
+    }
+
+    @Override
+    public Node visitAtom(BooleanFormula atom, FunctionDeclaration<BooleanFormula> funcDecl) {
+      return leaf(atom, funcDecl.getKind() == FunctionDeclarationKind.VAR);
+    }
+  }
+}
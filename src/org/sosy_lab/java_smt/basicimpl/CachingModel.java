@@ -11,6 +11,16 @@ package org.sosy_lab.java_smt.basicimpl;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.rationals.Rational;
 import org.sosy_lab.java_smt.api.BitvectorFormula;
@@ -24,12 +34,26 @@ import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
 import org.sosy_lab.java_smt.api.NumeralFormula.RationalFormula;
 import org.sosy_lab.java_smt.api.StringFormula;
 
+/**
+ * A model that caches the list of assignments and the evaluations of formulas. Evaluating an equal
+ * formula again does not query the solver again. Only whole formulas are cached, i.e., evaluating a
+ * formula that merely shares subterms with an earlier one still queries the solver.
+ */
 public class CachingModel implements Model {
 
+  /** Marks a cached evaluation without value, because the maps can not distinguish it. */
+  private static final Object NO_VALUE = new Object();
+
   private final Model delegate;
 
   private @Nullable ImmutableList<ValueAssignment> modelAssignments = null;
 
+  /** The values of formulas as returned by {@link Model#evaluate(Formula)}. */
+  private final Map<Formula, Object> evaluations = new HashMap<>();
+
+  /** The values of formulas as returned by {@link Model#eval(Formula)}. */
+  private final Map<Formula, Object> formulaEvaluations = new HashMap<>();
+
   public CachingModel(Model pDelegate) {
     delegate = Preconditions.checkNotNull(pDelegate);
   }
@@ -42,54 +66,121 @@ public class CachingModel implements Model {
     return modelAssignments;
   }
 
+  @Override
+  public Stream<ValueAssignment> stream() {
+    return modelAssignments == null ? delegate.stream() : modelAssignments.stream();
+  }
+
+  @Override
+  public ImmutableList<ValueAssignment> asList(Predicate<String> nameFilter) {
+    return modelAssignments == null ? delegate.asList(nameFilter) : Model.super.asList(nameFilter);
+  }
+
+  @Override
+  public ImmutableList<ValueAssignment> assignmentsFor(Collection<? extends Formula> keys) {
+    return modelAssignments == null
+        ? delegate.assignmentsFor(keys)
+        : Model.super.assignmentsFor(keys);
+  }
+
   @Override
   public void close() {
+    // without the cache, a later evaluation reaches the delegate and fails
+    evaluations.clear();
+    formulaEvaluations.clear();
     delegate.close();
   }
 
+  @SuppressWarnings("unchecked")
   @Override
   public <T extends Formula> @Nullable T eval(T formula) {
-    return delegate.eval(formula);
+    Object value = formulaEvaluations.get(formula);
+    if (value == null) {
+      T evaluation = delegate.eval(formula);
+      formulaEvaluations.put(formula, evaluation == null ? NO_VALUE : evaluation);
+      return evaluation;
+    }
+    return value == NO_VALUE ? null : (T) value;
+  }
+
+  private @Nullable Object evaluateCached(Formula formula) {
+    Object value = evaluations.get(formula);
+    if (value == null) {
+      Object evaluation = delegate.evaluate(formula);
+      evaluations.put(formula, evaluation == null ? NO_VALUE : evaluation);
+      return evaluation;
+    }
+    return value == NO_VALUE ? null : value;
   }
 
   @Override
   public @Nullable Object evaluate(Formula formula) {
-    return delegate.evaluate(formula);
+    return evaluateCached(formula);
   }
 
   @Override
   public @Nullable BigInteger evaluate(IntegerFormula formula) {
-    return delegate.evaluate(formula);
+    return (BigInteger) evaluateCached(formula);
   }
 
   @Override
   public @Nullable Rational evaluate(RationalFormula formula) {
-    return delegate.evaluate(formula);
+    Object value = evaluateCached(formula);
+    if (value instanceof BigInteger) {
+      // the value was simplified internally, we need to convert it back to Rational.
+      return Rational.ofBigInteger((BigInteger) value);
+    }
+    return (Rational) value;
   }
 
   @Override
   public @Nullable Boolean evaluate(BooleanFormula formula) {
-    return delegate.evaluate(formula);
+    return (Boolean) evaluateCached(formula);
   }
 
   @Override
   public @Nullable BigInteger evaluate(BitvectorFormula formula) {
-    return delegate.evaluate(formula);
+    return (BigInteger) evaluateCached(formula);
   }
 
   @Override
   public @Nullable String evaluate(StringFormula formula) {
-    return delegate.evaluate(formula);
+    return (String) evaluateCached(formula);
   }
 
   @Override
   public @Nullable String evaluate(EnumerationFormula formula) {
-    return delegate.evaluate(formula);
+    return (String) evaluateCached(formula);
   }
 
   @Override
   public @Nullable FloatingPointNumber evaluate(FloatingPointFormula formula) {
-    return delegate.evaluate(formula);
+    return (FloatingPointNumber) evaluateCached(formula);
+  }
+
+  /** Evaluate all formulas that are not yet cached with one call of the delegate. */
+  @Override
+  public List<@Nullable Object> evaluateAll(List<? extends Formula> formulas) {
+    List<Formula> missing = new ArrayList<>();
+    Set<Formula> missingSet = new HashSet<>();
+    for (Formula formula : formulas) {
+      if (!evaluations.containsKey(formula) && missingSet.add(formula)) {
+        missing.add(formula);
+      }
+    }
+    if (!missing.isEmpty()) {
+      List<@Nullable Object> values = delegate.evaluateAll(missing);
+      for (int i = 0; i < missing.size(); i++) {
+        Object value = values.get(i);
+        evaluations.put(missing.get(i), value == null ? NO_VALUE : value);
+      }
+    }
+    List<@Nullable Object> result = new ArrayList<>(formulas.size());
+    for (Formula formula : formulas) {
+      Object value = evaluations.get(formula);
+      result.add(value == NO_VALUE ? null : value);
+    }
+    return Collections.unmodifiableList(result);
   }
 
   @Override
@@ -16,6 +16,7 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import java.util.ArrayDeque;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -23,7 +24,9 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.java_smt.api.ArrayFormula;
@@ -77,6 +80,12 @@ public abstract class FormulaCreator<TFormulaInfo, TType, TEnv, TFuncDecl> {
   private final @Nullable TType regexType;
   protected final TEnv environment;
 
+  /**
+   * Formula types of solver-specific sorts, see {@link #getFormulaTypeFromCache}. Entries are never
+   * removed and live as long as this creator.
+   */
+  private final Map<TType, FormulaType<?>> formulaTypeCache = new ConcurrentHashMap<>();
+
   protected FormulaCreator(
       TEnv env,
       TType boolType,
@@ -137,59 +146,49 @@ public abstract class FormulaCreator<TFormulaInfo, TType, TEnv, TFuncDecl> {
   public abstract TFormulaInfo makeVariable(TType type, String varName);
 
   public BooleanFormula encapsulateBoolean(TFormulaInfo pTerm) {
-    checkArgument(
-        getFormulaType(pTerm).isBooleanType(),
-        "Boolean formula has unexpected type: %s",
-        getFormulaType(pTerm));
+    FormulaType<?> type = getFormulaType(pTerm);
+    checkArgument(type.isBooleanType(), "Boolean formula has unexpected type: %s", type);
     return new BooleanFormulaImpl<>(pTerm);
   }
 
   protected BitvectorFormula encapsulateBitvector(TFormulaInfo pTerm) {
-    checkArgument(
-        getFormulaType(pTerm).isBitvectorType(),
-        "Bitvector formula has unexpected type: %s",
-        getFormulaType(pTerm));
+    FormulaType<?> type = getFormulaType(pTerm);
+    checkArgument(type.isBitvectorType(), "Bitvector formula has unexpected type: %s", type);
     return new BitvectorFormulaImpl<>(pTerm);
   }
 
   protected FloatingPointFormula encapsulateFloatingPoint(TFormulaInfo pTerm) {
+    FormulaType<?> type = getFormulaType(pTerm);
     checkArgument(
-        getFormulaType(pTerm).isFloatingPointType(),
-        "Floatingpoint formula has unexpected type: %s",
-        getFormulaType(pTerm));
+        type.isFloatingPointType(), "Floatingpoint formula has unexpected type: %s", type);
     return new FloatingPointFormulaImpl<>(pTerm);
   }
 
   protected <TI extends Formula, TE extends Formula> ArrayFormula<TI, TE> encapsulateArray(
       TFormulaInfo pTerm, FormulaType<TI> pIndexType, FormulaType<TE> pElementType) {
+    FormulaType<?> type = getFormulaType(pTerm);
     checkArgument(
-        getFormulaType(pTerm).equals(FormulaType.getArrayType(pIndexType, pElementType)),
+        type.equals(FormulaType.getArrayType(pIndexType, pElementType)),
         "Array formula has unexpected type: %s",
-        getFormulaType(pTerm));
+        type);
     return new ArrayFormulaImpl<>(pTerm, pIndexType, pElementType);
   }
 
   protected StringFormula encapsulateString(TFormulaInfo pTerm) {
-    checkArgument(
-        getFormulaType(pTerm).isStringType(),
-        "String formula has unexpected type: %s",
-        getFormulaType(pTerm));
+    FormulaType<?> type = getFormulaType(pTerm);
+    checkArgument(type.isStringType(), "String formula has unexpected type: %s", type);
     return new StringFormulaImpl<>(pTerm);
   }
 
   protected RegexFormula encapsulateRegex(TFormulaInfo pTerm) {
-    checkArgument(
-        getFormulaType(pTerm).isRegexType(),
-        "Regex formula has unexpected type: %s",
-        getFormulaType(pTerm));
+    FormulaType<?> type = getFormulaType(pTerm);
+    checkArgument(type.isRegexType(), "Regex formula has unexpected type: %s", type);
     return new RegexFormulaImpl<>(pTerm);
   }
 
   protected EnumerationFormula encapsulateEnumeration(TFormulaInfo pTerm) {
-    checkArgument(
-        getFormulaType(pTerm).isEnumerationType(),
-        "Enumeration formula has unexpected type: %s",
-        getFormulaType(pTerm));
+    FormulaType<?> type = getFormulaType(pTerm);
+    checkArgument(type.isEnumerationType(), "Enumeration formula has unexpected type: %s", type);
     return new EnumerationFormulaImpl<>(pTerm);
   }
 
@@ -199,11 +198,12 @@ public abstract class FormulaCreator<TFormulaInfo, TType, TEnv, TFuncDecl> {
 
   @SuppressWarnings("unchecked")
   public <T extends Formula> T encapsulate(FormulaType<T> pType, TFormulaInfo pTerm) {
+    FormulaType<?> type = getFormulaType(pTerm);
     checkArgument(
-        pType.equals(getFormulaType(pTerm)),
+        pType.equals(type),
         "Trying to encapsulate formula %s of type %s as %s",
         pTerm,
-        getFormulaType(pTerm),
+        type,
         pType);
     if (pType.isBooleanType()) {
       return (T) new BooleanFormulaImpl<>(pTerm);
@@ -288,6 +288,27 @@ public abstract class FormulaCreator<TFormulaInfo, TType, TEnv, TFuncDecl> {
 
   public abstract FormulaType<?> getFormulaType(TFormulaInfo formula);
 
+  /**
+   * Return the {@link FormulaType} of a solver-specific sort, converting the sort only once.
+   *
+   * <p>Solvers can use this method for {@link #getFormulaType(Object)} if their sorts are canonical
+   * and cheap to compare, i.e., if computing the type with queries to the solver is more expensive
+   * than looking up the sort. The sort must stay valid as long as this creator is used.
+   *
+   * @param pSort the sort to look up.
+   * @param pConversion computes the type of a sort that is not yet cached.
+   */
+  protected final FormulaType<?> getFormulaTypeFromCache(
+      TType pSort, Function<TType, FormulaType<?>> pConversion) {
+    FormulaType<?> type = formulaTypeCache.get(pSort);
+    if (type == null) {
+      // no computeIfAbsent, as the conversion of nested sorts (e.g., arrays) might use the cache
+      type = pConversion.apply(pSort);
+      formulaTypeCache.put(pSort, type);
+    }
+    return type;
+  }
+
   /**
    * @see org.sosy_lab.java_smt.api.FormulaManager#visit
    */
@@ -305,6 +326,33 @@ public abstract class FormulaCreator<TFormulaInfo, TType, TEnv, TFuncDecl> {
     return Lists.transform(input, this::extractInfo);
   }
 
+  /**
+   * Return whether the solver identifies its terms with primitive values, e.g., pointers or indices
+   * of native terms, that are returned by {@link #getTermId(Formula)}.
+   */
+  protected boolean hasTermIds() {
+    return false;
+  }
+
+  /**
+   * Return the primitive id of the term of the given formula. Two formulas of this context must
+   * have the same id if and only if they are equal. The recursive visitation and transformation of
+   * formulas use these ids for their caches instead of {@link Formula#equals} and {@link
+   * Formula#hashCode()}. Solvers need to override this method only if {@link #hasTermIds()} returns
+   * true.
+   */
+  protected long getTermId(Formula pFormula) {
+    throw new UnsupportedOperationException("Solver does not provide primitive term ids.");
+  }
+
+  /** Create a map with formulas as keys for caching during the traversal of a formula. */
+  <V> Map<Formula, V> newTraversalMap() {
+    if (hasTermIds()) {
+      return new TermIdMap<>(this::getTermId);
+    }
+    return new HashMap<>();
+  }
+
   /**
    * @see org.sosy_lab.java_smt.api.FormulaManager#visitRecursively
    */
@@ -319,7 +367,9 @@ public abstract class FormulaCreator<TFormulaInfo, TType, TEnv, TFuncDecl> {
       FormulaVisitor<TraversalProcess> pFormulaVisitor,
       Formula pF,
       Predicate<Formula> shouldProcess) {
-    RecursiveFormulaVisitorImpl recVisitor = new RecursiveFormulaVisitorImpl(pFormulaVisitor);
+    RecursiveFormulaVisitorImpl recVisitor =
+        new RecursiveFormulaVisitorImpl(
+            pFormulaVisitor, Collections.newSetFromMap(newTraversalMap()));
     recVisitor.addToQueue(pF);
     while (!recVisitor.isQueueEmpty()) {
       Formula tt = recVisitor.pop();
@@ -339,9 +389,20 @@ public abstract class FormulaCreator<TFormulaInfo, TType, TEnv, TFuncDecl> {
 
   public <T extends Formula> T transformRecursively(
       FormulaVisitor<? extends Formula> pFormulaVisitor, T pF, Predicate<Object> shouldProcess) {
+    return transformRecursively(pFormulaVisitor, pF, shouldProcess, newTraversalMap());
+  }
+
+  /**
+   * Transform the formula and store the results for all transformed sub terms in the given cache.
+   * Sub terms that are already in the cache are not transformed again.
+   */
+  <T extends Formula> T transformRecursively(
+      FormulaVisitor<? extends Formula> pFormulaVisitor,
+      T pF,
+      Predicate<Object> shouldProcess,
+      Map<Formula, Formula> pCache) {
 
     final Deque<Formula> toProcess = new ArrayDeque<>();
-    Map<Formula, Formula> pCache = new HashMap<>();
     FormulaTransformationVisitorImpl recVisitor =
         new FormulaTransformationVisitorImpl(pFormulaVisitor, toProcess, pCache);
     toProcess.push(pF);
@@ -0,0 +1,461 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl;
+
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.rationals.Rational;
+import org.sosy_lab.java_smt.api.ArrayFormula;
+import org.sosy_lab.java_smt.api.BitvectorFormula;
+import org.sosy_lab.java_smt.api.BitvectorFormulaManager;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.FormulaType;
+import org.sosy_lab.java_smt.api.FormulaType.ArrayFormulaType;
+import org.sosy_lab.java_smt.api.FormulaType.BitvectorType;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.FunctionDeclarationKind;
+import org.sosy_lab.java_smt.api.NumeralFormula;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.NumeralFormulaManager;
+import org.sosy_lab.java_smt.api.QuantifiedFormulaManager.Quantifier;
+import org.sosy_lab.java_smt.api.visitors.FormulaVisitor;
+
+/**
+ * Translates formulas from another context into the context of a given formula manager by visiting
+ * the formula and rebuilding each node with the matching operation of the target context.
+ *
+ * <p>Each shared subterm is translated only once. Translated subterms are stored in a cache that
+ * can be reused for later translations between the same pair of contexts.
+ *
+ * <p>Not all kinds of operations can be rebuilt from their {@link FunctionDeclaration}, e.g.,
+ * bitvector extraction does not provide its indices, and bound variables are not supported. In such
+ * a case, an {@link UnsupportedOperationException} is thrown and the caller should use the
+ * translation via SMT-LIB2 instead.
+ */
+final class FormulaTranslator {
+
+  private final FormulaManager manager;
+  private final FormulaManager otherManager;
+  private final Cache<Formula, Formula> sharedCache;
+
+  /** Results of the current translation, guaranteed not to be evicted during the translation. */
+  private final Map<Formula, Formula> cache = new HashMap<>();
+
+  FormulaTranslator(
+      FormulaManager pManager, FormulaManager pOtherManager, Cache<Formula, Formula> pCache) {
+    manager = Preconditions.checkNotNull(pManager);
+    otherManager = Preconditions.checkNotNull(pOtherManager);
+    sharedCache = Preconditions.checkNotNull(pCache);
+  }
+
+  /**
+   * Translate the given formula from the other context.
+   *
+   * @throws UnsupportedOperationException if the formula contains an operation that can not be
+   *     rebuilt in this context.
+   */
+  <T extends Formula> T translate(T pFormula) {
+    final Deque<Formula> toProcess = new ArrayDeque<>();
+    final TranslationVisitor visitor = new TranslationVisitor(toProcess);
+    toProcess.push(pFormula);
+
+    while (!toProcess.isEmpty()) {
+      Formula f = toProcess.peek();
+      if (lookup(f) != null) {
+        toProcess.pop();
+        continue;
+      }
+      otherManager.visit(f, visitor);
+    }
+
+    @SuppressWarnings("unchecked")
+    T out = (T) cache.get(pFormula);
+    return out;
+  }
+
+  private @Nullable Formula lookup(Formula f) {
+    Formula result = cache.get(f);
+    if (result == null) {
+      result = sharedCache.getIfPresent(f);
+      if (result != null) {
+        cache.put(f, result);
+      }
+    }
+    return result;
+  }
+
+  private void store(Formula f, Formula result) {
+    FormulaType<?> expectedType = otherManager.getFormulaType(f);
+    FormulaType<?> type = manager.getFormulaType(result);
+    if (!expectedType.equals(type)) {
+      throw new UnsupportedOperationException(
+          String.format(
+              "translating '%s' results in type %s instead of %s", f, type, expectedType));
+    }
+    cache.put(f, result);
+    sharedCache.put(f, result);
+  }
+
+  private class TranslationVisitor implements FormulaVisitor<Void> {
+
+    private final Deque<Formula> toProcess;
+
+    TranslationVisitor(Deque<Formula> pToProcess) {
+      toProcess = pToProcess;
+    }
+
+    @Override
+    public Void visitFreeVariable(Formula f, String name) {
+      store(f, manager.makeVariable(otherManager.getFormulaType(f), name));
+      return null;
+    }
+
+    @Override
+    public Void visitBoundVariable(Formula f, int deBruijnIdx) {
+      throw new UnsupportedOperationException("bound variables are not supported");
+    }
+
+    @Override
+    public Void visitConstant(Formula f, Object value) {
+      store(f, makeConstant(otherManager.getFormulaType(f), value));
+      return null;
+    }
+
+    @Override
+    public Void visitFunction(
+        Formula f, List<Formula> args, FunctionDeclaration<?> functionDeclaration) {
+      List<Formula> newArgs = new ArrayList<>(args.size());
+      boolean allArgumentsTranslated = true;
+      for (Formula arg : args) {
+        Formula newArg = lookup(arg);
+        if (newArg == null) {
+          toProcess.push(arg);
+          allArgumentsTranslated = false;
+        } else {
+          newArgs.add(newArg);
+        }
+      }
+      if (allArgumentsTranslated) {
+        store(f, makeApplication(otherManager.getFormulaType(f), functionDeclaration, newArgs));
+      }
+      return null;
+    }
+
+    @Override
+    public Void visitQuantifier(
+        BooleanFormula f, Quantifier q, List<Formula> boundVariables, BooleanFormula body) {
+      throw new UnsupportedOperationException("quantifiers are not supported");
+    }
+  }
+
+  private Formula makeConstant(FormulaType<?> type, Object value) {
+    if (type.isBooleanType() && value instanceof Boolean) {
+      return manager.getBooleanFormulaManager().makeBoolean((Boolean) value);
+    } else if (type.isIntegerType() && value instanceof BigInteger) {
+      return manager.getIntegerFormulaManager().makeNumber((BigInteger) value);
+    } else if (type.isRationalType() && value instanceof BigInteger) {
+      return manager.getRationalFormulaManager().makeNumber((BigInteger) value);
+    } else if (type.isRationalType() && value instanceof Rational) {
+      return manager.getRationalFormulaManager().makeNumber((Rational) value);
+    } else if (type.isBitvectorType() && value instanceof BigInteger) {
+      return manager
+          .getBitvectorFormulaManager()
+          .makeBitvector(((BitvectorType) type).getSize(), (BigInteger) value);
+    } else if (type.isStringType() && value instanceof String) {
+      return manager.getStringFormulaManager().makeString((String) value);
+    }
+    throw new UnsupportedOperationException(
+        String.format("constant '%s' of type %s is not supported", value, type));
+  }
+
+  @SuppressWarnings("unchecked")
+  private Formula makeApplication(
+      FormulaType<?> type, FunctionDeclaration<?> declaration, List<Formula> args) {
+    final BooleanFormulaManager bmgr = manager.getBooleanFormulaManager();
+    switch (declaration.getKind()) {
+      case AND:
+        return bmgr.and((List<BooleanFormula>) (List<?>) args);
+      case OR:
+        return bmgr.or((List<BooleanFormula>) (List<?>) args);
+      case NOT:
+        return bmgr.not(bool(args, 0));
+      case XOR:
+        checkArity(declaration, args, 2);
+        return bmgr.xor(bool(args, 0), bool(args, 1));
+      case IFF:
+        checkArity(declaration, args, 2);
+        return bmgr.equivalence(bool(args, 0), bool(args, 1));
+      case IMPLIES:
+        checkArity(declaration, args, 2);
+        return bmgr.implication(bool(args, 0), bool(args, 1));
+      case ITE:
+        checkArity(declaration, args, 3);
+        return bmgr.ifThenElse(bool(args, 0), args.get(1), args.get(2));
+      case EQ:
+        return makeEqual(args);
+      case DISTINCT:
+        return makeDistinct(args);
+      case UF:
+        return manager.getUFManager().declareAndCallUF(declaration.getName(), type, args);
+
+      case SELECT:
+        checkArity(declaration, args, 2);
+        return manager
+            .getArrayFormulaManager()
+            .select((ArrayFormula<Formula, Formula>) args.get(0), args.get(1));
+      case STORE:
+        checkArity(declaration, args, 3);
+        return manager
+            .getArrayFormulaManager()
+            .store((ArrayFormula<Formula, Formula>) args.get(0), args.get(1), args.get(2));
+      case CONST:
+        checkArity(declaration, args, 1);
+        if (type.isArrayType()) {
+          return manager
+              .getArrayFormulaManager()
+              .makeArray((ArrayFormulaType<Formula, Formula>) type, args.get(0));
+        }
+        break;
+
+      case UMINUS:
+        checkArity(declaration, args, 1);
+        return numeral(type, args).negate(num(args, 0));
+      case ADD:
+        return numeral(type, args).sum((List<NumeralFormula>) (List<?>) args);
+      case SUB:
+        return fold(args, numeral(type, args)::subtract);
+      case MUL:
+        return fold(args, numeral(type, args)::multiply);
+      case DIV:
+        checkArity(declaration, args, 2);
+        return numeral(type, args).divide(num(args, 0), num(args, 1));
+      case MODULO:
+        checkArity(declaration, args, 2);
+        return manager
+            .getIntegerFormulaManager()
+            .modulo((IntegerFormula) args.get(0), (IntegerFormula) args.get(1));
+      case LT:
+        checkArity(declaration, args, 2);
+        return numeral(type, args).lessThan(num(args, 0), num(args, 1));
+      case LTE:
+        checkArity(declaration, args, 2);
+        return numeral(type, args).lessOrEquals(num(args, 0), num(args, 1));
+      case GT:
+        checkArity(declaration, args, 2);
+        return numeral(type, args).greaterThan(num(args, 0), num(args, 1));
+      case GTE:
+        checkArity(declaration, args, 2);
+        return numeral(type, args).greaterOrEquals(num(args, 0), num(args, 1));
+      case FLOOR:
+        checkArity(declaration, args, 1);
+        return manager.getRationalFormulaManager().floor(num(args, 0));
+
+      case BV_NOT:
+        checkArity(declaration, args, 1);
+        return bitvector().not(bv(args, 0));
+      case BV_NEG:
+        checkArity(declaration, args, 1);
+        return bitvector().negate(bv(args, 0));
+      case BV_AND:
+        return fold(args, bitvector()::and);
+      case BV_OR:
+        return fold(args, bitvector()::or);
+      case BV_XOR:
+        return fold(args, bitvector()::xor);
+      case BV_ADD:
+        return fold(args, bitvector()::add);
+      case BV_SUB:
+        return fold(args, bitvector()::subtract);
+      case BV_MUL:
+        return fold(args, bitvector()::multiply);
+      case BV_CONCAT:
+        return fold(args, bitvector()::concat);
+      case BV_SDIV:
+      case BV_UDIV:
+        checkArity(declaration, args, 2);
+        return bitvector()
+            .divide(
+                bv(args, 0), bv(args, 1), declaration.getKind() == FunctionDeclarationKind.BV_SDIV);
+      case BV_SREM:
+      case BV_UREM:
+        checkArity(declaration, args, 2);
+        return bitvector()
+            .remainder(
+                bv(args, 0), bv(args, 1), declaration.getKind() == FunctionDeclarationKind.BV_SREM);
+      case BV_SMOD:
+        checkArity(declaration, args, 2);
+        return bitvector().smodulo(bv(args, 0), bv(args, 1));
+      case BV_ULT:
+      case BV_SLT:
+        checkArity(declaration, args, 2);
+        return bitvector()
+            .lessThan(
+                bv(args, 0), bv(args, 1), declaration.getKind() == FunctionDeclarationKind.BV_SLT);
+      case BV_ULE:
+      case BV_SLE:
+        checkArity(declaration, args, 2);
+        return bitvector()
+            .lessOrEquals(
+                bv(args, 0), bv(args, 1), declaration.getKind() == FunctionDeclarationKind.BV_SLE);
+      case BV_UGT:
+      case BV_SGT:
+        checkArity(declaration, args, 2);
+        return bitvector()
+            .greaterThan(
+                bv(args, 0), bv(args, 1), declaration.getKind() == FunctionDeclarationKind.BV_SGT);
+      case BV_UGE:
+      case BV_SGE:
+        checkArity(declaration, args, 2);
+        return bitvector()
+            .greaterOrEquals(
+                bv(args, 0), bv(args, 1), declaration.getKind() == FunctionDeclarationKind.BV_SGE);
+      case BV_EQ:
+        checkArity(declaration, args, 2);
+        return bitvector().equal(bv(args, 0), bv(args, 1));
+      case BV_SHL:
+        checkArity(declaration, args, 2);
+        return bitvector().shiftLeft(bv(args, 0), bv(args, 1));
+      case BV_LSHR:
+      case BV_ASHR:
+        checkArity(declaration, args, 2);
+        return bitvector()
+            .shiftRight(
+                bv(args, 0), bv(args, 1), declaration.getKind() == FunctionDeclarationKind.BV_ASHR);
+      case BV_ROTATE_LEFT:
+        checkArity(declaration, args, 2);
+        return bitvector().rotateLeft(bv(args, 0), bv(args, 1));
+      case BV_ROTATE_RIGHT:
+        checkArity(declaration, args, 2);
+        return bitvector().rotateRight(bv(args, 0), bv(args, 1));
+      case BV_SIGN_EXTENSION:
+      case BV_ZERO_EXTENSION:
+        checkArity(declaration, args, 1);
+        if (type.isBitvectorType()) {
+          int extensionBits = ((BitvectorType) type).getSize() - bitvector().getLength(bv(args, 0));
+          return bitvector()
+              .extend(
+                  bv(args, 0),
+                  extensionBits,
+                  declaration.getKind() == FunctionDeclarationKind.BV_SIGN_EXTENSION);
+        }
+        break;
+
+      default:
+        break;
+    }
+    throw new UnsupportedOperationException(
+        String.format("operation %s is not supported", declaration));
+  }
+
+  private BooleanFormula makeEqual(List<Formula> args) {
+    Preconditions.checkArgument(args.size() >= 2);
+    List<BooleanFormula> equalities = new ArrayList<>(args.size() - 1);
+    for (int i = 1; i < args.size(); i++) {
+      equalities.add(makeEqual(args.get(i - 1), args.get(i)));
+    }
+    return manager.getBooleanFormulaManager().and(equalities);
+  }
+
+  @SuppressWarnings("unchecked")
+  private BooleanFormula makeEqual(Formula f1, Formula f2) {
+    FormulaType<?> type1 = manager.getFormulaType(f1);
+    FormulaType<?> type2 = manager.getFormulaType(f2);
+    if (type1.isBooleanType() && type2.isBooleanType()) {
+      return manager
+          .getBooleanFormulaManager()
+          .equivalence((BooleanFormula) f1, (BooleanFormula) f2);
+    } else if (type1.isNumeralType() && type2.isNumeralType()) {
+      return numeral(FormulaType.BooleanType, List.of(f1, f2))
+          .equal((NumeralFormula) f1, (NumeralFormula) f2);
+    } else if (type1.isBitvectorType() && type2.isBitvectorType()) {
+      return bitvector().equal((BitvectorFormula) f1, (BitvectorFormula) f2);
+    } else if (type1.isArrayType() && type2.isArrayType()) {
+      return manager
+          .getArrayFormulaManager()
+          .equivalence((ArrayFormula<Formula, Formula>) f1, (ArrayFormula<Formula, Formula>) f2);
+    }
+    throw new UnsupportedOperationException(
+        String.format("equality of types %s and %s is not supported", type1, type2));
+  }
+
+  @SuppressWarnings("unchecked")
+  private BooleanFormula makeDistinct(List<Formula> args) {
+    if (args.stream().allMatch(arg -> manager.getFormulaType(arg).isNumeralType())) {
+      return numeral(FormulaType.BooleanType, args).distinct((List<NumeralFormula>) (List<?>) args);
+    } else if (args.stream().allMatch(arg -> manager.getFormulaType(arg).isBitvectorType())) {
+      return bitvector().distinct((List<BitvectorFormula>) (List<?>) args);
+    }
+    throw new UnsupportedOperationException(
+        "distinct is only supported for numerals and bitvectors");
+  }
+
+  /**
+   * Returns the numeral manager for an operation with the given result type and arguments. Mixed
+   * integer and rational operations are rebuilt by the rational manager.
+   */
+  @SuppressWarnings("unchecked")
+  private NumeralFormulaManager<NumeralFormula, NumeralFormula> numeral(
+      FormulaType<?> type, List<Formula> args) {
+    boolean isRational = type.isRationalType();
+    for (Formula arg : args) {
+      isRational |= manager.getFormulaType(arg).isRationalType();
+    }
+    return (NumeralFormulaManager<NumeralFormula, NumeralFormula>)
+        (isRational
+            ? manager.getRationalFormulaManager()
+            : (NumeralFormulaManager<?, ?>) manager.getIntegerFormulaManager());
+  }
+
+  private BitvectorFormulaManager bitvector() {
+    return manager.getBitvectorFormulaManager();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T extends Formula> Formula fold(List<Formula> args, BinaryOperator<T> op) {
+    Preconditions.checkArgument(!args.isEmpty());
+    T result = (T) args.get(0);
+    for (int i = 1; i < args.size(); i++) {
+      result = op.apply(result, (T) args.get(i));
+    }
+    return result;
+  }
+
+  private static void checkArity(
+      FunctionDeclaration<?> declaration, List<Formula> args, int arity) {
+    if (args.size() != arity) {
+      throw new UnsupportedOperationException(
+          String.format(
+              "operation %s with %d arguments is not supported", declaration, args.size()));
+    }
+  }
+
+  private static BooleanFormula bool(List<Formula> args, int index) {
+    return (BooleanFormula) args.get(index);
+  }
+
+  private static NumeralFormula num(List<Formula> args, int index) {
+    return (NumeralFormula) args.get(index);
+  }
+
+  private static BitvectorFormula bv(List<Formula> args, int index) {
+    return (BitvectorFormula) args.get(index);
+  }
+}
@@ -13,7 +13,6 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import com.google.common.collect.ImmutableList;
 import java.util.ArrayDeque;
 import java.util.Deque;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import org.sosy_lab.java_smt.api.BooleanFormula;
@@ -26,13 +25,17 @@ import org.sosy_lab.java_smt.api.visitors.TraversalProcess.TraversalType;
 
 final class RecursiveFormulaVisitorImpl implements FormulaVisitor<TraversalProcess> {
 
-  private final Set<Formula> seen = new HashSet<>();
+  private final Set<Formula> seen;
   private final Deque<Formula> toVisit = new ArrayDeque<>();
 
   private final FormulaVisitor<TraversalProcess> delegate;
 
-  RecursiveFormulaVisitorImpl(FormulaVisitor<TraversalProcess> pDelegate) {
+  /**
+   * @param pSeen empty set that will contain all formulas that were added to the queue.
+   */
+  RecursiveFormulaVisitorImpl(FormulaVisitor<TraversalProcess> pDelegate, Set<Formula> pSeen) {
     delegate = checkNotNull(pDelegate);
+    seen = checkNotNull(pSeen);
   }
 
   void addToQueue(Formula f) {
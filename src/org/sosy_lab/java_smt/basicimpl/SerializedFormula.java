@@ -0,0 +1,101 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.List;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.FormulaType;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.visitors.DefaultFormulaVisitor;
+
+/**
+ * A formula in SMT-LIB2 format that is independent of any solver context.
+ *
+ * <p>This is the same mechanism that {@link FormulaManager#translateFrom} uses by default, but
+ * split into two steps: the formula is dumped once by the thread owning the source context and can
+ * then be parsed by the threads owning the target contexts. Non-boolean terms can not be dumped
+ * directly, thus we wrap them into an application of an uninterpreted predicate and unwrap them
+ * after parsing.
+ */
+public final class SerializedFormula {
+
+  private static final String PROBE_PREFIX = "__serialized_term_";
+
+  private final FormulaType<?> type;
+  private final String dump;
+
+  private SerializedFormula(FormulaType<?> pType, String pDump) {
+    type = checkNotNull(pType);
+    dump = checkNotNull(pDump);
+  }
+
+  /** Dump the given formula. Must be called by the thread owning the given formula manager. */
+  public static SerializedFormula of(FormulaManager fmgr, Formula pFormula) {
+    FormulaType<?> type = fmgr.getFormulaType(pFormula);
+    final BooleanFormula wrapped;
+    if (type.isBooleanType()) {
+      wrapped = (BooleanFormula) pFormula;
+    } else {
+      wrapped =
+          fmgr.getUFManager().declareAndCallUF(probeName(type), FormulaType.BooleanType, pFormula);
+    }
+    return new SerializedFormula(type, fmgr.dumpFormula(wrapped).toString());
+  }
+
+  public FormulaType<?> getType() {
+    return type;
+  }
+
+  /** Parse the formula. Must be called by the thread owning the given formula manager. */
+  @SuppressWarnings("unchecked")
+  public <T extends Formula> T toFormula(FormulaManager fmgr) {
+    BooleanFormula parsed = fmgr.parse(dump);
+    if (type.isBooleanType()) {
+      return (T) parsed;
+    }
+    return (T) fmgr.visit(parsed, UNWRAP_VISITOR);
+  }
+
+  public BooleanFormula toBooleanFormula(FormulaManager fmgr) {
+    checkState(type.isBooleanType(), "formula of type %s is not boolean", type);
+    return toFormula(fmgr);
+  }
+
+  private static String probeName(FormulaType<?> pType) {
+    return PROBE_PREFIX + pType.toString().replaceAll("[^a-zA-Z0-9]", "_");
+  }
+
+  private static final DefaultFormulaVisitor<Formula> UNWRAP_VISITOR =
+      new DefaultFormulaVisitor<>() {
+        @Override
+        protected Formula visitDefault(Formula f) {
+          throw new IllegalStateException("unexpected wrapper for a serialized term: " + f);
+        }
+
+        @Override
+        public Formula visitFunction(
+            Formula f, List<Formula> args, FunctionDeclaration<?> functionDeclaration) {
+          checkState(
+              args.size() == 1 && functionDeclaration.getName().startsWith(PROBE_PREFIX),
+              "unexpected wrapper for a serialized term: %s",
+              f);
+          return args.get(0);
+        }
+      };
+
+  @Override
+  public String toString() {
+    return dump;
+  }
+}
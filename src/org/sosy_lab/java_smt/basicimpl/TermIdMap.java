@@ -0,0 +1,191 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.java_smt.api.Formula;
+
+/**
+ * A map with formulas as keys that compares the keys by the primitive term id of the solver (e.g.,
+ * a pointer or an index of a native term) instead of {@link Formula#equals} and {@link
+ * Formula#hashCode()}. Both methods are expensive for formulas of native solvers, as they need
+ * calls into the solver or unboxing, and {@link java.util.HashMap} allocates an entry object per
+ * key.
+ *
+ * <p>This map uses open addressing with linear probing over plain arrays, i.e., it creates no
+ * objects per entry. The key formulas are kept in the map, such that their native terms stay alive
+ * and the term ids are not reused by the solver while the map is in use. Removing single entries is
+ * not supported, as this is not needed for the traversal of formulas.
+ *
+ * @param <V> type of the values.
+ */
+final class TermIdMap<V> extends AbstractMap<Formula, V> {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  /** Multiplier for Fibonacci hashing, as the low bits of pointers are mostly zero. */
+  private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+  private final ToLongFunction<Formula> termIds;
+
+  private long[] ids;
+
+  /** The keys of the map, where null marks an empty slot. */
+  private @Nullable Formula[] keys;
+
+  private @Nullable Object[] values;
+
+  /** Number of unused high bits of the hash for the current capacity. */
+  private int shift;
+
+  private int size = 0;
+
+  TermIdMap(ToLongFunction<Formula> pTermIds) {
+    termIds = checkNotNull(pTermIds);
+    allocate(INITIAL_CAPACITY);
+  }
+
+  private void allocate(int capacity) {
+    ids = new long[capacity];
+    keys = new Formula[capacity];
+    values = new Object[capacity];
+    shift = Long.numberOfLeadingZeros(capacity - 1);
+  }
+
+  /**
+   * Return the slot of the given term id, or the negative value (-slot - 1) of the free slot where
+   * it can be inserted.
+   */
+  private int find(long id) {
+    int mask = keys.length - 1;
+    int slot = (int) ((id * HASH_MULTIPLIER) >>> shift);
+    while (keys[slot] != null) {
+      if (ids[slot] == id) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -slot - 1;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean containsKey(@Nullable Object pKey) {
+    return pKey instanceof Formula && find(termIds.applyAsLong((Formula) pKey)) >= 0;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public @Nullable V get(@Nullable Object pKey) {
+    if (!(pKey instanceof Formula)) {
+      return null;
+    }
+    int slot = find(termIds.applyAsLong((Formula) pKey));
+    return slot >= 0 ? (V) values[slot] : null;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public @Nullable V put(Formula pKey, @Nullable V pValue) {
+    long id = termIds.applyAsLong(checkNotNull(pKey));
+    int slot = find(id);
+    if (slot >= 0) {
+      V previous = (V) values[slot];
+      values[slot] = pValue;
+      return previous;
+    }
+    slot = -slot - 1;
+    ids[slot] = id;
+    keys[slot] = pKey;
+    values[slot] = pValue;
+    size++;
+    if (size > keys.length / 4 * 3) {
+      resize();
+    }
+    return null;
+  }
+
+  private void resize() {
+    long[] oldIds = ids;
+    Formula[] oldKeys = keys;
+    Object[] oldValues = values;
+    allocate(oldKeys.length * 2);
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != null) {
+        int slot = -find(oldIds[i]) - 1;
+        ids[slot] = oldIds[i];
+        keys[slot] = oldKeys[i];
+        values[slot] = oldValues[i];
+      }
+    }
+  }
+
+  @Override
+  public void clear() {
+    // shrink the arrays, as the map might be reused for a long time
+    allocate(INITIAL_CAPACITY);
+    size = 0;
+  }
+
+  @Override
+  public Set<Entry<Formula, V>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<Entry<Formula, V>> iterator() {
+        return new EntryIterator();
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  private final class EntryIterator implements Iterator<Entry<Formula, V>> {
+
+    private int next = advance(0);
+
+    private int advance(int pSlot) {
+      int slot = pSlot;
+      while (slot < keys.length && keys[slot] == null) {
+        slot++;
+      }
+      return slot;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next < keys.length;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Entry<Formula, V> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      Entry<Formula, V> entry = new SimpleImmutableEntry<>(keys[next], (V) values[next]);
+      next = advance(next + 1);
+      return entry;
+    }
+  }
+}
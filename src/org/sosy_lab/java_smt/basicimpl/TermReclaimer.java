@@ -0,0 +1,291 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.concurrent.TimeUnit;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.time.TimeSpan;
+
+/**
+ * Releases native terms of a solver after the Java objects that wrap them became unreachable.
+ *
+ * <p>A solver backend registers a {@link TermReference} for each Java object (typically a formula)
+ * that keeps a native term alive, e.g., by holding a reference count of the term. After the Java
+ * object was garbage-collected, the reference is enqueued by the JVM, and the native term is
+ * released by calling {@link TermReference#release()}.
+ *
+ * <p>There are two modes for draining the queue of enqueued references:
+ *
+ * <ul>
+ *   <li>By default, the queue is drained by the thread that uses the solver context, because native
+ *       solvers are in general not thread-safe. The queue is drained in batches while registering
+ *       new references, after a configurable number of registrations, or explicitly via {@link
+ *       #drain()}.
+ *   <li>If the solver allows releasing terms concurrently to other operations (like Z3 with
+ *       concurrent reference counting), a dedicated daemon thread can wait for enqueued references
+ *       and release them, such that the thread using the context never pays for the release.
+ * </ul>
+ *
+ * <p>All registered references are kept in a doubly-linked list, such that the references
+ * themselves stay reachable until their native term is released, and such that all native terms can
+ * be released when the solver context is closed. The list is guarded by this object, which is
+ * uncontended unless a cleanup thread is used.
+ *
+ * @param <T> type of the Java objects that keep native terms alive.
+ */
+public final class TermReclaimer<T> {
+
+  /**
+   * A reference to a Java object that keeps a native term alive. Subclasses store the native term
+   * (e.g., a pointer) and release it on demand. They must not keep a strong reference to the Java
+   * object itself, otherwise it will never be garbage-collected.
+   */
+  public abstract static class TermReference<T> extends PhantomReference<T> {
+
+    private @Nullable TermReference<?> prev;
+    private @Nullable TermReference<?> next;
+
+    protected TermReference(@Nullable T pReferent, TermReclaimer<? super T> pReclaimer) {
+      super(pReferent, pReclaimer.queue);
+    }
+
+    /**
+     * Release the native term, e.g., by decreasing its reference count. If a cleanup thread is
+     * used, this method is called by that thread.
+     */
+    protected abstract void release();
+
+    private void unlink() {
+      assert prev != null && next != null;
+      prev.next = next;
+      next.prev = prev;
+      prev = null;
+      next = null;
+    }
+  }
+
+  /** Head and tail of the list of registered references. */
+  private static final class Sentinel<T> extends TermReference<T> {
+    private Sentinel(TermReclaimer<T> pReclaimer) {
+      super(null, pReclaimer);
+    }
+
+    @Override
+    protected void release() {
+      throw new AssertionError("sentinel node can not be released");
+    }
+  }
+
+  /** The maximal number of references that the cleanup thread releases while holding the lock. */
+  private static final int MAX_BATCH_SIZE = 1000;
+
+  private final ReferenceQueue<T> queue = new ReferenceQueue<>();
+  private final TermReference<T> head;
+  private final TermReference<T> tail;
+
+  private final int drainInterval;
+  private int registrationsSinceDrain = 0;
+  private final @Nullable Thread cleanupThread;
+
+  // The statistics are only written while holding the lock of this object,
+  // and are volatile such that they can be read without it.
+  private volatile long registered = 0;
+  private volatile long reclaimed = 0;
+  private volatile long batches = 0;
+  private volatile long drainNanos = 0;
+
+  private boolean closed = false;
+
+  /** Create a reclaimer that drains the queue whenever a new reference is registered. */
+  public TermReclaimer() {
+    this(1);
+  }
+
+  /**
+   * Create a reclaimer that drains the queue after the given number of registrations.
+   *
+   * @param pDrainInterval the number of registrations between two drains of the queue.
+   */
+  public TermReclaimer(int pDrainInterval) {
+    this(pDrainInterval, null);
+  }
+
+  private TermReclaimer(int pDrainInterval, @Nullable String pCleanupThreadName) {
+    checkArgument(pDrainInterval > 0, "drain interval must be positive");
+    drainInterval = pDrainInterval;
+    head = new Sentinel<>(this);
+    tail = new Sentinel<>(this);
+    head.next = tail;
+    tail.prev = head;
+    if (pCleanupThreadName == null) {
+      cleanupThread = null;
+    } else {
+      cleanupThread = new Thread(this::runCleanupThread, pCleanupThreadName);
+      cleanupThread.setDaemon(true);
+      cleanupThread.start();
+    }
+  }
+
+  /**
+   * Create a reclaimer that releases the native terms in a dedicated daemon thread. This requires
+   * that {@link TermReference#release()} can be called concurrently to all other operations on the
+   * solver context. The thread is stopped by {@link #releaseAll()}.
+   */
+  public static <T> TermReclaimer<T> withCleanupThread(String pThreadName) {
+    return new TermReclaimer<>(1, checkNotNull(pThreadName));
+  }
+
+  /**
+   * Register a reference, whose native term is released after the referenced Java object was
+   * garbage-collected. The reference must have been created for this reclaimer. Without a cleanup
+   * thread, this drains the queue after every few registrations.
+   */
+  public void register(TermReference<? extends T> pReference) {
+    synchronized (this) {
+      checkState(!closed, "all terms were already released");
+      assert pReference.prev == null && pReference.next == null : "reference already registered";
+      pReference.prev = head;
+      pReference.next = head.next;
+      head.next.prev = pReference;
+      head.next = pReference;
+      registered++;
+    }
+    if (cleanupThread == null && ++registrationsSinceDrain >= drainInterval) {
+      registrationsSinceDrain = 0;
+      drain();
+    }
+  }
+
+  /**
+   * Release the native terms of all Java objects that were garbage-collected since the last call.
+   * If a cleanup thread is used, the thread releases the terms and this method does nothing.
+   *
+   * @return the number of released terms.
+   */
+  public int drain() {
+    if (cleanupThread != null) {
+      return 0;
+    }
+    TermReference<?> first = (TermReference<?>) queue.poll();
+    if (first == null) {
+      return 0; // cheap path, nothing to do
+    }
+    synchronized (this) {
+      return releaseBatch(first, Integer.MAX_VALUE);
+    }
+  }
+
+  /** Release the given reference and all others from the queue, up to the given limit. */
+  @GuardedBy("this")
+  private int releaseBatch(TermReference<?> pFirst, int pLimit) {
+    if (closed) {
+      return 0;
+    }
+    long start = System.nanoTime();
+    int count = 0;
+    TermReference<?> ref = pFirst;
+    try {
+      do {
+        ref.unlink();
+        ref.release();
+        count++;
+      } while (count < pLimit && (ref = (TermReference<?>) queue.poll()) != null);
+    } finally {
+      reclaimed += count;
+      batches++;
+      drainNanos += System.nanoTime() - start;
+    }
+    return count;
+  }
+
+  private void runCleanupThread() {
+    try {
+      while (true) {
+        TermReference<?> first = (TermReference<?>) queue.remove();
+        synchronized (this) {
+          if (closed) {
+            return;
+          }
+          releaseBatch(first, MAX_BATCH_SIZE);
+        }
+      }
+    } catch (InterruptedException e) {
+      // stopped by releaseAll()
+    }
+  }
+
+  /**
+   * Release the native terms of all registered references, even if the Java objects are still
+   * reachable. This is intended for closing the solver context: afterward, no reference will be
+   * released any more, and no new reference can be registered. A cleanup thread is stopped before
+   * this method returns.
+   */
+  public void releaseAll() {
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      for (TermReference<?> ref = head.next; ref != tail; ref = ref.next) {
+        ref.release();
+      }
+      // Without the list and the queue, all references are unreachable and can be collected.
+      head.next = tail;
+      tail.prev = head;
+      while (queue.poll() != null) {
+        // nothing to do, the native term was already released above.
+      }
+    }
+    if (cleanupThread != null) {
+      cleanupThread.interrupt();
+      Uninterruptibles.joinUninterruptibly(cleanupThread);
+    }
+  }
+
+  /** Returns the number of references that were registered. */
+  public long getRegistered() {
+    return registered;
+  }
+
+  /** Returns the number of native terms that were released after garbage collection. */
+  public long getReclaimed() {
+    return reclaimed;
+  }
+
+  /** Returns the number of registered references whose native term is not yet released. */
+  public long getLive() {
+    synchronized (this) {
+      return closed ? 0 : registered - reclaimed;
+    }
+  }
+
+  /** Returns the statistics of this reclaimer, e.g., to be included in the solver statistics. */
+  public ImmutableMap<String, String> getStatistics() {
+    return ImmutableMap.of(
+        "registered terms",
+        Long.toString(registered),
+        "reclaimed terms",
+        Long.toString(reclaimed),
+        "live terms",
+        Long.toString(getLive()),
+        "reclamation batches",
+        Long.toString(batches),
+        "time for reclaiming terms",
+        TimeSpan.ofNanos(drainNanos).formatAs(TimeUnit.MILLISECONDS));
+  }
+}
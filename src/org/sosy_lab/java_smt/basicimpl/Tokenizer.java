@@ -10,13 +10,20 @@
 
 package org.sosy_lab.java_smt.basicimpl;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.util.List;
-import java.util.Optional;
+import java.util.function.Consumer;
 
 /** Helper class for splitting up an SMT-LIB2 file into a string of commands. */
 public final class Tokenizer {
 
+  private static final int BUFFER_SIZE = 8192;
+
   private Tokenizer() {}
 
   /**
@@ -31,115 +38,155 @@ public final class Tokenizer {
    */
   public static List<String> tokenize(String input) {
     ImmutableList.Builder<String> builder = ImmutableList.builder();
+    try {
+      tokenize(new StringReader(input), builder::add);
+    } catch (IOException e) {
+      throw new AssertionError("StringReader does not throw IOException", e);
+    }
+    return builder.build();
+  }
+
+  /**
+   * Split up a sequence of lisp expressions that is read from a stream.
+   *
+   * <p>This works like {@link #tokenize(String)}, but the input is processed character by character
+   * and each command is handed to the consumer as soon as it is complete. Only the current command
+   * is kept in memory, such that large SMT-LIB2 scripts can be processed without reading them into
+   * a String first. The reader is not closed by this method.
+   *
+   * @throws IllegalArgumentException if the input is not a valid sequence of lisp expressions.
+   *     Commands before the invalid part of the input might already have been consumed.
+   */
+  public static void tokenize(Reader input, Consumer<String> consumer) throws IOException {
+    checkNotNull(input);
+    checkNotNull(consumer);
     boolean inComment = false;
     boolean inString = false;
     boolean inQuoted = false;
 
+    // A double quote closed a string literal with the last character. If the next character is
+    // also a double quote, both together are an escaped quote and the string literal continues.
+    boolean afterString = false;
+
     int level = 0;
-    int pos = 0;
 
     StringBuilder token = new StringBuilder();
-    while (pos < input.length()) {
-      char c = input.charAt(pos);
-      if (inComment) {
-        if (c == '\n') {
-          // End of a comment
-          inComment = false;
-          if (level > 0) {
-            // If we're in an expression we need to replace the entire comment (+ the newline) with
-            // some whitespace. Otherwise symbols might get merged across line-wraps. This is not
-            // a problem at the top-level where all terms are surrounded by brackets.
-            token.append(c);
+    char[] buffer = new char[BUFFER_SIZE];
+    int length;
+    while ((length = input.read(buffer)) != -1) {
+      for (int pos = 0; pos < length; pos++) {
+        char c = buffer[pos];
+        boolean escapedQuote = afterString && c == '"';
+        afterString = false;
+
+        if (inComment) {
+          if (c == '\n') {
+            // End of a comment
+            inComment = false;
+            if (level > 0) {
+              // If we're in an expression we need to replace the entire comment (+ the newline)
+              // with some whitespace. Otherwise symbols might get merged across line-wraps. This
+              // is not a problem at the top-level where all terms are surrounded by brackets.
+              token.append(c);
+            }
           }
-        }
 
-      } else if (inString) {
-        if (c == '"') {
-          // We have a double quote: Check that it's not followed by another and actually closes
-          // the string.
-          Optional<Character> n =
-              (pos == input.length() - 1) ? Optional.empty() : Optional.of(input.charAt(pos + 1));
-          if (n.isEmpty() || n.orElseThrow() != '"') {
-            // Close the string
-            token.append(c);
+        } else if (escapedQuote) {
+          // Add the second quote to the token and reopen the string
+          token.append(c);
+          inString = true;
+
+        } else if (inString) {
+          token.append(c);
+          if (c == '"') {
+            // Close the string, unless the next character is another double quote
             inString = false;
-          } else {
-            // Add both quotes to the token and skip one character ahead
-            token.append(c);
-            token.append(n.orElseThrow());
-            pos++;
+            afterString = true;
+          }
+
+        } else if (inQuoted) {
+          if (c == '|') {
+            // Close the quotes
+            inQuoted = false;
+          }
+          if (c == '\\') {
+            // The SMT-LIB2 standard does not allow backslash inside quoted symbols:
+            // Throw an exception
+            throw new IllegalArgumentException();
           }
-        } else {
           token.append(c);
-        }
 
-      } else if (inQuoted) {
-        if (c == '|') {
-          // Close the quotes
-          inQuoted = false;
-        }
-        if (c == '\\') {
-          // The SMT-LIB2 standard does not allow backslash inside quoted symbols:
-          // Throw an exception
-          throw new IllegalArgumentException();
-        }
-        token.append(c);
-
-      } else if (c == ';') {
-        // Start of a comment
-        inComment = true;
-
-      } else if (c == '"') {
-        // Start of a string literal
-        inString = true;
-        token.append(c);
-
-      } else if (c == '|') {
-        // Start of a quoted symbol
-        inQuoted = true;
-        token.append(c);
-
-      } else {
-        // Just a regular character outside of comments, quotes or string literals
-        if (level == 0) {
-          // We're at the top-level
-          if (!Character.isWhitespace(c)) {
+        } else if (c == ';') {
+          // Start of a comment
+          inComment = true;
+
+        } else if (c == '"') {
+          // Start of a string literal
+          inString = true;
+          token.append(c);
+
+        } else if (c == '|') {
+          // Start of a quoted symbol
+          inQuoted = true;
+          token.append(c);
+
+        } else {
+          // Just a regular character outside of comments, quotes or string literals
+          if (level == 0) {
+            // We're at the top-level
+            if (!Character.isWhitespace(c)) {
+              if (c == '(') {
+                // Handle opening brackets
+                token.append('(');
+                level++;
+              } else {
+                // Should be unreachable: all top-level expressions need parentheses around them
+                throw new IllegalArgumentException();
+              }
+            }
+          } else {
+            // We're inside an r-expression
+            token.append(c);
+            // Handle opening/closing brackets
             if (c == '(') {
-              // Handle opening brackets
-              token.append("(");
               level++;
-            } else {
-              // Should be unreachable: all top-level expressions need parentheses around them
-              throw new IllegalArgumentException();
             }
-          }
-        } else {
-          // We're inside an r-expression
-          token.append(c);
-          // Handle opening/closing brackets
-          if (c == '(') {
-            level++;
-          }
-          if (c == ')') {
-            if (level == 1) {
-              builder.add(token.toString());
-              token = new StringBuilder();
+            if (c == ')') {
+              if (level == 1) {
+                consumer.accept(token.toString());
+                token.setLength(0);
+              }
+              level--;
             }
-            level--;
           }
         }
       }
-      pos++;
     }
     if (level != 0) {
       // Throw an exception if the brackets don't match
       throw new IllegalArgumentException();
     }
-    return builder.build();
   }
 
-  private static boolean matchesOneOf(String token, String... regexp) {
-    return token.matches("\\(\\s*(" + String.join("|", regexp) + ")[\\S\\s]*");
+  /**
+   * Check if the name of the command starts with one of the prefixes, i.e., if the token matches
+   * <code>\(\s*(prefix1|prefix2|...).*</code>. We compare the characters directly, as this is
+   * called for every command of the input.
+   */
+  private static boolean matchesOneOf(String token, String... prefixes) {
+    if (token.isEmpty() || token.charAt(0) != '(') {
+      return false;
+    }
+    int start = 1;
+    while (start < token.length() && Character.isWhitespace(token.charAt(start))) {
+      start++;
+    }
+    for (String prefix : prefixes) {
+      if (token.startsWith(prefix, start)) {
+        return true;
+      }
+    }
+    return false;
   }
 
   /**
@@ -0,0 +1,51 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Map;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.TransformationSession;
+import org.sosy_lab.java_smt.api.visitors.FormulaVisitor;
+
+/** Recursive transformation with a cache that is kept across calls. */
+final class TransformationSessionImpl implements TransformationSession {
+
+  /**
+   * Maximum number of cached sub terms. We clear the cache only between calls, because the
+   * transformation of a single formula needs the results of all its transformed sub terms.
+   */
+  private static final int MAX_CACHE_SIZE = 1_000_000;
+
+  private final FormulaCreator<?, ?, ?, ?> formulaCreator;
+  private final FormulaVisitor<? extends Formula> visitor;
+  private final Map<Formula, Formula> cache;
+
+  TransformationSessionImpl(
+      FormulaCreator<?, ?, ?, ?> pFormulaCreator, FormulaVisitor<? extends Formula> pVisitor) {
+    formulaCreator = checkNotNull(pFormulaCreator);
+    visitor = checkNotNull(pVisitor);
+    cache = formulaCreator.newTraversalMap();
+  }
+
+  @Override
+  public <T extends Formula> T transform(T f) {
+    T result = formulaCreator.transformRecursively(visitor, f, t -> true, cache);
+    if (cache.size() > MAX_CACHE_SIZE) {
+      cache.clear();
+    }
+    return result;
+  }
+
+  @Override
+  public void clearCache() {
+    cache.clear();
+  }
+}
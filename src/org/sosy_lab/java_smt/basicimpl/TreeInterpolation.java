@@ -0,0 +1,160 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.basicimpl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * Computes tree interpolants (and thus also sequence interpolants) from plain binary interpolation
+ * queries, for solvers that do not support tree interpolation natively. The tree is given in the
+ * encoding of {@link InterpolatingProverEnvironment#getTreeInterpolants}.
+ *
+ * <p>Binary interpolants that are computed independently for the subtrees of a node do not
+ * necessarily imply the interpolant of the node, because each query can be answered with a
+ * different proof. Thus, each query for a node uses the interpolants of its children instead of the
+ * formulas in their subtrees as A, and the interpolants of siblings that were already handled
+ * instead of their subtrees as B. This yields a sound tree interpolant, but the queries depend on
+ * each other and are answered one after another. The binary queries are independent of the prover
+ * stack, such that the solver can answer them in a separate environment.
+ */
+public final class TreeInterpolation {
+
+  /** A binary interpolation query over arbitrary formulas. */
+  @FunctionalInterface
+  public interface BinaryInterpolation {
+
+    /**
+     * Return an interpolant I for the conjunctions A of formulasOfA and B of formulasOfB, i.e., A
+     * implies I, I and B are unsatisfiable, and I contains only symbols common to A and B.
+     */
+    BooleanFormula getInterpolant(
+        List<BooleanFormula> formulasOfA, List<BooleanFormula> formulasOfB)
+        throws SolverException, InterruptedException;
+  }
+
+  private final List<List<BooleanFormula>> partitions;
+  private final int[] startOfSubTree;
+  private final List<BooleanFormula> background;
+  private final BinaryInterpolation interpolation;
+  private final BooleanFormula[] interpolants;
+
+  private TreeInterpolation(
+      List<List<BooleanFormula>> pPartitions,
+      int[] pStartOfSubTree,
+      List<BooleanFormula> pBackground,
+      BinaryInterpolation pInterpolation) {
+    partitions = pPartitions;
+    startOfSubTree = pStartOfSubTree;
+    background = pBackground;
+    interpolation = pInterpolation;
+    interpolants = new BooleanFormula[pPartitions.size() - 1];
+  }
+
+  /**
+   * Compute tree interpolants for partitions of asserted formulas, see {@link
+   * InterpolatingProverEnvironment#getTreeInterpolants}. Asserted formulas that are not part of any
+   * partition are added as background to both sides of each binary query.
+   *
+   * @param assertedFormulas all formulas on the prover stack by the ids of their assertions.
+   * @param partitionedFormulas the partitions (nodes of the tree) in post-order.
+   * @param startOfSubTree the start of the subtree for each node.
+   * @param interpolation procedure to answer the binary queries.
+   * @return one interpolant for each node except the root.
+   */
+  public static <T> List<BooleanFormula> getTreeInterpolants(
+      Map<T, BooleanFormula> assertedFormulas,
+      List<? extends Collection<T>> partitionedFormulas,
+      int[] startOfSubTree,
+      BinaryInterpolation interpolation)
+      throws SolverException, InterruptedException {
+    checkNotNull(assertedFormulas);
+    checkNotNull(startOfSubTree);
+    checkNotNull(interpolation);
+    checkArgument(
+        InterpolatingProverEnvironment.checkTreeStructure(
+            partitionedFormulas.size(), startOfSubTree));
+    Set<T> partitionedIds = new HashSet<>();
+    List<List<BooleanFormula>> partitions = new ArrayList<>(partitionedFormulas.size());
+    for (Collection<T> partition : partitionedFormulas) {
+      checkArgument(
+          assertedFormulas.keySet().containsAll(partition),
+          "interpolation can only be done over previously asserted formulas.");
+      partitionedIds.addAll(partition);
+      List<BooleanFormula> formulas = new ArrayList<>(partition.size());
+      for (T id : partition) {
+        formulas.add(assertedFormulas.get(id));
+      }
+      partitions.add(formulas);
+    }
+    List<BooleanFormula> background = new ArrayList<>();
+    for (Map.Entry<T, BooleanFormula> entry : assertedFormulas.entrySet()) {
+      if (!partitionedIds.contains(entry.getKey())) {
+        background.add(entry.getValue());
+      }
+    }
+
+    TreeInterpolation tree =
+        new TreeInterpolation(partitions, startOfSubTree.clone(), background, interpolation);
+    tree.interpolateSubTree(partitions.size() - 1, ImmutableList.of());
+    return ImmutableList.copyOf(tree.interpolants);
+  }
+
+  /**
+   * Compute the interpolants for all nodes in the subtree of the given node.
+   *
+   * @param node the root of the subtree.
+   * @param outside formulas that represent all nodes outside the subtree.
+   */
+  private void interpolateSubTree(int node, List<BooleanFormula> outside)
+      throws SolverException, InterruptedException {
+    List<Integer> children = new ArrayList<>();
+    for (int child = node - 1; child >= startOfSubTree[node]; child = startOfSubTree[child] - 1) {
+      children.add(child);
+    }
+
+    List<BooleanFormula> interpolantsOfChildren = new ArrayList<>(children.size());
+    for (int i = 0; i < children.size(); i++) {
+      int child = children.get(i);
+      // The outside of the child is the outside of this node, this node itself,
+      // the interpolants of the siblings that were already handled,
+      // and the subtrees of the remaining siblings.
+      List<BooleanFormula> outsideOfChild = new ArrayList<>(outside);
+      outsideOfChild.addAll(partitions.get(node));
+      outsideOfChild.addAll(interpolantsOfChildren);
+      for (int sibling : children.subList(i + 1, children.size())) {
+        for (int j = startOfSubTree[sibling]; j <= sibling; j++) {
+          outsideOfChild.addAll(partitions.get(j));
+        }
+      }
+      interpolateSubTree(child, outsideOfChild);
+      interpolantsOfChildren.add(interpolants[child]);
+    }
+
+    if (node < interpolants.length) {
+      List<BooleanFormula> formulasOfA = new ArrayList<>(partitions.get(node));
+      formulasOfA.addAll(interpolantsOfChildren);
+      formulasOfA.addAll(background);
+      List<BooleanFormula> formulasOfB = new ArrayList<>(outside);
+      formulasOfB.addAll(background);
+      interpolants[node] = interpolation.getInterpolant(formulasOfA, formulasOfB);
+    }
+  }
+}
@@ -0,0 +1,429 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.async;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.ShutdownManager;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.java_smt.SolverContextFactory;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BasicProverEnvironment.AllSatCallback;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.FunctionDeclarationKind;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.api.visitors.DefaultFormulaVisitor;
+import org.sosy_lab.java_smt.basicimpl.SerializedFormula;
+
+/**
+ * A prover environment whose operations return immediately with a {@link CompletableFuture}.
+ *
+ * <p>The operations of a prover are executed in the order of their submission by a thread of the
+ * owning {@link AsyncSolverContext}, on a prover in a separate context of the same solver. The
+ * formulas given to this prover are serialized by the calling thread, which must be allowed to use
+ * the user-facing context, i.e., this prover must not be used concurrently by several threads
+ * unless the user-facing context is thread-safe.
+ *
+ * <p>A query can be aborted by cancelling its future. If the query is already running, the separate
+ * context is interrupted, and it is replaced (including all current assertions) before the next
+ * query. Operations that change the assertion stack are always executed, cancelling their future
+ * only detaches the future from the operation.
+ */
+public final class AsyncProverEnvironment implements AutoCloseable {
+
+  private static final String CANCEL_REASON = "asynchronous query was cancelled";
+
+  private interface BackendQuery<R> {
+    R apply(ProverEnvironment prover, FormulaManager fmgr)
+        throws SolverException, InterruptedException;
+  }
+
+  private final AsyncSolverContext owner;
+  private final FormulaManager manager;
+  private final Solvers solver;
+  private final Configuration config;
+  private final LogManager logger;
+  private final ShutdownNotifier parentNotifier;
+  private final ProverOptions[] options;
+  private final Executor executor;
+
+  private final Set<CompletableFuture<?>> pending = ConcurrentHashMap.newKeySet();
+  private volatile @Nullable CompletableFuture<?> current = null;
+  private volatile @Nullable ShutdownManager shutdownManager = null;
+  private volatile boolean closed = false;
+
+  // The following fields are only accessed by the thread that executes the current operation.
+  private @Nullable SolverContext context = null;
+  private @Nullable ProverEnvironment prover = null;
+  private final List<List<SerializedFormula>> assertionStack = new ArrayList<>();
+
+  AsyncProverEnvironment(
+      AsyncSolverContext pOwner,
+      FormulaManager pManager,
+      Solvers pSolver,
+      Configuration pConfig,
+      LogManager pLogger,
+      ShutdownNotifier pParentNotifier,
+      Executor pPool,
+      ProverOptions[] pOptions) {
+    owner = checkNotNull(pOwner);
+    manager = checkNotNull(pManager);
+    solver = checkNotNull(pSolver);
+    config = checkNotNull(pConfig);
+    logger = checkNotNull(pLogger);
+    parentNotifier = checkNotNull(pParentNotifier);
+    options = pOptions.clone();
+    // a sequential executor keeps the order of operations, but occupies a thread of the pool only
+    // while an operation is available.
+    executor = MoreExecutors.newSequentialExecutor(pPool);
+    assertionStack.add(new ArrayList<>());
+  }
+
+  /** Create a new backtracking point, see {@link ProverEnvironment#push()}. */
+  public CompletableFuture<Void> push() {
+    return update(
+        () -> {
+          assertionStack.add(new ArrayList<>());
+          if (isUsable()) {
+            prover.push();
+          }
+        });
+  }
+
+  /** Push a new backtracking point and add the given constraint to it. */
+  public CompletableFuture<Void> push(BooleanFormula pFormula) {
+    CompletableFuture<Void> pushed = push();
+    return pushed.thenCombine(addConstraint(pFormula), (a, b) -> null);
+  }
+
+  /** Remove the topmost backtracking point, see {@link ProverEnvironment#pop()}. */
+  public CompletableFuture<Void> pop() {
+    return update(
+        () -> {
+          checkState(assertionStack.size() > 1, "no backtracking point to pop");
+          assertionStack.remove(assertionStack.size() - 1);
+          if (isUsable()) {
+            prover.pop();
+          }
+        });
+  }
+
+  /** Add a constraint to the topmost backtracking point. */
+  public CompletableFuture<Void> addConstraint(BooleanFormula pFormula) {
+    SerializedFormula serialized = SerializedFormula.of(manager, pFormula);
+    return update(
+        () -> {
+          assertionStack.get(assertionStack.size() - 1).add(serialized);
+          if (isUsable()) {
+            prover.addConstraint(serialized.toBooleanFormula(context.getFormulaManager()));
+          }
+        });
+  }
+
+  /** Check whether the current assertions are unsatisfiable. */
+  public CompletableFuture<Boolean> isUnsat() {
+    return query((backendProver, fmgr) -> backendProver.isUnsat());
+  }
+
+  /** Check whether the current assertions together with the given assumptions are unsatisfiable. */
+  public CompletableFuture<Boolean> isUnsatWithAssumptions(
+      Collection<BooleanFormula> pAssumptions) {
+    List<SerializedFormula> assumptions = serialize(pAssumptions);
+    return query(
+        (backendProver, fmgr) ->
+            backendProver.isUnsatWithAssumptions(toBooleanFormulas(assumptions, fmgr)));
+  }
+
+  /**
+   * Evaluate the given terms in the model of the last satisfiability check, see {@link
+   * org.sosy_lab.java_smt.api.Evaluator#evaluateAll}. The values (e.g., numbers and booleans) are
+   * independent of any context. The last check must have been satisfiable and the prover must have
+   * been created with {@link ProverOptions#GENERATE_MODELS}.
+   */
+  public CompletableFuture<List<@Nullable Object>> evaluate(List<? extends Formula> pTerms) {
+    List<SerializedFormula> terms = serialize(pTerms);
+    return query(
+        (backendProver, fmgr) -> {
+          List<Formula> backendTerms = new ArrayList<>(terms.size());
+          for (SerializedFormula term : terms) {
+            backendTerms.add(term.toFormula(fmgr));
+          }
+          try (Model model = backendProver.getModel()) {
+            return model.evaluateAll(backendTerms);
+          }
+        });
+  }
+
+  /**
+   * Enumerate all satisfying assignments of the given predicates, see {@link
+   * ProverEnvironment#allSat}. The callback receives literals of the user-facing context, but is
+   * called by the thread that executes the query, thus it must not use the user-facing context.
+   */
+  public <R> CompletableFuture<R> allSat(
+      AllSatCallback<R> pCallback, List<BooleanFormula> pImportant) {
+    checkNotNull(pCallback);
+    // The literals for the callback are created here, because the user-facing context
+    // must not be used by the executing thread.
+    BooleanFormulaManager bmgr = manager.getBooleanFormulaManager();
+    List<BooleanFormula> positive = ImmutableList.copyOf(pImportant);
+    List<BooleanFormula> negative = new ArrayList<>(positive.size());
+    for (BooleanFormula predicate : positive) {
+      negative.add(bmgr.not(predicate));
+    }
+    List<SerializedFormula> important = serialize(positive);
+    return query(
+        (backendProver, fmgr) -> {
+          List<BooleanFormula> backendImportant = toBooleanFormulas(important, fmgr);
+          Map<BooleanFormula, BooleanFormula> literals = new HashMap<>();
+          for (int i = 0; i < backendImportant.size(); i++) {
+            BooleanFormula predicate = backendImportant.get(i);
+            literals.put(predicate, positive.get(i));
+            literals.put(fmgr.getBooleanFormulaManager().not(predicate), negative.get(i));
+          }
+          return backendProver.allSat(
+              new AllSatCallback<R>() {
+                @Override
+                public void apply(List<BooleanFormula> pModel) {
+                  List<BooleanFormula> model = new ArrayList<>(pModel.size());
+                  for (BooleanFormula literal : pModel) {
+                    model.add(toUserLiteral(literal, literals, backendImportant, negative, fmgr));
+                  }
+                  pCallback.apply(model);
+                }
+
+                @Override
+                public R getResult() throws InterruptedException {
+                  return pCallback.getResult();
+                }
+              },
+              backendImportant);
+        });
+  }
+
+  private static BooleanFormula toUserLiteral(
+      BooleanFormula pLiteral,
+      Map<BooleanFormula, BooleanFormula> pLiterals,
+      List<BooleanFormula> pBackendImportant,
+      List<BooleanFormula> pNegative,
+      FormulaManager pFmgr) {
+    BooleanFormula user = pLiterals.get(pLiteral);
+    if (user != null) {
+      return user;
+    }
+    // the solver might construct negations differently from the formula manager.
+    Formula operand = pFmgr.visit(pLiteral, NEGATED_OPERAND);
+    int index = pBackendImportant.indexOf(operand);
+    checkState(index >= 0, "unexpected literal %s in satisfying assignment", pLiteral);
+    return pNegative.get(index);
+  }
+
+  /** Returns the operand of a negation, or the formula itself for any other formula. */
+  private static final DefaultFormulaVisitor<Formula> NEGATED_OPERAND =
+      new DefaultFormulaVisitor<>() {
+        @Override
+        protected Formula visitDefault(Formula pF) {
+          return pF;
+        }
+
+        @Override
+        public Formula visitFunction(
+            Formula pF, List<Formula> pArgs, FunctionDeclaration<?> pFunctionDeclaration) {
+          if (pFunctionDeclaration.getKind() == FunctionDeclarationKind.NOT) {
+            return pArgs.get(0);
+          }
+          return pF;
+        }
+      };
+
+  private List<SerializedFormula> serialize(Collection<? extends Formula> pFormulas) {
+    List<SerializedFormula> serialized = new ArrayList<>(pFormulas.size());
+    for (Formula formula : pFormulas) {
+      serialized.add(SerializedFormula.of(manager, formula));
+    }
+    return serialized;
+  }
+
+  private static List<BooleanFormula> toBooleanFormulas(
+      List<SerializedFormula> pFormulas, FormulaManager pFmgr) {
+    List<BooleanFormula> formulas = new ArrayList<>(pFormulas.size());
+    for (SerializedFormula formula : pFormulas) {
+      formulas.add(formula.toBooleanFormula(pFmgr));
+    }
+    return formulas;
+  }
+
+  private interface Update {
+    void run() throws InterruptedException;
+  }
+
+  /** Submit an operation on the assertion stack, which is executed even if it was cancelled. */
+  private CompletableFuture<Void> update(Update pUpdate) {
+    checkState(!closed, "asynchronous prover is already closed");
+    CompletableFuture<Void> future = new CompletableFuture<>();
+    executor.execute(
+        () -> {
+          try {
+            pUpdate.run();
+            future.complete(null);
+          } catch (InterruptedException e) {
+            // The context was interrupted and will be replaced before the next query,
+            // including all assertions of the current stack.
+            future.complete(null);
+          } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+          }
+        });
+    return future;
+  }
+
+  /**
+   * Submit a query, which is skipped if it is cancelled before it starts, and which interrupts the
+   * context if it is cancelled while running.
+   */
+  private <R> CompletableFuture<R> query(BackendQuery<R> pQuery) {
+    checkState(!closed, "asynchronous prover is already closed");
+    CompletableFuture<R> future = new CompletableFuture<>();
+    pending.add(future);
+    future.whenComplete(
+        (result, failure) -> {
+          pending.remove(future);
+          if (future.isCancelled() && current == future) {
+            interrupt();
+          }
+        });
+    executor.execute(
+        () -> {
+          // Setting the current future before checking for cancellation guarantees that either
+          // the query is skipped or a concurrent cancellation interrupts the query.
+          current = future;
+          try {
+            if (future.isDone()) {
+              return;
+            }
+            ShutdownNotifier notifier = ensureContext();
+            // A cancellation while the context was created or the assertions were replayed might
+            // have happened before the solver listened for it, thus we check again right before
+            // the query.
+            if (future.isDone()) {
+              return;
+            }
+            notifier.shutdownIfNecessary();
+            future.complete(pQuery.apply(prover, context.getFormulaManager()));
+          } catch (SolverException | InterruptedException | RuntimeException e) {
+            future.completeExceptionally(e);
+          } finally {
+            current = null;
+          }
+        });
+    return future;
+  }
+
+  private void interrupt() {
+    ShutdownManager manager = shutdownManager;
+    if (manager != null) {
+      manager.requestShutdown(CANCEL_REASON);
+    }
+  }
+
+  /** Returns whether the current context exists and was not interrupted. */
+  private boolean isUsable() {
+    ShutdownManager manager = shutdownManager;
+    return prover != null && manager != null && !manager.getNotifier().shouldShutdown();
+  }
+
+  /**
+   * Create a new context and replay the assertion stack if the current context is not usable.
+   *
+   * @return the notifier of the current context.
+   */
+  private ShutdownNotifier ensureContext() throws InterruptedException {
+    ShutdownManager manager = shutdownManager;
+    if (isUsable() && manager != null) {
+      return manager.getNotifier();
+    }
+    closeContext();
+    parentNotifier.shutdownIfNecessary();
+    manager = ShutdownManager.createWithParent(parentNotifier);
+    shutdownManager = manager;
+    try {
+      context =
+          SolverContextFactory.createSolverContext(config, logger, manager.getNotifier(), solver);
+    } catch (InvalidConfigurationException e) {
+      throw new AssertionError("should not happen, the user-facing context was created before", e);
+    }
+    prover = context.newProverEnvironment(options);
+    FormulaManager fmgr = context.getFormulaManager();
+    for (int level = 0; level < assertionStack.size(); level++) {
+      if (level > 0) {
+        prover.push();
+      }
+      for (SerializedFormula assertion : assertionStack.get(level)) {
+        prover.addConstraint(assertion.toBooleanFormula(fmgr));
+      }
+    }
+    return manager.getNotifier();
+  }
+
+  private void closeContext() {
+    if (prover != null) {
+      prover.close();
+      prover = null;
+    }
+    if (context != null) {
+      context.close();
+      context = null;
+    }
+  }
+
+  /**
+   * Close this prover. Queries that did not yet finish are cancelled, and the separate context is
+   * closed asynchronously.
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    for (CompletableFuture<?> future : ImmutableList.copyOf(pending)) {
+      future.cancel(true);
+    }
+    executor.execute(this::closeContext);
+    owner.unregister(this);
+  }
+
+  @Override
+  public String toString() {
+    return "AsyncProverEnvironment(" + solver + ")";
+  }
+}
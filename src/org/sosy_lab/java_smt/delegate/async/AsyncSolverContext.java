@@ -0,0 +1,147 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.async;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+
+/**
+ * Creates prover environments whose satisfiability checks run asynchronously, such that a single
+ * thread can pipeline many independent queries.
+ *
+ * <p>Formulas are created in the given user-facing context. Each {@link AsyncProverEnvironment}
+ * forwards its assertions to a prover in its own context of the same solver, and all operations of
+ * a prover are executed in the order of their submission. The operations of all provers share a
+ * pool with a fixed number of threads, which bounds the number of queries that are executed at the
+ * same time. Queued operations do not occupy a thread.
+ *
+ * <p>Formulas are transferred between the contexts in SMT-LIB2 format, thus the solver has to
+ * support dumping and parsing of formulas. Optimization queries are not supported.
+ */
+@Options(prefix = "solver.async")
+public final class AsyncSolverContext implements AutoCloseable {
+
+  @Option(
+      secure = true,
+      description =
+          "Number of threads that execute asynchronous queries, "
+              + "i.e., the maximal number of queries that are solved at the same time.")
+  private int threads = Runtime.getRuntime().availableProcessors();
+
+  /** Solvers that can not parse formulas and thus can not receive formulas of another context. */
+  private static final ImmutableSet<Solvers> SOLVERS_WITHOUT_PARSER =
+      Sets.immutableEnumSet(Solvers.CVC4, Solvers.CVC5, Solvers.BOOLECTOR, Solvers.YICES2);
+
+  private final SolverContext context;
+  private final Configuration solverConfig;
+  private final LogManager logger;
+  private final ShutdownNotifier shutdownNotifier;
+  private final ExecutorService executor;
+
+  private final Set<AsyncProverEnvironment> provers = new LinkedHashSet<>();
+  private boolean closed = false;
+
+  public AsyncSolverContext(
+      Configuration pConfig,
+      LogManager pLogger,
+      ShutdownNotifier pShutdownNotifier,
+      SolverContext pContext)
+      throws InvalidConfigurationException {
+    pConfig.inject(this, AsyncSolverContext.class);
+    if (threads < 1) {
+      throw new InvalidConfigurationException("Asynchronous queries require at least one thread.");
+    }
+    context = checkNotNull(pContext);
+    if (SOLVERS_WITHOUT_PARSER.contains(context.getSolverName())) {
+      throw new InvalidConfigurationException(
+          "Asynchronous queries require a solver that can parse formulas, but "
+              + context.getSolverName()
+              + " can not.");
+    }
+    logger = checkNotNull(pLogger);
+    shutdownNotifier = checkNotNull(pShutdownNotifier);
+
+    // The provers are plain solvers without any additional wrapping.
+    solverConfig =
+        Configuration.builder()
+            .copyFrom(pConfig)
+            .setOption("solver.usePortfolio", "false")
+            .setOption("solver.synchronize", "false")
+            .setOption("solver.useDebugMode", "false")
+            .setOption("solver.recordTrace", "false")
+            .setOption("solver.collectStatistics", "false")
+            .build();
+    executor =
+        Executors.newFixedThreadPool(
+            threads,
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("JavaSMT-async-%d").build());
+  }
+
+  /**
+   * Create a new prover environment for asynchronous queries. The formulas given to the prover must
+   * be created in the user-facing context of this object.
+   */
+  public synchronized AsyncProverEnvironment newProverEnvironment(ProverOptions... pOptions) {
+    checkState(!closed, "asynchronous solver context is already closed");
+    AsyncProverEnvironment prover =
+        new AsyncProverEnvironment(
+            this,
+            context.getFormulaManager(),
+            context.getSolverName(),
+            solverConfig,
+            logger,
+            shutdownNotifier,
+            executor,
+            pOptions);
+    provers.add(prover);
+    return prover;
+  }
+
+  synchronized void unregister(AsyncProverEnvironment pProver) {
+    provers.remove(pProver);
+  }
+
+  /**
+   * Close all prover environments, their pending operations are cancelled. The user-facing context
+   * stays open.
+   */
+  @Override
+  public void close() {
+    ImmutableList<AsyncProverEnvironment> open;
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      open = ImmutableList.copyOf(provers);
+    }
+    for (AsyncProverEnvironment prover : open) {
+      prover.close();
+    }
+    executor.shutdown();
+  }
+}
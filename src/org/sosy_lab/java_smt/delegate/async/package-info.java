@@ -0,0 +1,21 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+/**
+ * The classes of this package provide prover environments whose operations do not block the calling
+ * thread, but return a {@link java.util.concurrent.CompletableFuture}.
+ *
+ * <p>All formulas are created in a user-facing solver context. Each asynchronous prover environment
+ * forwards its assertions to a prover in its own context, and the operations of all provers are
+ * executed by a bounded pool of threads.
+ */
+@com.google.errorprone.annotations.CheckReturnValue
+@javax.annotation.ParametersAreNonnullByDefault
+@org.sosy_lab.common.annotations.FieldsAreNonnullByDefault
+@org.sosy_lab.common.annotations.ReturnValuesAreNonnullByDefault
+package org.sosy_lab.java_smt.delegate.async;
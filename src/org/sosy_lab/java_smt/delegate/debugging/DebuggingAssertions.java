@@ -9,7 +9,9 @@
 package org.sosy_lab.java_smt.delegate.debugging;
 
 import com.google.common.base.Preconditions;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
@@ -17,22 +19,32 @@ import org.sosy_lab.java_smt.api.Formula;
 import org.sosy_lab.java_smt.api.FormulaManager;
 import org.sosy_lab.java_smt.api.FunctionDeclaration;
 import org.sosy_lab.java_smt.api.FunctionDeclarationKind;
-import org.sosy_lab.java_smt.api.visitors.DefaultFormulaVisitor;
-import org.sosy_lab.java_smt.api.visitors.TraversalProcess;
 
 class DebuggingAssertions {
-  // The associated formula manager. Needed in addFormulaTerm to recursively iterate over all
-  // sub formulas.
+  // The associated formula manager. Needed as base for the wrapped transformation visitors.
   private final FormulaManager formulaManager;
 
   private final DebuggingSolverInformation debugInfo;
 
+  // Counts the checks for formulas and declarations, if only some of them are executed.
+  private final AtomicLong checks = new AtomicLong();
+
   DebuggingAssertions(Solvers pSolver, Configuration pConfiguration, FormulaManager pFormulaManager)
       throws InvalidConfigurationException {
     debugInfo = new DebuggingSolverInformation(pSolver, pConfiguration);
     formulaManager = pFormulaManager;
   }
 
+  FormulaManager getFormulaManager() {
+    return formulaManager;
+  }
+
+  /** Whether the next check for a formula or declaration should be executed. */
+  private boolean isSampled() {
+    int interval = debugInfo.getCheckInterval();
+    return interval == 1 || checks.incrementAndGet() % interval == 0;
+  }
+
   /** Assert that this object is only used by the thread that created it. */
   public void assertThreadLocal() {
     if (debugInfo.isThreadLocal()) {
@@ -55,7 +67,8 @@ class DebuggingAssertions {
   /** Assert that the function declaration belongs to this context. */
   public void assertDeclarationInContext(FunctionDeclaration<?> pFunctionDeclaration) {
     if (List.of(FunctionDeclarationKind.VAR, FunctionDeclarationKind.UF)
-        .contains(pFunctionDeclaration.getKind())) {
+            .contains(pFunctionDeclaration.getKind())
+        && isSampled()) {
       Preconditions.checkArgument(
           debugInfo.getDeclaredFunctions().contains(pFunctionDeclaration),
           "Function was not declared "
@@ -68,30 +81,36 @@ class DebuggingAssertions {
     }
   }
 
-  /** Needs to be called after a new Formula is created to associate it with this context. */
+  /**
+   * Needs to be called after a new Formula is created or handed out to the user to associate it
+   * with this context.
+   *
+   * <p>Only the given term is added, not its sub terms. The sub terms can only be accessed by the
+   * user through visitors and other methods of the debugging delegate, which add them on access.
+   * Thus, the cost of this method does not depend on the size of the formula.
+   */
   public void addFormulaTerm(Formula pFormula) {
-    formulaManager.visitRecursively(
-        pFormula,
-        new DefaultFormulaVisitor<>() {
-          @Override
-          protected TraversalProcess visitDefault(Formula f) {
-            // Recursively add all sub terms of a formula to the context
-            debugInfo.getDefinedFormulas().add(f);
-            return TraversalProcess.CONTINUE;
-          }
-        });
+    debugInfo.addDefinedFormula(pFormula);
+  }
+
+  /** Add all given formulas, see {@link #addFormulaTerm}. */
+  public void addFormulaTerms(Collection<? extends Formula> pFormulas) {
+    for (Formula formula : pFormulas) {
+      debugInfo.addDefinedFormula(formula);
+    }
   }
 
   /** Assert that the formula belongs to this context. */
   public void assertFormulaInContext(Formula pFormula) {
-    Preconditions.checkArgument(
-        debugInfo.getDefinedFormulas().contains(pFormula),
-        "Function was not declared "
-            + (debugInfo.isNoSharedFormulas() ? "in this context." : "on this solver.")
-            + "\n%s"
-            + "\nnot in"
-            + "\n%s",
-        pFormula,
-        debugInfo.getDefinedFormulas());
+    if (isSampled()) {
+      Preconditions.checkArgument(
+          debugInfo.getDefinedFormulas().contains(pFormula),
+          "Function was not declared "
+              + (debugInfo.isNoSharedFormulas() ? "in this context." : "on this solver.")
+              + "\n%s"
+              + "\nnot among the %s formulas of this context.",
+          pFormula,
+          debugInfo.getDefinedFormulas().size());
+    }
   }
 }
@@ -80,7 +80,9 @@ class DebuggingBasicProverEnvironment<T> implements BasicProverEnvironment<T> {
   @Override
   public List<BooleanFormula> getUnsatCore() {
     debugging.assertThreadLocal();
-    return delegate.getUnsatCore();
+    List<BooleanFormula> result = delegate.getUnsatCore();
+    debugging.addFormulaTerms(result);
+    return result;
   }
 
   @Override
@@ -90,7 +92,9 @@ class DebuggingBasicProverEnvironment<T> implements BasicProverEnvironment<T> {
     for (BooleanFormula f : assumptions) {
       debugging.assertFormulaInContext(f);
     }
-    return delegate.unsatCoreOverAssumptions(assumptions);
+    Optional<List<BooleanFormula>> result = delegate.unsatCoreOverAssumptions(assumptions);
+    result.ifPresent(debugging::addFormulaTerms);
+    return result;
   }
 
   @Override
@@ -106,6 +110,19 @@ class DebuggingBasicProverEnvironment<T> implements BasicProverEnvironment<T> {
     for (BooleanFormula f : important) {
       debugging.assertFormulaInContext(f);
     }
-    return delegate.allSat(callback, important);
+    return delegate.allSat(
+        new AllSatCallback<>() {
+          @Override
+          public void apply(List<BooleanFormula> model) {
+            debugging.addFormulaTerms(model);
+            callback.apply(model);
+          }
+
+          @Override
+          public R getResult() throws InterruptedException {
+            return callback.getResult();
+          }
+        },
+        important);
   }
 }
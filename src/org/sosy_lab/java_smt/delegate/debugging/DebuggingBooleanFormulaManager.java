@@ -215,7 +215,7 @@ public class DebuggingBooleanFormulaManager implements BooleanFormulaManager {
   public <R> R visit(BooleanFormula pFormula, BooleanFormulaVisitor<R> visitor) {
     debugging.assertThreadLocal();
     debugging.assertFormulaInContext(pFormula);
-    return delegate.visit(pFormula, visitor);
+    return delegate.visit(pFormula, new DebuggingBooleanFormulaVisitor<>(visitor, debugging));
   }
 
   @Override
@@ -223,7 +223,7 @@ public class DebuggingBooleanFormulaManager implements BooleanFormulaManager {
       BooleanFormula f, BooleanFormulaVisitor<TraversalProcess> rFormulaVisitor) {
     debugging.assertThreadLocal();
     debugging.assertFormulaInContext(f);
-    delegate.visitRecursively(f, rFormulaVisitor);
+    delegate.visitRecursively(f, new DebuggingBooleanFormulaVisitor<>(rFormulaVisitor, debugging));
   }
 
   @Override
@@ -231,7 +231,9 @@ public class DebuggingBooleanFormulaManager implements BooleanFormulaManager {
       BooleanFormula f, BooleanFormulaTransformationVisitor pVisitor) {
     debugging.assertThreadLocal();
     debugging.assertFormulaInContext(f);
-    BooleanFormula result = delegate.transformRecursively(f, pVisitor);
+    BooleanFormula result =
+        delegate.transformRecursively(
+            f, new DebuggingBooleanFormulaTransformationVisitor(pVisitor, debugging));
     debugging.addFormulaTerm(result);
     return result;
   }
@@ -0,0 +1,116 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.debugging;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.List;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.QuantifiedFormulaManager.Quantifier;
+import org.sosy_lab.java_smt.api.visitors.BooleanFormulaTransformationVisitor;
+
+/**
+ * Registers all formulas that are passed to the wrapped transformation, including the already
+ * transformed operands that were created by the solver.
+ */
+class DebuggingBooleanFormulaTransformationVisitor extends BooleanFormulaTransformationVisitor {
+  private final BooleanFormulaTransformationVisitor delegate;
+  private final DebuggingAssertions debugging;
+
+  DebuggingBooleanFormulaTransformationVisitor(
+      BooleanFormulaTransformationVisitor pDelegate, DebuggingAssertions pDebugging) {
+    super(pDebugging.getFormulaManager());
+    delegate = checkNotNull(pDelegate);
+    debugging = pDebugging;
+  }
+
+  @Override
+  public BooleanFormula visitConstant(boolean value) {
+    return delegate.visitConstant(value);
+  }
+
+  @Override
+  public BooleanFormula visitBoundVar(BooleanFormula var, int deBruijnIdx) {
+    debugging.addFormulaTerm(var);
+    return delegate.visitBoundVar(var, deBruijnIdx);
+  }
+
+  @Override
+  public BooleanFormula visitAtom(BooleanFormula pAtom, FunctionDeclaration<BooleanFormula> decl) {
+    debugging.addFormulaTerm(pAtom);
+    return delegate.visitAtom(pAtom, decl);
+  }
+
+  @Override
+  public BooleanFormula visitNot(BooleanFormula processedOperand) {
+    debugging.addFormulaTerm(processedOperand);
+    return delegate.visitNot(processedOperand);
+  }
+
+  @Override
+  public BooleanFormula visitAnd(List<BooleanFormula> processedOperands) {
+    debugging.addFormulaTerms(processedOperands);
+    return delegate.visitAnd(processedOperands);
+  }
+
+  @Override
+  public BooleanFormula visitOr(List<BooleanFormula> processedOperands) {
+    debugging.addFormulaTerms(processedOperands);
+    return delegate.visitOr(processedOperands);
+  }
+
+  @Override
+  public BooleanFormula visitXor(
+      BooleanFormula processedOperand1, BooleanFormula processedOperand2) {
+    debugging.addFormulaTerm(processedOperand1);
+    debugging.addFormulaTerm(processedOperand2);
+    return delegate.visitXor(processedOperand1, processedOperand2);
+  }
+
+  @Override
+  public BooleanFormula visitEquivalence(
+      BooleanFormula processedOperand1, BooleanFormula processedOperand2) {
+    debugging.addFormulaTerm(processedOperand1);
+    debugging.addFormulaTerm(processedOperand2);
+    return delegate.visitEquivalence(processedOperand1, processedOperand2);
+  }
+
+  @Override
+  public BooleanFormula visitImplication(
+      BooleanFormula processedOperand1, BooleanFormula processedOperand2) {
+    debugging.addFormulaTerm(processedOperand1);
+    debugging.addFormulaTerm(processedOperand2);
+    return delegate.visitImplication(processedOperand1, processedOperand2);
+  }
+
+  @Override
+  public BooleanFormula visitIfThenElse(
+      BooleanFormula processedCondition,
+      BooleanFormula processedThenFormula,
+      BooleanFormula processedElseFormula) {
+    debugging.addFormulaTerm(processedCondition);
+    debugging.addFormulaTerm(processedThenFormula);
+    debugging.addFormulaTerm(processedElseFormula);
+    return delegate.visitIfThenElse(processedCondition, processedThenFormula, processedElseFormula);
+  }
+
+  @Override
+  public BooleanFormula visitQuantifier(
+      Quantifier quantifier,
+      BooleanFormula quantifiedAST,
+      List<Formula> boundVars,
+      BooleanFormula processedBody) {
+    debugging.addFormulaTerm(quantifiedAST);
+    debugging.addFormulaTerms(boundVars);
+    debugging.addFormulaTerm(processedBody);
+    return delegate.visitQuantifier(quantifier, quantifiedAST, boundVars, processedBody);
+  }
+}
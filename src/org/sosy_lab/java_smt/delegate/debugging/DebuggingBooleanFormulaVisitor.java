@@ -0,0 +1,110 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.debugging;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.List;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.QuantifiedFormulaManager.Quantifier;
+import org.sosy_lab.java_smt.api.visitors.BooleanFormulaVisitor;
+
+/**
+ * Registers all formulas that are passed to the wrapped visitor, because sub terms are not
+ * registered when a formula is created.
+ */
+class DebuggingBooleanFormulaVisitor<R> implements BooleanFormulaVisitor<R> {
+  private final BooleanFormulaVisitor<R> delegate;
+  private final DebuggingAssertions debugging;
+
+  DebuggingBooleanFormulaVisitor(
+      BooleanFormulaVisitor<R> pDelegate, DebuggingAssertions pDebugging) {
+    delegate = checkNotNull(pDelegate);
+    debugging = pDebugging;
+  }
+
+  @Override
+  public R visitConstant(boolean value) {
+    return delegate.visitConstant(value);
+  }
+
+  @Override
+  public R visitBoundVar(BooleanFormula var, int deBruijnIdx) {
+    debugging.addFormulaTerm(var);
+    return delegate.visitBoundVar(var, deBruijnIdx);
+  }
+
+  @Override
+  public R visitNot(BooleanFormula operand) {
+    debugging.addFormulaTerm(operand);
+    return delegate.visitNot(operand);
+  }
+
+  @Override
+  public R visitAnd(List<BooleanFormula> operands) {
+    debugging.addFormulaTerms(operands);
+    return delegate.visitAnd(operands);
+  }
+
+  @Override
+  public R visitOr(List<BooleanFormula> operands) {
+    debugging.addFormulaTerms(operands);
+    return delegate.visitOr(operands);
+  }
+
+  @Override
+  public R visitXor(BooleanFormula operand1, BooleanFormula operand2) {
+    debugging.addFormulaTerm(operand1);
+    debugging.addFormulaTerm(operand2);
+    return delegate.visitXor(operand1, operand2);
+  }
+
+  @Override
+  public R visitEquivalence(BooleanFormula operand1, BooleanFormula operand2) {
+    debugging.addFormulaTerm(operand1);
+    debugging.addFormulaTerm(operand2);
+    return delegate.visitEquivalence(operand1, operand2);
+  }
+
+  @Override
+  public R visitImplication(BooleanFormula operand1, BooleanFormula operand2) {
+    debugging.addFormulaTerm(operand1);
+    debugging.addFormulaTerm(operand2);
+    return delegate.visitImplication(operand1, operand2);
+  }
+
+  @Override
+  public R visitIfThenElse(
+      BooleanFormula condition, BooleanFormula thenFormula, BooleanFormula elseFormula) {
+    debugging.addFormulaTerm(condition);
+    debugging.addFormulaTerm(thenFormula);
+    debugging.addFormulaTerm(elseFormula);
+    return delegate.visitIfThenElse(condition, thenFormula, elseFormula);
+  }
+
+  @Override
+  public R visitQuantifier(
+      Quantifier quantifier,
+      BooleanFormula quantifiedAST,
+      List<Formula> boundVars,
+      BooleanFormula body) {
+    debugging.addFormulaTerm(quantifiedAST);
+    debugging.addFormulaTerms(boundVars);
+    debugging.addFormulaTerm(body);
+    return delegate.visitQuantifier(quantifier, quantifiedAST, boundVars, body);
+  }
+
+  @Override
+  public R visitAtom(BooleanFormula atom, FunctionDeclaration<BooleanFormula> funcDecl) {
+    debugging.addFormulaTerm(atom);
+    return delegate.visitAtom(atom, funcDecl);
+  }
+}
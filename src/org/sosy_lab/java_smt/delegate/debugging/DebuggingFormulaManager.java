@@ -10,9 +10,13 @@ package org.sosy_lab.java_smt.delegate.debugging;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterables;
 import java.io.IOException;
+import java.io.Reader;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import org.sosy_lab.common.Appender;
@@ -34,6 +38,7 @@ import org.sosy_lab.java_smt.api.SLFormulaManager;
 import org.sosy_lab.java_smt.api.SolverException;
 import org.sosy_lab.java_smt.api.StringFormulaManager;
 import org.sosy_lab.java_smt.api.Tactic;
+import org.sosy_lab.java_smt.api.TransformationSession;
 import org.sosy_lab.java_smt.api.UFManager;
 import org.sosy_lab.java_smt.api.visitors.FormulaTransformationVisitor;
 import org.sosy_lab.java_smt.api.visitors.FormulaVisitor;
@@ -163,6 +168,14 @@ public class DebuggingFormulaManager implements FormulaManager {
     return result;
   }
 
+  @Override
+  public BooleanFormula parse(Reader input) throws IOException, IllegalArgumentException {
+    debugging.assertThreadLocal();
+    BooleanFormula result = delegate.parse(input);
+    debugging.addFormulaTerm(result);
+    return result;
+  }
+
   @Override
   public Appender dumpFormula(BooleanFormula pT) {
     debugging.assertThreadLocal();
@@ -199,14 +212,14 @@ public class DebuggingFormulaManager implements FormulaManager {
   public <R> R visit(Formula f, FormulaVisitor<R> rFormulaVisitor) {
     debugging.assertThreadLocal();
     debugging.assertFormulaInContext(f);
-    return delegate.visit(f, rFormulaVisitor);
+    return delegate.visit(f, new DebuggingFormulaVisitor<>(rFormulaVisitor, debugging));
   }
 
   @Override
   public void visitRecursively(Formula f, FormulaVisitor<TraversalProcess> rFormulaVisitor) {
     debugging.assertThreadLocal();
     debugging.assertFormulaInContext(f);
-    delegate.visitRecursively(f, rFormulaVisitor);
+    delegate.visitRecursively(f, new DebuggingFormulaVisitor<>(rFormulaVisitor, debugging));
   }
 
   @Override
@@ -214,21 +227,39 @@ public class DebuggingFormulaManager implements FormulaManager {
       T f, FormulaTransformationVisitor pFormulaVisitor) {
     debugging.assertThreadLocal();
     debugging.assertFormulaInContext(f);
-    return delegate.transformRecursively(f, pFormulaVisitor);
+    T result =
+        delegate.transformRecursively(
+            f, new DebuggingFormulaTransformationVisitor(pFormulaVisitor, debugging));
+    debugging.addFormulaTerm(result);
+    return result;
+  }
+
+  @Override
+  public TransformationSession newTransformationSession(
+      FormulaTransformationVisitor pFormulaVisitor) {
+    debugging.assertThreadLocal();
+    return new DebuggingTransformationSession(
+        delegate.newTransformationSession(
+            new DebuggingFormulaTransformationVisitor(pFormulaVisitor, debugging)),
+        debugging);
   }
 
   @Override
   public ImmutableMap<String, Formula> extractVariables(Formula f) {
     debugging.assertThreadLocal();
     debugging.assertFormulaInContext(f);
-    return delegate.extractVariables(f);
+    ImmutableMap<String, Formula> result = delegate.extractVariables(f);
+    debugging.addFormulaTerms(result.values());
+    return result;
   }
 
   @Override
   public ImmutableMap<String, Formula> extractVariablesAndUFs(Formula f) {
     debugging.assertThreadLocal();
     debugging.assertFormulaInContext(f);
-    return delegate.extractVariablesAndUFs(f);
+    ImmutableMap<String, Formula> result = delegate.extractVariablesAndUFs(f);
+    debugging.addFormulaTerms(result.values());
+    return result;
   }
 
   @Override
@@ -247,6 +278,33 @@ public class DebuggingFormulaManager implements FormulaManager {
     return result;
   }
 
+  @Override
+  public <T extends Formula> ImmutableList<T> substitute(
+      Collection<T> formulas, Map<? extends Formula, ? extends Formula> fromToMapping) {
+    debugging.assertThreadLocal();
+    for (Formula term : formulas) {
+      debugging.assertFormulaInContext(term);
+    }
+    assertMappingInContext(fromToMapping);
+    ImmutableList<T> result = delegate.substitute(formulas, fromToMapping);
+    debugging.addFormulaTerms(result);
+    return result;
+  }
+
+  @Override
+  public TransformationSession newSubstitution(
+      Map<? extends Formula, ? extends Formula> fromToMapping) {
+    debugging.assertThreadLocal();
+    assertMappingInContext(fromToMapping);
+    return new DebuggingTransformationSession(delegate.newSubstitution(fromToMapping), debugging);
+  }
+
+  private void assertMappingInContext(Map<? extends Formula, ? extends Formula> fromToMapping) {
+    for (Formula term : Iterables.concat(fromToMapping.keySet(), fromToMapping.values())) {
+      debugging.assertFormulaInContext(term);
+    }
+  }
+
   @Override
   public BooleanFormula translateFrom(BooleanFormula formula, FormulaManager otherManager) {
     if (otherManager instanceof DebuggingFormulaManager) {
@@ -0,0 +1,72 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.debugging;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.List;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.QuantifiedFormulaManager.Quantifier;
+import org.sosy_lab.java_smt.api.visitors.FormulaTransformationVisitor;
+
+/**
+ * Registers all formulas that are passed to the wrapped transformation, including the already
+ * transformed arguments that were created by the solver.
+ */
+class DebuggingFormulaTransformationVisitor extends FormulaTransformationVisitor {
+  private final FormulaTransformationVisitor delegate;
+  private final DebuggingAssertions debugging;
+
+  DebuggingFormulaTransformationVisitor(
+      FormulaTransformationVisitor pDelegate, DebuggingAssertions pDebugging) {
+    super(pDebugging.getFormulaManager());
+    delegate = checkNotNull(pDelegate);
+    debugging = pDebugging;
+  }
+
+  @Override
+  public Formula visitFreeVariable(Formula f, String name) {
+    debugging.addFormulaTerm(f);
+    return delegate.visitFreeVariable(f, name);
+  }
+
+  @Override
+  public Formula visitBoundVariable(Formula f, int deBruijnIdx) {
+    debugging.addFormulaTerm(f);
+    return delegate.visitBoundVariable(f, deBruijnIdx);
+  }
+
+  @Override
+  public Formula visitConstant(Formula f, Object value) {
+    debugging.addFormulaTerm(f);
+    return delegate.visitConstant(f, value);
+  }
+
+  @Override
+  public Formula visitFunction(
+      Formula f, List<Formula> newArgs, FunctionDeclaration<?> functionDeclaration) {
+    debugging.addFormulaTerm(f);
+    debugging.addFormulaTerms(newArgs);
+    return delegate.visitFunction(f, newArgs, functionDeclaration);
+  }
+
+  @Override
+  public BooleanFormula visitQuantifier(
+      BooleanFormula f,
+      Quantifier quantifier,
+      List<Formula> boundVariables,
+      BooleanFormula transformedBody) {
+    debugging.addFormulaTerm(f);
+    debugging.addFormulaTerms(boundVariables);
+    debugging.addFormulaTerm(transformedBody);
+    return delegate.visitQuantifier(f, quantifier, boundVariables, transformedBody);
+  }
+}
@@ -0,0 +1,67 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.debugging;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.List;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.QuantifiedFormulaManager.Quantifier;
+import org.sosy_lab.java_smt.api.visitors.FormulaVisitor;
+
+/**
+ * Registers all formulas that are passed to the wrapped visitor, because sub terms are not
+ * registered when a formula is created.
+ */
+class DebuggingFormulaVisitor<R> implements FormulaVisitor<R> {
+  private final FormulaVisitor<R> delegate;
+  private final DebuggingAssertions debugging;
+
+  DebuggingFormulaVisitor(FormulaVisitor<R> pDelegate, DebuggingAssertions pDebugging) {
+    delegate = checkNotNull(pDelegate);
+    debugging = pDebugging;
+  }
+
+  @Override
+  public R visitFreeVariable(Formula f, String name) {
+    debugging.addFormulaTerm(f);
+    return delegate.visitFreeVariable(f, name);
+  }
+
+  @Override
+  public R visitBoundVariable(Formula f, int deBruijnIdx) {
+    debugging.addFormulaTerm(f);
+    return delegate.visitBoundVariable(f, deBruijnIdx);
+  }
+
+  @Override
+  public R visitConstant(Formula f, Object value) {
+    debugging.addFormulaTerm(f);
+    return delegate.visitConstant(f, value);
+  }
+
+  @Override
+  public R visitFunction(
+      Formula f, List<Formula> args, FunctionDeclaration<?> functionDeclaration) {
+    debugging.addFormulaTerm(f);
+    debugging.addFormulaTerms(args);
+    return delegate.visitFunction(f, args, functionDeclaration);
+  }
+
+  @Override
+  public R visitQuantifier(
+      BooleanFormula f, Quantifier quantifier, List<Formula> boundVariables, BooleanFormula body) {
+    debugging.addFormulaTerm(f);
+    debugging.addFormulaTerms(boundVariables);
+    debugging.addFormulaTerm(body);
+    return delegate.visitQuantifier(f, quantifier, boundVariables, body);
+  }
+}
@@ -12,6 +12,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.collect.ImmutableList;
 import java.math.BigInteger;
+import java.util.List;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.rationals.Rational;
 import org.sosy_lab.java_smt.api.BitvectorFormula;
@@ -99,6 +100,15 @@ public class DebuggingModel implements Model {
     return delegate.evaluate(formula);
   }
 
+  @Override
+  public List<@Nullable Object> evaluateAll(List<? extends Formula> formulas) {
+    debugging.assertThreadLocal();
+    for (Formula formula : formulas) {
+      debugging.assertFormulaInContext(formula);
+    }
+    return delegate.evaluateAll(formulas);
+  }
+
   @Override
   public ImmutableList<ValueAssignment> asList() {
     debugging.assertThreadLocal();
@@ -107,6 +117,7 @@ public class DebuggingModel implements Model {
       // Both lines are needed as assignments like "a == false" may have been simplified to
       // "not(a)" by the solver. This then leads to errors as the term "false" is not defined in
       // the context.
+      debugging.addFormulaTerm(v.getKey());
       debugging.addFormulaTerm(v.getValueAsFormula());
       debugging.addFormulaTerm(v.getAssignmentAsFormula());
     }
@@ -8,6 +8,8 @@
 
 package org.sosy_lab.java_smt.delegate.debugging;
 
+import com.google.common.collect.MapMaker;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -43,6 +45,13 @@ public class DebuggingSolverInformation {
               + "created them.")
   private boolean noSharedFormulas = false;
 
+  @Option(
+      secure = true,
+      description =
+          "Check only every n-th use of a formula or function declaration whether it belongs to the"
+              + " context, to reduce the overhead of the debug mode. The value 1 checks all uses.")
+  private int checkInterval = 1;
+
   // TODO: Check that the feature map is correct
   private static final Map<Solvers, Set<FunctionDeclaration<?>>> globalFunctions =
       Map.of(
@@ -59,11 +68,11 @@ public class DebuggingSolverInformation {
   private static final Map<Solvers, Set<Formula>> globalTerms =
       Map.of(
           Solvers.CVC4,
-          ConcurrentHashMap.newKeySet(),
+          newFormulaSet(),
           Solvers.CVC5,
-          ConcurrentHashMap.newKeySet(),
+          newFormulaSet(),
           Solvers.YICES2,
-          ConcurrentHashMap.newKeySet());
+          newFormulaSet());
 
   private Set<Formula> definedFormulas;
 
@@ -73,6 +82,10 @@ public class DebuggingSolverInformation {
       throws InvalidConfigurationException {
     // Read in user supplied options
     pConfiguration.inject(this);
+    if (checkInterval < 1) {
+      throw new InvalidConfigurationException(
+          "The check interval of the debug mode must be positive.");
+    }
 
     // Set configuration options based on the solver that is being used. Options from the
     // configuration passed on the command line will overwrite these settings. That is, if
@@ -97,12 +110,22 @@ public class DebuggingSolverInformation {
 
     // Initialize formula context
     if (noSharedFormulas) {
-      definedFormulas = ConcurrentHashMap.newKeySet();
+      definedFormulas = newFormulaSet();
     } else {
-      definedFormulas = globalTerms.getOrDefault(pSolver, ConcurrentHashMap.newKeySet());
+      definedFormulas = globalTerms.getOrDefault(pSolver, newFormulaSet());
     }
   }
 
+  /**
+   * Create a set for the defined formulas. The set compares formulas by identity and references
+   * them weakly, such that it neither needs to compare terms nor keeps them alive. Each formula
+   * object is added when it is handed out to the user, thus the user can only use formulas that are
+   * contained in the set.
+   */
+  private static Set<Formula> newFormulaSet() {
+    return Collections.newSetFromMap(new MapMaker().weakKeys().makeMap());
+  }
+
   Thread getInitialSolverContextThread() {
     return solverThread;
   }
@@ -119,8 +142,12 @@ public class DebuggingSolverInformation {
     return noSharedFormulas;
   }
 
+  int getCheckInterval() {
+    return checkInterval;
+  }
+
   public static Set<Formula> getGlobalTermsForSolver(Solvers solver) {
-    return globalTerms.getOrDefault(solver, ConcurrentHashMap.newKeySet());
+    return globalTerms.getOrDefault(solver, newFormulaSet());
   }
 
   public static boolean solverHasSharedFormulas(Solvers solver) {
@@ -0,0 +1,39 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.debugging;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.TransformationSession;
+
+class DebuggingTransformationSession implements TransformationSession {
+  private final TransformationSession delegate;
+  private final DebuggingAssertions debugging;
+
+  DebuggingTransformationSession(TransformationSession pDelegate, DebuggingAssertions pDebugging) {
+    delegate = checkNotNull(pDelegate);
+    debugging = pDebugging;
+  }
+
+  @Override
+  public <T extends Formula> T transform(T f) {
+    debugging.assertThreadLocal();
+    debugging.assertFormulaInContext(f);
+    T result = delegate.transform(f);
+    debugging.addFormulaTerm(result);
+    return result;
+  }
+
+  @Override
+  public void clearCache() {
+    debugging.assertThreadLocal();
+    delegate.clearCache();
+  }
+}
@@ -0,0 +1,354 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.portfolio;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.ShutdownManager;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.java_smt.SolverContextFactory;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.basicimpl.SerializedFormula;
+
+/**
+ * One solver of a portfolio. All operations on the solver are executed by a dedicated thread in the
+ * order of their submission, such that the user-facing thread never blocks on an operation of a
+ * solver that is still busy with an earlier (and already lost) satisfiability check.
+ *
+ * <p>An interrupted solver context can not be used any longer, thus the context is replaced by a
+ * fresh one before the next operation and the current assertion stack is replayed into it.
+ */
+final class PortfolioMember implements AutoCloseable {
+
+  /** An operation on the prover of this member, executed by the thread of this member. */
+  interface BackendQuery<R> {
+    R apply(ProverEnvironment prover, FormulaManager fmgr)
+        throws SolverException, InterruptedException;
+  }
+
+  /** The result of a query together with the generation of the context that computed it. */
+  static final class Outcome<R> {
+    final PortfolioMember member;
+    final long generation;
+    final R result;
+
+    private Outcome(PortfolioMember pMember, long pGeneration, R pResult) {
+      member = pMember;
+      generation = pGeneration;
+      result = pResult;
+    }
+  }
+
+  /** An asserted formula and the formula of the user-facing context it was serialized from. */
+  private static final class Assertion {
+    final SerializedFormula serialized;
+    final BooleanFormula original;
+    @Nullable BooleanFormula inBackend = null;
+
+    Assertion(SerializedFormula pSerialized, BooleanFormula pOriginal) {
+      serialized = pSerialized;
+      original = pOriginal;
+    }
+  }
+
+  private static final String INTERRUPT_REASON = "another solver of the portfolio was faster";
+
+  private final Solvers solver;
+  private final Configuration config;
+  private final LogManager logger;
+  private final ShutdownNotifier parentNotifier;
+  private final Consumer<String> loader;
+  private final ProverOptions[] options;
+  private final ExecutorService executor;
+
+  private volatile @Nullable ShutdownManager shutdownManager = null;
+
+  /** Set when the most recently submitted race is cancelled, each race has its own flag. */
+  private volatile AtomicBoolean raceCancelled = new AtomicBoolean();
+
+  private volatile @Nullable Throwable failure = null;
+  private volatile boolean closed = false;
+
+  // The following fields are only accessed by the thread of this member.
+  private @Nullable SolverContext context = null;
+  private @Nullable ProverEnvironment prover = null;
+  private long generation = 0;
+  private final List<List<Assertion>> assertionStack = new ArrayList<>();
+  private final ListMultimap<BooleanFormula, BooleanFormula> originals = ArrayListMultimap.create();
+
+  PortfolioMember(
+      Solvers pSolver,
+      Configuration pConfig,
+      LogManager pLogger,
+      ShutdownNotifier pParentNotifier,
+      Consumer<String> pLoader,
+      ProverOptions[] pOptions) {
+    solver = checkNotNull(pSolver);
+    config = checkNotNull(pConfig);
+    logger = checkNotNull(pLogger);
+    parentNotifier = checkNotNull(pParentNotifier);
+    loader = checkNotNull(pLoader);
+    options = pOptions.clone();
+    executor =
+        Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("JavaSMT-portfolio-" + solver + "-%d")
+                .build());
+    assertionStack.add(new ArrayList<>());
+  }
+
+  Solvers getSolver() {
+    return solver;
+  }
+
+  /** Returns whether this member failed on an earlier operation and is excluded from races. */
+  boolean isBroken() {
+    return failure != null;
+  }
+
+  @Nullable Throwable getFailure() {
+    return failure;
+  }
+
+  void push() {
+    execute(
+        () -> {
+          assertionStack.add(new ArrayList<>());
+          if (isUsable()) {
+            prover.push();
+          }
+        });
+  }
+
+  void pop() {
+    execute(
+        () -> {
+          checkState(assertionStack.size() > 1);
+          for (Assertion assertion : assertionStack.remove(assertionStack.size() - 1)) {
+            if (assertion.inBackend != null) {
+              originals.remove(assertion.inBackend, assertion.original);
+            }
+          }
+          if (isUsable()) {
+            prover.pop();
+          }
+        });
+  }
+
+  void addConstraint(SerializedFormula pFormula, BooleanFormula pOriginal) {
+    execute(
+        () -> {
+          Assertion assertion = new Assertion(pFormula, pOriginal);
+          assertionStack.get(assertionStack.size() - 1).add(assertion);
+          if (isUsable()) {
+            assertInBackend(assertion);
+          }
+        });
+  }
+
+  /**
+   * Submit a query that takes part in a race. The query is skipped if the member is interrupted
+   * before it starts, even if a later race was submitted in the meantime. The future is added to
+   * the given queue as soon as it is done.
+   */
+  <R> Future<Outcome<R>> submitRace(
+      BackendQuery<R> pQuery, BlockingQueue<Future<Outcome<R>>> pFinished) {
+    AtomicBoolean cancelled = new AtomicBoolean();
+    raceCancelled = cancelled;
+    return new ExecutorCompletionService<Outcome<R>>(executor, pFinished)
+        .submit(
+            () -> {
+              if (cancelled.get()) {
+                throw new InterruptedException(INTERRUPT_REASON);
+              }
+              ensureContext();
+              if (cancelled.get()) {
+                throw new InterruptedException(INTERRUPT_REASON);
+              }
+              return new Outcome<>(
+                  this, generation, pQuery.apply(prover, context.getFormulaManager()));
+            });
+  }
+
+  /**
+   * Execute a query on the context with the given generation and wait for its result, e.g., to
+   * retrieve a model or an unsat core after the member won a race. The context is not replaced.
+   */
+  <R> R call(long pGeneration, BackendQuery<R> pQuery) throws SolverException {
+    checkState(!closed, "portfolio prover is already closed");
+    Future<R> future =
+        executor.submit(
+            () -> {
+              checkState(
+                  context != null && generation == pGeneration,
+                  "solver %s of the portfolio was interrupted since the last satisfiability check",
+                  solver);
+              return pQuery.apply(prover, context.getFormulaManager());
+            });
+    try {
+      return Uninterruptibles.getUninterruptibly(future);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      Throwables.throwIfInstanceOf(cause, SolverException.class);
+      Throwables.throwIfUnchecked(cause);
+      throw new SolverException("solver " + solver + " of the portfolio failed", cause);
+    }
+  }
+
+  /** Returns the user-facing formula for a formula asserted in this member. */
+  BooleanFormula toOriginal(BooleanFormula pFormula) {
+    List<BooleanFormula> candidates = originals.get(pFormula);
+    checkState(!candidates.isEmpty(), "unknown formula %s from solver %s", pFormula, solver);
+    return candidates.get(0);
+  }
+
+  /**
+   * Interrupt the current operation of this member. The context of this member becomes unusable and
+   * is replaced before the next operation.
+   */
+  void interrupt() {
+    raceCancelled.set(true);
+    ShutdownManager manager = shutdownManager;
+    if (manager != null) {
+      manager.requestShutdown(INTERRUPT_REASON);
+    }
+  }
+
+  private interface Operation {
+    void run() throws InterruptedException;
+  }
+
+  private void execute(Operation pOperation) {
+    checkState(!closed, "portfolio prover is already closed");
+    @SuppressWarnings("unused")
+    Future<?> possiblyIgnoredError =
+        executor.submit(
+            () -> {
+              if (failure != null) {
+                return;
+              }
+              try {
+                pOperation.run();
+              } catch (InterruptedException e) {
+                // The context was interrupted and will be replaced before the next query,
+                // including all assertions of the current stack.
+              } catch (RuntimeException e) {
+                markBroken(e);
+              }
+            });
+  }
+
+  /** Returns whether the current context exists and was not interrupted. */
+  private boolean isUsable() {
+    ShutdownManager manager = shutdownManager;
+    return prover != null && manager != null && !manager.getNotifier().shouldShutdown();
+  }
+
+  private void ensureContext() throws InterruptedException {
+    if (failure != null) {
+      throw new IllegalStateException("solver " + solver + " of the portfolio failed", failure);
+    }
+    if (isUsable()) {
+      return;
+    }
+    closeContext();
+    parentNotifier.shutdownIfNecessary();
+    ShutdownManager manager = ShutdownManager.createWithParent(parentNotifier);
+    shutdownManager = manager;
+    generation++;
+    try {
+      context =
+          SolverContextFactory.createSolverContext(
+              config, logger, manager.getNotifier(), solver, loader);
+      prover = context.newProverEnvironment(options);
+      for (int level = 0; level < assertionStack.size(); level++) {
+        if (level > 0) {
+          prover.push();
+        }
+        for (Assertion assertion : assertionStack.get(level)) {
+          assertInBackend(assertion);
+        }
+      }
+    } catch (InvalidConfigurationException | RuntimeException e) {
+      markBroken(e);
+      throw new IllegalStateException("solver " + solver + " of the portfolio failed", e);
+    }
+  }
+
+  private void assertInBackend(Assertion pAssertion) throws InterruptedException {
+    BooleanFormula formula = pAssertion.serialized.toBooleanFormula(context.getFormulaManager());
+    pAssertion.inBackend = formula;
+    originals.put(formula, pAssertion.original);
+    prover.addConstraint(formula);
+  }
+
+  private void markBroken(Throwable pFailure) {
+    failure = pFailure;
+    logger.logUserException(
+        Level.INFO, pFailure, "Solver " + solver + " is excluded from the portfolio");
+    closeContext();
+  }
+
+  private void closeContext() {
+    originals.clear();
+    if (prover != null) {
+      prover.close();
+      prover = null;
+    }
+    if (context != null) {
+      context.close();
+      context = null;
+    }
+  }
+
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    interrupt();
+    @SuppressWarnings("unused")
+    Future<?> possiblyIgnoredError = executor.submit(this::closeContext);
+    executor.shutdown();
+  }
+
+  @Override
+  public String toString() {
+    return "PortfolioMember(" + solver + ")";
+  }
+}
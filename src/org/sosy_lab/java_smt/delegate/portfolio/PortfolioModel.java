@@ -0,0 +1,201 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.portfolio;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import java.math.BigInteger;
+import java.util.List;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.rationals.Rational;
+import org.sosy_lab.java_smt.api.BitvectorFormula;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.EnumerationFormula;
+import org.sosy_lab.java_smt.api.FloatingPointFormula;
+import org.sosy_lab.java_smt.api.FloatingPointNumber;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.NumeralFormula.RationalFormula;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.api.StringFormula;
+import org.sosy_lab.java_smt.basicimpl.SerializedFormula;
+
+/**
+ * A model of the solver that won the last race. Formulas are translated into the context of the
+ * solver for evaluation, and formulas contained in the result are translated back.
+ *
+ * <p>The model becomes invalid if the solver is interrupted in a later race.
+ */
+class PortfolioModel implements Model {
+
+  /** An evaluation in the context of the solver. */
+  private interface Evaluation<R> {
+    @Nullable R apply(Model model, Formula formula);
+  }
+
+  /** A value assignment with all formulas serialized. */
+  private static final class SerializedAssignment {
+    final SerializedFormula key;
+    final SerializedFormula value;
+    final SerializedFormula formula;
+    final String name;
+    final Object valueObject;
+    final List<?> arguments;
+
+    SerializedAssignment(ValueAssignment pAssignment, FormulaManager pFmgr) {
+      key = SerializedFormula.of(pFmgr, pAssignment.getKey());
+      value = SerializedFormula.of(pFmgr, pAssignment.getValueAsFormula());
+      formula = SerializedFormula.of(pFmgr, pAssignment.getAssignmentAsFormula());
+      name = pAssignment.getName();
+      valueObject = pAssignment.getValue();
+      arguments = pAssignment.getArgumentsInterpretation();
+    }
+  }
+
+  private final PortfolioMember member;
+  private final long generation;
+  private final Model delegate;
+  private final FormulaManager manager;
+
+  PortfolioModel(
+      PortfolioMember pMember, long pGeneration, Model pDelegate, FormulaManager pManager) {
+    member = checkNotNull(pMember);
+    generation = pGeneration;
+    delegate = checkNotNull(pDelegate);
+    manager = checkNotNull(pManager);
+  }
+
+  private <R> @Nullable R evaluateInSolver(Formula pFormula, Evaluation<R> pEvaluation) {
+    SerializedFormula formula = SerializedFormula.of(manager, pFormula);
+    try {
+      return member.call(
+          generation,
+          (prover, otherManager) -> pEvaluation.apply(delegate, formula.toFormula(otherManager)));
+    } catch (SolverException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Override
+  public <T extends Formula> @Nullable T eval(T pFormula) {
+    SerializedFormula formula = SerializedFormula.of(manager, pFormula);
+    SerializedFormula result;
+    try {
+      result =
+          member.call(
+              generation,
+              (prover, otherManager) -> {
+                Formula value = delegate.eval(formula.<Formula>toFormula(otherManager));
+                return value == null ? null : SerializedFormula.of(otherManager, value);
+              });
+    } catch (SolverException e) {
+      throw new IllegalStateException(e);
+    }
+    return result == null ? null : result.toFormula(manager);
+  }
+
+  @Override
+  public @Nullable Object evaluate(Formula pF) {
+    return evaluateInSolver(pF, Model::evaluate);
+  }
+
+  @Override
+  public @Nullable BigInteger evaluate(IntegerFormula pF) {
+    return evaluateInSolver(pF, (model, f) -> model.evaluate((IntegerFormula) f));
+  }
+
+  @Override
+  public @Nullable Rational evaluate(RationalFormula pF) {
+    return evaluateInSolver(pF, (model, f) -> model.evaluate((RationalFormula) f));
+  }
+
+  @Override
+  public @Nullable Boolean evaluate(BooleanFormula pF) {
+    return evaluateInSolver(pF, (model, f) -> model.evaluate((BooleanFormula) f));
+  }
+
+  @Override
+  public @Nullable BigInteger evaluate(BitvectorFormula pF) {
+    return evaluateInSolver(pF, (model, f) -> model.evaluate((BitvectorFormula) f));
+  }
+
+  @Override
+  public @Nullable String evaluate(StringFormula pF) {
+    return evaluateInSolver(pF, (model, f) -> model.evaluate((StringFormula) f));
+  }
+
+  @Override
+  public @Nullable String evaluate(EnumerationFormula pF) {
+    return evaluateInSolver(pF, (model, f) -> model.evaluate((EnumerationFormula) f));
+  }
+
+  @Override
+  public @Nullable FloatingPointNumber evaluate(FloatingPointFormula pF) {
+    return evaluateInSolver(pF, (model, f) -> model.evaluate((FloatingPointFormula) f));
+  }
+
+  @Override
+  public ImmutableList<ValueAssignment> asList() {
+    ImmutableList<SerializedAssignment> serialized;
+    try {
+      serialized =
+          member.call(
+              generation,
+              (prover, otherManager) -> {
+                ImmutableList.Builder<SerializedAssignment> builder = ImmutableList.builder();
+                for (ValueAssignment assignment : delegate.asList()) {
+                  builder.add(new SerializedAssignment(assignment, otherManager));
+                }
+                return builder.build();
+              });
+    } catch (SolverException e) {
+      throw new IllegalStateException(e);
+    }
+    ImmutableList.Builder<ValueAssignment> result = ImmutableList.builder();
+    for (SerializedAssignment assignment : serialized) {
+      result.add(
+          new ValueAssignment(
+              assignment.key.toFormula(manager),
+              assignment.value.toFormula(manager),
+              assignment.formula.toBooleanFormula(manager),
+              assignment.name,
+              assignment.valueObject,
+              assignment.arguments));
+    }
+    return result.build();
+  }
+
+  @Override
+  public String toString() {
+    try {
+      return member.call(generation, (prover, otherManager) -> delegate.toString());
+    } catch (SolverException | IllegalStateException e) {
+      return "PortfolioModel(" + member.getSolver() + ", invalid)";
+    }
+  }
+
+  @Override
+  public void close() {
+    try {
+      @SuppressWarnings("unused")
+      Object ignored =
+          member.call(
+              generation,
+              (prover, otherManager) -> {
+                delegate.close();
+                return null;
+              });
+    } catch (SolverException | IllegalStateException e) {
+      // the context of the solver was already closed, including this model.
+    }
+  }
+}
@@ -0,0 +1,302 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.portfolio;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.basicimpl.SerializedFormula;
+import org.sosy_lab.java_smt.delegate.portfolio.PortfolioMember.BackendQuery;
+import org.sosy_lab.java_smt.delegate.portfolio.PortfolioMember.Outcome;
+
+/**
+ * A prover environment that forwards all assertions to the provers of several solvers and races
+ * them on each satisfiability check. The first solver that terminates determines the result, all
+ * other solvers are interrupted. Models and unsat cores are retrieved from the winner.
+ */
+class PortfolioProverEnvironment implements ProverEnvironment {
+
+  private final FormulaManager manager;
+  private final ImmutableList<PortfolioMember> members;
+  private final Map<Solvers, Integer> wins = new EnumMap<>(Solvers.class);
+
+  private int size = 0;
+  private boolean closed = false;
+
+  /** The outcome of the last race, or null if the stack was modified since then. */
+  private @Nullable Outcome<?> lastOutcome = null;
+
+  PortfolioProverEnvironment(FormulaManager pManager, List<PortfolioMember> pMembers) {
+    manager = checkNotNull(pManager);
+    members = ImmutableList.copyOf(pMembers);
+    checkState(!members.isEmpty(), "portfolio without solvers");
+  }
+
+  @Override
+  public void push() throws InterruptedException {
+    checkState(!closed);
+    lastOutcome = null;
+    size++;
+    for (PortfolioMember member : members) {
+      member.push();
+    }
+  }
+
+  @Override
+  public void pop() {
+    checkState(!closed);
+    checkState(size > 0, "pop on empty stack");
+    lastOutcome = null;
+    size--;
+    for (PortfolioMember member : members) {
+      member.pop();
+    }
+  }
+
+  @Override
+  public @Nullable Void addConstraint(BooleanFormula pConstraint) throws InterruptedException {
+    checkState(!closed);
+    lastOutcome = null;
+    // serialize once for all solvers, each solver parses the formula in its own thread.
+    SerializedFormula constraint = SerializedFormula.of(manager, pConstraint);
+    for (PortfolioMember member : members) {
+      member.addConstraint(constraint, pConstraint);
+    }
+    return null;
+  }
+
+  @Override
+  public int size() {
+    checkState(!closed);
+    return size;
+  }
+
+  @Override
+  public boolean isUnsat() throws SolverException, InterruptedException {
+    return race((prover, otherManager) -> prover.isUnsat());
+  }
+
+  @Override
+  public boolean isUnsatWithAssumptions(Collection<BooleanFormula> pAssumptions)
+      throws SolverException, InterruptedException {
+    List<SerializedFormula> assumptions = serialize(pAssumptions);
+    return race(
+        (prover, otherManager) ->
+            prover.isUnsatWithAssumptions(toFormulas(assumptions, otherManager)));
+  }
+
+  @Override
+  public Optional<List<BooleanFormula>> unsatCoreOverAssumptions(
+      Collection<BooleanFormula> pAssumptions) throws SolverException, InterruptedException {
+    List<BooleanFormula> originals = ImmutableList.copyOf(pAssumptions);
+    List<SerializedFormula> assumptions = serialize(originals);
+    return race(
+        (prover, otherManager) -> {
+          List<BooleanFormula> translated = toFormulas(assumptions, otherManager);
+          Optional<List<BooleanFormula>> core = prover.unsatCoreOverAssumptions(translated);
+          if (core.isEmpty()) {
+            return Optional.empty();
+          }
+          List<BooleanFormula> result = new ArrayList<>();
+          for (BooleanFormula f : core.orElseThrow()) {
+            int index = translated.indexOf(f);
+            checkState(index >= 0, "unknown assumption %s in unsat core", f);
+            result.add(originals.get(index));
+          }
+          return Optional.of(result);
+        });
+  }
+
+  @SuppressWarnings("resource")
+  @Override
+  public Model getModel() throws SolverException {
+    Outcome<?> outcome = getLastOutcome();
+    Model model =
+        outcome.member.call(outcome.generation, (prover, otherManager) -> prover.getModel());
+    return new PortfolioModel(outcome.member, outcome.generation, model, manager);
+  }
+
+  @Override
+  public List<BooleanFormula> getUnsatCore() {
+    Outcome<?> outcome = getLastOutcome();
+    PortfolioMember member = outcome.member;
+    try {
+      return member.call(
+          outcome.generation,
+          (prover, otherManager) -> {
+            ImmutableList.Builder<BooleanFormula> core = ImmutableList.builder();
+            for (BooleanFormula f : prover.getUnsatCore()) {
+              core.add(member.toOriginal(f));
+            }
+            return core.build();
+          });
+    } catch (SolverException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Override
+  public <R> R allSat(AllSatCallback<R> pCallback, List<BooleanFormula> pImportant)
+      throws InterruptedException, SolverException {
+    // Callbacks can not be raced, thus each solver collects its models and
+    // only the models of the winner are passed to the callback.
+    List<SerializedFormula> important = serialize(pImportant);
+    List<List<SerializedFormula>> models =
+        race(
+            (prover, otherManager) ->
+                prover.allSat(
+                    new AllSatCallback<List<List<SerializedFormula>>>() {
+                      private final List<List<SerializedFormula>> collected = new ArrayList<>();
+
+                      @Override
+                      public void apply(List<BooleanFormula> pModel) {
+                        collected.add(serialize(pModel, otherManager));
+                      }
+
+                      @Override
+                      public List<List<SerializedFormula>> getResult() {
+                        return collected;
+                      }
+                    },
+                    toFormulas(important, otherManager)));
+    lastOutcome = null;
+    for (List<SerializedFormula> model : models) {
+      pCallback.apply(toFormulas(model, manager));
+    }
+    return pCallback.getResult();
+  }
+
+  /**
+   * Run the given query on all solvers and return the result of the first solver that terminates
+   * successfully. The remaining solvers are interrupted. If no solver succeeds, the first failure
+   * is thrown.
+   */
+  private <R> R race(BackendQuery<R> pQuery) throws SolverException, InterruptedException {
+    checkState(!closed);
+    lastOutcome = null;
+    BlockingQueue<Future<Outcome<R>>> finished = new LinkedBlockingQueue<>();
+    Map<PortfolioMember, Future<Outcome<R>>> running = new LinkedHashMap<>();
+    for (PortfolioMember member : members) {
+      if (!member.isBroken()) {
+        running.put(member, member.submitRace(pQuery, finished));
+      }
+    }
+
+    Throwable failure = null;
+    try {
+      for (int i = 0; i < running.size(); i++) {
+        Future<Outcome<R>> future = finished.take();
+        try {
+          Outcome<R> outcome = future.get();
+          lastOutcome = outcome;
+          wins.merge(outcome.member.getSolver(), 1, Integer::sum);
+          return outcome.result;
+        } catch (ExecutionException e) {
+          if (failure == null) {
+            failure = e.getCause();
+          }
+        }
+      }
+    } finally {
+      for (Map.Entry<PortfolioMember, Future<Outcome<R>>> entry : running.entrySet()) {
+        if (!entry.getValue().isDone()) {
+          entry.getKey().interrupt();
+        }
+      }
+    }
+
+    if (failure == null) {
+      for (PortfolioMember member : members) {
+        if (failure == null) {
+          failure = member.getFailure();
+        }
+      }
+      throw new SolverException("no solver of the portfolio is available", failure);
+    }
+    Throwables.throwIfInstanceOf(failure, SolverException.class);
+    Throwables.throwIfInstanceOf(failure, InterruptedException.class);
+    Throwables.throwIfUnchecked(failure);
+    throw new SolverException("all solvers of the portfolio failed", failure);
+  }
+
+  private Outcome<?> getLastOutcome() {
+    checkState(!closed);
+    checkState(lastOutcome != null, "no satisfiability check since the last modification");
+    return lastOutcome;
+  }
+
+  private List<SerializedFormula> serialize(Collection<BooleanFormula> pFormulas) {
+    return serialize(pFormulas, manager);
+  }
+
+  private static List<SerializedFormula> serialize(
+      Collection<BooleanFormula> pFormulas, FormulaManager pManager) {
+    ImmutableList.Builder<SerializedFormula> result = ImmutableList.builder();
+    for (BooleanFormula f : pFormulas) {
+      result.add(SerializedFormula.of(pManager, f));
+    }
+    return result.build();
+  }
+
+  private static List<BooleanFormula> toFormulas(
+      List<SerializedFormula> pFormulas, FormulaManager pManager) {
+    ImmutableList.Builder<BooleanFormula> result = ImmutableList.builder();
+    for (SerializedFormula f : pFormulas) {
+      result.add(f.toBooleanFormula(pManager));
+    }
+    return result.build();
+  }
+
+  /** Returns how often each solver of this portfolio won a race. */
+  @Override
+  public ImmutableMap<String, String> getStatistics() {
+    ImmutableMap.Builder<String, String> builder = ImmutableMap.builder();
+    for (Map.Entry<Solvers, Integer> entry : wins.entrySet()) {
+      builder.put("portfolio wins of " + entry.getKey(), Integer.toString(entry.getValue()));
+    }
+    return builder.buildOrThrow();
+  }
+
+  @Override
+  public void close() {
+    if (!closed) {
+      closed = true;
+      lastOutcome = null;
+      for (PortfolioMember member : members) {
+        member.close();
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "PortfolioProverEnvironment" + members;
+  }
+}
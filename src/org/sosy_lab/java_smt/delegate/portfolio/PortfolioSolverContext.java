@@ -0,0 +1,141 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.portfolio;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.List;
+import java.util.function.Consumer;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
+import org.sosy_lab.java_smt.api.OptimizationProverEnvironment;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext;
+
+/**
+ * A solver context whose provers race several SMT solvers on each satisfiability check.
+ *
+ * <p>Formulas are created in the wrapped context. Each prover environment forwards all assertions
+ * to a prover of each configured solver, where each solver uses its own context and its own thread.
+ * The first solver that terminates determines the result of a satisfiability check, and all other
+ * solvers are interrupted via their {@link ShutdownNotifier}. An interrupted solver context is
+ * replaced before its next usage, and the assertions are replayed into the new context.
+ *
+ * <p>Formulas are transferred between the solvers in SMT-LIB2 format, thus the wrapped solver has
+ * to support dumping and parsing of formulas. Solvers that are not available, can not parse
+ * formulas, or fail on a query are excluded from the portfolio of the prover environment.
+ * Interpolation and optimization are not raced and use the wrapped context.
+ */
+@Options(prefix = "solver.portfolio")
+public class PortfolioSolverContext implements SolverContext {
+
+  @Option(
+      secure = true,
+      description =
+          "Solvers that are raced on each satisfiability check. "
+              + "The solvers are used in addition to the main solver, "
+              + "which is only used to create formulas. "
+              + "Solvers that can not parse formulas, e.g., CVC5, are not used.")
+  private List<Solvers> solvers =
+      ImmutableList.of(Solvers.Z3, Solvers.MATHSAT5, Solvers.SMTINTERPOL);
+
+  private final SolverContext delegate;
+  private final Configuration solverConfig;
+  private final LogManager logger;
+  private final ShutdownNotifier shutdownNotifier;
+  private final Consumer<String> loader;
+
+  public PortfolioSolverContext(
+      Configuration pConfig,
+      LogManager pLogger,
+      ShutdownNotifier pShutdownNotifier,
+      SolverContext pDelegate,
+      Consumer<String> pLoader)
+      throws InvalidConfigurationException {
+    pConfig.inject(this, PortfolioSolverContext.class);
+    if (solvers.isEmpty()) {
+      throw new InvalidConfigurationException("A portfolio requires at least one solver.");
+    }
+    delegate = checkNotNull(pDelegate);
+    logger = checkNotNull(pLogger);
+    shutdownNotifier = checkNotNull(pShutdownNotifier);
+    loader = checkNotNull(pLoader);
+
+    // The solvers of the portfolio are plain solvers without any additional wrapping.
+    solverConfig =
+        Configuration.builder()
+            .copyFrom(pConfig)
+            .setOption("solver.usePortfolio", "false")
+            .setOption("solver.synchronize", "false")
+            .setOption("solver.useDebugMode", "false")
+            .setOption("solver.recordTrace", "false")
+            .setOption("solver.collectStatistics", "false")
+            .build();
+  }
+
+  @Override
+  public FormulaManager getFormulaManager() {
+    return delegate.getFormulaManager();
+  }
+
+  @SuppressWarnings("resource")
+  @Override
+  public ProverEnvironment newProverEnvironment(ProverOptions... pOptions) {
+    ImmutableList.Builder<PortfolioMember> members = ImmutableList.builder();
+    for (Solvers solver : solvers) {
+      members.add(
+          new PortfolioMember(solver, solverConfig, logger, shutdownNotifier, loader, pOptions));
+    }
+    return new PortfolioProverEnvironment(delegate.getFormulaManager(), members.build());
+  }
+
+  @SuppressWarnings("resource")
+  @Override
+  public InterpolatingProverEnvironment<?> newProverEnvironmentWithInterpolation(
+      ProverOptions... pOptions) {
+    // interpolants of different solvers have incompatible constraint ids, no racing here.
+    return delegate.newProverEnvironmentWithInterpolation(pOptions);
+  }
+
+  @SuppressWarnings("resource")
+  @Override
+  public OptimizationProverEnvironment newOptimizationProverEnvironment(ProverOptions... pOptions) {
+    // optimization is not raced, because we can not translate objectives.
+    return delegate.newOptimizationProverEnvironment(pOptions);
+  }
+
+  @Override
+  public String getVersion() {
+    return "Portfolio " + solvers + " with " + delegate.getVersion();
+  }
+
+  @Override
+  public Solvers getSolverName() {
+    return delegate.getSolverName();
+  }
+
+  @Override
+  public ImmutableMap<String, String> getStatistics() {
+    return delegate.getStatistics();
+  }
+
+  @Override
+  public void close() {
+    delegate.close();
+  }
+}
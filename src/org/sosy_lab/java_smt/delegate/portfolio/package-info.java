@@ -0,0 +1,22 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+/**
+ * The classes of this package wrap a solver context and race several SMT solvers on each
+ * satisfiability check of a prover environment.
+ *
+ * <p>All formulas are created in the wrapped context. Each prover environment forwards its
+ * assertions to provers of other solvers (each one running in its own context and thread), and
+ * answers a satisfiability check with the result of the first solver that terminates. The remaining
+ * solvers are interrupted.
+ */
+@com.google.errorprone.annotations.CheckReturnValue
+@javax.annotation.ParametersAreNonnullByDefault
+@org.sosy_lab.common.annotations.FieldsAreNonnullByDefault
+@org.sosy_lab.common.annotations.ReturnValuesAreNonnullByDefault
+package org.sosy_lab.java_smt.delegate.portfolio;
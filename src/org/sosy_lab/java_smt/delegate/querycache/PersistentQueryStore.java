@@ -0,0 +1,154 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.querycache;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import com.google.common.hash.HashCode;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Verdicts of satisfiability checks in a file that is shared by several runs and processes.
+ *
+ * <p>The file is an append-only log of fixed-size records, each consisting of the 128-bit key of a
+ * query and its verdict, after a short header that identifies the format. The log is memory-mapped
+ * for reading, and an index from keys to verdicts is kept in memory. Records that were appended by
+ * other processes are added to the index when a lookup misses.
+ *
+ * <p>Appending a record and reading new records is protected by a lock on the file, thus several
+ * processes can use the same file at the same time. Within one JVM, the file locks are serialized
+ * by a global lock, because the JVM does not allow overlapping file locks.
+ */
+final class PersistentQueryStore implements AutoCloseable {
+
+  private static final byte[] MAGIC = "JSMTQC01".getBytes(US_ASCII);
+  private static final int KEY_BYTES = 16;
+  private static final int RECORD_BYTES = KEY_BYTES + 1;
+  private static final byte SAT = 0;
+  private static final byte UNSAT = 1;
+
+  /** Serializes the file locks of all stores of this JVM. */
+  private static final Object FILE_LOCKS = new Object();
+
+  private final Path path;
+  private final FileChannel channel;
+
+  @GuardedBy("this")
+  private final Map<HashCode, Boolean> index = new HashMap<>();
+
+  /** The length of the file prefix that is contained in the index. */
+  @GuardedBy("this")
+  private long indexed;
+
+  @SuppressWarnings("try")
+  PersistentQueryStore(Path pPath) throws IOException {
+    path = pPath;
+    channel =
+        FileChannel.open(
+            pPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      synchronized (FILE_LOCKS) {
+        try (FileLock lock = channel.lock()) {
+          if (channel.size() == 0) {
+            channel.write(ByteBuffer.wrap(MAGIC), 0);
+          }
+          ByteBuffer header = ByteBuffer.allocate(MAGIC.length);
+          channel.read(header, 0);
+          if (!Arrays.equals(header.array(), MAGIC)) {
+            throw new IOException("File " + pPath + " is not a query cache of this version");
+          }
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+    indexed = MAGIC.length;
+  }
+
+  /** Returns the verdict for the given key, i.e., whether the query is unsatisfiable. */
+  synchronized @Nullable Boolean lookup(HashCode pKey) throws IOException {
+    Boolean unsat = index.get(pKey);
+    if (unsat == null && channel.size() > indexed) {
+      readNewRecords();
+      unsat = index.get(pKey);
+    }
+    return unsat;
+  }
+
+  /** Append the verdict for the given key. */
+  @SuppressWarnings("try")
+  synchronized void store(HashCode pKey, boolean pUnsat) throws IOException {
+    if (index.containsKey(pKey)) {
+      return;
+    }
+    ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES);
+    record.put(pKey.asBytes(), 0, KEY_BYTES);
+    record.put(pUnsat ? UNSAT : SAT);
+    record.flip();
+    synchronized (FILE_LOCKS) {
+      try (FileLock lock = channel.lock()) {
+        // a record written by a crashed process can be incomplete, we skip its remains.
+        long end = channel.size();
+        long position = end - (end - MAGIC.length) % RECORD_BYTES;
+        while (record.hasRemaining()) {
+          position += channel.write(record, position);
+        }
+      }
+    }
+    index.put(pKey, pUnsat);
+  }
+
+  @SuppressWarnings("try")
+  @GuardedBy("this")
+  private void readNewRecords() throws IOException {
+    synchronized (FILE_LOCKS) {
+      try (FileLock lock = channel.lock(0, Long.MAX_VALUE, true)) {
+        long end = channel.size();
+        long complete = (end - indexed) / RECORD_BYTES * RECORD_BYTES;
+        if (complete == 0) {
+          return;
+        }
+        MappedByteBuffer records = channel.map(MapMode.READ_ONLY, indexed, complete);
+        byte[] key = new byte[KEY_BYTES];
+        while (records.remaining() >= RECORD_BYTES) {
+          records.get(key);
+          index.put(HashCode.fromBytes(key.clone()), records.get() == UNSAT);
+        }
+        indexed += complete;
+      }
+    }
+  }
+
+  synchronized int size() {
+    return index.size();
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  @Override
+  public String toString() {
+    return "PersistentQueryStore(" + path + ")";
+  }
+}
@@ -0,0 +1,296 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.querycache;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.Model.ValueAssignment;
+
+/**
+ * The results of satisfiability checks of all provers of a context, bounded by the number of
+ * entries and evicting the least recently used ones.
+ *
+ * <p>Optionally, the verdicts are also kept in a {@link PersistentQueryStore}, which is consulted
+ * if a query is not in memory. Its keys are based on SMT-LIB2 dumps, which are more expensive than
+ * the structural hashes of the in-memory cache, but stable across runs.
+ */
+final class QueryCache {
+
+  /**
+   * A satisfiability check, i.e., the set of asserted formulas and the set of assumptions. The
+   * order and the backtracking levels of the formulas do not change the result of the check.
+   */
+  static final class Query {
+    private final ImmutableSet<BooleanFormula> constraints;
+    private final ImmutableSet<BooleanFormula> assumptions;
+    private final long fingerprint;
+    private @Nullable HashCode persistentKey = null;
+
+    private Query(
+        ImmutableSet<BooleanFormula> pConstraints,
+        ImmutableSet<BooleanFormula> pAssumptions,
+        long pFingerprint) {
+      constraints = pConstraints;
+      assumptions = pAssumptions;
+      fingerprint = pFingerprint;
+    }
+
+    @Override
+    public boolean equals(Object pOther) {
+      if (this == pOther) {
+        return true;
+      }
+      if (!(pOther instanceof Query)) {
+        return false;
+      }
+      Query other = (Query) pOther;
+      return fingerprint == other.fingerprint
+          && constraints.equals(other.constraints)
+          && assumptions.equals(other.assumptions);
+    }
+
+    @Override
+    public int hashCode() {
+      return Long.hashCode(fingerprint);
+    }
+  }
+
+  /** The result of a satisfiability check, with the model or unsat core if requested. */
+  static final class Result {
+    private final boolean unsat;
+    private volatile @Nullable ImmutableList<ValueAssignment> modelAssignments = null;
+    private volatile @Nullable ImmutableList<BooleanFormula> unsatCore = null;
+
+    private Result(boolean pUnsat) {
+      unsat = pUnsat;
+    }
+
+    boolean isUnsat() {
+      return unsat;
+    }
+
+    @Nullable ImmutableList<ValueAssignment> getModelAssignments() {
+      return modelAssignments;
+    }
+
+    @Nullable ImmutableList<BooleanFormula> getUnsatCore() {
+      return unsatCore;
+    }
+  }
+
+  /** The maximal number of terms whose dump is hashed for the persistent store. */
+  private static final int DUMP_CACHE_SIZE = 100_000;
+
+  private final FormulaManager fmgr;
+  private final StructuralHasher hasher;
+  private final Cache<Query, Result> results;
+  private final boolean storeModels;
+  private final boolean storeUnsatCores;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder persistentHits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  private final LogManager logger;
+  private final String solverId;
+  private final Cache<Formula, HashCode> dumpHashes =
+      CacheBuilder.newBuilder().maximumSize(DUMP_CACHE_SIZE).build();
+
+  /** The store is dropped if it fails, because a failing cache should not affect any query. */
+  private volatile @Nullable PersistentQueryStore persistentStore;
+
+  QueryCache(
+      FormulaManager pFmgr,
+      int pSize,
+      boolean pStoreModels,
+      boolean pStoreUnsatCores,
+      @Nullable PersistentQueryStore pPersistentStore,
+      String pSolverId,
+      LogManager pLogger) {
+    fmgr = pFmgr;
+    hasher = new StructuralHasher(pFmgr);
+    results = CacheBuilder.newBuilder().maximumSize(pSize).build();
+    storeModels = pStoreModels;
+    storeUnsatCores = pStoreUnsatCores;
+    persistentStore = pPersistentStore;
+    solverId = pSolverId;
+    logger = pLogger;
+  }
+
+  /** Build the query for the given assertion stack and assumptions. */
+  Query toQuery(List<List<BooleanFormula>> pStack, Collection<BooleanFormula> pAssumptions) {
+    ImmutableSet.Builder<BooleanFormula> constraints = ImmutableSet.builder();
+    for (List<BooleanFormula> level : pStack) {
+      constraints.addAll(level);
+    }
+    ImmutableSet<BooleanFormula> constraintSet = constraints.build();
+    ImmutableSet<BooleanFormula> assumptionSet = ImmutableSet.copyOf(pAssumptions);
+    // the sum of the hashes does not depend on the order of the formulas.
+    long constraintHash = 0;
+    for (BooleanFormula constraint : constraintSet) {
+      constraintHash += hasher.hash(constraint);
+    }
+    long assumptionHash = 0;
+    for (BooleanFormula assumption : assumptionSet) {
+      assumptionHash += hasher.hash(assumption);
+    }
+    return new Query(constraintSet, assumptionSet, 31 * constraintHash + assumptionHash);
+  }
+
+  @Nullable Result lookup(Query pQuery) {
+    Result result = results.getIfPresent(pQuery);
+    if (result != null) {
+      hits.increment();
+      return result;
+    }
+    PersistentQueryStore store = persistentStore;
+    if (store != null) {
+      try {
+        Boolean unsat = store.lookup(getPersistentKey(pQuery));
+        if (unsat != null) {
+          persistentHits.increment();
+          result = new Result(unsat);
+          results.put(pQuery, result);
+          return result;
+        }
+      } catch (IOException | UnsupportedOperationException e) {
+        dropPersistentStore(store, e);
+      }
+    }
+    misses.increment();
+    return null;
+  }
+
+  Result store(Query pQuery, boolean pUnsat) {
+    Result result = new Result(pUnsat);
+    results.put(pQuery, result);
+    PersistentQueryStore store = persistentStore;
+    if (store != null) {
+      try {
+        store.store(getPersistentKey(pQuery), pUnsat);
+      } catch (IOException | UnsupportedOperationException e) {
+        dropPersistentStore(store, e);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns a key for the query that is stable across runs, i.e., a hash of the SMT-LIB2 dumps of
+   * all formulas and of the solver version. The formulas are sorted by their hashes, such that
+   * their order does not matter.
+   */
+  private HashCode getPersistentKey(Query pQuery) {
+    HashCode key = pQuery.persistentKey;
+    if (key == null) {
+      Hasher keyHasher = Hashing.sha256().newHasher().putString(solverId, UTF_8);
+      for (ImmutableSet<BooleanFormula> formulas :
+          ImmutableList.of(pQuery.constraints, pQuery.assumptions)) {
+        List<HashCode> hashes = new ArrayList<>(formulas.size());
+        for (BooleanFormula formula : formulas) {
+          hashes.add(getDumpHash(formula));
+        }
+        hashes.sort(Comparator.comparing(HashCode::toString));
+        keyHasher.putInt(hashes.size());
+        for (HashCode hash : hashes) {
+          keyHasher.putBytes(hash.asBytes());
+        }
+      }
+      key = HashCode.fromBytes(Arrays.copyOf(keyHasher.hash().asBytes(), 16));
+      pQuery.persistentKey = key;
+    }
+    return key;
+  }
+
+  private HashCode getDumpHash(BooleanFormula pFormula) {
+    HashCode hash = dumpHashes.getIfPresent(pFormula);
+    if (hash == null) {
+      hash = Hashing.sha256().hashString(fmgr.dumpFormula(pFormula).toString(), UTF_8);
+      dumpHashes.put(pFormula, hash);
+    }
+    return hash;
+  }
+
+  private void dropPersistentStore(PersistentQueryStore pStore, Exception pException) {
+    persistentStore = null;
+    logger.logUserException(
+        Level.WARNING, pException, "Persistent query cache is disabled for the remaining run");
+    try {
+      pStore.close();
+    } catch (IOException e) {
+      logger.logDebugException(e);
+    }
+  }
+
+  void storeModelAssignments(Result pResult, ImmutableList<ValueAssignment> pAssignments) {
+    if (storeModels) {
+      pResult.modelAssignments = pAssignments;
+    }
+  }
+
+  void storeUnsatCore(Result pResult, List<BooleanFormula> pUnsatCore) {
+    if (storeUnsatCores) {
+      pResult.unsatCore = ImmutableList.copyOf(pUnsatCore);
+    }
+  }
+
+  long getHits() {
+    return hits.sum();
+  }
+
+  long getMisses() {
+    return misses.sum();
+  }
+
+  ImmutableMap<String, String> getStatistics() {
+    ImmutableMap.Builder<String, String> statistics = ImmutableMap.builder();
+    statistics.put("query cache hits", Long.toString(getHits()));
+    statistics.put("query cache misses", Long.toString(getMisses()));
+    statistics.put("query cache entries", Long.toString(results.size()));
+    PersistentQueryStore store = persistentStore;
+    if (store != null) {
+      statistics.put("persistent query cache hits", Long.toString(persistentHits.sum()));
+      statistics.put("persistent query cache entries", Integer.toString(store.size()));
+    }
+    return statistics.buildOrThrow();
+  }
+
+  void close() {
+    PersistentQueryStore store = persistentStore;
+    persistentStore = null;
+    if (store != null) {
+      try {
+        store.close();
+      } catch (IOException e) {
+        logger.logDebugException(e);
+      }
+    }
+  }
+}
@@ -0,0 +1,231 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.querycache;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Evaluator;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.Model.ValueAssignment;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.api.UserPropagator;
+import org.sosy_lab.java_smt.delegate.querycache.QueryCache.Query;
+import org.sosy_lab.java_smt.delegate.querycache.QueryCache.Result;
+
+/**
+ * A prover that answers satisfiability checks from the {@link QueryCache} of its context, if
+ * possible. All assertions are forwarded to the wrapped prover immediately, but a check answered
+ * from the cache is only repeated by the wrapped prover if the user requests a model or an unsat
+ * core that is not stored in the cache.
+ */
+class QueryCacheProverEnvironment implements ProverEnvironment {
+
+  private final ProverEnvironment delegate;
+  private final QueryCache cache;
+
+  /** The asserted formulas per backtracking level, the first level is the bottom level. */
+  private final List<List<BooleanFormula>> stack = new ArrayList<>();
+
+  /** A registered user propagator can change the result of a check, then we bypass the cache. */
+  private boolean bypassCache = false;
+
+  /** The result of the last check, if no assertion was changed since then. */
+  private @Nullable Result lastResult = null;
+
+  /** The assumptions of the last check, if it was answered from the cache. */
+  private @Nullable Collection<BooleanFormula> uncheckedAssumptions = null;
+
+  QueryCacheProverEnvironment(ProverEnvironment pDelegate, QueryCache pCache) {
+    delegate = checkNotNull(pDelegate);
+    cache = checkNotNull(pCache);
+    stack.add(new ArrayList<>());
+  }
+
+  private void invalidate() {
+    lastResult = null;
+    uncheckedAssumptions = null;
+  }
+
+  @Override
+  public void push() throws InterruptedException {
+    invalidate();
+    delegate.push();
+    stack.add(new ArrayList<>());
+  }
+
+  @Override
+  public void pop() {
+    invalidate();
+    delegate.pop();
+    stack.remove(stack.size() - 1);
+  }
+
+  @Override
+  public @Nullable Void addConstraint(BooleanFormula pConstraint) throws InterruptedException {
+    invalidate();
+    Void result = delegate.addConstraint(pConstraint);
+    stack.get(stack.size() - 1).add(pConstraint);
+    return result;
+  }
+
+  @Override
+  public int size() {
+    return delegate.size();
+  }
+
+  @Override
+  public boolean isUnsat() throws SolverException, InterruptedException {
+    return check(ImmutableList.of());
+  }
+
+  @Override
+  public boolean isUnsatWithAssumptions(Collection<BooleanFormula> pAssumptions)
+      throws SolverException, InterruptedException {
+    return check(pAssumptions);
+  }
+
+  private boolean check(Collection<BooleanFormula> pAssumptions)
+      throws SolverException, InterruptedException {
+    invalidate();
+    if (bypassCache) {
+      return checkInDelegate(pAssumptions);
+    }
+    Query query = cache.toQuery(stack, pAssumptions);
+    Result cached = cache.lookup(query);
+    if (cached != null) {
+      lastResult = cached;
+      uncheckedAssumptions = ImmutableList.copyOf(pAssumptions);
+      return cached.isUnsat();
+    }
+    boolean unsat = checkInDelegate(pAssumptions);
+    lastResult = cache.store(query, unsat);
+    return unsat;
+  }
+
+  private boolean checkInDelegate(Collection<BooleanFormula> pAssumptions)
+      throws SolverException, InterruptedException {
+    return pAssumptions.isEmpty()
+        ? delegate.isUnsat()
+        : delegate.isUnsatWithAssumptions(pAssumptions);
+  }
+
+  /**
+   * Repeat the last check in the wrapped prover if it was answered from the cache, such that the
+   * wrapped prover can provide a model or an unsat core.
+   */
+  private void ensureCheckedInDelegate() throws SolverException {
+    Collection<BooleanFormula> assumptions = uncheckedAssumptions;
+    if (assumptions == null) {
+      return;
+    }
+    uncheckedAssumptions = null;
+    boolean unsat;
+    try {
+      unsat = checkInDelegate(assumptions);
+    } catch (InterruptedException e) {
+      throw new SolverException("repeating a cached satisfiability check was interrupted", e);
+    }
+    checkState(
+        lastResult != null && unsat == lastResult.isUnsat(),
+        "solver returned a different result for a cached satisfiability check");
+  }
+
+  @Override
+  public Model getModel() throws SolverException {
+    ensureCheckedInDelegate();
+    return delegate.getModel();
+  }
+
+  @Override
+  public Evaluator getEvaluator() throws SolverException {
+    ensureCheckedInDelegate();
+    return delegate.getEvaluator();
+  }
+
+  @Override
+  public ImmutableList<ValueAssignment> getModelAssignments() throws SolverException {
+    Result result = lastResult;
+    if (result != null && result.getModelAssignments() != null) {
+      return result.getModelAssignments();
+    }
+    ensureCheckedInDelegate();
+    ImmutableList<ValueAssignment> assignments = delegate.getModelAssignments();
+    if (result != null) {
+      cache.storeModelAssignments(result, assignments);
+    }
+    return assignments;
+  }
+
+  @Override
+  public List<BooleanFormula> getUnsatCore() {
+    Result result = lastResult;
+    if (result != null && result.getUnsatCore() != null) {
+      return result.getUnsatCore();
+    }
+    try {
+      ensureCheckedInDelegate();
+    } catch (SolverException e) {
+      throw new IllegalStateException(e);
+    }
+    List<BooleanFormula> core = delegate.getUnsatCore();
+    if (result != null) {
+      cache.storeUnsatCore(result, core);
+    }
+    return core;
+  }
+
+  @Override
+  public Optional<List<BooleanFormula>> unsatCoreOverAssumptions(
+      Collection<BooleanFormula> pAssumptions) throws SolverException, InterruptedException {
+    invalidate();
+    return delegate.unsatCoreOverAssumptions(pAssumptions);
+  }
+
+  @Override
+  public <R> R allSat(AllSatCallback<R> pCallback, List<BooleanFormula> pImportant)
+      throws InterruptedException, SolverException {
+    invalidate();
+    return delegate.allSat(pCallback, pImportant);
+  }
+
+  @Override
+  public boolean registerUserPropagator(UserPropagator pPropagator) {
+    boolean registered = delegate.registerUserPropagator(pPropagator);
+    bypassCache |= registered;
+    return registered;
+  }
+
+  @Override
+  public ImmutableMap<String, String> getStatistics() {
+    return ImmutableMap.<String, String>builder()
+        .putAll(delegate.getStatistics())
+        .putAll(cache.getStatistics())
+        .buildKeepingLast();
+  }
+
+  @Override
+  public void close() {
+    delegate.close();
+  }
+
+  @Override
+  public String toString() {
+    return delegate.toString();
+  }
+}
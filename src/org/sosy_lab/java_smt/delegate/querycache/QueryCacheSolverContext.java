@@ -0,0 +1,150 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.querycache;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.nio.file.Path;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
+import org.sosy_lab.java_smt.api.OptimizationProverEnvironment;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext;
+
+/**
+ * A solver context whose provers answer repeated satisfiability checks from a cache that is shared
+ * by all provers of the context.
+ *
+ * <p>A check is identified by the set of asserted formulas and the set of assumptions, independent
+ * of their order and of the backtracking levels. Models and unsat cores are computed by repeating
+ * the check in the wrapped prover, unless they are stored in the cache. Interpolation and
+ * optimization are not cached and use the wrapped context.
+ *
+ * <p>Optionally, the verdicts are stored in a file and reused by later runs with the same solver
+ * version, see {@link PersistentQueryStore}.
+ */
+@Options(prefix = "solver.queryCache")
+public class QueryCacheSolverContext implements SolverContext {
+
+  @Option(secure = true, description = "Maximal number of satisfiability checks in the cache.")
+  private int size = 10_000;
+
+  @Option(
+      secure = true,
+      description =
+          "Store the model assignments of a satisfiable check in the cache, "
+              + "such that they can be retrieved without repeating the check.")
+  private boolean storeModels = false;
+
+  @Option(
+      secure = true,
+      description =
+          "Store the unsat core of an unsatisfiable check in the cache, "
+              + "such that it can be retrieved without repeating the check.")
+  private boolean storeUnsatCores = false;
+
+  @Option(
+      secure = true,
+      description =
+          "File that stores the verdicts of satisfiability checks across runs. "
+              + "The file can be shared by several processes at the same time. "
+              + "Verdicts are only reused for the same solver and version.")
+  @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
+  private @Nullable Path persistentFile = null;
+
+  private final SolverContext delegate;
+  private final QueryCache cache;
+
+  public QueryCacheSolverContext(Configuration pConfig, LogManager pLogger, SolverContext pDelegate)
+      throws InvalidConfigurationException {
+    pConfig.inject(this, QueryCacheSolverContext.class);
+    if (size < 1) {
+      throw new InvalidConfigurationException("The query cache requires a positive size.");
+    }
+    delegate = checkNotNull(pDelegate);
+    PersistentQueryStore persistentStore = null;
+    if (persistentFile != null) {
+      try {
+        persistentStore = new PersistentQueryStore(persistentFile);
+      } catch (IOException e) {
+        throw new InvalidConfigurationException(
+            "Could not open persistent query cache: " + e.getMessage(), e);
+      }
+    }
+    cache =
+        new QueryCache(
+            delegate.getFormulaManager(),
+            size,
+            storeModels,
+            storeUnsatCores,
+            persistentStore,
+            delegate.getSolverName() + " " + delegate.getVersion(),
+            pLogger);
+  }
+
+  @Override
+  public FormulaManager getFormulaManager() {
+    return delegate.getFormulaManager();
+  }
+
+  @SuppressWarnings("resource")
+  @Override
+  public ProverEnvironment newProverEnvironment(ProverOptions... pOptions) {
+    return new QueryCacheProverEnvironment(delegate.newProverEnvironment(pOptions), cache);
+  }
+
+  @SuppressWarnings("resource")
+  @Override
+  public InterpolatingProverEnvironment<?> newProverEnvironmentWithInterpolation(
+      ProverOptions... pOptions) {
+    // interpolants depend on the prover-specific ids of the constraints, no caching here.
+    return delegate.newProverEnvironmentWithInterpolation(pOptions);
+  }
+
+  @SuppressWarnings("resource")
+  @Override
+  public OptimizationProverEnvironment newOptimizationProverEnvironment(ProverOptions... pOptions) {
+    // the result of an optimization depends on the objectives, no caching here.
+    return delegate.newOptimizationProverEnvironment(pOptions);
+  }
+
+  @Override
+  public String getVersion() {
+    return delegate.getVersion();
+  }
+
+  @Override
+  public Solvers getSolverName() {
+    return delegate.getSolverName();
+  }
+
+  @Override
+  public ImmutableMap<String, String> getStatistics() {
+    return ImmutableMap.<String, String>builder()
+        .putAll(delegate.getStatistics())
+        .putAll(cache.getStatistics())
+        .buildKeepingLast();
+  }
+
+  @Override
+  public void close() {
+    cache.close();
+    delegate.close();
+  }
+}
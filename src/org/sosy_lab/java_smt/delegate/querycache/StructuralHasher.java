@@ -0,0 +1,173 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.querycache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.QuantifiedFormulaManager.Quantifier;
+import org.sosy_lab.java_smt.api.visitors.DefaultFormulaVisitor;
+
+/**
+ * Computes 64-bit hashes of formulas from their structure, i.e., from the declarations, variables,
+ * and constants of all nodes of the formula. The hashes do not depend on the hash codes of the
+ * solver, which are often only 32 bits wide and not well distributed.
+ *
+ * <p>The hashes of recently visited terms are cached, thus hashing a new formula over known
+ * subterms only visits the new nodes. The traversal is iterative, such that deep formulas do not
+ * overflow the stack. For solvers without support for visiting formulas, the hash code of the
+ * formula is used.
+ */
+final class StructuralHasher {
+
+  /** The hash of a node without its children, and the children. */
+  private static final class Node {
+    private final long label;
+    private final List<Formula> children;
+
+    private Node(long pLabel, List<Formula> pChildren) {
+      label = pLabel;
+      children = pChildren;
+    }
+  }
+
+  private static final DefaultFormulaVisitor<Node> NODE_VISITOR =
+      new DefaultFormulaVisitor<>() {
+        @Override
+        protected Node visitDefault(Formula pF) {
+          return new Node(pF.hashCode(), ImmutableList.of());
+        }
+
+        @Override
+        public Node visitFreeVariable(Formula pF, String pName) {
+          return new Node(31L * pName.hashCode() + 1, ImmutableList.of());
+        }
+
+        @Override
+        public Node visitConstant(Formula pF, Object pValue) {
+          return new Node(31L * pValue.hashCode() + 2, ImmutableList.of());
+        }
+
+        @Override
+        public Node visitFunction(
+            Formula pF, List<Formula> pArgs, FunctionDeclaration<?> pFunctionDeclaration) {
+          long label =
+              31L
+                      * (31L * pFunctionDeclaration.getKind().hashCode()
+                          + pFunctionDeclaration.getName().hashCode())
+                  + 3;
+          return new Node(label, pArgs);
+        }
+
+        @Override
+        public Node visitQuantifier(
+            BooleanFormula pF,
+            Quantifier pQuantifier,
+            List<Formula> pBoundVariables,
+            BooleanFormula pBody) {
+          return new Node(
+              31L * pQuantifier.hashCode() + 4,
+              ImmutableList.<Formula>builder().addAll(pBoundVariables).add(pBody).build());
+        }
+      };
+
+  /** The maximal number of terms whose hash is cached. */
+  private static final int CACHE_SIZE = 100_000;
+
+  private final FormulaManager fmgr;
+
+  private final Cache<Formula, Long> hashes =
+      CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).build();
+
+  private volatile boolean visitable = true;
+
+  StructuralHasher(FormulaManager pFmgr) {
+    fmgr = pFmgr;
+  }
+
+  long hash(Formula pFormula) {
+    Long cached = hashes.getIfPresent(pFormula);
+    if (cached != null) {
+      return cached;
+    }
+    if (visitable) {
+      try {
+        return hashByVisiting(pFormula);
+      } catch (UnsupportedOperationException e) {
+        visitable = false; // the solver does not support visiting formulas.
+      }
+    }
+    return mix(pFormula.hashCode());
+  }
+
+  private long hashByVisiting(Formula pFormula) {
+    // the hash of a node is known after all its children are finished.
+    Map<Formula, Long> finished = new HashMap<>();
+    Map<Formula, Node> nodes = new HashMap<>();
+    Deque<Formula> stack = new ArrayDeque<>();
+    stack.push(pFormula);
+    while (!stack.isEmpty()) {
+      Formula f = stack.peek();
+      if (finished.containsKey(f)) {
+        stack.pop();
+        continue;
+      }
+      Long cached = hashes.getIfPresent(f);
+      if (cached != null) {
+        finished.put(f, cached);
+        stack.pop();
+        continue;
+      }
+      Node node = nodes.get(f);
+      if (node == null) {
+        node = fmgr.visit(f, NODE_VISITOR);
+        nodes.put(f, node);
+        boolean childrenFinished = true;
+        for (Formula child : node.children) {
+          if (!finished.containsKey(child)) {
+            stack.push(child);
+            childrenFinished = false;
+          }
+        }
+        if (!childrenFinished) {
+          continue;
+        }
+      }
+      long hash = node.label;
+      for (Formula child : node.children) {
+        hash = 31 * hash + finished.get(child);
+      }
+      hash = mix(hash);
+      finished.put(f, hash);
+      hashes.put(f, hash);
+      stack.pop();
+    }
+    return finished.get(pFormula);
+  }
+
+  /** Spread the bits of the given value, the finalizer of MurmurHash3. */
+  private static long mix(long pValue) {
+    long h = pValue;
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb53e1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+}
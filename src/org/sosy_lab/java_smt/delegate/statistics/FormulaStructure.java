@@ -0,0 +1,109 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.statistics;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.QuantifiedFormulaManager.Quantifier;
+import org.sosy_lab.java_smt.api.visitors.DefaultFormulaVisitor;
+
+/**
+ * Computes the size (number of distinct nodes) and the depth of the DAG of a formula in a single
+ * traversal. The traversal is iterative, such that deep formulas do not overflow the stack.
+ */
+final class FormulaStructure {
+
+  private static final DefaultFormulaVisitor<List<Formula>> CHILDREN =
+      new DefaultFormulaVisitor<>() {
+        @Override
+        protected List<Formula> visitDefault(Formula pF) {
+          return ImmutableList.of();
+        }
+
+        @Override
+        public List<Formula> visitFunction(
+            Formula pF, List<Formula> pArgs, FunctionDeclaration<?> pFunctionDeclaration) {
+          return pArgs;
+        }
+
+        @Override
+        public List<Formula> visitQuantifier(
+            BooleanFormula pF,
+            Quantifier pQuantifier,
+            List<Formula> pBoundVariables,
+            BooleanFormula pBody) {
+          return ImmutableList.of(pBody);
+        }
+      };
+
+  /** The number of distinct nodes of the formula. */
+  private final int size;
+
+  /** The length of the longest path from the root to a leaf of the formula. */
+  private final int depth;
+
+  private FormulaStructure(int pSize, int pDepth) {
+    size = pSize;
+    depth = pDepth;
+  }
+
+  /** Analyze the given formula by visiting it with the given formula manager. */
+  static FormulaStructure of(FormulaManager pFmgr, Formula pFormula) {
+    // the depth of a node is known after all its children are finished.
+    Map<Formula, Integer> depths = new HashMap<>();
+    Map<Formula, List<Formula>> children = new HashMap<>();
+    Deque<Formula> stack = new ArrayDeque<>();
+    stack.push(pFormula);
+    while (!stack.isEmpty()) {
+      Formula f = stack.peek();
+      if (depths.containsKey(f)) {
+        stack.pop();
+        continue;
+      }
+      List<Formula> args = children.get(f);
+      if (args == null) {
+        args = pFmgr.visit(f, CHILDREN);
+        children.put(f, args);
+        boolean finished = true;
+        for (Formula arg : args) {
+          if (!depths.containsKey(arg)) {
+            stack.push(arg);
+            finished = false;
+          }
+        }
+        if (!finished) {
+          continue;
+        }
+      }
+      int maxDepth = 0;
+      for (Formula arg : args) {
+        maxDepth = Math.max(maxDepth, depths.get(arg));
+      }
+      depths.put(f, maxDepth + 1);
+      stack.pop();
+    }
+    return new FormulaStructure(depths.size(), depths.get(pFormula));
+  }
+
+  int getSize() {
+    return size;
+  }
+
+  int getDepth() {
+    return depth;
+  }
+}
@@ -0,0 +1,127 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.statistics;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.collect.ImmutableSortedMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+
+/**
+ * A histogram of non-negative values with exponentially growing buckets, i.e., the bucket with
+ * index i contains the values from 2^(i-1) to 2^i - 1 and bucket 0 contains the value 0. This is
+ * precise enough to see the distribution of latencies and sizes that differ by orders of magnitude,
+ * and cheap enough to be updated on every operation. Updates do not block, such that the histogram
+ * can be shared by several threads.
+ */
+public final class Histogram {
+
+  private static final int BUCKETS = Long.SIZE + 1;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+  private final AtomicLong max = new AtomicLong(0);
+
+  Histogram() {}
+
+  private static int bucketOf(long pValue) {
+    return Long.SIZE - Long.numberOfLeadingZeros(pValue);
+  }
+
+  /** The largest value that belongs into the given bucket. */
+  private static long upperBound(int pBucket) {
+    return pBucket == Long.SIZE ? Long.MAX_VALUE : (1L << pBucket) - 1;
+  }
+
+  /** Add a value, negative values are counted as 0. */
+  void add(long pValue) {
+    long value = Math.max(pValue, 0);
+    buckets.incrementAndGet(bucketOf(value));
+    count.increment();
+    sum.add(value);
+    max.accumulateAndGet(value, Math::max);
+  }
+
+  public long getCount() {
+    return count.sum();
+  }
+
+  public long getSum() {
+    return sum.sum();
+  }
+
+  public long getMax() {
+    return max.get();
+  }
+
+  public double getMean() {
+    long n = getCount();
+    return n == 0 ? 0 : (double) getSum() / n;
+  }
+
+  /**
+   * Return an upper bound for the given quantile of all values, i.e., at least the given fraction
+   * of all values is smaller or equal to the returned value. The bound is the upper end of a bucket
+   * and thus at most twice as large as the precise quantile. If no value was added, this method
+   * returns 0.
+   *
+   * @param pQuantile a number between 0 and 1, e.g., 0.99 for the 99th percentile.
+   */
+  public long getQuantile(double pQuantile) {
+    checkArgument(0 <= pQuantile && pQuantile <= 1, "quantile must be between 0 and 1");
+    long n = 0;
+    long[] counts = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] = buckets.get(i);
+      n += counts[i];
+    }
+    long rank = (long) Math.ceil(pQuantile * n);
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += counts[i];
+      if (seen >= rank && counts[i] > 0) {
+        return Math.min(upperBound(i), getMax());
+      }
+    }
+    return 0;
+  }
+
+  /** Return the number of values per non-empty bucket, keyed by the upper bound of the bucket. */
+  public ImmutableSortedMap<Long, Long> getBuckets() {
+    ImmutableSortedMap.Builder<Long, Long> builder = ImmutableSortedMap.naturalOrder();
+    for (int i = 0; i < BUCKETS; i++) {
+      long n = buckets.get(i);
+      if (n > 0) {
+        builder.put(upperBound(i), n);
+      }
+    }
+    return builder.buildOrThrow();
+  }
+
+  /** Return a short summary with count, mean, some quantiles, and maximum. */
+  String summarize(LongFunction<String> pFormat) {
+    return String.format(
+        "count: %d, mean: %s, p50: %s, p90: %s, p99: %s, max: %s",
+        getCount(),
+        pFormat.apply(Math.round(getMean())),
+        pFormat.apply(getQuantile(0.5)),
+        pFormat.apply(getQuantile(0.9)),
+        pFormat.apply(getQuantile(0.99)),
+        pFormat.apply(getMax()));
+  }
+
+  @Override
+  public String toString() {
+    return summarize(Long::toString);
+  }
+}
@@ -9,8 +9,12 @@
 package org.sosy_lab.java_smt.delegate.statistics;
 
 import com.google.common.collect.ImmutableMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.time.TimeSpan;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaManager;
 
 public class SolverStatistics {
 
@@ -26,6 +30,23 @@ public class SolverStatistics {
   final TimerPool allSat = new TimerPool();
   final TimerPool interpolation = new TimerPool();
 
+  // distributions, times are measured in nanoseconds
+  final Histogram unsatLatency = new Histogram();
+  final Histogram constraintSize = new Histogram();
+  final Histogram constraintDepth = new Histogram();
+  final Histogram modelSize = new Histogram();
+  final Histogram parseBytes = new Histogram();
+  final Histogram parseTime = new Histogram();
+  final Histogram dumpBytes = new Histogram();
+  final Histogram dumpTime = new Histogram();
+  final Histogram visitTime = new Histogram();
+
+  /** Nesting depth of visitations per thread, only the outermost visitation is measured. */
+  private final ThreadLocal<int[]> visitNesting = ThreadLocal.withInitial(() -> new int[1]);
+
+  /** The formula manager for analyzing the structure of constraints, if enabled. */
+  private final @Nullable FormulaManager structureFmgr;
+
   // manager operations
   final AtomicInteger visits = new AtomicInteger();
   final AtomicInteger booleanOperations = new AtomicInteger();
@@ -45,7 +66,39 @@ public class SolverStatistics {
   final AtomicInteger modelEvaluations = new AtomicInteger();
   final AtomicInteger modelListings = new AtomicInteger();
 
-  SolverStatistics() {}
+  SolverStatistics(@Nullable FormulaManager pStructureFmgr) {
+    structureFmgr = pStructureFmgr;
+  }
+
+  /** Record the size and depth of a constraint, if the structure of constraints is analyzed. */
+  void recordConstraint(Formula pConstraint) {
+    if (structureFmgr != null) {
+      FormulaStructure structure;
+      try {
+        structure = FormulaStructure.of(structureFmgr, pConstraint);
+      } catch (UnsupportedOperationException e) {
+        return; // some solvers (e.g., Boolector) do not support visitation.
+      }
+      constraintSize.add(structure.getSize());
+      constraintDepth.add(structure.getDepth());
+    }
+  }
+
+  /** Start measuring a visitation, returns the start time. */
+  long startVisit() {
+    visitNesting.get()[0]++;
+    return System.nanoTime();
+  }
+
+  /**
+   * Stop measuring a visitation. Visitors often call the formula manager recursively, such that
+   * only the outermost visitation of a thread is recorded.
+   */
+  void stopVisit(long pStart) {
+    if (--visitNesting.get()[0] == 0) {
+      visitTime.add(System.nanoTime() - pStart);
+    }
+  }
 
   // visible access methods
   public int getNumberOfProverEnvironments() {
@@ -108,6 +161,61 @@ public class SolverStatistics {
     return interpolation.getMaxTime();
   }
 
+  /** The distribution of the latency of isUnsat queries in nanoseconds. */
+  public Histogram getIsUnsatLatency() {
+    return unsatLatency;
+  }
+
+  /**
+   * The distribution of the number of distinct nodes of asserted constraints. This is only
+   * available if the option solver.statistics.collectFormulaStructure is enabled.
+   */
+  public Histogram getConstraintSize() {
+    return constraintSize;
+  }
+
+  /**
+   * The distribution of the depth of asserted constraints. This is only available if the option
+   * solver.statistics.collectFormulaStructure is enabled.
+   */
+  public Histogram getConstraintDepth() {
+    return constraintDepth;
+  }
+
+  /** The distribution of the number of assignments of listed models. */
+  public Histogram getModelSize() {
+    return modelSize;
+  }
+
+  /** The distribution of the number of characters of parsed SMT-LIB2 strings. */
+  public Histogram getParseBytes() {
+    return parseBytes;
+  }
+
+  /** The distribution of the time for parsing SMT-LIB2 input in nanoseconds. */
+  public Histogram getParseTime() {
+    return parseTime;
+  }
+
+  /** The distribution of the number of characters of dumped formulas. */
+  public Histogram getDumpBytes() {
+    return dumpBytes;
+  }
+
+  /** The distribution of the time for dumping formulas in nanoseconds. */
+  public Histogram getDumpTime() {
+    return dumpTime;
+  }
+
+  /**
+   * The distribution of the time spent in (outermost) visitations of formulas in nanoseconds,
+   * including the time spent in the visitors. Compared with the time of the solver queries, this
+   * shows how much time is spent on the Java side.
+   */
+  public Histogram getVisitTime() {
+    return visitTime;
+  }
+
   public int getNumberOfBooleanOperations() {
     return booleanOperations.get();
   }
@@ -185,6 +293,19 @@ public class SolverStatistics {
         .put("number of String operations", getNumberOfStringOperations())
         .put("number of model evaluation queries", getNumberOfModelEvaluationQueries())
         .put("number of model listings", getNumberOfModelListings())
+        .put("latency of isUnsat queries", unsatLatency.summarize(SolverStatistics::formatNanos))
+        .put("size of constraints", constraintSize)
+        .put("depth of constraints", constraintDepth)
+        .put("size of models", modelSize)
+        .put("characters of parsed input", parseBytes)
+        .put("time for parsing", parseTime.summarize(SolverStatistics::formatNanos))
+        .put("characters of dumped formulas", dumpBytes)
+        .put("time for dumping", dumpTime.summarize(SolverStatistics::formatNanos))
+        .put("time for visiting formulas", visitTime.summarize(SolverStatistics::formatNanos))
         .buildOrThrow();
   }
+
+  private static String formatNanos(long pNanos) {
+    return TimeSpan.ofNanos(pNanos).formatAs(TimeUnit.MILLISECONDS).trim();
+  }
 }
@@ -0,0 +1,24 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.statistics;
+
+import java.util.Map;
+
+/**
+ * Management interface for the statistics of a solver context, registered in the platform MBean
+ * server if the option solver.statistics.exportJmx is enabled.
+ */
+public interface SolverStatisticsMXBean {
+
+  /** The name of the solver of the context. */
+  String getSolverName();
+
+  /** A snapshot of all statistics, like {@link SolverStatistics#asMap()}. */
+  Map<String, String> getStatistics();
+}
@@ -44,6 +44,7 @@ class StatisticsBasicProverEnvironment<T> implements BasicProverEnvironment<T> {
   @Override
   public @Nullable T addConstraint(BooleanFormula pConstraint) throws InterruptedException {
     stats.constraint.getAndIncrement();
+    stats.recordConstraint(pConstraint);
     return delegate.addConstraint(pConstraint);
   }
 
@@ -61,9 +62,11 @@ class StatisticsBasicProverEnvironment<T> implements BasicProverEnvironment<T> {
   @Override
   public boolean isUnsat() throws SolverException, InterruptedException {
     unsatTimer.start();
+    long start = System.nanoTime();
     try {
       return delegate.isUnsat();
     } finally {
+      stats.unsatLatency.add(System.nanoTime() - start);
       unsatTimer.stop();
     }
   }
@@ -72,9 +75,11 @@ class StatisticsBasicProverEnvironment<T> implements BasicProverEnvironment<T> {
   public boolean isUnsatWithAssumptions(Collection<BooleanFormula> pAssumptions)
       throws SolverException, InterruptedException {
     unsatTimer.start();
+    long start = System.nanoTime();
     try {
       return delegate.isUnsatWithAssumptions(pAssumptions);
     } finally {
+      stats.unsatLatency.add(System.nanoTime() - start);
       unsatTimer.stop();
     }
   }
@@ -10,8 +10,11 @@ package org.sosy_lab.java_smt.delegate.statistics;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import java.io.IOException;
+import java.io.Reader;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import org.sosy_lab.common.Appender;
@@ -33,6 +36,7 @@ import org.sosy_lab.java_smt.api.SLFormulaManager;
 import org.sosy_lab.java_smt.api.SolverException;
 import org.sosy_lab.java_smt.api.StringFormulaManager;
 import org.sosy_lab.java_smt.api.Tactic;
+import org.sosy_lab.java_smt.api.TransformationSession;
 import org.sosy_lab.java_smt.api.UFManager;
 import org.sosy_lab.java_smt.api.visitors.FormulaTransformationVisitor;
 import org.sosy_lab.java_smt.api.visitors.FormulaVisitor;
@@ -128,7 +132,24 @@ class StatisticsFormulaManager implements FormulaManager {
 
   @Override
   public BooleanFormula parse(String pS) throws IllegalArgumentException {
-    return delegate.parse(pS);
+    stats.parseBytes.add(pS.length());
+    long start = System.nanoTime();
+    try {
+      return delegate.parse(pS);
+    } finally {
+      stats.parseTime.add(System.nanoTime() - start);
+    }
+  }
+
+  @Override
+  public BooleanFormula parse(Reader pInput) throws IOException, IllegalArgumentException {
+    // the input is streamed, thus its size is unknown.
+    long start = System.nanoTime();
+    try {
+      return delegate.parse(pInput);
+    } finally {
+      stats.parseTime.add(System.nanoTime() - start);
+    }
   }
 
   @Override
@@ -136,8 +157,10 @@ class StatisticsFormulaManager implements FormulaManager {
     return new Appenders.AbstractAppender() {
       @Override
       public void appendTo(Appendable out) throws IOException {
-        String dump;
-        dump = delegate.dumpFormula(pT).toString(); // the work is done here
+        long start = System.nanoTime();
+        String dump = delegate.dumpFormula(pT).toString(); // the work is done here
+        stats.dumpTime.add(System.nanoTime() - start);
+        stats.dumpBytes.add(dump.length());
         out.append(dump);
       }
     };
@@ -156,18 +179,40 @@ class StatisticsFormulaManager implements FormulaManager {
 
   @Override
   public <R> R visit(Formula pF, FormulaVisitor<R> pFormulaVisitor) {
-    return delegate.visit(pF, pFormulaVisitor);
+    long start = stats.startVisit();
+    try {
+      return delegate.visit(pF, pFormulaVisitor);
+    } finally {
+      stats.stopVisit(start);
+    }
   }
 
   @Override
   public void visitRecursively(Formula pF, FormulaVisitor<TraversalProcess> pFormulaVisitor) {
-    delegate.visitRecursively(pF, pFormulaVisitor);
+    long start = stats.startVisit();
+    try {
+      delegate.visitRecursively(pF, pFormulaVisitor);
+    } finally {
+      stats.stopVisit(start);
+    }
   }
 
   @Override
   public <T extends Formula> T transformRecursively(
       T pF, FormulaTransformationVisitor pFormulaVisitor) {
-    return delegate.transformRecursively(pF, pFormulaVisitor);
+    long start = stats.startVisit();
+    try {
+      return delegate.transformRecursively(pF, pFormulaVisitor);
+    } finally {
+      stats.stopVisit(start);
+    }
+  }
+
+  @Override
+  public TransformationSession newTransformationSession(
+      FormulaTransformationVisitor pFormulaVisitor) {
+    return new StatisticsTransformationSession(
+        delegate.newTransformationSession(pFormulaVisitor), stats);
   }
 
   @Override
@@ -186,6 +231,18 @@ class StatisticsFormulaManager implements FormulaManager {
     return delegate.substitute(pF, pFromToMapping);
   }
 
+  @Override
+  public <T extends Formula> ImmutableList<T> substitute(
+      Collection<T> pFormulas, Map<? extends Formula, ? extends Formula> pFromToMapping) {
+    return delegate.substitute(pFormulas, pFromToMapping);
+  }
+
+  @Override
+  public TransformationSession newSubstitution(
+      Map<? extends Formula, ? extends Formula> pFromToMapping) {
+    return new StatisticsTransformationSession(delegate.newSubstitution(pFromToMapping), stats);
+  }
+
   @Override
   public BooleanFormula translateFrom(BooleanFormula pFormula, FormulaManager pOtherContext) {
     return delegate.translateFrom(pFormula, pOtherContext);
@@ -12,6 +12,10 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.collect.ImmutableList;
 import java.math.BigInteger;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.rationals.Rational;
 import org.sosy_lab.java_smt.api.BitvectorFormula;
@@ -89,10 +93,40 @@ class StatisticsModel implements Model {
     return delegate.evaluate(pF);
   }
 
+  @Override
+  public List<@Nullable Object> evaluateAll(List<? extends Formula> pFormulas) {
+    stats.modelEvaluations.getAndAdd(pFormulas.size());
+    return delegate.evaluateAll(pFormulas);
+  }
+
   @Override
   public ImmutableList<ValueAssignment> asList() {
     stats.modelListings.getAndIncrement();
-    return delegate.asList();
+    ImmutableList<ValueAssignment> assignments = delegate.asList();
+    stats.modelSize.add(assignments.size());
+    return assignments;
+  }
+
+  @Override
+  public Stream<ValueAssignment> stream() {
+    stats.modelListings.getAndIncrement();
+    return delegate.stream();
+  }
+
+  @Override
+  public ImmutableList<ValueAssignment> asList(Predicate<String> pNameFilter) {
+    stats.modelListings.getAndIncrement();
+    ImmutableList<ValueAssignment> assignments = delegate.asList(pNameFilter);
+    stats.modelSize.add(assignments.size());
+    return assignments;
+  }
+
+  @Override
+  public ImmutableList<ValueAssignment> assignmentsFor(Collection<? extends Formula> pKeys) {
+    stats.modelListings.getAndIncrement();
+    ImmutableList<ValueAssignment> assignments = delegate.assignmentsFor(pKeys);
+    stats.modelSize.add(assignments.size());
+    return assignments;
   }
 
   @Override
@@ -11,7 +11,20 @@ package org.sosy_lab.java_smt.delegate.statistics;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.collect.ImmutableMap;
+import java.lang.management.ManagementFactory;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
 import org.sosy_lab.java_smt.api.FormulaManager;
 import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
@@ -19,13 +32,72 @@ import org.sosy_lab.java_smt.api.OptimizationProverEnvironment;
 import org.sosy_lab.java_smt.api.ProverEnvironment;
 import org.sosy_lab.java_smt.api.SolverContext;
 
+@Options(prefix = "solver.statistics")
 public class StatisticsSolverContext implements SolverContext {
 
+  @Option(
+      secure = true,
+      description =
+          "Analyze the size and depth of each asserted constraint. "
+              + "This visits every constraint and thus has a noticeable overhead.")
+  private boolean collectFormulaStructure = false;
+
+  @Option(
+      secure = true,
+      description =
+          "Register the statistics of each solver context as MXBean in the platform MBean server, "
+              + "such that they can be monitored via JMX while the context is open.")
+  private boolean exportJmx = false;
+
+  private static final AtomicInteger contextIds = new AtomicInteger();
+
   private final SolverContext delegate;
-  private final SolverStatistics stats = new SolverStatistics();
+  private final SolverStatistics stats;
+  private final LogManager logger;
+  private @Nullable ObjectName jmxName = null;
 
   public StatisticsSolverContext(SolverContext pDelegate) {
     delegate = checkNotNull(pDelegate);
+    stats = new SolverStatistics(null);
+    logger = LogManager.createNullLogManager();
+  }
+
+  public StatisticsSolverContext(Configuration pConfig, LogManager pLogger, SolverContext pDelegate)
+      throws InvalidConfigurationException {
+    pConfig.inject(this);
+    delegate = checkNotNull(pDelegate);
+    stats = new SolverStatistics(collectFormulaStructure ? delegate.getFormulaManager() : null);
+    logger = checkNotNull(pLogger);
+    if (exportJmx) {
+      registerMXBean();
+    }
+  }
+
+  private void registerMXBean() {
+    SolverStatisticsMXBean bean =
+        new SolverStatisticsMXBean() {
+          @Override
+          public String getSolverName() {
+            return delegate.getSolverName().toString();
+          }
+
+          @Override
+          public Map<String, String> getStatistics() {
+            return StatisticsSolverContext.this.getStatistics();
+          }
+        };
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      ObjectName name =
+          new ObjectName(
+              String.format(
+                  "org.sosy_lab.java_smt:type=SolverStatistics,solver=%s,id=%d",
+                  delegate.getSolverName(), contextIds.incrementAndGet()));
+      server.registerMBean(new StandardMBean(bean, SolverStatisticsMXBean.class, true), name);
+      jmxName = name;
+    } catch (JMException e) {
+      logger.logUserException(Level.WARNING, e, "Could not export solver statistics via JMX");
+    }
   }
 
   @Override
@@ -76,7 +148,16 @@ public class StatisticsSolverContext implements SolverContext {
 
   @Override
   public void close() {
-    delegate.close();
+    try {
+      if (jmxName != null) {
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(jmxName);
+      }
+    } catch (JMException e) {
+      logger.logUserException(Level.WARNING, e, "Could not remove the JMX export of statistics");
+    } finally {
+      jmxName = null;
+      delegate.close();
+    }
   }
 
   /** export statistics about the solver interaction. */
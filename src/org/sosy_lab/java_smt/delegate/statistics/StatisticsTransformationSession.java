@@ -0,0 +1,40 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.statistics;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.TransformationSession;
+
+class StatisticsTransformationSession implements TransformationSession {
+
+  private final TransformationSession delegate;
+  private final SolverStatistics stats;
+
+  StatisticsTransformationSession(TransformationSession pDelegate, SolverStatistics pStats) {
+    delegate = checkNotNull(pDelegate);
+    stats = checkNotNull(pStats);
+  }
+
+  @Override
+  public <T extends Formula> T transform(T pF) {
+    long start = stats.startVisit();
+    try {
+      return delegate.transform(pF);
+    } finally {
+      stats.stopVisit(start);
+    }
+  }
+
+  @Override
+  public void clearCache() {
+    delegate.clearCache();
+  }
+}
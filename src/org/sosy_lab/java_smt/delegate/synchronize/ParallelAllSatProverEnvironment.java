@@ -0,0 +1,333 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.synchronize;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ObjectArrays;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.ShutdownManager;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.Evaluator;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * A prover environment that computes {@link #allSat} with several threads.
+ *
+ * <p>The space of the important predicates is split into cubes over the first few predicates. Each
+ * thread creates its own solver context and prover, translates the current assertions into it, and
+ * enumerates the models over the remaining predicates for one cube after the other. The threads
+ * record the value of each predicate by its index, such that the assignments do not depend on how
+ * the solver represents negated predicates. All assignments are passed to the callback by the
+ * calling thread, such that the callback does not need to be thread-safe. All other operations are
+ * forwarded to the wrapped prover.
+ *
+ * <p>The additional contexts only live for a single call of {@link #allSat}, thus this is only
+ * worth the overhead for larger sets of important predicates.
+ */
+class ParallelAllSatProverEnvironment implements ProverEnvironment {
+
+  /** Marks that a thread has processed all of its cubes. */
+  private static final int[] DONE = new int[0];
+
+  private final ProverEnvironment delegate;
+  private final SolverContext sync;
+  private final FormulaManager manager;
+  private final Function<ShutdownNotifier, SolverContext> contextFactory;
+  private final ShutdownNotifier shutdownNotifier;
+  private final ProverOptions[] options;
+  private final int threads;
+  private final int splitDepth;
+
+  /** The asserted formulas for each level of the stack, needed to set up the other provers. */
+  private final List<List<BooleanFormula>> assertionStack = new ArrayList<>();
+
+  ParallelAllSatProverEnvironment(
+      ProverEnvironment pDelegate,
+      SolverContext pSync,
+      FormulaManager pManager,
+      Function<ShutdownNotifier, SolverContext> pContextFactory,
+      ShutdownNotifier pShutdownNotifier,
+      ProverOptions[] pOptions,
+      int pThreads,
+      int pSplitDepth) {
+    checkArgument(pThreads > 1, "parallel AllSAT requires more than one thread");
+    checkArgument(pSplitDepth > 0, "parallel AllSAT requires at least one cube predicate");
+    delegate = checkNotNull(pDelegate);
+    sync = checkNotNull(pSync);
+    manager = checkNotNull(pManager);
+    contextFactory = checkNotNull(pContextFactory);
+    shutdownNotifier = checkNotNull(pShutdownNotifier);
+    // the threads evaluate the predicates in models of their own provers.
+    options = ObjectArrays.concat(pOptions, ProverOptions.GENERATE_MODELS);
+    threads = pThreads;
+    splitDepth = pSplitDepth;
+    assertionStack.add(new ArrayList<>());
+  }
+
+  @Override
+  public void pop() {
+    synchronized (sync) {
+      checkState(assertionStack.size() > 1, "no level to pop");
+      delegate.pop();
+      assertionStack.remove(assertionStack.size() - 1);
+    }
+  }
+
+  @Override
+  public @Nullable Void addConstraint(BooleanFormula pConstraint) throws InterruptedException {
+    synchronized (sync) {
+      delegate.addConstraint(pConstraint);
+      assertionStack.get(assertionStack.size() - 1).add(pConstraint);
+    }
+    return null;
+  }
+
+  @Override
+  public void push() throws InterruptedException {
+    synchronized (sync) {
+      delegate.push();
+      assertionStack.add(new ArrayList<>());
+    }
+  }
+
+  @Override
+  public int size() {
+    return delegate.size();
+  }
+
+  @Override
+  public boolean isUnsat() throws SolverException, InterruptedException {
+    return delegate.isUnsat();
+  }
+
+  @Override
+  public boolean isUnsatWithAssumptions(Collection<BooleanFormula> pAssumptions)
+      throws SolverException, InterruptedException {
+    return delegate.isUnsatWithAssumptions(pAssumptions);
+  }
+
+  @Override
+  public Model getModel() throws SolverException {
+    return delegate.getModel();
+  }
+
+  @Override
+  public List<BooleanFormula> getUnsatCore() {
+    return delegate.getUnsatCore();
+  }
+
+  @Override
+  public Optional<List<BooleanFormula>> unsatCoreOverAssumptions(
+      Collection<BooleanFormula> pAssumptions) throws SolverException, InterruptedException {
+    return delegate.unsatCoreOverAssumptions(pAssumptions);
+  }
+
+  @Override
+  public ImmutableMap<String, String> getStatistics() {
+    return delegate.getStatistics();
+  }
+
+  @Override
+  public void close() {
+    delegate.close();
+  }
+
+  @Override
+  public String toString() {
+    return delegate.toString();
+  }
+
+  @Override
+  public <R> R allSat(AllSatCallback<R> pCallback, List<BooleanFormula> pImportant)
+      throws InterruptedException, SolverException {
+    final int depth = Math.min(splitDepth, pImportant.size());
+    if (depth == 0) {
+      return delegate.allSat(pCallback, pImportant);
+    }
+
+    final List<BooleanFormula> important = ImmutableList.copyOf(pImportant);
+    final List<BooleanFormula> assertions;
+    synchronized (sync) {
+      assertions =
+          assertionStack.stream().flatMap(List::stream).collect(ImmutableList.toImmutableList());
+    }
+
+    // The threads share the cubes via a counter and report the assignments as arrays of literals,
+    // where the number i+1 (or -(i+1)) denotes the i-th important predicate (or its negation).
+    final AtomicInteger nextCube = new AtomicInteger();
+    final BlockingQueue<int[]> assignments = new LinkedBlockingQueue<>();
+    final ShutdownManager shutdownManager = ShutdownManager.createWithParent(shutdownNotifier);
+    final ExecutorService executor =
+        Executors.newFixedThreadPool(
+            threads,
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("JavaSMT-allsat-%d").build());
+    final int numberOfWorkers = Math.min(threads, 1 << depth);
+    final List<Future<?>> workers = new ArrayList<>();
+    try {
+      for (int i = 0; i < numberOfWorkers; i++) {
+        workers.add(
+            executor.submit(
+                () -> {
+                  try {
+                    enumerateCubes(
+                        assertions, important, depth, nextCube, assignments, shutdownManager);
+                  } catch (InterruptedException | SolverException | RuntimeException e) {
+                    // stop all other threads, the exception is reported by the calling thread.
+                    shutdownManager.requestShutdown("parallel AllSAT computation failed");
+                    throw e;
+                  } finally {
+                    assignments.add(DONE);
+                  }
+                  return null;
+                }));
+      }
+      executor.shutdown();
+
+      int finishedWorkers = 0;
+      while (finishedWorkers < numberOfWorkers) {
+        int[] literals = assignments.take();
+        if (literals == DONE) {
+          finishedWorkers++;
+        } else {
+          pCallback.apply(toFormulas(literals, important));
+        }
+      }
+      checkForFailures(workers);
+
+    } finally {
+      shutdownManager.requestShutdown("parallel AllSAT computation finished");
+      executor.shutdownNow();
+    }
+    return pCallback.getResult();
+  }
+
+  /** Executed by a separate thread, uses its own context. */
+  private void enumerateCubes(
+      List<BooleanFormula> pAssertions,
+      List<BooleanFormula> pImportant,
+      int pDepth,
+      AtomicInteger pNextCube,
+      BlockingQueue<int[]> pAssignments,
+      ShutdownManager pShutdownManager)
+      throws InterruptedException, SolverException {
+    ShutdownNotifier notifier = pShutdownManager.getNotifier();
+    try (SolverContext context = contextFactory.apply(notifier);
+        ProverEnvironment prover = context.newProverEnvironment(options)) {
+      FormulaManager fmgr = context.getFormulaManager();
+      BooleanFormulaManager bmgr = fmgr.getBooleanFormulaManager();
+
+      List<BooleanFormula> important = new ArrayList<>();
+      List<BooleanFormula> assertions = new ArrayList<>();
+      synchronized (sync) {
+        for (BooleanFormula predicate : pImportant) {
+          important.add(fmgr.translateFrom(predicate, manager));
+        }
+        for (BooleanFormula assertion : pAssertions) {
+          assertions.add(fmgr.translateFrom(assertion, manager));
+        }
+      }
+      for (BooleanFormula assertion : assertions) {
+        prover.addConstraint(assertion);
+      }
+
+      int cube;
+      while ((cube = pNextCube.getAndIncrement()) < 1 << pDepth) {
+        notifier.shutdownIfNecessary();
+        int[] cubeLiterals = new int[pDepth];
+        prover.push();
+        for (int i = 0; i < pDepth; i++) {
+          boolean positive = ((cube >> i) & 1) == 0;
+          cubeLiterals[i] = positive ? i + 1 : -(i + 1);
+          prover.addConstraint(positive ? important.get(i) : bmgr.not(important.get(i)));
+        }
+        while (!prover.isUnsat()) {
+          notifier.shutdownIfNecessary();
+          int[] literals = Arrays.copyOf(cubeLiterals, important.size());
+          int size = pDepth;
+          List<BooleanFormula> blockingClause = new ArrayList<>();
+          try (Evaluator evaluator = prover.getEvaluator()) {
+            for (int i = pDepth; i < important.size(); i++) {
+              BooleanFormula predicate = important.get(i);
+              @Nullable Boolean value = evaluator.evaluate(predicate);
+              // an unknown value does not matter for the model.
+              if (value != null) {
+                literals[size++] = value ? i + 1 : -(i + 1);
+                blockingClause.add(value ? bmgr.not(predicate) : predicate);
+              }
+            }
+          }
+          pAssignments.add(Arrays.copyOf(literals, size));
+          prover.addConstraint(bmgr.or(blockingClause));
+        }
+        prover.pop();
+      }
+    }
+  }
+
+  private List<BooleanFormula> toFormulas(int[] pLiterals, List<BooleanFormula> pImportant) {
+    ImmutableList.Builder<BooleanFormula> model =
+        ImmutableList.builderWithExpectedSize(pLiterals.length);
+    synchronized (sync) {
+      BooleanFormulaManager bmgr = manager.getBooleanFormulaManager();
+      for (int literal : pLiterals) {
+        BooleanFormula predicate = pImportant.get(Math.abs(literal) - 1);
+        model.add(literal > 0 ? predicate : bmgr.not(predicate));
+      }
+    }
+    return model.build();
+  }
+
+  /** Rethrow the failure of a thread. A real failure is preferred over an interrupted thread. */
+  private static void checkForFailures(List<Future<?>> pWorkers)
+      throws InterruptedException, SolverException {
+    @Nullable Throwable failure = null;
+    for (Future<?> worker : pWorkers) {
+      try {
+        worker.get();
+      } catch (ExecutionException e) {
+        if (failure == null || failure instanceof InterruptedException) {
+          failure = e.getCause();
+        }
+      }
+    }
+    if (failure != null) {
+      Throwables.throwIfInstanceOf(failure, InterruptedException.class);
+      Throwables.throwIfInstanceOf(failure, SolverException.class);
+      Throwables.throwIfUnchecked(failure);
+      throw new SolverException("parallel AllSAT computation failed", failure);
+    }
+  }
+}
@@ -10,8 +10,11 @@ package org.sosy_lab.java_smt.delegate.synchronize;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import java.io.IOException;
+import java.io.Reader;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import org.sosy_lab.common.Appender;
@@ -34,6 +37,7 @@ import org.sosy_lab.java_smt.api.SolverContext;
 import org.sosy_lab.java_smt.api.SolverException;
 import org.sosy_lab.java_smt.api.StringFormulaManager;
 import org.sosy_lab.java_smt.api.Tactic;
+import org.sosy_lab.java_smt.api.TransformationSession;
 import org.sosy_lab.java_smt.api.UFManager;
 import org.sosy_lab.java_smt.api.visitors.FormulaTransformationVisitor;
 import org.sosy_lab.java_smt.api.visitors.FormulaVisitor;
@@ -165,6 +169,13 @@ class SynchronizedFormulaManager implements FormulaManager {
     }
   }
 
+  @Override
+  public BooleanFormula parse(Reader pInput) throws IOException, IllegalArgumentException {
+    synchronized (sync) {
+      return delegate.parse(pInput);
+    }
+  }
+
   @Override
   public Appender dumpFormula(BooleanFormula pT) {
     return new Appenders.AbstractAppender() {
@@ -216,6 +227,15 @@ class SynchronizedFormulaManager implements FormulaManager {
     }
   }
 
+  @Override
+  public TransformationSession newTransformationSession(
+      FormulaTransformationVisitor pFormulaVisitor) {
+    synchronized (sync) {
+      return new SynchronizedTransformationSession(
+          delegate.newTransformationSession(pFormulaVisitor), sync);
+    }
+  }
+
   @Override
   public ImmutableMap<String, Formula> extractVariables(Formula pF) {
     synchronized (sync) {
@@ -238,6 +258,22 @@ class SynchronizedFormulaManager implements FormulaManager {
     }
   }
 
+  @Override
+  public <T extends Formula> ImmutableList<T> substitute(
+      Collection<T> pFormulas, Map<? extends Formula, ? extends Formula> pFromToMapping) {
+    synchronized (sync) {
+      return delegate.substitute(pFormulas, pFromToMapping);
+    }
+  }
+
+  @Override
+  public TransformationSession newSubstitution(
+      Map<? extends Formula, ? extends Formula> pFromToMapping) {
+    synchronized (sync) {
+      return new SynchronizedTransformationSession(delegate.newSubstitution(pFromToMapping), sync);
+    }
+  }
+
   @Override
   public BooleanFormula translateFrom(BooleanFormula pFormula, FormulaManager pOtherContext) {
     synchronized (sync) {
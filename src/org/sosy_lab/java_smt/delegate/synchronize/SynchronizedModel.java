@@ -12,6 +12,10 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.collect.ImmutableList;
 import java.math.BigInteger;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.rationals.Rational;
 import org.sosy_lab.java_smt.api.BitvectorFormula;
@@ -99,6 +103,13 @@ class SynchronizedModel implements Model {
     }
   }
 
+  @Override
+  public List<@Nullable Object> evaluateAll(List<? extends Formula> pFormulas) {
+    synchronized (sync) {
+      return delegate.evaluateAll(pFormulas);
+    }
+  }
+
   @Override
   public ImmutableList<ValueAssignment> asList() {
     synchronized (sync) {
@@ -106,6 +117,26 @@ class SynchronizedModel implements Model {
     }
   }
 
+  @Override
+  public Stream<ValueAssignment> stream() {
+    // a lazy stream would access the solver without the lock.
+    return asList().stream();
+  }
+
+  @Override
+  public ImmutableList<ValueAssignment> asList(Predicate<String> pNameFilter) {
+    synchronized (sync) {
+      return delegate.asList(pNameFilter);
+    }
+  }
+
+  @Override
+  public ImmutableList<ValueAssignment> assignmentsFor(Collection<? extends Formula> pKeys) {
+    synchronized (sync) {
+      return delegate.assignmentsFor(pKeys);
+    }
+  }
+
   @Override
   public void close() {
     synchronized (sync) {
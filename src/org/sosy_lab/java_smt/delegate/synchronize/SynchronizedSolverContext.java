@@ -36,6 +36,22 @@ public class SynchronizedSolverContext implements SolverContext {
               + "This allows more parallelity when solving larger queries.")
   private boolean useSeperateProvers = false;
 
+  @Option(
+      secure = true,
+      description =
+          "Number of threads that compute all satisfying assignments (AllSAT) of a prover. "
+              + "With more than one thread, the assignments of the important predicates are "
+              + "split into cubes over the first predicates, and each thread enumerates "
+              + "the assignments for some of the cubes with a prover in a separate context.")
+  private int allSatThreads = 1;
+
+  @Option(
+      secure = true,
+      description =
+          "Number of important predicates that are used to split a parallel AllSAT computation "
+              + "into cubes, i.e., there are 2^n cubes that are distributed among the threads.")
+  private int allSatSplitDepth = 4;
+
   private final SolverContext delegate;
   private final SolverContext sync;
   private final Configuration config;
@@ -49,20 +65,41 @@ public class SynchronizedSolverContext implements SolverContext {
       SolverContext pDelegate)
       throws InvalidConfigurationException {
     pConfig.inject(this, SynchronizedSolverContext.class);
+    if (allSatThreads < 1) {
+      throw new InvalidConfigurationException("AllSAT requires at least one thread.");
+    }
+    if (allSatSplitDepth < 1 || allSatSplitDepth > 20) {
+      throw new InvalidConfigurationException(
+          "The number of predicates for splitting AllSAT into cubes must be between 1 and 20.");
+    }
     delegate = checkNotNull(pDelegate);
     sync = delegate;
-    config = pConfig;
+    // The other contexts are only used via the delegate of their synchronized wrapper, thus they
+    // must not be wrapped further. Otherwise, the outer wrappers (e.g., their trace files,
+    // threads, and MBeans) would never be closed.
+    config =
+        Configuration.builder()
+            .copyFrom(pConfig)
+            .setOption("solver.useQueryCache", "false")
+            .setOption("solver.useDebugMode", "false")
+            .setOption("solver.recordTrace", "false")
+            .setOption("solver.collectStatistics", "false")
+            .build();
     logger = pLogger;
     shutdownNotifier = pShutdownNotifier;
   }
 
-  @SuppressWarnings("resource")
   private SolverContext createOtherContext() {
+    return createOtherContext(shutdownNotifier);
+  }
+
+  @SuppressWarnings("resource")
+  private SolverContext createOtherContext(ShutdownNotifier pShutdownNotifier) {
     SolverContext otherContext;
     try {
       otherContext =
           SolverContextFactory.createSolverContext(
-              config, logger, shutdownNotifier, delegate.getSolverName());
+              config, logger, pShutdownNotifier, delegate.getSolverName());
     } catch (InvalidConfigurationException e) {
       throw new AssertionError("should not happen, current context was already created before.");
     }
@@ -81,16 +118,33 @@ public class SynchronizedSolverContext implements SolverContext {
   @Override
   public ProverEnvironment newProverEnvironment(ProverOptions... pOptions) {
     synchronized (sync) {
+      final ProverEnvironment prover;
       if (useSeperateProvers) {
         SolverContext otherContext = createOtherContext();
-        return new SynchronizedProverEnvironmentWithContext(
-            otherContext.newProverEnvironment(pOptions),
+        prover =
+            new SynchronizedProverEnvironmentWithContext(
+                otherContext.newProverEnvironment(pOptions),
+                sync,
+                delegate.getFormulaManager(),
+                otherContext.getFormulaManager());
+      } else {
+        prover =
+            new SynchronizedProverEnvironment(delegate.newProverEnvironment(pOptions), delegate);
+      }
+      // CVC5 binds terms to the thread that created them, thus we can not translate formulas
+      // into the contexts of other threads.
+      if (allSatThreads > 1 && delegate.getSolverName() != Solvers.CVC5) {
+        return new ParallelAllSatProverEnvironment(
+            prover,
             sync,
             delegate.getFormulaManager(),
-            otherContext.getFormulaManager());
-      } else {
-        return new SynchronizedProverEnvironment(delegate.newProverEnvironment(pOptions), delegate);
+            this::createOtherContext,
+            shutdownNotifier,
+            pOptions,
+            allSatThreads,
+            allSatSplitDepth);
       }
+      return prover;
     }
   }
 
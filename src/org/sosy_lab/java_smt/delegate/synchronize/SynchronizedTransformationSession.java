@@ -0,0 +1,40 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.synchronize;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.api.TransformationSession;
+
+class SynchronizedTransformationSession implements TransformationSession {
+
+  private final TransformationSession delegate;
+  private final SolverContext sync;
+
+  SynchronizedTransformationSession(TransformationSession pDelegate, SolverContext pSync) {
+    delegate = checkNotNull(pDelegate);
+    sync = checkNotNull(pSync);
+  }
+
+  @Override
+  public <T extends Formula> T transform(T pF) {
+    synchronized (sync) {
+      return delegate.transform(pF);
+    }
+  }
+
+  @Override
+  public void clearCache() {
+    synchronized (sync) {
+      delegate.clearCache();
+    }
+  }
+}
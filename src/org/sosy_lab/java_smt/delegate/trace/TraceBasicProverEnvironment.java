@@ -0,0 +1,262 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.trace;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.java_smt.api.BasicProverEnvironment;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Evaluator;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.Model.ValueAssignment;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.api.UserPropagator;
+import org.sosy_lab.java_smt.delegate.trace.TraceEntry.Command;
+
+/**
+ * Records all calls of a prover into a trace. The duration of each call is recorded, excluding the
+ * time for creating the SMT-LIB2 dumps of its arguments.
+ */
+class TraceBasicProverEnvironment<T> implements BasicProverEnvironment<T> {
+
+  static final String ERROR = "error";
+
+  private static final Joiner JOINER = Joiner.on(' ');
+
+  private final BasicProverEnvironment<T> delegate;
+  final TraceRecorder recorder;
+  final int id;
+
+  /** The index of each assertion in the order of all assertions of this prover. */
+  private final Map<T, Integer> assertionIndices = new HashMap<>();
+
+  private int assertions = 0;
+
+  TraceBasicProverEnvironment(
+      BasicProverEnvironment<T> pDelegate, TraceRecorder pRecorder, int pId) {
+    delegate = checkNotNull(pDelegate);
+    recorder = checkNotNull(pRecorder);
+    id = pId;
+  }
+
+  @Override
+  public void push() throws InterruptedException {
+    long start = System.nanoTime();
+    String result = ERROR;
+    try {
+      delegate.push();
+      result = "";
+    } finally {
+      recorder.record(id, Command.PUSH, start, result);
+    }
+  }
+
+  @Override
+  public void pop() {
+    long start = System.nanoTime();
+    String result = ERROR;
+    try {
+      delegate.pop();
+      result = "";
+    } finally {
+      recorder.record(id, Command.POP, start, result);
+    }
+  }
+
+  @Override
+  public @Nullable T addConstraint(BooleanFormula pConstraint) throws InterruptedException {
+    List<String> arguments = ImmutableList.of(recorder.dump(pConstraint));
+    long start = System.nanoTime();
+    String result = ERROR;
+    try {
+      T constraintId = delegate.addConstraint(pConstraint);
+      if (constraintId != null) {
+        assertionIndices.put(constraintId, assertions);
+      }
+      result = "";
+      return constraintId;
+    } finally {
+      // the replay counts all assertions, also failed ones, to keep the indices aligned.
+      assertions++;
+      recorder.record(id, Command.ASSERT, start, result, arguments);
+    }
+  }
+
+  /** Return the indices of the given assertions, separated by spaces. */
+  String indicesOf(Collection<T> pConstraintIds) {
+    return JOINER.join(
+        pConstraintIds.stream()
+            .map(constraintId -> checkNotNull(assertionIndices.get(constraintId)))
+            .iterator());
+  }
+
+  @Override
+  public int size() {
+    return delegate.size();
+  }
+
+  @Override
+  public boolean isUnsat() throws SolverException, InterruptedException {
+    long start = System.nanoTime();
+    String result = ERROR;
+    try {
+      boolean unsat = delegate.isUnsat();
+      result = unsat ? TraceEntry.UNSAT : TraceEntry.SAT;
+      return unsat;
+    } finally {
+      recorder.record(id, Command.CHECK_SAT, start, result);
+    }
+  }
+
+  @Override
+  public boolean isUnsatWithAssumptions(Collection<BooleanFormula> pAssumptions)
+      throws SolverException, InterruptedException {
+    List<String> arguments = recorder.dumpAll(pAssumptions);
+    long start = System.nanoTime();
+    String result = ERROR;
+    try {
+      boolean unsat = delegate.isUnsatWithAssumptions(pAssumptions);
+      result = unsat ? TraceEntry.UNSAT : TraceEntry.SAT;
+      return unsat;
+    } finally {
+      recorder.record(id, Command.CHECK_SAT_ASSUMING, start, result, arguments);
+    }
+  }
+
+  @Override
+  public Model getModel() throws SolverException {
+    long start = System.nanoTime();
+    String result = ERROR;
+    try {
+      Model model = delegate.getModel();
+      result = "";
+      return model;
+    } finally {
+      recorder.record(id, Command.GET_MODEL, start, result);
+    }
+  }
+
+  @Override
+  public Evaluator getEvaluator() throws SolverException {
+    long start = System.nanoTime();
+    String result = ERROR;
+    try {
+      Evaluator evaluator = delegate.getEvaluator();
+      result = "";
+      return evaluator;
+    } finally {
+      recorder.record(id, Command.GET_MODEL, start, result);
+    }
+  }
+
+  @Override
+  public ImmutableList<ValueAssignment> getModelAssignments() throws SolverException {
+    long start = System.nanoTime();
+    String result = ERROR;
+    try {
+      ImmutableList<ValueAssignment> assignments = delegate.getModelAssignments();
+      result = Integer.toString(assignments.size());
+      return assignments;
+    } finally {
+      recorder.record(id, Command.GET_MODEL_ASSIGNMENTS, start, result);
+    }
+  }
+
+  @Override
+  public List<BooleanFormula> getUnsatCore() {
+    long start = System.nanoTime();
+    String result = ERROR;
+    try {
+      List<BooleanFormula> core = delegate.getUnsatCore();
+      result = Integer.toString(core.size());
+      return core;
+    } finally {
+      recorder.record(id, Command.GET_UNSAT_CORE, start, result);
+    }
+  }
+
+  @Override
+  public Optional<List<BooleanFormula>> unsatCoreOverAssumptions(
+      Collection<BooleanFormula> pAssumptions) throws SolverException, InterruptedException {
+    List<String> arguments = recorder.dumpAll(pAssumptions);
+    long start = System.nanoTime();
+    String result = ERROR;
+    try {
+      Optional<List<BooleanFormula>> core = delegate.unsatCoreOverAssumptions(pAssumptions);
+      result = core.isPresent() ? TraceEntry.UNSAT : TraceEntry.SAT;
+      return core;
+    } finally {
+      recorder.record(id, Command.GET_UNSAT_CORE_ASSUMING, start, result, arguments);
+    }
+  }
+
+  @Override
+  public <R> R allSat(AllSatCallback<R> pCallback, List<BooleanFormula> pImportant)
+      throws InterruptedException, SolverException {
+    List<String> arguments = recorder.dumpAll(pImportant);
+    int[] models = {0};
+    AllSatCallback<R> countingCallback =
+        new AllSatCallback<>() {
+          @Override
+          public void apply(List<BooleanFormula> pModel) {
+            models[0]++;
+            pCallback.apply(pModel);
+          }
+
+          @Override
+          public R getResult() throws InterruptedException {
+            return pCallback.getResult();
+          }
+        };
+    long start = System.nanoTime();
+    String result = ERROR;
+    try {
+      R allSatResult = delegate.allSat(countingCallback, pImportant);
+      result = Integer.toString(models[0]);
+      return allSatResult;
+    } finally {
+      recorder.record(id, Command.ALL_SAT, start, result, arguments);
+    }
+  }
+
+  @Override
+  public boolean registerUserPropagator(UserPropagator pPropagator) {
+    // the callbacks of a user propagator can not be recorded, the replay will miss them.
+    return delegate.registerUserPropagator(pPropagator);
+  }
+
+  @Override
+  public ImmutableMap<String, String> getStatistics() {
+    return delegate.getStatistics();
+  }
+
+  @Override
+  public void close() {
+    long start = System.nanoTime();
+    try {
+      delegate.close();
+    } finally {
+      recorder.record(id, Command.CLOSE, start, "");
+    }
+  }
+
+  @Override
+  public String toString() {
+    return delegate.toString();
+  }
+}
@@ -0,0 +1,206 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.trace;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+
+/**
+ * One call of a prover in a trace.
+ *
+ * <p>A trace consists of one line per entry, with tab-separated fields: the id of the prover, the
+ * command, the time of the call in nanoseconds, the result of the call, and the arguments of the
+ * call. Formulas are arguments in SMT-LIB2 format, including the declarations of their symbols.
+ * Backslashes, tabs, and line breaks in a field are escaped, such that SMT-LIB2 dumps with several
+ * lines fit into one entry. Lines starting with {@link #COMMENT} are ignored.
+ */
+final class TraceEntry {
+
+  /** The commands of a trace, one per method of a prover. */
+  enum Command {
+    NEW_PROVER("new-prover"),
+    NEW_INTERPOLATING_PROVER("new-interpolating-prover"),
+    PUSH("push"),
+    POP("pop"),
+    ASSERT("assert"),
+    CHECK_SAT("check-sat"),
+    CHECK_SAT_ASSUMING("check-sat-assuming"),
+    GET_MODEL("get-model"),
+    GET_MODEL_ASSIGNMENTS("get-model-assignments"),
+    GET_UNSAT_CORE("get-unsat-core"),
+    GET_UNSAT_CORE_ASSUMING("get-unsat-core-assuming"),
+    ALL_SAT("all-sat"),
+    GET_INTERPOLANT("get-interpolant"),
+    GET_SEQ_INTERPOLANTS("get-seq-interpolants"),
+    GET_TREE_INTERPOLANTS("get-tree-interpolants"),
+    CLOSE("close");
+
+    private final String name;
+
+    Command(String pName) {
+      name = pName;
+    }
+
+    static Command of(String pName) {
+      for (Command command : values()) {
+        if (command.name.equals(pName)) {
+          return command;
+        }
+      }
+      throw new IllegalArgumentException("unknown trace command: " + pName);
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+  }
+
+  static final String COMMENT = "#";
+
+  /** The results of satisfiability checks, other calls have an empty result or a number. */
+  static final String SAT = "sat";
+
+  static final String UNSAT = "unsat";
+
+  private static final char SEPARATOR = '\t';
+  private static final Splitter SPLITTER = Splitter.on(SEPARATOR);
+
+  private final int prover;
+  private final Command command;
+  private final long nanos;
+  private final String result;
+  private final ImmutableList<String> arguments;
+
+  TraceEntry(int pProver, Command pCommand, long pNanos, String pResult, List<String> pArguments) {
+    prover = pProver;
+    command = checkNotNull(pCommand);
+    nanos = pNanos;
+    result = checkNotNull(pResult);
+    arguments = ImmutableList.copyOf(pArguments);
+  }
+
+  int getProver() {
+    return prover;
+  }
+
+  Command getCommand() {
+    return command;
+  }
+
+  long getNanos() {
+    return nanos;
+  }
+
+  String getResult() {
+    return result;
+  }
+
+  ImmutableList<String> getArguments() {
+    return arguments;
+  }
+
+  /** Return the line of this entry, without line break. */
+  String toLine() {
+    StringBuilder line = new StringBuilder();
+    line.append(prover)
+        .append(SEPARATOR)
+        .append(command)
+        .append(SEPARATOR)
+        .append(nanos)
+        .append(SEPARATOR);
+    escape(result, line);
+    for (String argument : arguments) {
+      line.append(SEPARATOR);
+      escape(argument, line);
+    }
+    return line.toString();
+  }
+
+  static TraceEntry parse(String pLine) {
+    List<String> fields = SPLITTER.splitToList(pLine);
+    if (fields.size() < 4) {
+      throw new IllegalArgumentException("invalid trace entry: " + pLine);
+    }
+    ImmutableList.Builder<String> arguments = ImmutableList.builder();
+    for (String field : fields.subList(4, fields.size())) {
+      arguments.add(unescape(field));
+    }
+    return new TraceEntry(
+        Integer.parseInt(fields.get(0)),
+        Command.of(fields.get(1)),
+        Long.parseLong(fields.get(2)),
+        unescape(fields.get(3)),
+        arguments.build());
+  }
+
+  private static void escape(String pField, StringBuilder pOut) {
+    for (int i = 0; i < pField.length(); i++) {
+      char c = pField.charAt(i);
+      switch (c) {
+        case '\\':
+          pOut.append("\\\\");
+          break;
+        case '\t':
+          pOut.append("\\t");
+          break;
+        case '\n':
+          pOut.append("\\n");
+          break;
+        case '\r':
+          pOut.append("\\r");
+          break;
+        default:
+          pOut.append(c);
+      }
+    }
+  }
+
+  private static String unescape(String pField) {
+    if (pField.indexOf('\\') < 0) {
+      return pField;
+    }
+    StringBuilder out = new StringBuilder(pField.length());
+    for (int i = 0; i < pField.length(); i++) {
+      char c = pField.charAt(i);
+      if (c != '\\') {
+        out.append(c);
+        continue;
+      }
+      if (++i == pField.length()) {
+        throw new IllegalArgumentException("incomplete escape sequence in trace: " + pField);
+      }
+      switch (pField.charAt(i)) {
+        case '\\':
+          out.append('\\');
+          break;
+        case 't':
+          out.append('\t');
+          break;
+        case 'n':
+          out.append('\n');
+          break;
+        case 'r':
+          out.append('\r');
+          break;
+        default:
+          throw new IllegalArgumentException("invalid escape sequence in trace: " + pField);
+      }
+    }
+    return out.toString();
+  }
+
+  @Override
+  public String toString() {
+    return toLine();
+  }
+}
@@ -0,0 +1,96 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.trace;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Ints;
+import java.util.Collection;
+import java.util.List;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.delegate.trace.TraceEntry.Command;
+
+/**
+ * Records the interpolation queries of a prover. The partitions are recorded as the indices of
+ * their assertions, such that the replay can map them to its own assertions.
+ */
+class TraceInterpolatingProverEnvironment<T> extends TraceBasicProverEnvironment<T>
+    implements InterpolatingProverEnvironment<T> {
+
+  private final InterpolatingProverEnvironment<T> delegate;
+
+  TraceInterpolatingProverEnvironment(
+      InterpolatingProverEnvironment<T> pDelegate, TraceRecorder pRecorder, int pId) {
+    super(pDelegate, pRecorder, pId);
+    delegate = checkNotNull(pDelegate);
+  }
+
+  @Override
+  public BooleanFormula getInterpolant(Collection<T> pFormulasOfA)
+      throws SolverException, InterruptedException {
+    List<String> arguments = ImmutableList.of(indicesOf(pFormulasOfA));
+    long start = System.nanoTime();
+    String result = ERROR;
+    try {
+      BooleanFormula interpolant = delegate.getInterpolant(pFormulasOfA);
+      result = "";
+      return interpolant;
+    } finally {
+      recorder.record(id, Command.GET_INTERPOLANT, start, result, arguments);
+    }
+  }
+
+  @Override
+  public List<BooleanFormula> getSeqInterpolants(List<? extends Collection<T>> pPartitionedFormulas)
+      throws SolverException, InterruptedException {
+    List<String> arguments = partitionsOf(pPartitionedFormulas);
+    long start = System.nanoTime();
+    String result = ERROR;
+    try {
+      List<BooleanFormula> interpolants = delegate.getSeqInterpolants(pPartitionedFormulas);
+      result = Integer.toString(interpolants.size());
+      return interpolants;
+    } finally {
+      recorder.record(id, Command.GET_SEQ_INTERPOLANTS, start, result, arguments);
+    }
+  }
+
+  @Override
+  public List<BooleanFormula> getTreeInterpolants(
+      List<? extends Collection<T>> pPartitionedFormulas, int[] pStartOfSubTree)
+      throws SolverException, InterruptedException {
+    // the first argument is the tree structure, followed by the partitions.
+    List<String> arguments =
+        ImmutableList.<String>builder()
+            .add(Ints.join(" ", pStartOfSubTree))
+            .addAll(partitionsOf(pPartitionedFormulas))
+            .build();
+    long start = System.nanoTime();
+    String result = ERROR;
+    try {
+      List<BooleanFormula> interpolants =
+          delegate.getTreeInterpolants(pPartitionedFormulas, pStartOfSubTree);
+      result = Integer.toString(interpolants.size());
+      return interpolants;
+    } finally {
+      recorder.record(id, Command.GET_TREE_INTERPOLANTS, start, result, arguments);
+    }
+  }
+
+  private ImmutableList<String> partitionsOf(List<? extends Collection<T>> pPartitionedFormulas) {
+    ImmutableList.Builder<String> partitions = ImmutableList.builder();
+    for (Collection<T> partition : pPartitionedFormulas) {
+      partitions.add(indicesOf(partition));
+    }
+    return partitions.build();
+  }
+}
@@ -0,0 +1,19 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.trace;
+
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+
+class TraceProverEnvironment extends TraceBasicProverEnvironment<Void>
+    implements ProverEnvironment {
+
+  TraceProverEnvironment(ProverEnvironment pDelegate, TraceRecorder pRecorder, int pId) {
+    super(pDelegate, pRecorder, pId);
+  }
+}
@@ -0,0 +1,73 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.trace;
+
+import com.google.common.collect.ImmutableList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.delegate.trace.TraceEntry.Command;
+
+/** Creates the entries of a trace for all provers of a context. */
+final class TraceRecorder {
+
+  private final FormulaManager fmgr;
+  private final TraceWriter writer;
+  private final LogManager logger;
+  private final AtomicInteger proverIds = new AtomicInteger();
+  private final AtomicBoolean dumpFailed = new AtomicBoolean();
+
+  TraceRecorder(FormulaManager pFmgr, TraceWriter pWriter, LogManager pLogger) {
+    fmgr = pFmgr;
+    writer = pWriter;
+    logger = pLogger;
+  }
+
+  int nextProverId() {
+    return proverIds.incrementAndGet();
+  }
+
+  void record(int pProver, Command pCommand, long pStart, String pResult, List<String> pArguments) {
+    writer.write(
+        new TraceEntry(pProver, pCommand, System.nanoTime() - pStart, pResult, pArguments));
+  }
+
+  void record(int pProver, Command pCommand, long pStart, String pResult) {
+    record(pProver, pCommand, pStart, pResult, ImmutableList.of());
+  }
+
+  /**
+   * Return the SMT-LIB2 dump of the formula. The dump is created by the calling thread, because
+   * formulas can not be shared with the thread that writes the trace.
+   */
+  String dump(BooleanFormula pFormula) {
+    try {
+      return fmgr.dumpFormula(pFormula).toString();
+    } catch (UnsupportedOperationException e) {
+      if (!dumpFailed.getAndSet(true)) {
+        logger.logUserException(
+            Level.WARNING, e, "Formulas can not be dumped, the trace can not be replayed");
+      }
+      return "";
+    }
+  }
+
+  ImmutableList<String> dumpAll(Collection<BooleanFormula> pFormulas) {
+    ImmutableList.Builder<String> dumps = ImmutableList.builderWithExpectedSize(pFormulas.size());
+    for (BooleanFormula formula : pFormulas) {
+      dumps.add(dump(formula));
+    }
+    return dumps.build();
+  }
+}
@@ -0,0 +1,397 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.trace;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.base.Ascii;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.zip.GZIPInputStream;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.BasicLogManager;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
+import org.sosy_lab.java_smt.SolverContextFactory;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BasicProverEnvironment;
+import org.sosy_lab.java_smt.api.BasicProverEnvironment.AllSatCallback;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.delegate.trace.TraceEntry.Command;
+
+/**
+ * Replays a trace that was recorded by {@link TraceSolverContext} against a solver context, and
+ * measures the latency of each kind of solver call.
+ *
+ * <p>The formulas of the trace are parsed by the given context, thus the solver has to support
+ * parsing SMT-LIB2. The time for parsing is measured separately and is not part of the latency of
+ * the solver calls. The results of satisfiability checks are compared with the recorded results,
+ * differences are reported as mismatches. Calls that failed during the recording are expected to
+ * fail during the replay as well.
+ *
+ * <p>Usage from the command line: {@code TraceReplay <trace file> <solver>...}, which replays the
+ * trace against each given solver with the default configuration and prints the statistics.
+ */
+public final class TraceReplay {
+
+  private static final Splitter INDEX_SPLITTER = Splitter.on(' ').omitEmptyStrings();
+
+  /** The latencies of all replayed calls of one command. */
+  private static final class Latency {
+    private long calls = 0;
+    private long sumNanos = 0;
+    private long maxNanos = 0;
+    private long recordedNanos = 0;
+
+    private void add(long pNanos, long pRecordedNanos) {
+      calls++;
+      sumNanos += pNanos;
+      maxNanos = Math.max(maxNanos, pNanos);
+      recordedNanos += pRecordedNanos;
+    }
+  }
+
+  /** A prover of the replay with the ids of its assertions, in the order of the trace. */
+  private static final class ReplayProver<T> {
+    private final BasicProverEnvironment<T> prover;
+    private final @Nullable InterpolatingProverEnvironment<T> interpolatingProver;
+    private final List<@Nullable T> assertions = new ArrayList<>();
+
+    private ReplayProver(
+        BasicProverEnvironment<T> pProver,
+        @Nullable InterpolatingProverEnvironment<T> pInterpolatingProver) {
+      prover = pProver;
+      interpolatingProver = pInterpolatingProver;
+    }
+
+    private static <T> ReplayProver<T> of(BasicProverEnvironment<T> pProver) {
+      return new ReplayProver<>(pProver, null);
+    }
+
+    private static <T> ReplayProver<T> ofInterpolating(InterpolatingProverEnvironment<T> pProver) {
+      return new ReplayProver<>(pProver, pProver);
+    }
+
+    private void addConstraint(BooleanFormula pConstraint) throws InterruptedException {
+      // the index of a failing assertion is used as well, to keep the indices aligned.
+      assertions.add(null);
+      assertions.set(assertions.size() - 1, prover.addConstraint(pConstraint));
+    }
+
+    private InterpolatingProverEnvironment<T> getInterpolatingProver() {
+      checkArgument(interpolatingProver != null, "trace requests interpolants from a plain prover");
+      return interpolatingProver;
+    }
+
+    private List<T> partition(String pIndices) {
+      List<T> partition = new ArrayList<>();
+      for (String index : INDEX_SPLITTER.split(pIndices)) {
+        partition.add(checkNotNull(assertions.get(Integer.parseInt(index))));
+      }
+      return partition;
+    }
+
+    private List<List<T>> partitions(List<String> pPartitions) {
+      List<List<T>> partitions = new ArrayList<>();
+      for (String indices : pPartitions) {
+        partitions.add(partition(indices));
+      }
+      return partitions;
+    }
+
+    private void getInterpolant(String pIndices) throws SolverException, InterruptedException {
+      getInterpolatingProver().getInterpolant(partition(pIndices));
+    }
+
+    private void getSeqInterpolants(List<String> pPartitions)
+        throws SolverException, InterruptedException {
+      getInterpolatingProver().getSeqInterpolants(partitions(pPartitions));
+    }
+
+    private void getTreeInterpolants(List<String> pArguments)
+        throws SolverException, InterruptedException {
+      int[] startOfSubTree =
+          INDEX_SPLITTER.splitToStream(pArguments.get(0)).mapToInt(Integer::parseInt).toArray();
+      getInterpolatingProver()
+          .getTreeInterpolants(
+              partitions(pArguments.subList(1, pArguments.size())), startOfSubTree);
+    }
+  }
+
+  private final SolverContext context;
+  private final FormulaManager fmgr;
+  private final LogManager logger;
+
+  private final Map<Integer, ReplayProver<?>> provers = new HashMap<>();
+  private final Map<Command, Latency> latencies = new EnumMap<>(Command.class);
+  private final Latency parsing = new Latency();
+  private int mismatches = 0;
+
+  public TraceReplay(SolverContext pContext, LogManager pLogger) {
+    context = checkNotNull(pContext);
+    fmgr = pContext.getFormulaManager();
+    logger = checkNotNull(pLogger);
+  }
+
+  /**
+   * Replay all calls of the given trace, which may be compressed. Provers that are not closed by
+   * the trace are closed at the end of the replay.
+   */
+  public void replay(Path pTrace) throws IOException, SolverException, InterruptedException {
+    try (BufferedReader reader = open(pTrace)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (!line.isEmpty() && !line.startsWith(TraceEntry.COMMENT)) {
+          replay(TraceEntry.parse(line));
+        }
+      }
+    } finally {
+      for (ReplayProver<?> prover : provers.values()) {
+        prover.prover.close();
+      }
+      provers.clear();
+    }
+  }
+
+  private static BufferedReader open(Path pTrace) throws IOException {
+    InputStream in = new BufferedInputStream(Files.newInputStream(pTrace));
+    try {
+      in.mark(2);
+      boolean compressed = in.read() == 0x1f && in.read() == 0x8b; // magic bytes of GZIP
+      in.reset();
+      if (compressed) {
+        in = new GZIPInputStream(in);
+      }
+    } catch (IOException e) {
+      in.close();
+      throw e;
+    }
+    return new BufferedReader(new InputStreamReader(in, UTF_8));
+  }
+
+  private void replay(TraceEntry pEntry) throws SolverException, InterruptedException {
+    Command command = pEntry.getCommand();
+    List<String> arguments = pEntry.getArguments();
+    boolean expectError = pEntry.getResult().equals(TraceBasicProverEnvironment.ERROR);
+
+    // parse the formulas before measuring the latency of the call
+    List<BooleanFormula> formulas = ImmutableList.of();
+    if (command == Command.ASSERT
+        || command == Command.CHECK_SAT_ASSUMING
+        || command == Command.GET_UNSAT_CORE_ASSUMING
+        || command == Command.ALL_SAT) {
+      long start = System.nanoTime();
+      ImmutableList.Builder<BooleanFormula> parsed = ImmutableList.builder();
+      for (String argument : arguments) {
+        parsed.add(fmgr.parse(argument));
+      }
+      formulas = parsed.build();
+      parsing.add(System.nanoTime() - start, 0);
+    }
+
+    long start = System.nanoTime();
+    String result;
+    try {
+      result = call(pEntry, formulas);
+    } catch (SolverException | RuntimeException e) {
+      if (!expectError) {
+        throw e;
+      }
+      result = TraceBasicProverEnvironment.ERROR;
+    }
+    latencies
+        .computeIfAbsent(command, c -> new Latency())
+        .add(System.nanoTime() - start, pEntry.getNanos());
+
+    if ((command == Command.CHECK_SAT
+            || command == Command.CHECK_SAT_ASSUMING
+            || command == Command.GET_UNSAT_CORE_ASSUMING
+            || expectError)
+        && !result.equals(pEntry.getResult())) {
+      mismatches++;
+      logger.log(
+          Level.WARNING,
+          "Replay of",
+          command,
+          "of prover",
+          pEntry.getProver(),
+          "returned",
+          result,
+          "instead of",
+          pEntry.getResult());
+    }
+  }
+
+  /** Execute the call of the entry and return its result in the format of the trace. */
+  @SuppressWarnings("resource")
+  private String call(TraceEntry pEntry, List<BooleanFormula> pFormulas)
+      throws SolverException, InterruptedException {
+    int id = pEntry.getProver();
+    List<String> arguments = pEntry.getArguments();
+    switch (pEntry.getCommand()) {
+      case NEW_PROVER:
+        provers.put(id, ReplayProver.of(context.newProverEnvironment(optionsOf(arguments))));
+        return "";
+      case NEW_INTERPOLATING_PROVER:
+        provers.put(
+            id,
+            ReplayProver.ofInterpolating(
+                context.newProverEnvironmentWithInterpolation(optionsOf(arguments))));
+        return "";
+      default:
+        break;
+    }
+
+    ReplayProver<?> replayProver = provers.get(id);
+    checkArgument(replayProver != null, "trace uses prover %s before its creation", id);
+    BasicProverEnvironment<?> prover = replayProver.prover;
+    switch (pEntry.getCommand()) {
+      case PUSH:
+        prover.push();
+        return "";
+      case POP:
+        prover.pop();
+        return "";
+      case ASSERT:
+        replayProver.addConstraint(pFormulas.get(0));
+        return "";
+      case CHECK_SAT:
+        return prover.isUnsat() ? TraceEntry.UNSAT : TraceEntry.SAT;
+      case CHECK_SAT_ASSUMING:
+        return prover.isUnsatWithAssumptions(pFormulas) ? TraceEntry.UNSAT : TraceEntry.SAT;
+      case GET_MODEL:
+        prover.getModel().close();
+        return "";
+      case GET_MODEL_ASSIGNMENTS:
+        return Integer.toString(prover.getModelAssignments().size());
+      case GET_UNSAT_CORE:
+        return Integer.toString(prover.getUnsatCore().size());
+      case GET_UNSAT_CORE_ASSUMING:
+        return prover.unsatCoreOverAssumptions(pFormulas).isPresent()
+            ? TraceEntry.UNSAT
+            : TraceEntry.SAT;
+      case ALL_SAT:
+        return Integer.toString(prover.allSat(new CountingCallback(), pFormulas));
+      case GET_INTERPOLANT:
+        replayProver.getInterpolant(arguments.get(0));
+        return "";
+      case GET_SEQ_INTERPOLANTS:
+        replayProver.getSeqInterpolants(arguments);
+        return "";
+      case GET_TREE_INTERPOLANTS:
+        replayProver.getTreeInterpolants(arguments);
+        return "";
+      case CLOSE:
+        provers.remove(id);
+        prover.close();
+        return "";
+      default:
+        throw new AssertionError("unexpected command " + pEntry.getCommand());
+    }
+  }
+
+  private static ProverOptions[] optionsOf(List<String> pNames) {
+    return pNames.stream().map(ProverOptions::valueOf).toArray(ProverOptions[]::new);
+  }
+
+  private static final class CountingCallback implements AllSatCallback<Integer> {
+    private int models = 0;
+
+    @Override
+    public void apply(List<BooleanFormula> pModel) {
+      models++;
+    }
+
+    @Override
+    public Integer getResult() {
+      return models;
+    }
+  }
+
+  /** Return the number of satisfiability checks whose result differs from the recorded one. */
+  public int getMismatches() {
+    return mismatches;
+  }
+
+  /**
+   * Return the number of calls, the total and maximal latency, and the recorded total latency of
+   * each command of the trace.
+   */
+  public ImmutableMap<String, String> getStatistics() {
+    ImmutableMap.Builder<String, String> statistics = ImmutableMap.builder();
+    putLatency(statistics, "parse", parsing);
+    for (Map.Entry<Command, Latency> entry : latencies.entrySet()) {
+      putLatency(statistics, entry.getKey().toString(), entry.getValue());
+      statistics.put(entry.getKey() + " recorded time", format(entry.getValue().recordedNanos));
+    }
+    statistics.put("result mismatches", Integer.toString(mismatches));
+    return statistics.buildOrThrow();
+  }
+
+  private static void putLatency(
+      ImmutableMap.Builder<String, String> pStatistics, String pName, Latency pLatency) {
+    pStatistics.put(pName + " calls", Long.toString(pLatency.calls));
+    pStatistics.put(pName + " time", format(pLatency.sumNanos));
+    pStatistics.put(pName + " max time", format(pLatency.maxNanos));
+  }
+
+  private static String format(long pNanos) {
+    return TimeSpan.ofNanos(pNanos).formatAs(TimeUnit.MILLISECONDS);
+  }
+
+  public static void main(String... args)
+      throws InvalidConfigurationException, IOException, SolverException, InterruptedException {
+    if (args.length < 2) {
+      System.err.println("Usage: TraceReplay <trace file> <solver>...");
+      System.exit(1);
+    }
+    Path trace = Path.of(args[0]);
+    Configuration config = Configuration.defaultConfiguration();
+    LogManager logger = BasicLogManager.create(config);
+    ShutdownNotifier notifier = ShutdownNotifier.createDummy();
+    for (String solverName : Arrays.asList(args).subList(1, args.length)) {
+      Solvers solver = Solvers.valueOf(Ascii.toUpperCase(solverName));
+      try (SolverContext context =
+          SolverContextFactory.createSolverContext(config, logger, notifier, solver)) {
+        TraceReplay replay = new TraceReplay(context, logger);
+        replay.replay(trace);
+        System.out.println(solver + ":");
+        replay
+            .getStatistics()
+            .forEach((key, value) -> System.out.println("  " + key + ": " + value));
+      }
+    }
+  }
+}
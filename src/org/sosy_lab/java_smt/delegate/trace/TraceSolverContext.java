@@ -0,0 +1,191 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.trace;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.io.PathCounterTemplate;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.FormulaManager;
+import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
+import org.sosy_lab.java_smt.api.OptimizationProverEnvironment;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.delegate.trace.TraceEntry.Command;
+
+/**
+ * A solver context that records all calls of its provers into a trace file, independent of the
+ * solver. The trace contains the assertions in SMT-LIB2 format, all backtracking operations, all
+ * checks with their results and durations, and all requests for models, unsat cores, and
+ * interpolants. It can be replayed against any solver with {@link TraceReplay}.
+ *
+ * <p>The formulas are dumped by the calling thread, everything else (escaping, compression, and
+ * writing) is done by a background thread. Optimization provers are not recorded.
+ */
+@Options(prefix = "solver.trace")
+public final class TraceSolverContext implements SolverContext {
+
+  @Option(
+      secure = true,
+      description =
+          "File for the trace of all solver calls. "
+              + "Each solver context writes into its own file.")
+  @FileOption(FileOption.Type.OUTPUT_FILE)
+  private @Nullable PathCounterTemplate file =
+      PathCounterTemplate.ofFormatString("smttrace.%03d.txt");
+
+  @Option(secure = true, description = "Compress the trace file with GZIP.")
+  private boolean compress = false;
+
+  @Option(secure = true, description = "Size of the buffer for writing the trace file in bytes.")
+  private int bufferSize = 1 << 16;
+
+  /** The files that are currently written by open contexts of this JVM. */
+  private static final Set<Path> usedFiles = new HashSet<>();
+
+  private final SolverContext delegate;
+  private final LogManager logger;
+  private final Path path;
+  private final TraceWriter writer;
+  private final TraceRecorder recorder;
+
+  public TraceSolverContext(Configuration pConfig, LogManager pLogger, SolverContext pDelegate)
+      throws InvalidConfigurationException {
+    pConfig.inject(this, TraceSolverContext.class);
+    if (bufferSize < 1) {
+      throw new InvalidConfigurationException("The trace requires a positive buffer size.");
+    }
+    if (file == null) {
+      throw new InvalidConfigurationException(
+          "Recording a trace requires an output file, but output files are disabled.");
+    }
+    delegate = checkNotNull(pDelegate);
+    logger = checkNotNull(pLogger);
+    path = freshPath(file);
+    try {
+      writer = new TraceWriter(path, compress, bufferSize, pLogger);
+    } catch (IOException e) {
+      releasePath(path);
+      throw new InvalidConfigurationException("Could not open trace file: " + e.getMessage(), e);
+    }
+    recorder = new TraceRecorder(delegate.getFormulaManager(), writer, pLogger);
+  }
+
+  private static Path freshPath(PathCounterTemplate pTemplate) {
+    synchronized (usedFiles) {
+      Path fresh = pTemplate.getFreshPath();
+      while (!usedFiles.add(fresh)) {
+        fresh = pTemplate.getFreshPath();
+      }
+      return fresh;
+    }
+  }
+
+  private static void releasePath(Path pPath) {
+    synchronized (usedFiles) {
+      usedFiles.remove(pPath);
+    }
+  }
+
+  /** Return the file of the trace. */
+  public Path getTraceFile() {
+    return path;
+  }
+
+  private static List<String> namesOf(ProverOptions... pOptions) {
+    return Stream.of(pOptions).map(ProverOptions::name).collect(Collectors.toList());
+  }
+
+  @Override
+  public FormulaManager getFormulaManager() {
+    return delegate.getFormulaManager();
+  }
+
+  @SuppressWarnings("resource")
+  @Override
+  public ProverEnvironment newProverEnvironment(ProverOptions... pOptions) {
+    int id = recorder.nextProverId();
+    long start = System.nanoTime();
+    String result = TraceBasicProverEnvironment.ERROR;
+    try {
+      ProverEnvironment prover = delegate.newProverEnvironment(pOptions);
+      result = "";
+      return new TraceProverEnvironment(prover, recorder, id);
+    } finally {
+      recorder.record(id, Command.NEW_PROVER, start, result, namesOf(pOptions));
+    }
+  }
+
+  @SuppressWarnings("resource")
+  @Override
+  public InterpolatingProverEnvironment<?> newProverEnvironmentWithInterpolation(
+      ProverOptions... pOptions) {
+    int id = recorder.nextProverId();
+    long start = System.nanoTime();
+    String result = TraceBasicProverEnvironment.ERROR;
+    try {
+      InterpolatingProverEnvironment<?> prover =
+          delegate.newProverEnvironmentWithInterpolation(pOptions);
+      result = "";
+      return new TraceInterpolatingProverEnvironment<>(prover, recorder, id);
+    } finally {
+      recorder.record(id, Command.NEW_INTERPOLATING_PROVER, start, result, namesOf(pOptions));
+    }
+  }
+
+  @SuppressWarnings("resource")
+  @Override
+  public OptimizationProverEnvironment newOptimizationProverEnvironment(ProverOptions... pOptions) {
+    // the objectives of an optimization are not part of the trace format.
+    return delegate.newOptimizationProverEnvironment(pOptions);
+  }
+
+  @Override
+  public String getVersion() {
+    return delegate.getVersion();
+  }
+
+  @Override
+  public Solvers getSolverName() {
+    return delegate.getSolverName();
+  }
+
+  @Override
+  public ImmutableMap<String, String> getStatistics() {
+    return delegate.getStatistics();
+  }
+
+  @Override
+  public void close() {
+    try {
+      writer.close();
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Could not close trace file " + path);
+    } finally {
+      releasePath(path);
+    }
+    delegate.close();
+  }
+}
@@ -0,0 +1,131 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.delegate.trace;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.MoreFiles;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.logging.Level;
+import java.util.zip.GZIPOutputStream;
+import org.sosy_lab.common.log.LogManager;
+
+/**
+ * Writes the entries of a trace to a file in a background thread, such that the provers are not
+ * blocked by the file system or by the compression of the trace. The entries of all provers are
+ * written in the order of their calls. The file is flushed whenever no more entries are waiting.
+ *
+ * <p>If writing fails, a warning is logged and all further entries are dropped, because a broken
+ * trace should not affect the application.
+ */
+final class TraceWriter implements AutoCloseable {
+
+  /** Marks the end of the queue, compared by identity. */
+  private static final TraceEntry END =
+      new TraceEntry(0, TraceEntry.Command.CLOSE, 0, "", ImmutableList.of());
+
+  private final Path path;
+  private final LogManager logger;
+  private final Writer out;
+  private final BlockingQueue<TraceEntry> queue = new LinkedBlockingQueue<>();
+  private final Thread flusher;
+
+  private volatile boolean failed = false;
+  private boolean closed = false;
+
+  TraceWriter(Path pPath, boolean pCompress, int pBufferSize, LogManager pLogger)
+      throws IOException {
+    path = pPath;
+    logger = pLogger;
+    MoreFiles.createParentDirectories(pPath);
+    OutputStream stream = Files.newOutputStream(pPath);
+    try {
+      if (pCompress) {
+        stream = new GZIPOutputStream(stream, pBufferSize);
+      }
+    } catch (IOException e) {
+      stream.close();
+      throw e;
+    }
+    out = new BufferedWriter(new OutputStreamWriter(stream, UTF_8), pBufferSize);
+    out.write(TraceEntry.COMMENT + " JavaSMT trace\n");
+    flusher = new Thread(this::flushLoop, "JavaSMT-trace-writer");
+    flusher.setDaemon(true);
+    flusher.start();
+  }
+
+  /** Append an entry to the trace, this does not block. */
+  void write(TraceEntry pEntry) {
+    if (!failed) {
+      queue.add(pEntry);
+    }
+  }
+
+  private void flushLoop() {
+    List<TraceEntry> batch = new ArrayList<>();
+    try {
+      while (true) {
+        batch.add(queue.take());
+        queue.drainTo(batch);
+        for (TraceEntry entry : batch) {
+          if (entry == END) {
+            out.flush();
+            return;
+          }
+          out.write(entry.toLine());
+          out.write('\n');
+        }
+        batch.clear();
+        if (queue.isEmpty()) {
+          out.flush();
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (IOException e) {
+      failed = true;
+      queue.clear();
+      logger.logUserException(
+          Level.WARNING, e, "Writing the trace to " + path + " failed, the trace is incomplete");
+    }
+  }
+
+  /** Wait until all entries are written, and close the file. */
+  @Override
+  public synchronized void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    queue.add(END);
+    try {
+      flusher.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      out.close();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "TraceWriter(" + path + ")";
+  }
+}
@@ -0,0 +1,20 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+/**
+ * The classes of this package record the interaction of a user with the provers of a solver context
+ * into a trace file, independent of the solver, and replay such a trace against any solver.
+ *
+ * <p>Formulas are stored in SMT-LIB2 format. The replay reports the latency of each kind of solver
+ * call, such that performance problems of an application can be analyzed without the application.
+ */
+@com.google.errorprone.annotations.CheckReturnValue
+@javax.annotation.ParametersAreNonnullByDefault
+@org.sosy_lab.common.annotations.FieldsAreNonnullByDefault
+@org.sosy_lab.common.annotations.ReturnValuesAreNonnullByDefault
+package org.sosy_lab.java_smt.delegate.trace;
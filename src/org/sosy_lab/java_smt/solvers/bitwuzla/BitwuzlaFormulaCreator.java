@@ -549,6 +549,17 @@ public class BitwuzlaFormulaCreator extends FormulaCreator<Term, Sort, Void, Bit
     return BitwuzlaFormulaManager.getBitwuzlaTerm(pT);
   }
 
+  @Override
+  protected boolean hasTermIds() {
+    return true;
+  }
+
+  /** Bitwuzla shares equal terms, thus the node id identifies the term. */
+  @Override
+  protected long getTermId(Formula pFormula) {
+    return extractInfo(pFormula).id();
+  }
+
   @Override
   public BooleanFormula encapsulateBoolean(Term pTerm) {
     assert getFormulaType(pTerm).isBooleanType();
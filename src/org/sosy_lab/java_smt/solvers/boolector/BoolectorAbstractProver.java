@@ -45,7 +45,7 @@ abstract class BoolectorAbstractProver<T> extends AbstractProverWithAllSat<T> {
       ShutdownNotifier pShutdownNotifier,
       Set<ProverOptions> pOptions,
       AtomicBoolean pIsAnyStackAlive) {
-    super(pOptions, manager.getBooleanFormulaManager(), pShutdownNotifier);
+    super(pOptions, manager, pShutdownNotifier);
     this.manager = manager;
     this.creator = creator;
     this.btor = btor;
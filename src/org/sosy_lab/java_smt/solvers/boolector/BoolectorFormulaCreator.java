@@ -82,6 +82,16 @@ public class BoolectorFormulaCreator extends FormulaCreator<Long, Long, Long, Lo
     return BoolectorFormulaManager.getBtorTerm(pT);
   }
 
+  @Override
+  protected boolean hasTermIds() {
+    return true;
+  }
+
+  @Override
+  protected long getTermId(Formula pFormula) {
+    return BoolectorFormulaManager.getBtorTerm(pFormula);
+  }
+
   @Override
   public FormulaType<?> getFormulaType(Long pFormula) {
     long sort = BtorJNI.boolector_get_sort(getEnv(), pFormula);
@@ -51,6 +51,14 @@ abstract class CVC5AbstractProver<T> extends AbstractProverWithAllSat<T> {
   // TODO: does CVC5 support separation logic in incremental mode?
   protected final boolean incremental;
 
+  // Without incremental mode, the solver does not track the assertion stack. We keep all asserted
+  // terms in order, and the solver contains the first 'assertedInSolver' of them. A sat check only
+  // asserts the missing terms, and a pop below that position resets the assertions of the solver.
+  private final List<Term> stackTerms = new ArrayList<>();
+  private final Deque<Integer> stackLevels = new ArrayDeque<>();
+  private int assertedInSolver = 0;
+  private long avoidedReassertions = 0;
+
   protected CVC5AbstractProver(
       CVC5FormulaCreator pFormulaCreator,
       ShutdownNotifier pShutdownNotifier,
@@ -58,7 +66,7 @@ abstract class CVC5AbstractProver<T> extends AbstractProverWithAllSat<T> {
       Set<ProverOptions> pOptions,
       FormulaManager pMgr,
       ImmutableMap<String, String> pFurtherOptionsMap) {
-    super(pOptions, pMgr.getBooleanFormulaManager(), pShutdownNotifier);
+    super(pOptions, pMgr, pShutdownNotifier);
 
     mgr = pMgr;
     creator = pFormulaCreator;
@@ -110,6 +118,8 @@ abstract class CVC5AbstractProver<T> extends AbstractProverWithAllSat<T> {
         throw new IllegalStateException(
             "You tried to use push() on an CVC5 assertion stack illegally.", e);
       }
+    } else {
+      stackLevels.push(stackTerms.size());
     }
   }
 
@@ -123,6 +133,14 @@ abstract class CVC5AbstractProver<T> extends AbstractProverWithAllSat<T> {
         throw new IllegalStateException(
             "You tried to use pop() on an CVC5 assertion stack illegally.", e);
       }
+    } else {
+      int size = stackLevels.pop();
+      stackTerms.subList(size, stackTerms.size()).clear();
+      if (assertedInSolver > size) {
+        // Some of the removed terms are already asserted and can only be removed by a reset.
+        solver.resetAssertions();
+        assertedInSolver = 0;
+      }
     }
     assertedTerms.pop();
   }
@@ -134,6 +152,8 @@ abstract class CVC5AbstractProver<T> extends AbstractProverWithAllSat<T> {
     Term exp = creator.extractInfo(pF);
     if (incremental) {
       solver.assertFormula(exp);
+    } else {
+      stackTerms.add(exp);
     }
     String id = "ID_" + ID_GENERATOR.getFreshId();
     assertedTerms.push(assertedTerms.pop().putAndCopy(id, exp));
@@ -190,7 +210,12 @@ abstract class CVC5AbstractProver<T> extends AbstractProverWithAllSat<T> {
     closeAllEvaluators();
     changedSinceLastSatQuery = false;
     if (!incremental) {
-      getAssertedFormulas().forEach(f -> solver.assertFormula(creator.extractInfo(f)));
+      // Only assert the terms that were added since the last sat check.
+      for (Term term : stackTerms.subList(assertedInSolver, stackTerms.size())) {
+        solver.assertFormula(term);
+      }
+      avoidedReassertions += assertedInSolver;
+      assertedInSolver = stackTerms.size();
     }
 
     /* Shutdown currently not possible in CVC5. */
@@ -235,10 +260,20 @@ abstract class CVC5AbstractProver<T> extends AbstractProverWithAllSat<T> {
     throw new UnsupportedOperationException();
   }
 
+  @Override
+  public ImmutableMap<String, String> getStatistics() {
+    if (incremental) {
+      // the solver tracks the assertion stack itself, there is nothing to report.
+      return ImmutableMap.of();
+    }
+    return ImmutableMap.of("avoided re-assertions", Long.toString(avoidedReassertions));
+  }
+
   @Override
   public void close() {
     if (!closed) {
       assertedTerms.clear();
+      stackTerms.clear();
       solver.deletePointer();
     }
     super.close();
@@ -12,6 +12,8 @@ import com.google.common.base.Preconditions;
 import io.github.cvc5.Solver;
 import io.github.cvc5.Sort;
 import io.github.cvc5.Term;
+import java.util.Arrays;
+import java.util.List;
 import org.sosy_lab.java_smt.basicimpl.AbstractEvaluator;
 
 public class CVC5Evaluator extends AbstractEvaluator<Term, Sort, Solver> {
@@ -28,4 +30,11 @@ public class CVC5Evaluator extends AbstractEvaluator<Term, Sort, Solver> {
     Preconditions.checkState(!isClosed());
     return solver.getValue(f);
   }
+
+  @Override
+  protected List<Term> evalAllImpl(List<Term> formulas) {
+    Preconditions.checkState(!isClosed());
+    // CVC5 evaluates an array of terms with one call
+    return Arrays.asList(solver.getValue(formulas.toArray(new Term[0])));
+  }
 }
@@ -9,6 +9,7 @@
 package org.sosy_lab.java_smt.solvers.cvc5;
 
 import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import de.uni_freiburg.informatik.ultimate.logic.PrintTerm;
 import io.github.cvc5.CVC5ApiException;
@@ -16,6 +17,7 @@ import io.github.cvc5.Kind;
 import io.github.cvc5.Solver;
 import io.github.cvc5.Sort;
 import io.github.cvc5.Term;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import org.sosy_lab.java_smt.api.Formula;
@@ -131,14 +133,32 @@ class CVC5FormulaManager extends AbstractFormulaManager<Term, Sort, Solver, Term
   @Override
   public <T extends Formula> T substitute(
       final T f, final Map<? extends Formula, ? extends Formula> fromToMapping) {
-    Term[] changeFrom = new Term[fromToMapping.size()];
-    Term[] changeTo = new Term[fromToMapping.size()];
+    return substitute(ImmutableList.of(f), fromToMapping).get(0);
+  }
+
+  /**
+   * CVC5 substitutes faster than a traversal of the formulas in Java. Thus, we apply the native
+   * substitution to each formula and only share the arrays of the mapping.
+   */
+  @Override
+  public <T extends Formula> ImmutableList<T> substitute(
+      Collection<T> pFormulas, Map<? extends Formula, ? extends Formula> pFromToMapping) {
+    Term[] changeFrom = new Term[pFromToMapping.size()];
+    Term[] changeTo = new Term[pFromToMapping.size()];
     int idx = 0;
-    for (Map.Entry<? extends Formula, ? extends Formula> e : fromToMapping.entrySet()) {
+    for (Map.Entry<? extends Formula, ? extends Formula> e : pFromToMapping.entrySet()) {
       changeFrom[idx] = extractInfo(e.getKey());
       changeTo[idx] = extractInfo(e.getValue());
       idx++;
     }
+    ImmutableList.Builder<T> result = ImmutableList.builderWithExpectedSize(pFormulas.size());
+    for (T f : pFormulas) {
+      result.add(substitute(f, changeFrom, changeTo));
+    }
+    return result.build();
+  }
+
+  private <T extends Formula> T substitute(T f, Term[] changeFrom, Term[] changeTo) {
     Term input = extractInfo(f);
     FormulaType<T> type = getFormulaType(f);
     return getFormulaCreator().encapsulate(type, input.substitute(changeFrom, changeTo));
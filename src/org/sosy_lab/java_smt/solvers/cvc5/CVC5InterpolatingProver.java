@@ -12,24 +12,25 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static org.sosy_lab.common.collect.Collections3.transformedImmutableSetCopy;
 
-import com.google.common.collect.FluentIterable;
+import com.google.common.collect.Collections2;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import io.github.cvc5.CVC5ApiException;
 import io.github.cvc5.Kind;
+import io.github.cvc5.Result;
 import io.github.cvc5.Solver;
 import io.github.cvc5.Term;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.FormulaManager;
 import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
 import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
 import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.basicimpl.TreeInterpolation;
 
 public class CVC5InterpolatingProver extends CVC5AbstractProver<String>
     implements InterpolatingProverEnvironment<String> {
@@ -41,6 +42,16 @@ public class CVC5InterpolatingProver extends CVC5AbstractProver<String>
   private final CVC5BooleanFormulaManager bmgr;
   private final boolean validateInterpolants;
 
+  /**
+   * Separate solver for interpolation queries, such that the prover stack stays unmodified. It is
+   * created for the first query and reused for all further queries, each within its own level of
+   * the assertion stack.
+   */
+  private @Nullable Solver itpSolver = null;
+
+  /** Separate solver for the validation of interpolants, reused like {@link #itpSolver}. */
+  private @Nullable Solver validationSolver = null;
+
   CVC5InterpolatingProver(
       CVC5FormulaCreator pFormulaCreator,
       ShutdownNotifier pShutdownNotifier,
@@ -95,41 +106,20 @@ public class CVC5InterpolatingProver extends CVC5AbstractProver<String>
     return creator.encapsulateBoolean(itp);
   }
 
-  @Override
-  public List<BooleanFormula> getSeqInterpolants(List<? extends Collection<String>> partitions)
-      throws SolverException, InterruptedException {
-    checkArgument(!partitions.isEmpty(), "at least one partition should be available.");
-    final ImmutableSet<String> assertedConstraintIds = getAssertedConstraintIds();
-    checkArgument(
-        partitions.stream().allMatch(assertedConstraintIds::containsAll),
-        "interpolation can only be done over previously asserted formulas.");
-
-    final int n = partitions.size();
-    final List<BooleanFormula> itps = new ArrayList<>();
-    Term previousItp = solver.mkTrue();
-    for (int i = 1; i < n; i++) {
-      Collection<Term> formulasA =
-          FluentIterable.from(partitions.get(i - 1))
-              .transform(assertedTerms.peek()::get)
-              .append(previousItp)
-              .toSet();
-      Collection<Term> formulasB =
-          FluentIterable.concat(partitions.subList(i, n))
-              .transform(assertedTerms.peek()::get)
-              .toSet();
-      Term itp = getCVC5Interpolation(formulasA, formulasB);
-      itps.add(creator.encapsulateBoolean(itp));
-      previousItp = itp;
-    }
-    return itps;
-  }
-
   @Override
   public List<BooleanFormula> getTreeInterpolants(
-      List<? extends Collection<String>> partitionedFormulas, int[] startOfSubTree) {
-    throw new UnsupportedOperationException(
-        "directly receiving tree interpolants is not supported."
-            + "Use another solver or another strategy for interpolants.");
+      List<? extends Collection<String>> partitionedFormulas, int[] startOfSubTree)
+      throws SolverException, InterruptedException {
+    checkState(!closed);
+    return TreeInterpolation.getTreeInterpolants(
+        getAssertedFormulasById(),
+        partitionedFormulas,
+        startOfSubTree,
+        (formulasOfA, formulasOfB) ->
+            creator.encapsulateBoolean(
+                getCVC5Interpolation(
+                    Collections2.transform(formulasOfA, creator::extractInfo),
+                    Collections2.transform(formulasOfB, creator::extractInfo))));
   }
 
   /**
@@ -180,16 +170,25 @@ public class CVC5InterpolatingProver extends CVC5AbstractProver<String>
     Term phiPlus = bmgr.andImpl(formulasA);
     Term phiMinus = bmgr.andImpl(formulasB);
 
-    // Uses a separate Solver instance to leave the original solver-context unmodified
-    Solver itpSolver = new Solver();
-    setSolverOptions(seed, solverOptions, furtherOptionsMap, itpSolver);
+    if (itpSolver == null) {
+      Solver newSolver = new Solver();
+      setSolverOptions(seed, solverOptions, furtherOptionsMap, newSolver);
+      newSolver.setOption("incremental", "true");
+      itpSolver = newSolver;
+    }
+    final Solver querySolver = itpSolver;
 
     Term interpolant;
     try {
-      itpSolver.assertFormula(phiPlus);
-      interpolant = itpSolver.getInterpolant(itpSolver.mkTerm(Kind.NOT, phiMinus));
-    } finally {
-      itpSolver.deletePointer();
+      querySolver.push();
+      try {
+        querySolver.assertFormula(phiPlus);
+        interpolant = querySolver.getInterpolant(querySolver.mkTerm(Kind.NOT, phiMinus));
+      } finally {
+        querySolver.pop();
+      }
+    } catch (CVC5ApiException e) {
+      throw new IllegalStateException("Failure when using the CVC5 interpolation solver.", e);
     }
 
     if (validateInterpolants) {
@@ -222,30 +221,50 @@ public class CVC5InterpolatingProver extends CVC5AbstractProver<String>
         Sets.difference(interpolantSymbols, intersection));
 
     // build and check both Craig interpolation formulas with the generated interpolant.
-    Solver validationSolver = new Solver();
-    // interpolation option is not required for validation
-    super.setSolverOptions(seed, solverOptions, furtherOptionsMap, validationSolver);
+    if (validationSolver == null) {
+      Solver newSolver = new Solver();
+      // interpolation option is not required for validation
+      super.setSolverOptions(seed, solverOptions, furtherOptionsMap, newSolver);
+      newSolver.setOption("incremental", "true");
+      validationSolver = newSolver;
+    }
+    final Solver checkSolver = validationSolver;
     try {
-      validationSolver.push();
-      validationSolver.assertFormula(validationSolver.mkTerm(Kind.IMPLIES, phiPlus, interpolant));
       checkState(
-          validationSolver.checkSat().isSat(),
+          checkSat(checkSolver, checkSolver.mkTerm(Kind.IMPLIES, phiPlus, interpolant)).isSat(),
           "Invalid Craig interpolation: phi+ does not imply the interpolant.");
-      validationSolver.pop();
-
-      validationSolver.push();
-      validationSolver.assertFormula(validationSolver.mkTerm(Kind.AND, interpolant, phiMinus));
       checkState(
-          validationSolver.checkSat().isUnsat(),
+          checkSat(checkSolver, checkSolver.mkTerm(Kind.AND, interpolant, phiMinus)).isUnsat(),
           "Invalid Craig interpolation: interpolant does not contradict phi-.");
-      validationSolver.pop();
-
     } catch (CVC5ApiException e) {
       throw new IllegalArgumentException(
           "Failure when validating interpolant '" + interpolant + "'.", e);
+    }
+  }
 
+  /** Check the satisfiability of the term on a new level of the assertion stack of the solver. */
+  private static Result checkSat(Solver pSolver, Term pTerm) throws CVC5ApiException {
+    pSolver.push();
+    try {
+      pSolver.assertFormula(pTerm);
+      return pSolver.checkSat();
     } finally {
-      validationSolver.deletePointer();
+      pSolver.pop();
+    }
+  }
+
+  @Override
+  public void close() {
+    if (!closed) {
+      if (itpSolver != null) {
+        itpSolver.deletePointer();
+        itpSolver = null;
+      }
+      if (validationSolver != null) {
+        validationSolver.deletePointer();
+        validationSolver = null;
+      }
     }
+    super.close();
   }
 }
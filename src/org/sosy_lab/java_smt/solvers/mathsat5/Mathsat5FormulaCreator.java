@@ -170,6 +170,16 @@ class Mathsat5FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
     return Mathsat5FormulaManager.getMsatTerm(pT);
   }
 
+  @Override
+  protected boolean hasTermIds() {
+    return true;
+  }
+
+  @Override
+  protected long getTermId(Formula pFormula) {
+    return Mathsat5FormulaManager.getMsatTerm(pFormula);
+  }
+
   @SuppressWarnings("unchecked")
   @Override
   public <T extends Formula> FormulaType<T> getFormulaType(T pFormula) {
@@ -203,6 +213,11 @@ class Mathsat5FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
   }
 
   private FormulaType<?> getFormulaTypeFromTermType(Long type) {
+    // types are never freed in MathSAT5, thus we can cache them
+    return getFormulaTypeFromCache(type, this::convertTermType);
+  }
+
+  private FormulaType<?> convertTermType(Long type) {
     long env = getEnv();
     if (msat_is_bool_type(env, type)) {
       return FormulaType.BooleanType;
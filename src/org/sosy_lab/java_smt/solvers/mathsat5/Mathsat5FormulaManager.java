@@ -15,6 +15,7 @@ import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_simp
 import static org.sosy_lab.java_smt.solvers.mathsat5.Mathsat5NativeApi.msat_to_smtlib2;
 
 import com.google.common.collect.Collections2;
+import com.google.common.collect.ImmutableList;
 import com.google.common.primitives.Longs;
 import java.util.Collection;
 import java.util.Map;
@@ -75,14 +76,32 @@ final class Mathsat5FormulaManager extends AbstractFormulaManager<Long, Long, Lo
   @Override
   public <T extends Formula> T substitute(
       final T f, final Map<? extends Formula, ? extends Formula> fromToMapping) {
-    long[] changeFrom = new long[fromToMapping.size()];
-    long[] changeTo = new long[fromToMapping.size()];
+    return substitute(ImmutableList.of(f), fromToMapping).get(0);
+  }
+
+  /**
+   * MathSAT substitutes faster than a traversal of the formulas in Java. Thus, we apply the native
+   * substitution to each formula and only share the arrays of the mapping.
+   */
+  @Override
+  public <T extends Formula> ImmutableList<T> substitute(
+      Collection<T> pFormulas, Map<? extends Formula, ? extends Formula> pFromToMapping) {
+    long[] changeFrom = new long[pFromToMapping.size()];
+    long[] changeTo = new long[pFromToMapping.size()];
     int idx = 0;
-    for (Map.Entry<? extends Formula, ? extends Formula> e : fromToMapping.entrySet()) {
+    for (Map.Entry<? extends Formula, ? extends Formula> e : pFromToMapping.entrySet()) {
       changeFrom[idx] = extractInfo(e.getKey());
       changeTo[idx] = extractInfo(e.getValue());
       idx++;
     }
+    ImmutableList.Builder<T> result = ImmutableList.builderWithExpectedSize(pFormulas.size());
+    for (T f : pFormulas) {
+      result.add(substitute(f, changeFrom, changeTo));
+    }
+    return result.build();
+  }
+
+  private <T extends Formula> T substitute(T f, long[] changeFrom, long[] changeTo) {
     FormulaType<T> type = getFormulaType(f);
     return getFormulaCreator()
         .encapsulate(
@@ -90,7 +109,7 @@ final class Mathsat5FormulaManager extends AbstractFormulaManager<Long, Long, Lo
             msat_apply_substitution(
                 getFormulaCreator().getEnv(),
                 extractInfo(f),
-                fromToMapping.size(),
+                changeFrom.length,
                 changeFrom,
                 changeTo));
   }
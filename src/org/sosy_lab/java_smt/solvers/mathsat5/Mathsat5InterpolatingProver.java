@@ -30,6 +30,7 @@ import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
 import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
 import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.basicimpl.TreeInterpolation;
 
 class Mathsat5InterpolatingProver extends Mathsat5AbstractProver<Integer>
     implements InterpolatingProverEnvironment<Integer> {
@@ -54,12 +55,15 @@ class Mathsat5InterpolatingProver extends Mathsat5AbstractProver<Integer>
   private static final ImmutableSet<String> ALLOWED_FAILURE_MESSAGE_PREFIXES =
       ImmutableSet.of("uncolorable NA lemma");
 
+  private final ShutdownNotifier shutdownNotifier;
+
   Mathsat5InterpolatingProver(
       Mathsat5SolverContext pMgr,
       ShutdownNotifier pShutdownNotifier,
       Mathsat5FormulaCreator creator,
       Set<ProverOptions> options) {
     super(pMgr, options, creator, pShutdownNotifier);
+    shutdownNotifier = pShutdownNotifier;
   }
 
   @Override
@@ -145,10 +149,34 @@ class Mathsat5InterpolatingProver extends Mathsat5AbstractProver<Integer>
 
   @Override
   public List<BooleanFormula> getTreeInterpolants(
-      List<? extends Collection<Integer>> partitionedFormulas, int[] startOfSubTree) {
-    throw new UnsupportedOperationException(
-        "directly receiving tree interpolants is not supported."
-            + "Use another solver or another strategy for interpolants.");
+      List<? extends Collection<Integer>> partitionedFormulas, int[] startOfSubTree)
+      throws SolverException, InterruptedException {
+    Preconditions.checkState(!closed);
+    return TreeInterpolation.getTreeInterpolants(
+        getAssertedFormulasById(), partitionedFormulas, startOfSubTree, this::getInterpolant);
+  }
+
+  /**
+   * Compute an interpolant for arbitrary formulas in a separate environment, such that the prover
+   * stack stays unmodified.
+   */
+  private BooleanFormula getInterpolant(
+      List<BooleanFormula> formulasOfA, List<BooleanFormula> formulasOfB)
+      throws SolverException, InterruptedException {
+    try (Mathsat5InterpolatingProver prover =
+        new Mathsat5InterpolatingProver(context, shutdownNotifier, creator, ImmutableSet.of())) {
+      List<Integer> groupsOfA = new ArrayList<>(formulasOfA.size());
+      for (BooleanFormula f : formulasOfA) {
+        groupsOfA.add(prover.addConstraint(f));
+      }
+      for (BooleanFormula f : formulasOfB) {
+        prover.addConstraint(f);
+      }
+      if (!prover.isUnsat()) {
+        throw new SolverException("interpolation query is satisfiable");
+      }
+      return prover.getInterpolant(groupsOfA);
+    }
   }
 
   @Override
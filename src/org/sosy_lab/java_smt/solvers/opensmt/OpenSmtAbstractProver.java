@@ -55,7 +55,7 @@ public abstract class OpenSmtAbstractProver<T> extends AbstractProverWithAllSat<
       ShutdownNotifier pShutdownNotifier,
       SMTConfig pConfig,
       Set<ProverOptions> pOptions) {
-    super(pOptions, pMgr.getBooleanFormulaManager(), pShutdownNotifier);
+    super(pOptions, pMgr, pShutdownNotifier);
 
     creator = pFormulaCreator;
 
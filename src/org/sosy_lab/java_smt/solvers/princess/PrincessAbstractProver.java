@@ -71,7 +71,7 @@ abstract class PrincessAbstractProver<E> extends AbstractProverWithAllSat<E> {
       SimpleAPI pApi,
       ShutdownNotifier pShutdownNotifier,
       Set<ProverOptions> pOptions) {
-    super(pOptions, pMgr.getBooleanFormulaManager(), pShutdownNotifier);
+    super(pOptions, pMgr, pShutdownNotifier);
     this.mgr = pMgr;
     this.creator = creator;
     this.api = checkNotNull(pApi);
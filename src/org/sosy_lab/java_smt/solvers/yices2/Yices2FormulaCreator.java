@@ -105,14 +105,14 @@ import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_sum_com
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_term_bitsize;
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_term_child;
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_term_constructor;
-import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_term_is_bitvector;
-import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_term_is_bool;
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_term_is_int;
-import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_term_is_real;
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_term_num_children;
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_term_to_string;
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_true;
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_type_is_bitvector;
+import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_type_is_bool;
+import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_type_is_int;
+import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_type_is_real;
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_type_of_term;
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_type_to_string;
 import static org.sosy_lab.java_smt.solvers.yices2.Yices2NativeApi.yices_xor;
@@ -182,6 +182,16 @@ public class Yices2FormulaCreator extends FormulaCreator<Integer, Integer, Long,
     return Yices2FormulaManager.getYicesTerm(pT);
   }
 
+  @Override
+  protected boolean hasTermIds() {
+    return true;
+  }
+
+  @Override
+  protected long getTermId(Formula pFormula) {
+    return ((Yices2Formula) pFormula).getTerm();
+  }
+
   @SuppressWarnings("unchecked")
   @Override
   public <T extends Formula> T encapsulate(FormulaType<T> pType, Integer pTerm) {
@@ -231,19 +241,29 @@ public class Yices2FormulaCreator extends FormulaCreator<Integer, Integer, Long,
 
   @Override
   public FormulaType<?> getFormulaType(Integer pFormula) {
-    if (yices_term_is_bool(pFormula)) {
+    int type = yices_type_of_term(pFormula);
+    try {
+      return getFormulaTypeFromCache(type, this::getFormulaTypeFromTermType);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Unknown formula type '%s' for formula '%s'",
+              yices_type_to_string(type), yices_term_to_string(pFormula)),
+          e);
+    }
+  }
+
+  private FormulaType<?> getFormulaTypeFromTermType(Integer type) {
+    if (yices_type_is_bool(type)) {
       return FormulaType.BooleanType;
-    } else if (yices_term_is_int(pFormula)) {
+    } else if (yices_type_is_int(type)) {
       return FormulaType.IntegerType;
-    } else if (yices_term_is_real(pFormula)) {
+    } else if (yices_type_is_real(type)) {
       return FormulaType.RationalType;
-    } else if (yices_term_is_bitvector(pFormula)) {
-      return FormulaType.getBitvectorTypeWithSize(yices_term_bitsize(pFormula));
+    } else if (yices_type_is_bitvector(type)) {
+      return FormulaType.getBitvectorTypeWithSize(yices_bvtype_size(type));
     }
-    throw new IllegalArgumentException(
-        String.format(
-            "Unknown formula type '%s' for formula '%s'",
-            yices_type_to_string(yices_type_of_term(pFormula)), yices_term_to_string(pFormula)));
+    throw new IllegalArgumentException("Unknown formula type " + yices_type_to_string(type));
   }
 
   @Override
@@ -34,7 +34,7 @@ import java.util.stream.Collectors;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.java_smt.api.BooleanFormula;
-import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.FormulaManager;
 import org.sosy_lab.java_smt.api.Model;
 import org.sosy_lab.java_smt.api.ProverEnvironment;
 import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
@@ -70,9 +70,9 @@ class Yices2TheoremProver extends AbstractProverWithAllSat<Void> implements Prov
   protected Yices2TheoremProver(
       Yices2FormulaCreator creator,
       Set<ProverOptions> pOptions,
-      BooleanFormulaManager pBmgr,
+      FormulaManager pMgr,
       ShutdownNotifier pShutdownNotifier) {
-    super(pOptions, pBmgr, pShutdownNotifier);
+    super(pOptions, pMgr, pShutdownNotifier);
     this.creator = creator;
     curCfg = yices_new_config();
     yices_set_config(curCfg, "solver-type", "dpllt");
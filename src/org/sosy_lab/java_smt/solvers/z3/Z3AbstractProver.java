@@ -54,7 +54,7 @@ abstract class Z3AbstractProver extends AbstractProverWithAllSat<Void> {
       Set<ProverOptions> pOptions,
       @Nullable PathCounterTemplate pLogfile,
       ShutdownNotifier pShutdownNotifier) {
-    super(pOptions, pMgr.getBooleanFormulaManager(), pShutdownNotifier);
+    super(pOptions, pMgr, pShutdownNotifier);
     creator = pCreator;
     z3context = creator.getEnv();
 
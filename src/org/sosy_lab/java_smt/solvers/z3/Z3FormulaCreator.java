@@ -25,8 +25,6 @@ import com.microsoft.z3.enumerations.Z3_ast_kind;
 import com.microsoft.z3.enumerations.Z3_decl_kind;
 import com.microsoft.z3.enumerations.Z3_sort_kind;
 import com.microsoft.z3.enumerations.Z3_symbol_kind;
-import java.lang.ref.PhantomReference;
-import java.lang.ref.ReferenceQueue;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
@@ -39,7 +37,6 @@ import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.rationals.Rational;
-import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.java_smt.api.ArrayFormula;
 import org.sosy_lab.java_smt.api.BitvectorFormula;
 import org.sosy_lab.java_smt.api.BooleanFormula;
@@ -60,6 +57,8 @@ import org.sosy_lab.java_smt.api.StringFormula;
 import org.sosy_lab.java_smt.api.visitors.FormulaVisitor;
 import org.sosy_lab.java_smt.basicimpl.FormulaCreator;
 import org.sosy_lab.java_smt.basicimpl.FunctionDeclarationImpl;
+import org.sosy_lab.java_smt.basicimpl.TermReclaimer;
+import org.sosy_lab.java_smt.basicimpl.TermReclaimer.TermReference;
 import org.sosy_lab.java_smt.solvers.z3.Z3Formula.Z3ArrayFormula;
 import org.sosy_lab.java_smt.solvers.z3.Z3Formula.Z3BitvectorFormula;
 import org.sosy_lab.java_smt.solvers.z3.Z3Formula.Z3BooleanFormula;
@@ -115,6 +114,22 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
   @Option(secure = true, description = "Whether to use PhantomReferences for discarding Z3 AST")
   private boolean usePhantomReferences = false;
 
+  @Option(
+      secure = true,
+      description =
+          "Number of created formulas after which the garbage-collected Z3 ASTs are released "
+              + "in one batch, if phantom references are used. Smaller values release memory "
+              + "earlier, larger values reduce the overhead of creating formulas.")
+  private int phantomReferenceDrainInterval = 1000;
+
+  @Option(
+      secure = true,
+      description =
+          "Release garbage-collected Z3 ASTs in a separate thread, if phantom references are "
+              + "used. This uses the thread-safe reference counting of Z3, such that the thread "
+              + "that creates formulas does not need to release them.")
+  private boolean phantomReferenceCleanupThread = false;
+
   /**
    * We need to track all created symbols for parsing.
    *
@@ -124,13 +139,9 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
 
   private final Table<Long, Long, Long> allocatedArraySorts = HashBasedTable.create();
 
-  /** Automatic clean-up of Z3 ASTs. */
-  private final ReferenceQueue<Z3Formula> referenceQueue = new ReferenceQueue<>();
-
-  private final Z3AstReference referenceListHead;
+  /** Automatic clean-up of Z3 ASTs, only available if phantom references are enabled. */
+  private final @Nullable TermReclaimer<Z3Formula> reclaimer;
 
-  // todo: getters for statistic.
-  private final Timer cleanupTimer = new Timer();
   protected final ShutdownNotifier shutdownNotifier;
 
   @SuppressWarnings("ParameterNumber")
@@ -148,15 +159,17 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
     shutdownNotifier = pShutdownNotifier;
     config.inject(this);
 
-    if (usePhantomReferences) {
-      // Setup sentinel nodes for doubly-linked phantom reference list.
-      Z3AstReference head = new Z3AstReference();
-      Z3AstReference tail = new Z3AstReference();
-      head.next = tail;
-      tail.prev = head;
-      referenceListHead = head;
+    if (!usePhantomReferences) {
+      reclaimer = null;
+    } else if (phantomReferenceCleanupThread) {
+      Native.enableConcurrentDecRef(pEnv);
+      reclaimer = TermReclaimer.withCleanupThread("JavaSMT-Z3-cleanup");
     } else {
-      referenceListHead = null;
+      if (phantomReferenceDrainInterval < 1) {
+        throw new InvalidConfigurationException(
+            "The interval for releasing Z3 ASTs must be positive.");
+      }
+      reclaimer = new TermReclaimer<>(phantomReferenceDrainInterval);
     }
   }
 
@@ -216,6 +229,20 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
         "Cannot get the formula info of type " + pT.getClass().getSimpleName() + " in the Solver!");
   }
 
+  @Override
+  protected boolean hasTermIds() {
+    return true;
+  }
+
+  /** Z3 shares equal terms within a context, thus the pointer of the AST identifies the term. */
+  @Override
+  protected long getTermId(Formula pFormula) {
+    if (pFormula instanceof Z3Formula) {
+      return ((Z3Formula) pFormula).getFormulaInfo();
+    }
+    return extractInfo(pFormula);
+  }
+
   @SuppressWarnings("unchecked")
   @Override
   public <T extends Formula> FormulaType<T> getFormulaType(T pFormula) {
@@ -224,7 +251,15 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
   }
 
   public FormulaType<?> getFormulaTypeFromSort(Long pSort) {
+    return getFormulaTypeFromCache(pSort, this::convertSort);
+  }
+
+  private FormulaType<?> convertSort(Long pSort) {
     long z3context = getEnv();
+    // Keep the sort alive, such that its address is not reused while it is cached. Cached sorts
+    // are never evicted, thus the reference is intentionally never released and the sort lives
+    // until the context is deleted, like the sorts from getBitvectorType and getArrayType.
+    Native.incRef(z3context, Native.sortToAst(z3context, pSort));
     Z3_sort_kind sortKind = Z3_sort_kind.fromInt(Native.getSortKind(z3context, pSort));
     switch (sortKind) {
       case Z3_BOOL_SORT:
@@ -301,7 +336,6 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
   protected <TD extends Formula, TR extends Formula> ArrayFormula<TD, TR> encapsulateArray(
       Long pTerm, FormulaType<TD> pIndexType, FormulaType<TR> pElementType) {
     assert getFormulaType(pTerm).equals(FormulaType.getArrayType(pIndexType, pElementType));
-    cleanupReferences();
     return storePhantomReference(
         new Z3ArrayFormula<>(getEnv(), pTerm, pIndexType, pElementType), pTerm);
   }
@@ -314,7 +348,6 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
                 && getFormulaType(pTerm).equals(FormulaType.IntegerType))
         : String.format(
             "Trying to encapsulate formula of type %s as %s", getFormulaType(pTerm), pType);
-    cleanupReferences();
     if (pType.isBooleanType()) {
       return (T) storePhantomReference(new Z3BooleanFormula(getEnv(), pTerm), pTerm);
     } else if (pType.isIntegerType()) {
@@ -348,21 +381,18 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
   @Override
   public BooleanFormula encapsulateBoolean(Long pTerm) {
     assert getFormulaType(pTerm).isBooleanType();
-    cleanupReferences();
     return storePhantomReference(new Z3BooleanFormula(getEnv(), pTerm), pTerm);
   }
 
   @Override
   public BitvectorFormula encapsulateBitvector(Long pTerm) {
     assert getFormulaType(pTerm).isBitvectorType();
-    cleanupReferences();
     return storePhantomReference(new Z3BitvectorFormula(getEnv(), pTerm), pTerm);
   }
 
   @Override
   protected FloatingPointFormula encapsulateFloatingPoint(Long pTerm) {
     assert getFormulaType(pTerm).isFloatingPointType();
-    cleanupReferences();
     return storePhantomReference(new Z3FloatingPointFormula(getEnv(), pTerm), pTerm);
   }
 
@@ -373,7 +403,6 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
             "Term %s has unexpected type %s.",
             Native.astToString(getEnv(), pTerm),
             Native.sortToString(getEnv(), Native.getSort(getEnv(), pTerm)));
-    cleanupReferences();
     return storePhantomReference(new Z3StringFormula(getEnv(), pTerm), pTerm);
   }
 
@@ -384,7 +413,6 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
             "Term %s has unexpected type %s.",
             Native.astToString(getEnv(), pTerm),
             Native.sortToString(getEnv(), Native.getSort(getEnv(), pTerm)));
-    cleanupReferences();
     return storePhantomReference(new Z3RegexFormula(getEnv(), pTerm), pTerm);
   }
 
@@ -395,7 +423,6 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
             "Term %s has unexpected type %s.",
             Native.astToString(getEnv(), pTerm),
             Native.sortToString(getEnv(), Native.getSort(getEnv(), pTerm)));
-    cleanupReferences();
     return storePhantomReference(new Z3EnumerationFormula(getEnv(), pTerm), pTerm);
   }
 
@@ -425,57 +452,31 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
     return fpSort;
   }
 
-  private static final class Z3AstReference extends PhantomReference<Z3Formula> {
+  /** Holds the reference count of a Z3 AST that was acquired by a {@link Z3Formula}. */
+  private final class Z3AstReference extends TermReference<Z3Formula> {
     private final long z3Ast;
-    private @Nullable Z3AstReference prev;
-    private @Nullable Z3AstReference next;
 
-    // To generate dummy head and tail nodes
-    private Z3AstReference() {
-      this(null, null, 0);
+    private Z3AstReference(Z3Formula referent, TermReclaimer<Z3Formula> pReclaimer, long pZ3Ast) {
+      super(referent, pReclaimer);
+      z3Ast = pZ3Ast;
     }
 
-    private Z3AstReference(Z3Formula referent, ReferenceQueue<? super Z3Formula> q, long z3Ast) {
-      super(referent, q);
-      this.z3Ast = z3Ast;
-    }
-
-    private void insert(Z3AstReference ref) {
-      assert next != null;
-      ref.prev = this;
-      ref.next = this.next;
-      ref.next.prev = ref;
-      this.next = ref;
-    }
-
-    private void cleanup(long environment) {
+    @Override
+    protected void release() {
       Native.decRef(environment, z3Ast);
-      assert (prev != null && next != null);
-      prev.next = next;
-      next.prev = prev;
     }
   }
 
   private <T extends Z3Formula> T storePhantomReference(T out, long pTerm) {
-    if (usePhantomReferences) {
-      referenceListHead.insert(new Z3AstReference(out, referenceQueue, pTerm));
+    if (reclaimer != null) {
+      reclaimer.register(new Z3AstReference(out, reclaimer, pTerm));
     }
     return out;
   }
 
-  private void cleanupReferences() {
-    if (!usePhantomReferences) {
-      return;
-    }
-    cleanupTimer.start();
-    try {
-      Z3AstReference ref;
-      while ((ref = (Z3AstReference) referenceQueue.poll()) != null) {
-        ref.cleanup(environment);
-      }
-    } finally {
-      cleanupTimer.stop();
-    }
+  /** Returns statistics about the clean-up of Z3 ASTs, if phantom references are enabled. */
+  ImmutableMap<String, String> getReclaimerStatistics() {
+    return reclaimer == null ? ImmutableMap.of() : reclaimer.getStatistics();
   }
 
   private String getAppName(long f) {
@@ -1104,27 +1105,10 @@ class Z3FormulaCreator extends FormulaCreator<Long, Long, Long, Long> {
   }
 
   /** Closing the context. */
-  @SuppressWarnings("empty-statement")
   public void forceClose() {
     // Force clean all ASTs, even those which were not GC'd yet.
-    if (usePhantomReferences) {
-      Z3AstReference cur = referenceListHead.next;
-      assert cur != null;
-      while (cur.next != null) {
-        Native.decRef(environment, cur.z3Ast);
-        cur = cur.next;
-      }
-      Z3AstReference tail = cur;
-      // Bulk delete everything between head and tail
-      referenceListHead.next = tail;
-      tail.prev = referenceListHead;
-
-      // Remove already enqueued references.
-      while (referenceQueue.poll() != null) {
-        // NOTE: Together with the above list deletion, this empty loop will guarantee that no more
-        // ast references are reachable by the GC making them all eligible for garbage collection
-        // and preventing them from getting enqueued into the reference queue in the future.
-      }
+    if (reclaimer != null) {
+      reclaimer.releaseAll();
     }
   }
 
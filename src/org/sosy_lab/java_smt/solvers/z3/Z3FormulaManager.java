@@ -10,12 +10,17 @@ package org.sosy_lab.java_smt.solvers.z3;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.primitives.Longs;
 import com.microsoft.z3.Native;
 import com.microsoft.z3.Z3Exception;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.sosy_lab.java_smt.api.BooleanFormula;
@@ -27,6 +32,11 @@ import org.sosy_lab.java_smt.basicimpl.AbstractFormulaManager;
 
 final class Z3FormulaManager extends AbstractFormulaManager<Long, Long, Long, Long> {
 
+  /** Commands whose first argument is a newly declared or defined symbol. */
+  private static final ImmutableSet<String> DECLARATION_COMMANDS =
+      ImmutableSet.of(
+          "declare-fun", "declare-const", "define-fun", "define-fun-rec", "define-const");
+
   private final Z3FormulaCreator formulaCreator;
 
   @SuppressWarnings("checkstyle:parameternumber")
@@ -63,7 +73,7 @@ final class Z3FormulaManager extends AbstractFormulaManager<Long, Long, Long, Lo
 
     // Z3 does not access the existing symbols on its own,
     // but requires all symbols as part of the query.
-    // Thus, we track the used symbols on our own and give them to the parser call, if required.
+    // Thus, we track the used symbols on our own and give them to the parser call.
     // Later, we collect all symbols from the parsed query and
     // define them again to have them tracked.
 
@@ -73,9 +83,23 @@ final class Z3FormulaManager extends AbstractFormulaManager<Long, Long, Long, Lo
     long[] sortSymbols = new long[0];
     long[] sorts = new long[0];
 
-    // first step: lets try to parse the query directly, without additional information
+    // first step: collect the symbols of the query and provide all known declarations,
+    // such that the query can be parsed in one call.
+    Set<String> symbols = new LinkedHashSet<>();
+    Set<String> declaredSymbols = new HashSet<>();
+    scanSymbols(str, symbols, declaredSymbols);
+
     List<Long> declSymbols = new ArrayList<>();
     List<Long> decls = new ArrayList<>();
+    for (String symbol : symbols) {
+      if (!declaredSymbols.contains(symbol)) {
+        Long appDecl = formulaCreator.getKnownDeclaration(symbol);
+        if (appDecl != null) {
+          declSymbols.add(Native.mkStringSymbol(env, symbol));
+          decls.add(appDecl);
+        }
+      }
+    }
 
     long e = 0;
     boolean finished = false;
@@ -94,6 +118,7 @@ final class Z3FormulaManager extends AbstractFormulaManager<Long, Long, Long, Lo
         finished = true;
 
       } catch (Z3Exception nested) {
+        // Fallback if the scan missed a symbol:
         // get the missing symbol and restart the parsing with them
         Pattern pattern =
             Pattern.compile(
@@ -103,7 +128,7 @@ final class Z3FormulaManager extends AbstractFormulaManager<Long, Long, Long, Lo
         if (matcher.matches()) {
           String missingSymbol = matcher.group(1);
           Long appDecl = formulaCreator.getKnownDeclaration(missingSymbol);
-          if (appDecl != null) { // if the symbol is known, then use it
+          if (appDecl != null && !decls.contains(appDecl)) { // if the symbol is known, use it
             declSymbols.add(Native.mkStringSymbol(env, missingSymbol));
             decls.add(appDecl);
             continue; // restart the parsing
@@ -120,11 +145,76 @@ final class Z3FormulaManager extends AbstractFormulaManager<Long, Long, Long, Lo
     final long term = Native.astVectorGet(env, e, 0);
 
     // last step: all parsed symbols need to be declared again to have them tracked in the creator.
-    declareAllSymbols(term);
+    // Without declarations in the query, all symbols are already known.
+    if (!declaredSymbols.isEmpty()) {
+      declareAllSymbols(term);
+    }
 
     return term;
   }
 
+  /**
+   * Collect all symbols of an SMT-LIB2 script. Symbols that directly follow a command for declaring
+   * or defining a symbol are added to the declared symbols, all others to the used symbols. The
+   * result over-approximates the used symbols, e.g., it also contains keywords, numerals, and bound
+   * variables, as we only need to look them up.
+   */
+  private static void scanSymbols(
+      String pScript, Set<String> pSymbols, Set<String> pDeclaredSymbols) {
+    final int length = pScript.length();
+    boolean isDeclaration = false;
+    int pos = 0;
+    while (pos < length) {
+      char c = pScript.charAt(pos);
+      if (c == '(' || c == ')' || Character.isWhitespace(c)) {
+        pos++;
+      } else if (c == ';') { // comment until the end of the line
+        pos = indexOrEnd(pScript, '\n', pos);
+      } else if (c == '"') { // string literal, where "" is an escaped quote
+        pos++;
+        while (pos < length) {
+          if (pScript.charAt(pos) != '"') {
+            pos++;
+          } else if (pos + 1 < length && pScript.charAt(pos + 1) == '"') {
+            pos += 2;
+          } else {
+            pos++;
+            break;
+          }
+        }
+      } else {
+        String symbol;
+        if (c == '|') { // quoted symbol
+          int end = indexOrEnd(pScript, '|', pos + 1);
+          symbol = pScript.substring(pos + 1, end);
+          pos = end + 1;
+        } else {
+          int end = pos;
+          while (end < length && !isDelimiter(pScript.charAt(end))) {
+            end++;
+          }
+          symbol = pScript.substring(pos, end);
+          pos = end;
+        }
+        if (isDeclaration) {
+          pDeclaredSymbols.add(symbol);
+        } else {
+          pSymbols.add(symbol);
+        }
+        isDeclaration = c != '|' && DECLARATION_COMMANDS.contains(symbol);
+      }
+    }
+  }
+
+  private static int indexOrEnd(String pScript, char pChar, int pFrom) {
+    int index = pScript.indexOf(pChar, pFrom);
+    return index < 0 ? pScript.length() : index;
+  }
+
+  private static boolean isDelimiter(char c) {
+    return Character.isWhitespace(c) || c == '(' || c == ')' || c == '"' || c == ';' || c == '|';
+  }
+
   @SuppressWarnings("CheckReturnValue")
   private void declareAllSymbols(final long term) {
     final long env = getEnvironment();
@@ -203,14 +293,32 @@ final class Z3FormulaManager extends AbstractFormulaManager<Long, Long, Long, Lo
   @Override
   public <T extends Formula> T substitute(
       final T f, final Map<? extends Formula, ? extends Formula> fromToMapping) {
-    long[] changeFrom = new long[fromToMapping.size()];
-    long[] changeTo = new long[fromToMapping.size()];
+    return substitute(ImmutableList.of(f), fromToMapping).get(0);
+  }
+
+  /**
+   * Z3 substitutes faster than a traversal of the formulas in Java. Thus, we apply the native
+   * substitution to each formula and only share the arrays of the mapping.
+   */
+  @Override
+  public <T extends Formula> ImmutableList<T> substitute(
+      Collection<T> pFormulas, Map<? extends Formula, ? extends Formula> pFromToMapping) {
+    long[] changeFrom = new long[pFromToMapping.size()];
+    long[] changeTo = new long[pFromToMapping.size()];
     int idx = 0;
-    for (Map.Entry<? extends Formula, ? extends Formula> e : fromToMapping.entrySet()) {
+    for (Map.Entry<? extends Formula, ? extends Formula> e : pFromToMapping.entrySet()) {
       changeFrom[idx] = extractInfo(e.getKey());
       changeTo[idx] = extractInfo(e.getValue());
       idx++;
     }
+    ImmutableList.Builder<T> result = ImmutableList.builderWithExpectedSize(pFormulas.size());
+    for (T f : pFormulas) {
+      result.add(substitute(f, changeFrom, changeTo));
+    }
+    return result.build();
+  }
+
+  private <T extends Formula> T substitute(T f, long[] changeFrom, long[] changeTo) {
     FormulaType<T> type = getFormulaType(f);
     return getFormulaCreator()
         .encapsulate(
@@ -218,7 +326,7 @@ final class Z3FormulaManager extends AbstractFormulaManager<Long, Long, Long, Lo
             Native.substitute(
                 getFormulaCreator().getEnv(),
                 extractInfo(f),
-                fromToMapping.size(),
+                changeFrom.length,
                 changeFrom,
                 changeTo));
   }
@@ -11,6 +11,7 @@ package org.sosy_lab.java_smt.solvers.z3;
 import com.google.common.base.Preconditions;
 import com.google.common.base.VerifyException;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.microsoft.z3.Native;
 import com.microsoft.z3.Native.LongPtr;
 import com.microsoft.z3.Z3Exception;
@@ -19,10 +20,15 @@ import com.microsoft.z3.enumerations.Z3_sort_kind;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.java_smt.api.Formula;
 import org.sosy_lab.java_smt.basicimpl.AbstractModel;
 import org.sosy_lab.java_smt.basicimpl.AbstractProver;
 
@@ -44,33 +50,113 @@ final class Z3Model extends AbstractModel<Long, Long, Long> {
 
   @Override
   public ImmutableList<ValueAssignment> asList() {
+    return asList(name -> true);
+  }
+
+  @Override
+  public ImmutableList<ValueAssignment> asList(Predicate<String> pNameFilter) {
     Preconditions.checkState(!isClosed());
     ImmutableList.Builder<ValueAssignment> out = ImmutableList.builder();
+    int numConsts = Native.modelGetNumConsts(z3context, model);
+    int numFuncs = Native.modelGetNumFuncs(z3context, model);
+    for (int index = 0; index < numConsts + numFuncs; index++) {
+      out.addAll(getAssignments(index, numConsts, pNameFilter));
+    }
+    return out.build();
+  }
+
+  /** Decode the assignments lazily, one declaration after the other. */
+  @Override
+  public Stream<ValueAssignment> stream() {
+    Preconditions.checkState(!isClosed());
+    int numConsts = Native.modelGetNumConsts(z3context, model);
+    int numFuncs = Native.modelGetNumFuncs(z3context, model);
+    return IntStream.range(0, numConsts + numFuncs)
+        .mapToObj(index -> getAssignments(index, numConsts, name -> true))
+        .flatMap(Collection::stream);
+  }
 
+  /**
+   * Decode the assignments of the requested symbols only. Keys that are not applications of
+   * uninterpreted symbols, e.g., array selections, require to decode the whole model.
+   */
+  @Override
+  public ImmutableList<ValueAssignment> assignmentsFor(Collection<? extends Formula> pKeys) {
+    Preconditions.checkState(!isClosed());
+    Set<Formula> keys = ImmutableSet.copyOf(pKeys);
+    Set<Long> decls = new LinkedHashSet<>();
     try {
-      // Iterate through constants.
-      for (int constIdx = 0; constIdx < Native.modelGetNumConsts(z3context, model); constIdx++) {
-        long keyDecl = Native.modelGetConstDecl(z3context, model, constIdx);
-        Native.incRef(z3context, keyDecl);
-        out.addAll(getConstAssignments(keyDecl));
-        Native.decRef(z3context, keyDecl);
+      for (Formula key : keys) {
+        long term = z3creator.extractInfo(key);
+        if (!Native.isApp(z3context, term)) {
+          return filterKeys(asList(), keys);
+        }
+        long decl = Native.getAppDecl(z3context, term);
+        if (Native.getDeclKind(z3context, decl) != Z3_decl_kind.Z3_OP_UNINTERPRETED.toInt()) {
+          return filterKeys(asList(), keys);
+        }
+        decls.add(decl);
+      }
+
+      ImmutableList.Builder<ValueAssignment> out = ImmutableList.builder();
+      for (long decl : decls) {
+        if (Native.modelHasInterp(z3context, model, decl)) {
+          if (Native.getArity(z3context, decl) == 0) {
+            out.addAll(filterKeys(getConstAssignments(decl), keys));
+          } else {
+            String functionName = z3creator.symbolToString(Native.getDeclName(z3context, decl));
+            out.addAll(filterKeys(getFunctionAssignments(decl, decl, functionName), keys));
+          }
+        }
       }
+      return out.build();
+    } catch (Z3Exception e) {
+      throw z3creator.handleZ3ExceptionAsRuntimeException(e);
+    }
+  }
 
-      // Iterate through function applications.
-      for (int funcIdx = 0; funcIdx < Native.modelGetNumFuncs(z3context, model); funcIdx++) {
-        long funcDecl = Native.modelGetFuncDecl(z3context, model, funcIdx);
+  private static ImmutableList<ValueAssignment> filterKeys(
+      Collection<ValueAssignment> pAssignments, Set<Formula> pKeys) {
+    return pAssignments.stream()
+        .filter(a -> pKeys.contains(a.getKey()))
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  /**
+   * Decode the assignments of the declaration with the given index in the model, where the
+   * constants come before the functions. Declarations whose name does not match the filter are
+   * skipped before anything is decoded.
+   */
+  private Collection<ValueAssignment> getAssignments(
+      int pIndex, int pNumConsts, Predicate<String> pNameFilter) {
+    try {
+      if (pIndex < pNumConsts) {
+        long keyDecl = Native.modelGetConstDecl(z3context, model, pIndex);
+        Native.incRef(z3context, keyDecl);
+        try {
+          String name = z3creator.symbolToString(Native.getDeclName(z3context, keyDecl));
+          return pNameFilter.test(name) ? getConstAssignments(keyDecl) : ImmutableList.of();
+        } finally {
+          Native.decRef(z3context, keyDecl);
+        }
+      } else {
+        long funcDecl = Native.modelGetFuncDecl(z3context, model, pIndex - pNumConsts);
         Native.incRef(z3context, funcDecl);
-        if (!isInternalSymbol(funcDecl)) {
+        try {
+          if (isInternalSymbol(funcDecl)) {
+            return ImmutableList.of();
+          }
           String functionName = z3creator.symbolToString(Native.getDeclName(z3context, funcDecl));
-          out.addAll(getFunctionAssignments(funcDecl, funcDecl, functionName));
+          return pNameFilter.test(functionName)
+              ? getFunctionAssignments(funcDecl, funcDecl, functionName)
+              : ImmutableList.of();
+        } finally {
+          Native.decRef(z3context, funcDecl);
         }
-        Native.decRef(z3context, funcDecl);
       }
     } catch (Z3Exception e) {
       throw z3creator.handleZ3ExceptionAsRuntimeException(e);
     }
-
-    return out.build();
   }
 
   /**
@@ -267,6 +267,11 @@ public final class Z3SolverContext extends AbstractSolverContext {
     return Solvers.Z3;
   }
 
+  @Override
+  public ImmutableMap<String, String> getStatistics() {
+    return creator.getReclaimerStatistics();
+  }
+
   @Override
   public void close() {
     if (!closed) {
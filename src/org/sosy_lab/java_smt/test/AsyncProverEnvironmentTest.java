@@ -0,0 +1,193 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.truth.TruthJUnit;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.common.configuration.ConfigurationBuilder;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BasicProverEnvironment.AllSatCallback;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.delegate.async.AsyncProverEnvironment;
+import org.sosy_lab.java_smt.delegate.async.AsyncSolverContext;
+
+public class AsyncProverEnvironmentTest extends SolverBasedTest0.ParameterizedSolverBasedTest0 {
+
+  private AsyncSolverContext asyncContext;
+
+  @Override
+  protected ConfigurationBuilder createTestConfigBuilder() {
+    return super.createTestConfigBuilder().setOption("solver.async.threads", "2");
+  }
+
+  @Before
+  public void createAsyncContext() throws InvalidConfigurationException {
+    // formulas are transferred to the separate contexts by dumping and parsing them.
+    requireParser();
+    asyncContext = new AsyncSolverContext(config, logger, shutdownNotifierToUse(), context);
+  }
+
+  @After
+  public void closeAsyncContext() {
+    if (asyncContext != null) {
+      asyncContext.close();
+    }
+  }
+
+  @Test
+  public void testOperationsInOrder() throws InterruptedException, ExecutionException {
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+    try (AsyncProverEnvironment prover = asyncContext.newProverEnvironment()) {
+      // nothing is awaited before the last query was submitted.
+      CompletableFuture<Void> pushed = prover.push(bmgr.or(a, b));
+      CompletableFuture<Boolean> first = prover.isUnsat();
+      prover.push(bmgr.not(a));
+      prover.push(bmgr.not(b));
+      CompletableFuture<Boolean> second = prover.isUnsat();
+      prover.pop();
+      CompletableFuture<Boolean> third = prover.isUnsat();
+      CompletableFuture<Boolean> fourth = prover.isUnsatWithAssumptions(ImmutableList.of(b));
+
+      assertThat(pushed.get()).isNull();
+      assertThat(first.get()).isFalse();
+      assertThat(second.get()).isTrue();
+      assertThat(third.get()).isFalse();
+      assertThat(fourth.get()).isFalse();
+    }
+  }
+
+  @Test
+  public void testPipelinedProvers() throws InterruptedException, ExecutionException {
+    requireIntegers();
+    IntegerFormula x = imgr.makeVariable("x");
+    List<CompletableFuture<Boolean>> results = new ArrayList<>();
+    List<AsyncProverEnvironment> provers = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      AsyncProverEnvironment prover = asyncContext.newProverEnvironment();
+      provers.add(prover);
+      prover.addConstraint(imgr.greaterThan(x, imgr.makeNumber(i)));
+      prover.addConstraint(imgr.lessThan(x, imgr.makeNumber(5)));
+      results.add(prover.isUnsat());
+    }
+    for (int i = 0; i < 10; i++) {
+      assertThat(results.get(i).get()).isEqualTo(i >= 4);
+      provers.get(i).close();
+    }
+  }
+
+  @Test
+  public void testEvaluate() throws InterruptedException, ExecutionException {
+    requireIntegers();
+    requireModel();
+    IntegerFormula x = imgr.makeVariable("x");
+    BooleanFormula p = bmgr.makeVariable("p");
+    try (AsyncProverEnvironment prover =
+        asyncContext.newProverEnvironment(ProverOptions.GENERATE_MODELS)) {
+      prover.addConstraint(imgr.equal(x, imgr.makeNumber(5)));
+      prover.addConstraint(p);
+      CompletableFuture<Boolean> unsat = prover.isUnsat();
+      CompletableFuture<List<Object>> values =
+          prover.evaluate(ImmutableList.of(x, p, imgr.add(x, x)));
+      assertThat(unsat.get()).isFalse();
+      assertThat(values.get())
+          .containsExactly(BigInteger.valueOf(5), true, BigInteger.TEN)
+          .inOrder();
+    }
+  }
+
+  @Test
+  public void testAllSat() throws InterruptedException, ExecutionException {
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+    try (AsyncProverEnvironment prover =
+        asyncContext.newProverEnvironment(ProverOptions.GENERATE_ALL_SAT)) {
+      prover.addConstraint(bmgr.or(a, b));
+      CompletableFuture<List<List<BooleanFormula>>> models =
+          prover.allSat(
+              new AllSatCallback<>() {
+                private final List<List<BooleanFormula>> collected = new ArrayList<>();
+
+                @Override
+                public void apply(List<BooleanFormula> pModel) {
+                  collected.add(pModel);
+                }
+
+                @Override
+                public List<List<BooleanFormula>> getResult() {
+                  return collected;
+                }
+              },
+              ImmutableList.of(a, b));
+      // the callback receives literals of the user-facing context.
+      // Some solvers return partial assignments, thus we only check the literals.
+      assertThat(models.get()).isNotEmpty();
+      for (List<BooleanFormula> model : models.get()) {
+        assertThat(model).isNotEmpty();
+        assertThat(bmgr.and(model)).isNotEqualTo(bmgr.and(bmgr.not(a), bmgr.not(b)));
+        for (BooleanFormula literal : model) {
+          assertThat(literal).isAnyOf(a, b, bmgr.not(a), bmgr.not(b));
+        }
+      }
+    }
+  }
+
+  @Test(timeout = 60_000)
+  public void testCancelRunningQuery() throws InterruptedException, ExecutionException {
+    requireIntegers();
+    TruthJUnit.assume()
+        .withMessage(solverToUse() + " does not support interruption")
+        .that(solverToUse())
+        .isNoneOf(Solvers.PRINCESS, Solvers.BOOLECTOR, Solvers.CVC5);
+    BooleanFormula hard = new HardIntegerFormulaGenerator(imgr, bmgr).generate(100);
+    BooleanFormula a = bmgr.makeVariable("a");
+    try (AsyncProverEnvironment prover = asyncContext.newProverEnvironment()) {
+      prover.addConstraint(a);
+      prover.push(hard);
+      CompletableFuture<Boolean> running = prover.isUnsat();
+      CompletableFuture<Boolean> queued = prover.isUnsat();
+      Thread.sleep(100);
+      assertThat(running.cancel(true)).isTrue();
+      assertThat(queued.cancel(true)).isTrue();
+      assertThrows(CancellationException.class, running::get);
+
+      // the interrupted context is replaced, including the remaining assertions.
+      prover.pop();
+      CompletableFuture<Boolean> sat = prover.isUnsat();
+      CompletableFuture<Boolean> unsat =
+          prover.isUnsatWithAssumptions(ImmutableList.of(bmgr.not(a)));
+      assertThat(sat.get()).isFalse();
+      assertThat(unsat.get()).isTrue();
+    }
+  }
+
+  @Test
+  public void testClosedProver() {
+    AsyncProverEnvironment prover = asyncContext.newProverEnvironment();
+    prover.close();
+    assertThrows(IllegalStateException.class, prover::isUnsat);
+    asyncContext.close();
+    assertThrows(IllegalStateException.class, asyncContext::newProverEnvironment);
+  }
+}
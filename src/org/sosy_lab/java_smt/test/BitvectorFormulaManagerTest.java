@@ -63,9 +63,22 @@ public class BitvectorFormulaManagerTest extends SolverBasedTest0.ParameterizedS
       BitvectorFormula var = bvmgr.makeVariable(type, "x" + i);
       BitvectorType result = (BitvectorType) mgr.getFormulaType(var);
       assertWithMessage("bitvector size").that(result.getSize()).isEqualTo(i);
+      assertWithMessage("bitvector type").that(result).isSameInstanceAs(type);
     }
   }
 
+  @Test
+  public void bvArrayTypeIsInterned() {
+    requireArrays();
+    BitvectorType type = FormulaType.getBitvectorTypeWithSize(1000);
+    ArrayFormula<BitvectorFormula, BitvectorFormula> array = amgr.makeArray("arr", type, bvType4);
+    assertThat(mgr.getFormulaType(array))
+        .isSameInstanceAs(
+            FormulaType.getArrayType(
+                FormulaType.getBitvectorTypeWithSize(1000),
+                FormulaType.getBitvectorTypeWithSize(4)));
+  }
+
   @Test
   public void bvOne() throws SolverException, InterruptedException {
     int[] testValues;
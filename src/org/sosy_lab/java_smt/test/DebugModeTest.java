@@ -8,13 +8,15 @@
 
 package org.sosy_lab.java_smt.test;
 
-import static com.google.common.truth.TruthJUnit.assume;
+import static com.google.common.truth.Truth.assertThat;
 import static org.junit.Assert.assertThrows;
 import static org.sosy_lab.java_smt.test.ProverEnvironmentSubject.assertThat;
 
 import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -37,6 +39,7 @@ import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
 import org.sosy_lab.java_smt.api.SolverContext;
 import org.sosy_lab.java_smt.api.SolverException;
 import org.sosy_lab.java_smt.api.UFManager;
+import org.sosy_lab.java_smt.api.visitors.DefaultBooleanFormulaVisitor;
 
 public class DebugModeTest extends SolverBasedTest0.ParameterizedSolverBasedTest0 {
   private SolverContextFactory debugFactory;
@@ -95,9 +98,6 @@ public class DebugModeTest extends SolverBasedTest0.ParameterizedSolverBasedTest
   @SuppressWarnings("resource")
   @Test
   public void nonLocalThreadTest() {
-    // Fails for Boolector as debug mode requires visitor support
-    assume().that(solverToUse()).isNotEqualTo(Solvers.BOOLECTOR);
-
     ExecutorService exec = Executors.newSingleThreadExecutor();
     Future<?> result =
         exec.submit(
@@ -142,9 +142,6 @@ public class DebugModeTest extends SolverBasedTest0.ParameterizedSolverBasedTest
       throws InterruptedException, SolverException, InvalidConfigurationException {
     requireIntegers();
 
-    // Fails for Boolector as debug mode requires visitor support
-    assume().that(solverToUse()).isNotEqualTo(Solvers.BOOLECTOR);
-
     try (SolverContext newContext = debugFactory.generateContext()) {
       BooleanFormulaManager newBmgr = newContext.getFormulaManager().getBooleanFormulaManager();
       IntegerFormulaManager newImgr = newContext.getFormulaManager().getIntegerFormulaManager();
@@ -176,9 +173,6 @@ public class DebugModeTest extends SolverBasedTest0.ParameterizedSolverBasedTest
   public void noSharedDeclarationsTest() throws InvalidConfigurationException {
     requireIntegers();
 
-    // Fails for Boolector as debug mode requires visitor support
-    assume().that(solverToUse()).isNotEqualTo(Solvers.BOOLECTOR);
-
     try (SolverContext newContext = debugFactory.generateContext()) {
       UFManager newFmgr = newContext.getFormulaManager().getUFManager();
       FunctionDeclaration<IntegerFormula> id =
@@ -194,6 +188,42 @@ public class DebugModeTest extends SolverBasedTest0.ParameterizedSolverBasedTest
     }
   }
 
+  /** Use sub terms of a formula, which are only registered when the visitor returns them. */
+  @Test
+  public void subTermsFromVisitorTest() throws InterruptedException, SolverException {
+    requireVisitor();
+
+    BooleanFormula varA = debugBmgr.makeVariable("a");
+    BooleanFormula varB = debugBmgr.makeVariable("b");
+    BooleanFormula formula = debugBmgr.and(varA, debugBmgr.not(varB));
+
+    Set<BooleanFormula> operands = debugBmgr.toConjunctionArgs(formula, false);
+    List<BooleanFormula> negated = new ArrayList<>();
+    for (BooleanFormula operand : operands) {
+      debugBmgr.visit(
+          operand,
+          new DefaultBooleanFormulaVisitor<Void>() {
+            @Override
+            protected Void visitDefault() {
+              return null;
+            }
+
+            @Override
+            public Void visitNot(BooleanFormula pOperand) {
+              negated.add(pOperand);
+              return null;
+            }
+          });
+    }
+    assertThat(negated).hasSize(1);
+
+    try (BasicProverEnvironment<?> prover = debugContext.newProverEnvironment()) {
+      prover.push(formula);
+      prover.push(negated.get(0));
+      assertThat(prover).isUnsatisfiable();
+    }
+  }
+
   /** Try to add a formula from a different solver to our solver context. */
   @Test(expected = IllegalArgumentException.class)
   public void noSharingBetweenSolversTest()
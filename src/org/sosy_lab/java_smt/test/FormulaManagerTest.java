@@ -18,16 +18,21 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.testing.EqualsTester;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import org.junit.Test;
 import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
 import org.sosy_lab.java_smt.api.ArrayFormula;
 import org.sosy_lab.java_smt.api.BitvectorFormula;
 import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Formula;
 import org.sosy_lab.java_smt.api.FormulaType;
 import org.sosy_lab.java_smt.api.FunctionDeclaration;
 import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
 import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.api.TransformationSession;
+import org.sosy_lab.java_smt.api.visitors.FormulaTransformationVisitor;
 
 public class FormulaManagerTest extends SolverBasedTest0.ParameterizedSolverBasedTest0 {
 
@@ -101,6 +106,69 @@ public class FormulaManagerTest extends SolverBasedTest0.ParameterizedSolverBase
                 bmgr.makeVariable("e")));
   }
 
+  @Test
+  public void testBulkSubstitution() throws SolverException, InterruptedException {
+    requireSubstitution();
+
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+    BooleanFormula c = bmgr.makeVariable("c");
+    BooleanFormula shared = bmgr.and(a, b);
+    Map<BooleanFormula, BooleanFormula> substitution =
+        ImmutableMap.of(a, bmgr.makeVariable("a1"), c, bmgr.makeVariable("c1"));
+
+    ImmutableList<BooleanFormula> out =
+        mgr.substitute(ImmutableList.of(bmgr.or(shared, c), bmgr.not(shared)), substitution);
+    assertThat(out).hasSize(2);
+    assertThatFormula(out.get(0)).isEquivalentTo(mgr.substitute(bmgr.or(shared, c), substitution));
+    assertThatFormula(out.get(1)).isEquivalentTo(bmgr.not(bmgr.and(bmgr.makeVariable("a1"), b)));
+  }
+
+  @Test
+  public void testSubstitutionSession() throws SolverException, InterruptedException {
+    requireSubstitution();
+
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+    TransformationSession substitution =
+        mgr.newSubstitution(ImmutableMap.of(a, bmgr.makeVariable("a1")));
+
+    BooleanFormula out1 = substitution.transform(bmgr.and(a, b));
+    BooleanFormula out2 = substitution.transform(bmgr.or(a, bmgr.and(a, b)));
+    substitution.clearCache();
+    BooleanFormula out3 = substitution.transform(bmgr.not(a));
+
+    BooleanFormula a1 = bmgr.makeVariable("a1");
+    assertThatFormula(out1).isEquivalentTo(bmgr.and(a1, b));
+    assertThatFormula(out2).isEquivalentTo(bmgr.or(a1, bmgr.and(a1, b)));
+    assertThatFormula(out3).isEquivalentTo(bmgr.not(a1));
+  }
+
+  @Test
+  public void testTransformationSessionVisitsSharedTermsOnce() {
+    requireVisitor();
+
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+    BooleanFormula c = bmgr.makeVariable("c");
+    List<String> visitedVars = new ArrayList<>();
+    TransformationSession session =
+        mgr.newTransformationSession(
+            new FormulaTransformationVisitor(mgr) {
+              @Override
+              public Formula visitFreeVariable(Formula f, String name) {
+                visitedVars.add(name);
+                return f;
+              }
+            });
+
+    BooleanFormula f1 = bmgr.and(a, b);
+    BooleanFormula f2 = bmgr.or(f1, c);
+    assertThat(session.transform(f1)).isEqualTo(f1);
+    assertThat(session.transform(f2)).isEqualTo(f2);
+    assertThat(visitedVars).containsExactly("a", "b", "c");
+  }
+
   @Test
   public void testSubstitutionTwice() throws SolverException, InterruptedException {
     requireSubstitution();
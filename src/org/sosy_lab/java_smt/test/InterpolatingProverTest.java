@@ -254,7 +254,7 @@ public class InterpolatingProverTest extends SolverBasedTest0.ParameterizedSolve
     assume()
         .withMessage("Solver does not support tree-interpolation.")
         .that(solver)
-        .isAnyOf(Solvers.SMTINTERPOL, Solvers.PRINCESS);
+        .isAnyOf(Solvers.SMTINTERPOL, Solvers.PRINCESS, Solvers.MATHSAT5, Solvers.CVC5);
   }
 
   @Test
@@ -8,8 +8,10 @@
 
 package org.sosy_lab.java_smt.test;
 
+import static com.google.common.truth.Truth.assertThat;
 import static org.sosy_lab.java_smt.test.ProverEnvironmentSubject.assertThat;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import java.math.BigInteger;
 import java.util.ArrayList;
@@ -19,9 +21,12 @@ import org.junit.Test;
 import org.sosy_lab.common.configuration.ConfigurationBuilder;
 import org.sosy_lab.common.rationals.Rational;
 import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BitvectorFormula;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.Evaluator;
+import org.sosy_lab.java_smt.api.Formula;
 import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
 import org.sosy_lab.java_smt.api.ProverEnvironment;
 import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
 import org.sosy_lab.java_smt.api.SolverException;
@@ -216,6 +221,63 @@ public class ModelEvaluationTest extends SolverBasedTest0.ParameterizedSolverBas
     }
   }
 
+  @Test
+  public void testEvaluateAll() throws SolverException, InterruptedException {
+    requireIntegers();
+    IntegerFormula x = imgr.makeVariable("x");
+    IntegerFormula y = imgr.makeVariable("y");
+    BooleanFormula p = bmgr.makeVariable("p");
+    List<Formula> formulas = ImmutableList.of(x, y, imgr.add(x, y), p, bmgr.not(p), x);
+    try (ProverEnvironment prover = context.newProverEnvironment(ProverOptions.GENERATE_MODELS)) {
+      prover.push(
+          bmgr.and(
+              imgr.equal(x, imgr.makeNumber(3)), imgr.equal(y, imgr.makeNumber(-5)), bmgr.not(p)));
+      assertThat(prover).isSatisfiable();
+      try (Model m = prover.getModel()) {
+        assertThat(m.evaluateAll(formulas))
+            .containsExactly(
+                BigInteger.valueOf(3),
+                BigInteger.valueOf(-5),
+                BigInteger.valueOf(-2),
+                false,
+                true,
+                BigInteger.valueOf(3))
+            .inOrder();
+        // the second evaluation matches the single evaluations, e.g., from a cache.
+        for (int i = 0; i < formulas.size(); i++) {
+          assertThat(m.evaluateAll(formulas).get(i)).isEqualTo(m.evaluate(formulas.get(i)));
+        }
+        assertThat(m.evaluateAllBooleans(ImmutableList.of(p, bmgr.not(p))))
+            .containsExactly(false, true)
+            .inOrder();
+        assertThat(m.evaluateAll(ImmutableList.of())).isEmpty();
+      }
+      try (Evaluator e = prover.getEvaluator()) {
+        assertThat(e.evaluateAll(formulas)).hasSize(formulas.size());
+        assertThat(e.evaluateAll(formulas).get(2)).isEqualTo(BigInteger.valueOf(-2));
+      }
+    }
+  }
+
+  @Test
+  public void testEvaluateAllBitvectors() throws SolverException, InterruptedException {
+    requireBitvectors();
+    BitvectorFormula a = bvmgr.makeVariable(8, "a");
+    BitvectorFormula b = bvmgr.makeVariable(8, "b");
+    try (ProverEnvironment prover = context.newProverEnvironment(ProverOptions.GENERATE_MODELS)) {
+      prover.push(
+          bmgr.and(
+              bvmgr.equal(a, bvmgr.makeBitvector(8, 7)),
+              bvmgr.equal(b, bvmgr.makeBitvector(8, 9))));
+      assertThat(prover).isSatisfiable();
+      try (Model m = prover.getModel()) {
+        assertThat(m.evaluateAllBitvectors(ImmutableList.of(a, b, bvmgr.add(a, b))))
+            .containsExactly(BigInteger.valueOf(7), BigInteger.valueOf(9), BigInteger.valueOf(16))
+            .inOrder();
+      }
+    }
+  }
+
   @NonNull
   private List<BooleanFormula> getConstraints() {
     List<BooleanFormula> constraints = new ArrayList<>();
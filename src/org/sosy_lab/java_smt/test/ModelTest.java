@@ -115,6 +115,45 @@ public class ModelTest extends SolverBasedTest0.ParameterizedSolverBasedTest0 {
     }
   }
 
+  @Test
+  public void testFilteredAssignments() throws SolverException, InterruptedException {
+    requireIntegers();
+    IntegerFormula x = imgr.makeVariable("x");
+    IntegerFormula y = imgr.makeVariable("y");
+    IntegerFormula z = imgr.makeVariable("zz");
+    FunctionDeclaration<IntegerFormula> f = fmgr.declareUF("f", IntegerType, IntegerType);
+    IntegerFormula fx = fmgr.callUF(f, x);
+    try (ProverEnvironment prover = context.newProverEnvironment(ProverOptions.GENERATE_MODELS)) {
+      prover.push(
+          bmgr.and(
+              imgr.equal(x, imgr.makeNumber(1)),
+              imgr.equal(y, imgr.makeNumber(2)),
+              imgr.equal(z, imgr.makeNumber(3)),
+              imgr.equal(fx, imgr.makeNumber(4))));
+      assertThat(prover).isSatisfiable();
+
+      try (Model m = prover.getModel()) {
+        List<ValueAssignment> all = m.asList();
+        assertThat(m.stream().collect(Collectors.toList())).containsExactlyElementsIn(all);
+        assertThat(m.asList(name -> name.length() == 1))
+            .containsExactlyElementsIn(
+                all.stream().filter(a -> a.getName().length() == 1).collect(Collectors.toList()));
+
+        // the key of an assignment for a UF is an application, whose form depends on the solver.
+        Formula ufKey = Iterables.getOnlyElement(m.asList(name -> name.equals("f"))).getKey();
+        List<Formula> keys = ImmutableList.of(x, z, ufKey);
+        List<ValueAssignment> forKeys = m.assignmentsFor(keys);
+        assertThat(forKeys)
+            .containsExactlyElementsIn(
+                all.stream().filter(a -> keys.contains(a.getKey())).collect(Collectors.toList()));
+        assertThat(Iterables.transform(forKeys, ValueAssignment::getName))
+            .containsExactly("x", "zz", "f");
+        assertThat(m.assignmentsFor(ImmutableList.of(y))).hasSize(1);
+        assertThat(m.assignmentsFor(ImmutableList.of())).isEmpty();
+      }
+    }
+  }
+
   @Test
   public void testGetSmallIntegers() throws SolverException, InterruptedException {
     requireIntegers();
@@ -0,0 +1,169 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.common.configuration.ConfigurationBuilder;
+import org.sosy_lab.java_smt.api.BasicProverEnvironment.AllSatCallback;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/** Compute AllSAT with several threads, see the option solver.synchronized.allSatThreads. */
+public class ParallelAllSatTest extends SolverBasedTest0.ParameterizedSolverBasedTest0 {
+
+  @Override
+  protected ConfigurationBuilder createTestConfigBuilder() {
+    return super.createTestConfigBuilder()
+        .setOption("solver.synchronize", "true")
+        .setOption("solver.synchronized.allSatThreads", "3")
+        .setOption("solver.synchronized.allSatSplitDepth", "2");
+  }
+
+  @Before
+  public void requireTranslation() {
+    // the assertions are translated into the context of each thread.
+    requireVisitor();
+  }
+
+  /** Collects all assignments, the callback is always called by the thread that calls allSat. */
+  private static final class CollectingCallback
+      implements AllSatCallback<List<List<BooleanFormula>>> {
+    private final Thread thread = Thread.currentThread();
+    private final List<List<BooleanFormula>> models = new ArrayList<>();
+
+    @Override
+    public void apply(List<BooleanFormula> pModel) {
+      assertThat(Thread.currentThread()).isSameInstanceAs(thread);
+      models.add(pModel);
+    }
+
+    @Override
+    public List<List<BooleanFormula>> getResult() {
+      return models;
+    }
+  }
+
+  private List<BooleanFormula> variables(String prefix, int number) {
+    List<BooleanFormula> result = new ArrayList<>();
+    for (int i = 0; i < number; i++) {
+      result.add(bmgr.makeVariable(prefix + i));
+    }
+    return result;
+  }
+
+  /** Expand partial assignments into total assignments over the given predicates. */
+  private Set<Set<BooleanFormula>> expand(
+      List<List<BooleanFormula>> pModels, List<BooleanFormula> pPredicates) {
+    Set<Set<BooleanFormula>> result = new HashSet<>();
+    for (List<BooleanFormula> model : pModels) {
+      List<List<BooleanFormula>> choices = new ArrayList<>();
+      for (BooleanFormula predicate : pPredicates) {
+        BooleanFormula negated = bmgr.not(predicate);
+        if (model.contains(predicate)) {
+          choices.add(ImmutableList.of(predicate));
+        } else if (model.contains(negated)) {
+          choices.add(ImmutableList.of(negated));
+        } else {
+          choices.add(ImmutableList.of(predicate, negated));
+        }
+      }
+      for (List<BooleanFormula> assignment : Lists.cartesianProduct(choices)) {
+        assertThat(result.add(ImmutableSet.copyOf(assignment))).isTrue();
+      }
+    }
+    return result;
+  }
+
+  @Test
+  public void allSatOverCubes() throws SolverException, InterruptedException {
+    List<BooleanFormula> p = variables("p", 6);
+    // exactly one of p0 and p1, and p2 implies p3.
+    BooleanFormula formula =
+        bmgr.and(bmgr.xor(p.get(0), p.get(1)), bmgr.implication(p.get(2), p.get(3)));
+    try (ProverEnvironment prover = context.newProverEnvironment(ProverOptions.GENERATE_ALL_SAT)) {
+      prover.push(formula);
+      Set<Set<BooleanFormula>> assignments = expand(prover.allSat(new CollectingCallback(), p), p);
+      assertThat(assignments).hasSize(2 * 3 * 4);
+      for (Set<BooleanFormula> assignment : assignments) {
+        assertThatFormula(bmgr.and(formula, bmgr.and(assignment))).isSatisfiable();
+      }
+    }
+  }
+
+  @Test
+  public void allSatWithFewPredicates() throws SolverException, InterruptedException {
+    // all predicates are used for the cubes.
+    BooleanFormula a = bmgr.makeVariable("a");
+    try (ProverEnvironment prover = context.newProverEnvironment(ProverOptions.GENERATE_ALL_SAT)) {
+      prover.push(bmgr.or(a, bmgr.makeVariable("b")));
+      assertThat(prover.allSat(new CollectingCallback(), ImmutableList.of(a)))
+          .containsExactly(ImmutableList.of(a), ImmutableList.of(bmgr.not(a)));
+      assertThat(prover.allSat(new CollectingCallback(), ImmutableList.of())).hasSize(1);
+    }
+  }
+
+  @Test
+  public void allSatWithNegatedPredicate() throws SolverException, InterruptedException {
+    BooleanFormula x = bmgr.makeVariable("x");
+    BooleanFormula y = bmgr.makeVariable("y");
+    BooleanFormula formula = bmgr.or(x, y);
+    // the negation of the last predicate might be simplified by the solver.
+    List<BooleanFormula> predicates = ImmutableList.of(x, bmgr.makeVariable("z"), bmgr.not(y));
+    try (ProverEnvironment prover = context.newProverEnvironment(ProverOptions.GENERATE_ALL_SAT)) {
+      prover.push(formula);
+      Set<Set<BooleanFormula>> assignments =
+          expand(prover.allSat(new CollectingCallback(), predicates), predicates);
+      assertThat(assignments).hasSize(2 * 2 + 2);
+      for (Set<BooleanFormula> assignment : assignments) {
+        assertThatFormula(bmgr.and(formula, bmgr.and(assignment))).isSatisfiable();
+      }
+    }
+  }
+
+  @Test
+  public void allSatUnsat() throws SolverException, InterruptedException {
+    List<BooleanFormula> p = variables("p", 4);
+    try (ProverEnvironment prover = context.newProverEnvironment(ProverOptions.GENERATE_ALL_SAT)) {
+      prover.push(bmgr.and(p));
+      prover.push(bmgr.not(p.get(3)));
+      assertThat(prover.allSat(new CollectingCallback(), p)).isEmpty();
+      prover.pop();
+      assertThat(prover.allSat(new CollectingCallback(), p)).containsExactly(p);
+    }
+  }
+
+  @Test
+  public void allSatWithTheoryAtoms() throws SolverException, InterruptedException {
+    requireIntegers();
+    IntegerFormula x = imgr.makeVariable("x");
+    List<BooleanFormula> predicates = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      predicates.add(imgr.lessThan(x, imgr.makeNumber(i)));
+    }
+    try (ProverEnvironment prover = context.newProverEnvironment(ProverOptions.GENERATE_ALL_SAT)) {
+      prover.push(imgr.greaterOrEquals(x, imgr.makeNumber(-3)));
+      // the predicates are ordered, so there is one assignment per interval of x.
+      assertThat(expand(prover.allSat(new CollectingCallback(), predicates), predicates))
+          .hasSize(predicates.size() + 1);
+    }
+  }
+}
@@ -0,0 +1,145 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.common.configuration.ConfigurationBuilder;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.Model.ValueAssignment;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.delegate.portfolio.PortfolioSolverContext;
+
+/** Race the solver under test against SMTInterpol in a {@link PortfolioSolverContext}. */
+public class PortfolioSolverContextTest extends SolverBasedTest0.ParameterizedSolverBasedTest0 {
+
+  @Override
+  protected ConfigurationBuilder createTestConfigBuilder() {
+    return super.createTestConfigBuilder()
+        .setOption("solver.usePortfolio", "true")
+        .setOption("solver.portfolio.solvers", solverToUse() + ",SMTINTERPOL");
+  }
+
+  @Before
+  public void requirePortfolio() {
+    // formulas are transferred between solvers by dumping and parsing them.
+    requireParser();
+  }
+
+  @Test
+  public void testContextIsPortfolio() {
+    assertThat(context).isInstanceOf(PortfolioSolverContext.class);
+  }
+
+  @Test
+  public void testSatAndUnsat() throws SolverException, InterruptedException {
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+    try (ProverEnvironment prover = context.newProverEnvironment()) {
+      prover.push(bmgr.or(a, b));
+      assertThat(prover.isUnsat()).isFalse();
+      prover.push(bmgr.not(a));
+      assertThat(prover.isUnsat()).isFalse();
+      prover.push(bmgr.not(b));
+      assertThat(prover.size()).isEqualTo(3);
+      assertThat(prover.isUnsat()).isTrue();
+      prover.pop();
+      assertThat(prover.isUnsat()).isFalse();
+      prover.pop();
+      prover.push(bmgr.and(bmgr.not(a), bmgr.not(b)));
+      assertThat(prover.isUnsat()).isTrue();
+    }
+  }
+
+  @Test
+  public void testRepeatedRaces() throws SolverException, InterruptedException {
+    // losers of a race are interrupted and replaced, thus the stack has to be replayed.
+    requireIntegers();
+    IntegerFormula x = imgr.makeVariable("x");
+    try (ProverEnvironment prover = context.newProverEnvironment()) {
+      for (int i = 0; i < 20; i++) {
+        prover.push(imgr.greaterThan(x, imgr.makeNumber(i)));
+        assertThat(prover.isUnsat()).isFalse();
+      }
+      prover.push(imgr.lessThan(x, imgr.makeNumber(10)));
+      assertThat(prover.isUnsat()).isTrue();
+      for (int i = 0; i < 15; i++) {
+        prover.pop();
+      }
+      assertThat(prover.isUnsat()).isFalse();
+      assertThat(prover.getStatistics()).isNotEmpty();
+    }
+  }
+
+  @Test
+  public void testModel() throws SolverException, InterruptedException {
+    requireIntegers();
+    requireModel();
+    IntegerFormula x = imgr.makeVariable("x");
+    BooleanFormula p = bmgr.makeVariable("p");
+    try (ProverEnvironment prover = context.newProverEnvironment(ProverOptions.GENERATE_MODELS)) {
+      prover.push(imgr.equal(x, imgr.makeNumber(5)));
+      prover.push(p);
+      assertThat(prover.isUnsat()).isFalse();
+      try (Model model = prover.getModel()) {
+        assertThat(model.evaluate(x)).isEqualTo(BigInteger.valueOf(5));
+        assertThat(model.evaluate(p)).isTrue();
+        assertThat(model.evaluate(imgr.add(x, x))).isEqualTo(BigInteger.TEN);
+        assertThat(model.eval(x)).isEqualTo(imgr.makeNumber(5));
+        ImmutableList<ValueAssignment> assignments = model.asList();
+        assertThat(assignments).hasSize(2);
+        for (ValueAssignment assignment : assignments) {
+          assertThat(assignment.getKey()).isAnyOf(x, p);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testUnsatCore() throws SolverException, InterruptedException {
+    requireUnsatCore();
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+    BooleanFormula notA = bmgr.not(a);
+    try (ProverEnvironment prover =
+        context.newProverEnvironment(ProverOptions.GENERATE_UNSAT_CORE)) {
+      prover.push(a);
+      prover.push(b);
+      prover.push(notA);
+      assertThat(prover.isUnsat()).isTrue();
+      assertThat(prover.getUnsatCore()).containsExactly(a, notA);
+    }
+  }
+
+  @Test
+  public void testAssumptions() throws SolverException, InterruptedException {
+    requireUnsatCoreOverAssumptions();
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+    try (ProverEnvironment prover =
+        context.newProverEnvironment(ProverOptions.GENERATE_UNSAT_CORE_OVER_ASSUMPTIONS)) {
+      prover.push(bmgr.implication(a, b));
+      assertThat(prover.isUnsatWithAssumptions(ImmutableList.of(a))).isFalse();
+      Optional<List<BooleanFormula>> core =
+          prover.unsatCoreOverAssumptions(ImmutableList.of(a, bmgr.not(b)));
+      assertThat(core).isPresent();
+      assertThat(core.orElseThrow()).containsExactly(a, bmgr.not(b));
+    }
+  }
+}
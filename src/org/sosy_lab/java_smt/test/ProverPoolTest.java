@@ -0,0 +1,103 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.TruthJUnit.assume;
+import static org.junit.Assert.assertThrows;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.sosy_lab.common.time.TimeSpan;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.utils.ProverPool;
+
+public class ProverPoolTest extends SolverBasedTest0.ParameterizedSolverBasedTest0 {
+
+  private static final TimeSpan LONG_TIMEOUT = TimeSpan.of(1, TimeUnit.HOURS);
+
+  @Test
+  public void testReuseWithoutAssertions() throws SolverException, InterruptedException {
+    BooleanFormula a = bmgr.makeVariable("a");
+    try (ProverPool pool = new ProverPool(context, 2, LONG_TIMEOUT)) {
+      try (ProverEnvironment prover = pool.checkout()) {
+        assertThat(prover.size()).isEqualTo(0);
+        // assertions on the bottom level are removed as well.
+        prover.addConstraint(a);
+        prover.push(bmgr.not(a));
+        assertThat(prover.size()).isEqualTo(1);
+        assertThat(prover.isUnsat()).isTrue();
+        prover.pop();
+        // the initial level of the prover is not visible.
+        assertThrows(IllegalStateException.class, prover::pop);
+      }
+      assertThat(pool.getIdleCount()).isEqualTo(1);
+
+      try (ProverEnvironment prover = pool.checkout()) {
+        assertThat(prover.size()).isEqualTo(0);
+        prover.addConstraint(bmgr.not(a));
+        assertThat(prover.isUnsat()).isFalse();
+      }
+      assertThat(pool.getStatistics()).containsEntry("created provers", "1");
+      assertThat(pool.getStatistics()).containsEntry("reused provers", "1");
+    }
+  }
+
+  @Test
+  public void testClosedProver() throws InterruptedException {
+    try (ProverPool pool = new ProverPool(context, 1, LONG_TIMEOUT)) {
+      ProverEnvironment prover = pool.checkout();
+      prover.close();
+      prover.close();
+      assertThat(pool.getIdleCount()).isEqualTo(1);
+      assertThrows(IllegalStateException.class, prover::isUnsat);
+    }
+  }
+
+  @Test
+  public void testMaxIdle() throws InterruptedException {
+    assume()
+        .withMessage("Solver %s does not support several provers at once", solverToUse())
+        .that(solverToUse())
+        .isNotEqualTo(Solvers.BOOLECTOR);
+    try (ProverPool pool = new ProverPool(context, 1, LONG_TIMEOUT)) {
+      ProverEnvironment first = pool.checkout();
+      ProverEnvironment second = pool.checkout();
+      first.close();
+      second.close();
+      assertThat(pool.getIdleCount()).isEqualTo(1);
+      assertThat(pool.getStatistics()).containsEntry("discarded provers", "1");
+    }
+  }
+
+  @Test
+  public void testIdleTimeout() throws InterruptedException {
+    try (ProverPool pool = new ProverPool(context, 1, TimeSpan.empty())) {
+      pool.checkout().close();
+      pool.evictIdle();
+      assertThat(pool.getIdleCount()).isEqualTo(0);
+      pool.checkout().close();
+      assertThat(pool.getStatistics()).containsEntry("reused provers", "0");
+    }
+  }
+
+  @Test
+  public void testClosedPool() throws InterruptedException {
+    ProverPool pool = new ProverPool(context, 1, LONG_TIMEOUT);
+    ProverEnvironment prover = pool.checkout();
+    pool.close();
+    // a prover that is returned after closing the pool is closed.
+    prover.close();
+    assertThat(pool.getIdleCount()).isEqualTo(0);
+    assertThrows(IllegalStateException.class, pool::checkout);
+  }
+}
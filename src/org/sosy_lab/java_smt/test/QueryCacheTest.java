@@ -0,0 +1,190 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.math.BigInteger;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.ConfigurationBuilder;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.converters.FileTypeConverter;
+import org.sosy_lab.java_smt.SolverContextFactory;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.delegate.querycache.QueryCacheSolverContext;
+
+public class QueryCacheTest extends SolverBasedTest0.ParameterizedSolverBasedTest0 {
+
+  @Rule public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Override
+  protected ConfigurationBuilder createTestConfigBuilder() {
+    FileTypeConverter fileTypeConverter;
+    try {
+      fileTypeConverter = FileTypeConverter.create(Configuration.defaultConfiguration());
+    } catch (InvalidConfigurationException e) {
+      throw new AssertionError(e);
+    }
+    return super.createTestConfigBuilder()
+        .addConverter(FileOption.class, fileTypeConverter)
+        .setOption("solver.useQueryCache", "true")
+        .setOption("solver.queryCache.storeModels", "true")
+        .setOption("solver.queryCache.storeUnsatCores", "true")
+        .setOption(
+            "solver.queryCache.persistentFile",
+            tempFolder.getRoot().toPath().resolve("queries.cache").toString());
+  }
+
+  private String statistic(String key) {
+    return context.getStatistics().get(key);
+  }
+
+  @Test
+  public void testContextIsCaching() {
+    assertThat(context).isInstanceOf(QueryCacheSolverContext.class);
+  }
+
+  @Test
+  public void testHitsAcrossProvers() throws SolverException, InterruptedException {
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+    try (ProverEnvironment prover = context.newProverEnvironment()) {
+      prover.push(a);
+      prover.push(bmgr.not(b));
+      assertThat(prover.isUnsat()).isFalse();
+      prover.push(b);
+      assertThat(prover.isUnsat()).isTrue();
+    }
+    assertThat(statistic("query cache misses")).isEqualTo("2");
+
+    // the order and the levels of the constraints do not matter.
+    try (ProverEnvironment prover = context.newProverEnvironment()) {
+      prover.push(bmgr.not(b));
+      prover.push(b);
+      prover.push(a);
+      assertThat(prover.isUnsat()).isTrue();
+      prover.pop();
+      prover.pop();
+      prover.push(a);
+      assertThat(prover.isUnsat()).isFalse();
+    }
+    assertThat(statistic("query cache hits")).isEqualTo("2");
+    assertThat(statistic("query cache misses")).isEqualTo("2");
+  }
+
+  @Test
+  public void testAssumptions() throws SolverException, InterruptedException {
+    requireUnsatCoreOverAssumptions();
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+    try (ProverEnvironment prover = context.newProverEnvironment()) {
+      prover.push(bmgr.or(a, b));
+      assertThat(prover.isUnsatWithAssumptions(ImmutableList.of(bmgr.not(a)))).isFalse();
+      assertThat(prover.isUnsatWithAssumptions(ImmutableList.of(bmgr.not(a), bmgr.not(b))))
+          .isTrue();
+      assertThat(prover.isUnsatWithAssumptions(ImmutableList.of(bmgr.not(b), bmgr.not(a))))
+          .isTrue();
+      assertThat(prover.isUnsat()).isFalse();
+    }
+    assertThat(statistic("query cache hits")).isEqualTo("1");
+    assertThat(statistic("query cache misses")).isEqualTo("3");
+  }
+
+  @Test
+  public void testModelAfterHit() throws SolverException, InterruptedException {
+    requireIntegers();
+    requireModel();
+    IntegerFormula x = imgr.makeVariable("x");
+    BooleanFormula constraint = imgr.equal(x, imgr.makeNumber(3));
+    try (ProverEnvironment prover = context.newProverEnvironment(ProverOptions.GENERATE_MODELS)) {
+      prover.push(constraint);
+      assertThat(prover.isUnsat()).isFalse();
+      assertThat(prover.getModelAssignments()).hasSize(1);
+    }
+    try (ProverEnvironment prover = context.newProverEnvironment(ProverOptions.GENERATE_MODELS)) {
+      prover.push(constraint);
+      assertThat(prover.isUnsat()).isFalse();
+      assertThat(statistic("query cache hits")).isEqualTo("1");
+      // the stored assignments are returned without asking the solver.
+      assertThat(prover.getModelAssignments()).hasSize(1);
+      // a model requires the solver to repeat the check.
+      try (Model model = prover.getModel()) {
+        assertThat(model.evaluate(x)).isEqualTo(BigInteger.valueOf(3));
+      }
+    }
+  }
+
+  @Test
+  public void testUnsatCoreAfterHit() throws SolverException, InterruptedException {
+    requireUnsatCore();
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+    for (int i = 0; i < 2; i++) {
+      try (ProverEnvironment prover =
+          context.newProverEnvironment(ProverOptions.GENERATE_UNSAT_CORE)) {
+        prover.push(a);
+        prover.push(b);
+        prover.push(bmgr.not(a));
+        assertThat(prover.isUnsat()).isTrue();
+        assertThat(prover.getUnsatCore()).containsAtLeast(a, bmgr.not(a));
+      }
+    }
+    assertThat(statistic("query cache hits")).isEqualTo("1");
+  }
+
+  @Test
+  public void testPersistentAcrossContexts()
+      throws SolverException, InterruptedException, InvalidConfigurationException {
+    BooleanFormula a = bmgr.makeVariable("a");
+    BooleanFormula b = bmgr.makeVariable("b");
+    try (ProverEnvironment prover = context.newProverEnvironment()) {
+      prover.push(bmgr.or(a, b));
+      assertThat(prover.isUnsat()).isFalse();
+    }
+
+    // a second context, e.g., of a later run, reads the verdicts from the file.
+    try (SolverContext other =
+        SolverContextFactory.createSolverContext(
+            config, logger, shutdownNotifierToUse(), solverToUse())) {
+      BooleanFormulaManager otherBmgr = other.getFormulaManager().getBooleanFormulaManager();
+      BooleanFormula otherA = otherBmgr.makeVariable("a");
+      BooleanFormula otherB = otherBmgr.makeVariable("b");
+      try (ProverEnvironment prover = other.newProverEnvironment()) {
+        prover.push(otherBmgr.or(otherA, otherB));
+        assertThat(prover.isUnsat()).isFalse();
+        prover.push(otherBmgr.not(otherA));
+        prover.push(otherBmgr.not(otherB));
+        assertThat(prover.isUnsat()).isTrue();
+      }
+      assertThat(other.getStatistics()).containsEntry("persistent query cache hits", "1");
+
+      // verdicts of the second context are visible to the first one, while both are open.
+      try (ProverEnvironment prover = context.newProverEnvironment()) {
+        prover.push(bmgr.or(a, b));
+        prover.push(bmgr.not(a));
+        prover.push(bmgr.not(b));
+        assertThat(prover.isUnsat()).isTrue();
+      }
+      assertThat(statistic("persistent query cache hits")).isEqualTo("1");
+      assertThat(statistic("query cache misses")).isEqualTo("1");
+    }
+  }
+}
@@ -13,6 +13,7 @@ import static com.google.common.truth.Truth.assert_;
 import static com.google.common.truth.TruthJUnit.assume;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 import java.util.ArrayList;
 import java.util.List;
 import org.junit.After;
@@ -197,6 +198,110 @@ public class SolverAllSatTest extends SolverBasedTest0 {
             ImmutableList.of(ImmutableList.of(v1, bmgr.not(v2)), ImmutableList.of(v1, v2)));
   }
 
+  @Test
+  public void allSatTest_partialAssignments() throws SolverException, InterruptedException {
+    BooleanFormula v1 = bmgr.makeVariable("b1");
+    BooleanFormula v2 = bmgr.makeVariable("b2");
+    BooleanFormula v3 = bmgr.makeVariable("b3");
+    ImmutableList<BooleanFormula> predicates = ImmutableList.of(v1, v2, v3);
+
+    env.push(bmgr.or(v1, bmgr.and(v2, bmgr.not(v1))));
+
+    TestAllSatCallback callback = new TestAllSatCallback();
+
+    assertThat(env.allSat(callback, predicates)).isEqualTo(EXPECTED_RESULT);
+
+    // partial assignments are allowed, but they have to be disjoint.
+    List<List<BooleanFormula>> assignments = expandAssignments(callback.models, predicates);
+    assertThat(assignments).containsNoDuplicates();
+    assertThat(assignments)
+        .containsExactly(
+            ImmutableList.of(v1, v2, v3),
+            ImmutableList.of(v1, v2, bmgr.not(v3)),
+            ImmutableList.of(v1, bmgr.not(v2), v3),
+            ImmutableList.of(v1, bmgr.not(v2), bmgr.not(v3)),
+            ImmutableList.of(bmgr.not(v1), v2, v3),
+            ImmutableList.of(bmgr.not(v1), v2, bmgr.not(v3)));
+  }
+
+  @Test
+  public void allSatTest_predicateInsideAtom() throws SolverException, InterruptedException {
+    requireIntegers();
+
+    BooleanFormula v1 = bmgr.makeVariable("b1");
+    BooleanFormula v2 = bmgr.makeVariable("b2");
+    BooleanFormula v3 = bmgr.makeVariable("b3");
+    IntegerFormula one = imgr.makeNumber(1);
+    IntegerFormula zero = imgr.makeNumber(0);
+    ImmutableList<BooleanFormula> predicates = ImmutableList.of(v1, v2, v3);
+
+    // b1 and b2 are not atoms of the Boolean skeleton, but each of them matters.
+    env.push(
+        imgr.equal(imgr.add(bmgr.ifThenElse(v1, one, zero), bmgr.ifThenElse(v2, one, zero)), one));
+
+    TestAllSatCallback callback = new TestAllSatCallback();
+
+    assertThat(env.allSat(callback, predicates)).isEqualTo(EXPECTED_RESULT);
+
+    List<List<BooleanFormula>> assignments = expandAssignments(callback.models, predicates);
+    assertThat(assignments).containsNoDuplicates();
+    assertThat(assignments)
+        .containsExactly(
+            ImmutableList.of(v1, bmgr.not(v2), v3),
+            ImmutableList.of(v1, bmgr.not(v2), bmgr.not(v3)),
+            ImmutableList.of(bmgr.not(v1), v2, v3),
+            ImmutableList.of(bmgr.not(v1), v2, bmgr.not(v3)));
+  }
+
+  @Test
+  public void allSatTest_predicateInsidePredicate() throws SolverException, InterruptedException {
+    requireIntegers();
+
+    assume()
+        .withMessage("solver reports a partial model without a value for any predicate")
+        .that(solverToUse())
+        .isNotEqualTo(Solvers.Z3);
+
+    BooleanFormula p = bmgr.makeVariable("p");
+    BooleanFormula atom = imgr.greaterThan(imgr.makeVariable("x"), imgr.makeNumber(0));
+    BooleanFormula conjunction = bmgr.and(p, atom);
+    ImmutableList<BooleanFormula> predicates = ImmutableList.of(p, conjunction);
+
+    // p is not needed for the assertion, but determines the value of the other predicate.
+    env.push(atom);
+
+    TestAllSatCallback callback = new TestAllSatCallback();
+
+    assertThat(env.allSat(callback, predicates)).isEqualTo(EXPECTED_RESULT);
+
+    List<List<BooleanFormula>> assignments = expandAssignments(callback.models, predicates);
+    assertThat(assignments).containsNoDuplicates();
+    assertThat(assignments)
+        .containsExactly(
+            ImmutableList.of(p, conjunction), ImmutableList.of(bmgr.not(p), bmgr.not(conjunction)));
+  }
+
+  /** Replace each partial assignment with all its completions over the given predicates. */
+  private List<List<BooleanFormula>> expandAssignments(
+      List<List<BooleanFormula>> pAssignments, List<BooleanFormula> pPredicates) {
+    List<List<BooleanFormula>> result = new ArrayList<>();
+    for (List<BooleanFormula> assignment : pAssignments) {
+      List<List<BooleanFormula>> choices = new ArrayList<>();
+      for (BooleanFormula predicate : pPredicates) {
+        BooleanFormula negated = bmgr.not(predicate);
+        if (assignment.contains(predicate)) {
+          choices.add(ImmutableList.of(predicate));
+        } else if (assignment.contains(negated)) {
+          choices.add(ImmutableList.of(negated));
+        } else {
+          choices.add(ImmutableList.of(predicate, negated));
+        }
+      }
+      result.addAll(Lists.cartesianProduct(choices));
+    }
+    return result;
+  }
+
   @Test
   public void allSatTest_withQuantifier() throws SolverException, InterruptedException {
     requireBitvectors();
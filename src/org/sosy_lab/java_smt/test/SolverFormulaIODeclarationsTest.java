@@ -131,6 +131,26 @@ public class SolverFormulaIODeclarationsTest
     Truth.assertThat(mgr.extractVariables(formula).values()).containsExactly(var);
   }
 
+  @Test
+  public void parseDeclareBeforeManyTest() {
+    BooleanFormula var1 = bmgr.makeVariable("var1");
+    BooleanFormula var2 = bmgr.makeVariable("var 2");
+    BooleanFormula var3 = bmgr.makeVariable("var3");
+    String query = "(assert (and var1 |var 2| (or var3 |var1|) (not var3)))";
+    BooleanFormula formula = mgr.parse(query);
+    Truth.assertThat(mgr.extractVariables(formula).values()).containsExactly(var1, var2, var3);
+  }
+
+  @Test
+  public void parseDeclareBeforeAndInQueryTest() {
+    requireIntegers();
+    IntegerFormula x = imgr.makeVariable("x");
+    String query = "(declare-fun y () Int)(assert (= x y))";
+    BooleanFormula formula = mgr.parse(query);
+    IntegerFormula y = imgr.makeVariable("y");
+    Truth.assertThat(mgr.extractVariables(formula).values()).containsExactly(x, y);
+  }
+
   @Test
   public void parseDeclareRedundantTest1() {
     requireIntegers();
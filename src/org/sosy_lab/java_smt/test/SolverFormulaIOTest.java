@@ -18,6 +18,10 @@ import com.google.common.collect.HashMultiset;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Multiset;
 import com.google.common.truth.TruthJUnit;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.function.Supplier;
 import org.junit.Test;
 import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
@@ -139,6 +143,40 @@ public class SolverFormulaIOTest extends SolverBasedTest0.ParameterizedSolverBas
     assertThatFormula(parsedForm).isEquivalentTo(expr);
   }
 
+  @Test
+  public void readerParseTest() throws SolverException, InterruptedException, IOException {
+    requireParser();
+
+    // Boolector will fail this anyway since bools are bitvecs for btor
+    TruthJUnit.assume().that(solver).isNotEqualTo(Solvers.BOOLECTOR);
+
+    BooleanFormula x = bmgr.makeVariable("x");
+    BooleanFormula y = bmgr.makeVariable("y");
+    BooleanFormula expr = bmgr.equivalence(y, x);
+
+    // actual test
+    BooleanFormula parsedForm =
+        mgr.parse(new StringReader(BOOL_VARS_W_LOGIC_AND_COMMENT + "\n(check-sat)\n(exit)"));
+    assertThatFormula(parsedForm).isEquivalentTo(expr);
+  }
+
+  @Test
+  public void pathParseTest() throws SolverException, InterruptedException, IOException {
+    requireParser();
+    requireIntegers();
+
+    BooleanFormula expr = redundancyExprGen();
+
+    Path file = Files.createTempFile("javasmt", ".smt2");
+    try {
+      Files.writeString(file, MATHSAT_DUMP2);
+      BooleanFormula parsedForm = mgr.parse(file);
+      assertThatFormula(parsedForm).isEquivalentTo(expr);
+    } finally {
+      Files.delete(file);
+    }
+  }
+
   @Test
   public void varDumpTest() {
     // Boolector will fail this anyway since bools are bitvecs for btor
@@ -8,9 +8,18 @@
 
 package org.sosy_lab.java_smt.test;
 
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.TruthJUnit.assume;
+import static org.sosy_lab.java_smt.test.ProverEnvironmentSubject.assertThat;
+
+import org.junit.Test;
+import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
 import org.sosy_lab.java_smt.api.BasicProverEnvironment;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
 import org.sosy_lab.java_smt.api.SolverContext;
 import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
 
 public class SolverStackTest extends SolverStackTest0 {
 
@@ -19,4 +28,33 @@ public class SolverStackTest extends SolverStackTest0 {
       SolverContext pContext, ProverOptions... options) {
     return pContext.newProverEnvironment(options);
   }
+
+  @Test
+  public void nonIncrementalStackTest() throws SolverException, InterruptedException {
+    // With separation logic, CVC5 does not use incremental mode and has to track the stack itself.
+    assume().that(solver).isEqualTo(Solvers.CVC5);
+
+    BooleanFormula a = bmgr.makeVariable("nonIncremental_a");
+    BooleanFormula b = bmgr.makeVariable("nonIncremental_b");
+    try (ProverEnvironment stack =
+        context.newProverEnvironment(ProverOptions.ENABLE_SEPARATION_LOGIC)) {
+      stack.push(bmgr.or(a, b));
+      assertThat(stack).isSatisfiable();
+      stack.push(bmgr.not(a));
+      assertThat(stack).isSatisfiable();
+      stack.push(bmgr.not(b));
+      assertThat(stack).isUnsatisfiable();
+      stack.pop();
+      assertThat(stack).isSatisfiable();
+      stack.push(a);
+      assertThat(stack).isUnsatisfiable();
+      stack.pop();
+      stack.pop();
+      stack.push(a);
+      assertThat(stack).isSatisfiable();
+      stack.addConstraint(b);
+      assertThat(stack).isSatisfiable();
+      assertThat(stack.getStatistics()).containsEntry("avoided re-assertions", "7");
+    }
+  }
 }
@@ -0,0 +1,120 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.common.configuration.ConfigurationBuilder;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.delegate.statistics.SolverStatistics;
+import org.sosy_lab.java_smt.delegate.statistics.StatisticsSolverContext;
+
+public class SolverStatisticsTest extends SolverBasedTest0.ParameterizedSolverBasedTest0 {
+
+  @Override
+  protected ConfigurationBuilder createTestConfigBuilder() {
+    return super.createTestConfigBuilder()
+        .setOption("solver.collectStatistics", "true")
+        .setOption("solver.statistics.collectFormulaStructure", "true")
+        .setOption("solver.statistics.exportJmx", "true");
+  }
+
+  private SolverStatistics stats;
+
+  @Before
+  public void getStatistics() {
+    assertThat(context).isInstanceOf(StatisticsSolverContext.class);
+    stats = ((StatisticsSolverContext) context).getSolverStatistics();
+  }
+
+  @Test
+  public void latencyOfQueries() throws SolverException, InterruptedException {
+    BooleanFormula a = bmgr.makeVariable("a");
+    try (ProverEnvironment prover = context.newProverEnvironment()) {
+      prover.push(a);
+      assertThat(prover.isUnsat()).isFalse();
+      prover.push(bmgr.not(a));
+      assertThat(prover.isUnsat()).isTrue();
+    }
+    assertThat(stats.getIsUnsatLatency().getCount()).isEqualTo(2);
+    assertThat(stats.getIsUnsatLatency().getQuantile(1))
+        .isEqualTo(stats.getIsUnsatLatency().getMax());
+    assertThat(stats.getNumberOfIsUnsatQueries()).isEqualTo(2);
+  }
+
+  @Test
+  public void structureOfConstraints() throws InterruptedException {
+    requireVisitor();
+    requireIntegers();
+    IntegerFormula x = imgr.makeVariable("x");
+    IntegerFormula sum = imgr.add(x, x);
+    // (x + x) + (x + x) < 1 is a DAG with 5 distinct nodes and depth 4.
+    BooleanFormula f = imgr.lessThan(imgr.add(sum, sum), imgr.makeNumber(1));
+    try (ProverEnvironment prover = context.newProverEnvironment()) {
+      prover.push(f);
+    }
+    assertThat(stats.getConstraintSize().getCount()).isEqualTo(1);
+    assertThat(stats.getConstraintDepth().getMax()).isAtLeast(3);
+    assertThat(stats.getConstraintSize().getMax()).isAtMost(6);
+  }
+
+  @Test
+  public void sizeOfModels() throws SolverException, InterruptedException {
+    requireModel();
+    try (ProverEnvironment prover = context.newProverEnvironment(ProverOptions.GENERATE_MODELS)) {
+      prover.push(bmgr.and(bmgr.makeVariable("a"), bmgr.makeVariable("b")));
+      assertThat(prover.isUnsat()).isFalse();
+      try (Model model = prover.getModel()) {
+        assertThat(model.asList()).hasSize(2);
+      }
+    }
+    assertThat(stats.getModelSize().getCount()).isEqualTo(1);
+    assertThat(stats.getModelSize().getSum()).isEqualTo(2);
+  }
+
+  @Test
+  public void parseAndDump() {
+    requireParser();
+    String input = "(declare-fun a () Bool)(assert a)";
+    BooleanFormula f = mgr.parse(input);
+    String dump = mgr.dumpFormula(f).toString();
+    assertThat(stats.getParseBytes().getSum()).isEqualTo(input.length());
+    assertThat(stats.getParseTime().getCount()).isEqualTo(1);
+    assertThat(stats.getDumpBytes().getSum()).isEqualTo(dump.length());
+  }
+
+  @Test
+  public void exportViaJmx() throws JMException {
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    Set<ObjectName> names =
+        server.queryNames(
+            new ObjectName(
+                "org.sosy_lab.java_smt:type=SolverStatistics,solver=" + solverToUse() + ",*"),
+            null);
+    assertThat(names).hasSize(1);
+    ObjectName name = names.iterator().next();
+    assertThat(server.getAttribute(name, "SolverName")).isEqualTo(solverToUse().toString());
+    assertThat(server.getAttribute(name, "Statistics")).isNotNull();
+
+    context.close();
+    assertThat(server.isRegistered(name)).isFalse();
+  }
+}
@@ -1150,6 +1150,57 @@ public class SolverVisitorTest extends SolverBasedTest0.ParameterizedSolverBased
     assertThat(foundVars).containsExactly("x", "y", "z", "d");
   }
 
+  /** Build a formula with exponentially many paths, but only linearly many distinct sub terms. */
+  private BooleanFormula makeSharedFormula(int depth) {
+    BooleanFormula f = bmgr.makeVariable("f");
+    for (int i = 0; i < depth; i++) {
+      f = bmgr.and(bmgr.or(bmgr.makeVariable("v" + i), f), bmgr.or(bmgr.makeVariable("w" + i), f));
+    }
+    return f;
+  }
+
+  @Test
+  public void recursiveTraversalVisitsSharedTermsOnceTest() {
+    int depth = 100;
+    BooleanFormula f = makeSharedFormula(depth);
+    final List<String> visitedVars = new ArrayList<>();
+    mgr.visitRecursively(
+        f,
+        new DefaultFormulaVisitor<>() {
+          @Override
+          protected TraversalProcess visitDefault(Formula pF) {
+            return TraversalProcess.CONTINUE;
+          }
+
+          @Override
+          public TraversalProcess visitFreeVariable(Formula pF, String pName) {
+            visitedVars.add(pName);
+            return TraversalProcess.CONTINUE;
+          }
+        });
+    assertThat(visitedVars).containsNoDuplicates();
+    assertThat(visitedVars).hasSize(2 * depth + 1);
+  }
+
+  @Test
+  public void recursiveTransformationVisitsSharedTermsOnceTest() {
+    BooleanFormula f = makeSharedFormula(100);
+    final List<Formula> visitedTerms = new ArrayList<>();
+    BooleanFormula f2 =
+        mgr.transformRecursively(
+            f,
+            new FormulaTransformationVisitor(mgr) {
+              @Override
+              public Formula visitFunction(
+                  Formula pF, List<Formula> pNewArgs, FunctionDeclaration<?> pDecl) {
+                visitedTerms.add(pF);
+                return super.visitFunction(pF, pNewArgs, pDecl);
+              }
+            });
+    assertThat(f2).isEqualTo(f);
+    assertThat(visitedTerms).containsNoDuplicates();
+  }
+
   @Test
   public void testTransformationInsideQuantifiers() {
     requireQuantifiers();
@@ -0,0 +1,154 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.sosy_lab.java_smt.basicimpl.TermReclaimer;
+import org.sosy_lab.java_smt.basicimpl.TermReclaimer.TermReference;
+
+public class TermReclaimerTest {
+
+  /** Stands for a native term that is released at most once. */
+  private static final class NativeTerm {
+    private volatile boolean released = false;
+  }
+
+  private static final class Wrapper {}
+
+  private static final class NativeTermReference extends TermReference<Wrapper> {
+    private final NativeTerm term;
+
+    NativeTermReference(Wrapper pReferent, TermReclaimer<Wrapper> pReclaimer, NativeTerm pTerm) {
+      super(pReferent, pReclaimer);
+      term = pTerm;
+    }
+
+    @Override
+    protected void release() {
+      assertThat(term.released).isFalse();
+      term.released = true;
+    }
+  }
+
+  private static NativeTerm register(TermReclaimer<Wrapper> reclaimer, Wrapper wrapper) {
+    NativeTerm term = new NativeTerm();
+    reclaimer.register(new NativeTermReference(wrapper, reclaimer, term));
+    return term;
+  }
+
+  @Test
+  public void reclaimUnreachable() throws InterruptedException {
+    TermReclaimer<Wrapper> reclaimer = new TermReclaimer<>();
+    Wrapper reachable = new Wrapper();
+    NativeTerm reachableTerm = register(reclaimer, reachable);
+    List<NativeTerm> unreachableTerms = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      unreachableTerms.add(register(reclaimer, new Wrapper()));
+    }
+    assertThat(reclaimer.getRegistered()).isEqualTo(101);
+    assertThat(reclaimer.getLive()).isEqualTo(101);
+
+    // the JVM does not guarantee that a single call of the GC collects everything.
+    for (int i = 0; i < 50 && reclaimer.getReclaimed() < 100; i++) {
+      System.gc();
+      Thread.sleep(10);
+      reclaimer.drain();
+    }
+
+    assertThat(reclaimer.getReclaimed()).isEqualTo(100);
+    assertThat(reclaimer.getLive()).isEqualTo(1);
+    for (NativeTerm term : unreachableTerms) {
+      assertThat(term.released).isTrue();
+    }
+    assertThat(reachableTerm.released).isFalse();
+    assertThat(reachable).isNotNull();
+  }
+
+  @Test
+  public void releaseAll() {
+    TermReclaimer<Wrapper> reclaimer = new TermReclaimer<>();
+    List<Wrapper> wrappers = new ArrayList<>();
+    List<NativeTerm> terms = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      Wrapper wrapper = new Wrapper();
+      wrappers.add(wrapper);
+      terms.add(register(reclaimer, wrapper));
+    }
+
+    reclaimer.releaseAll();
+    assertThat(reclaimer.getLive()).isEqualTo(0);
+    for (NativeTerm term : terms) {
+      assertThat(term.released).isTrue();
+    }
+
+    // nothing is released twice, and no new terms are accepted.
+    wrappers.clear();
+    System.gc();
+    assertThat(reclaimer.drain()).isEqualTo(0);
+    assertThrows(IllegalStateException.class, () -> register(reclaimer, new Wrapper()));
+  }
+
+  @Test
+  public void drainInBatches() throws InterruptedException {
+    TermReclaimer<Wrapper> reclaimer = new TermReclaimer<>(10);
+    List<NativeTerm> terms = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      terms.add(register(reclaimer, new Wrapper()));
+    }
+    long reclaimedAtLastDrain = 0;
+    for (int i = 0; i < 500 && reclaimer.getReclaimed() < terms.size(); i++) {
+      System.gc();
+      Thread.sleep(1);
+      register(reclaimer, new Wrapper());
+      // registering releases the collected terms only after every 10 registrations.
+      if (reclaimer.getRegistered() % 10 == 0) {
+        reclaimedAtLastDrain = reclaimer.getReclaimed();
+      } else {
+        assertThat(reclaimer.getReclaimed()).isEqualTo(reclaimedAtLastDrain);
+      }
+    }
+    assertThat(reclaimer.getReclaimed()).isAtLeast(terms.size());
+    for (NativeTerm term : terms) {
+      assertThat(term.released).isTrue();
+    }
+    assertThat(reclaimer.getStatistics()).containsKey("reclamation batches");
+  }
+
+  @Test
+  public void releaseWithCleanupThread() throws InterruptedException {
+    TermReclaimer<Wrapper> reclaimer = TermReclaimer.withCleanupThread("test-cleanup");
+    Wrapper reachable = new Wrapper();
+    NativeTerm reachableTerm = register(reclaimer, reachable);
+    List<NativeTerm> unreachableTerms = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      unreachableTerms.add(register(reclaimer, new Wrapper()));
+    }
+
+    // the cleanup thread releases the terms without any call of drain().
+    for (int i = 0; i < 50 && reclaimer.getReclaimed() < 100; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    assertThat(reclaimer.getReclaimed()).isEqualTo(100);
+    for (NativeTerm term : unreachableTerms) {
+      assertThat(term.released).isTrue();
+    }
+    assertThat(reachableTerm.released).isFalse();
+
+    reclaimer.releaseAll();
+    assertThat(reachableTerm.released).isTrue();
+    assertThat(reclaimer.getLive()).isEqualTo(0);
+    assertThat(reachable).isNotNull();
+  }
+}
@@ -14,6 +14,10 @@ import static com.google.common.truth.Truth.assertThat;
 import static org.junit.Assert.assertThrows;
 
 import com.google.common.truth.Truth;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.Test;
 import org.sosy_lab.java_smt.basicimpl.Tokenizer;
 
@@ -91,4 +95,38 @@ public class TokenizerTest {
     assertThat(stringToken).isEqualTo(stringTokenSMTLIB);
     assertThat(Tokenizer.isAssertToken(stringToken)).isTrue();
   }
+
+  @Test
+  public void readerTest() throws IOException {
+    // The input is split at arbitrary positions, also between escaped quotes in string literals
+    String script =
+        "(set-logic ALL);comment\n(declare-fun s () String)\n"
+            + "(assert (= s \"a\"\"b\"));(\n(check-sat)(exit)";
+    List<String> tokens = new ArrayList<>();
+    Tokenizer.tokenize(new ChunkedReader(script, 1), tokens::add);
+    assertThat(tokens)
+        .containsExactly(
+            "(set-logic ALL)",
+            "(declare-fun s () String)",
+            "(assert (= s \"a\"\"b\"))",
+            "(check-sat)",
+            "(exit)")
+        .inOrder();
+    assertThat(tokens).isEqualTo(Tokenizer.tokenize(script));
+  }
+
+  /** Returns at most the given number of characters per read. */
+  private static final class ChunkedReader extends StringReader {
+    private final int chunkSize;
+
+    ChunkedReader(String pInput, int pChunkSize) {
+      super(pInput);
+      chunkSize = pChunkSize;
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) throws IOException {
+      return super.read(buffer, offset, Math.min(length, chunkSize));
+    }
+  }
 }
@@ -0,0 +1,224 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.test;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.ConfigurationBuilder;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.converters.FileTypeConverter;
+import org.sosy_lab.java_smt.SolverContextFactory;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.InterpolatingProverEnvironment;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.delegate.trace.TraceReplay;
+import org.sosy_lab.java_smt.delegate.trace.TraceSolverContext;
+
+public class TraceTest extends SolverBasedTest0.ParameterizedSolverBasedTest0 {
+
+  @Rule public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Override
+  protected ConfigurationBuilder createTestConfigBuilder() {
+    FileTypeConverter fileTypeConverter;
+    try {
+      fileTypeConverter = FileTypeConverter.create(Configuration.defaultConfiguration());
+    } catch (InvalidConfigurationException e) {
+      throw new AssertionError(e);
+    }
+    return super.createTestConfigBuilder().addConverter(FileOption.class, fileTypeConverter);
+  }
+
+  /** Create a context that records a trace, the trace is complete after closing the context. */
+  private TraceSolverContext createTracingContext(boolean pCompress)
+      throws InvalidConfigurationException {
+    Configuration traceConfig =
+        createTestConfigBuilder()
+            .setOption("solver.recordTrace", "true")
+            .setOption(
+                "solver.trace.file",
+                tempFolder.getRoot().toPath().resolve("trace.%d.txt").toString())
+            .setOption("solver.trace.compress", Boolean.toString(pCompress))
+            .build();
+    SolverContext tracing =
+        SolverContextFactory.createSolverContext(
+            traceConfig, logger, shutdownNotifierToUse(), solverToUse());
+    assertThat(tracing).isInstanceOf(TraceSolverContext.class);
+    return (TraceSolverContext) tracing;
+  }
+
+  @Test
+  public void testRecordWithoutOutputFiles() throws InvalidConfigurationException {
+    Configuration traceConfig =
+        createTestConfigBuilder()
+            .addConverter(
+                FileOption.class,
+                FileTypeConverter.create(
+                    Configuration.builder().setOption("output.disable", "true").build()))
+            .setOption("solver.recordTrace", "true")
+            .build();
+    assertThrows(
+        InvalidConfigurationException.class,
+        () ->
+            SolverContextFactory.createSolverContext(
+                traceConfig, logger, shutdownNotifierToUse(), solverToUse()));
+  }
+
+  /** Record a short session and return the trace. */
+  private Path recordSession(boolean pCompress)
+      throws InvalidConfigurationException, SolverException, InterruptedException {
+    TraceSolverContext tracing = createTracingContext(pCompress);
+    try (tracing) {
+      BooleanFormulaManager tracingBmgr = tracing.getFormulaManager().getBooleanFormulaManager();
+      BooleanFormula a = tracingBmgr.makeVariable("a");
+      BooleanFormula b = tracingBmgr.makeVariable("b");
+      try (ProverEnvironment prover = tracing.newProverEnvironment(ProverOptions.GENERATE_MODELS)) {
+        prover.push(tracingBmgr.or(a, b));
+        assertThat(prover.isUnsat()).isFalse();
+        assertThat(prover.getModelAssignments()).isNotEmpty();
+        prover.push(tracingBmgr.not(a));
+        prover.push(tracingBmgr.not(b));
+        assertThat(prover.isUnsat()).isTrue();
+        prover.pop();
+      }
+    }
+    return tracing.getTraceFile();
+  }
+
+  private static List<String> commandsOf(Path pTrace) throws IOException {
+    return Files.readAllLines(pTrace, UTF_8).stream()
+        .filter(line -> !line.startsWith("#"))
+        .map(line -> line.split("\t", -1)[1])
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void testRecord()
+      throws IOException, InvalidConfigurationException, SolverException, InterruptedException {
+    Path trace = recordSession(false);
+    assertThat(commandsOf(trace))
+        .containsExactly(
+            "new-prover",
+            "push",
+            "assert",
+            "check-sat",
+            "get-model-assignments",
+            "push",
+            "assert",
+            "push",
+            "assert",
+            "check-sat",
+            "pop",
+            "close")
+        .inOrder();
+    // the results of the checks are part of the trace.
+    assertThat(
+            Files.readAllLines(trace, UTF_8).stream()
+                .map(line -> line.split("\t", -1))
+                .filter(fields -> fields.length > 3 && fields[1].equals("check-sat"))
+                .map(fields -> fields[3]))
+        .containsExactly("sat", "unsat")
+        .inOrder();
+  }
+
+  @Test
+  public void testReplay()
+      throws IOException, InvalidConfigurationException, SolverException, InterruptedException {
+    requireParser();
+    Path trace = recordSession(false);
+    TraceReplay replay = new TraceReplay(context, logger);
+    replay.replay(trace);
+    assertThat(replay.getMismatches()).isEqualTo(0);
+    assertThat(replay.getStatistics()).containsEntry("check-sat calls", "2");
+    assertThat(replay.getStatistics()).containsEntry("assert calls", "3");
+    assertThat(replay.getStatistics()).containsEntry("parse calls", "3");
+  }
+
+  @Test
+  public void testReplayCompressed()
+      throws IOException, InvalidConfigurationException, SolverException, InterruptedException {
+    requireParser();
+    Path trace = recordSession(true);
+    // the trace is not readable as plain text, but the replay detects the compression.
+    assertThat(Files.readAllBytes(trace)[0]).isEqualTo((byte) 0x1f);
+    TraceReplay replay = new TraceReplay(context, logger);
+    replay.replay(trace);
+    assertThat(replay.getMismatches()).isEqualTo(0);
+    assertThat(replay.getStatistics()).containsEntry("check-sat calls", "2");
+  }
+
+  @Test
+  public void testReplayInterpolation()
+      throws IOException, InvalidConfigurationException, SolverException, InterruptedException {
+    requireParser();
+    requireInterpolation();
+    TraceSolverContext tracing = createTracingContext(false);
+    try (tracing) {
+      BooleanFormulaManager tracingBmgr = tracing.getFormulaManager().getBooleanFormulaManager();
+      BooleanFormula a = tracingBmgr.makeVariable("a");
+      BooleanFormula b = tracingBmgr.makeVariable("b");
+      recordInterpolation(tracing.newProverEnvironmentWithInterpolation(), tracingBmgr, a, b);
+    }
+
+    TraceReplay replay = new TraceReplay(context, logger);
+    replay.replay(tracing.getTraceFile());
+    assertThat(replay.getMismatches()).isEqualTo(0);
+    assertThat(replay.getStatistics()).containsEntry("get-interpolant calls", "1");
+    assertThat(replay.getStatistics()).containsEntry("get-seq-interpolants calls", "1");
+  }
+
+  private static <T> void recordInterpolation(
+      InterpolatingProverEnvironment<T> pProver,
+      BooleanFormulaManager pBmgr,
+      BooleanFormula pA,
+      BooleanFormula pB)
+      throws SolverException, InterruptedException {
+    try (pProver) {
+      T first = pProver.push(pBmgr.and(pA, pB));
+      T second = pProver.push(pBmgr.not(pA));
+      assertThat(pProver.isUnsat()).isTrue();
+      assertThat(pProver.getInterpolant(ImmutableList.of(first))).isNotNull();
+      assertThat(
+              pProver.getSeqInterpolants(
+                  ImmutableList.of(ImmutableList.of(first), ImmutableList.of(second))))
+          .hasSize(1);
+    }
+  }
+
+  @Test
+  public void testMismatch()
+      throws IOException, InvalidConfigurationException, SolverException, InterruptedException {
+    Path trace = tempFolder.newFile("manual.txt").toPath();
+    // a trace with a wrong result, e.g., from a buggy solver.
+    Files.write(
+        trace,
+        ImmutableList.of("1\tnew-prover\t0\t", "1\tcheck-sat\t0\tunsat", "1\tclose\t0\t"),
+        UTF_8);
+    TraceReplay replay = new TraceReplay(context, logger);
+    replay.replay(trace);
+    assertThat(replay.getMismatches()).isEqualTo(1);
+  }
+}
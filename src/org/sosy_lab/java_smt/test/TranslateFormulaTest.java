@@ -8,6 +8,7 @@
 
 package org.sosy_lab.java_smt.test;
 
+import static com.google.common.truth.Truth.assertThat;
 import static com.google.common.truth.TruthJUnit.assume;
 import static org.sosy_lab.java_smt.test.BooleanFormulaSubject.assertUsing;
 
@@ -178,6 +179,47 @@ public class TranslateFormulaTest {
     assertUsing(from).that(inputFrom).isEquivalentTo(translatedReverseInput);
   }
 
+  @Test
+  public void testTranslatingTwice() throws SolverException, InterruptedException {
+    requireParserTo();
+
+    BooleanFormula inputFrom = createTestFormula(managerFrom);
+    BooleanFormula translatedInput = managerTo.translateFrom(inputFrom, managerFrom);
+    BooleanFormula translatedAgain = managerTo.translateFrom(inputFrom, managerFrom);
+
+    assertThat(translatedAgain).isEqualTo(translatedInput);
+    assertUsing(to).that(createTestFormula(managerTo)).isEquivalentTo(translatedAgain);
+  }
+
+  @Test
+  public void testTranslatingLargeSharedFormula() throws SolverException, InterruptedException {
+    requireParserTo();
+
+    BooleanFormula inputFrom = createLargeSharedFormula(managerFrom);
+    BooleanFormula inputTo = createLargeSharedFormula(managerTo);
+    BooleanFormula translatedInput = managerTo.translateFrom(inputFrom, managerFrom);
+
+    assertUsing(to).that(inputTo).isEquivalentTo(translatedInput);
+  }
+
+  /** Create a deep formula, where each level references the previous level twice. */
+  private BooleanFormula createLargeSharedFormula(FormulaManager mgr) {
+    requireIntegers();
+
+    BooleanFormulaManager bfmgr = mgr.getBooleanFormulaManager();
+    IntegerFormulaManager ifmgr = mgr.getIntegerFormulaManager();
+    IntegerFormula x = ifmgr.makeVariable("x");
+    IntegerFormula term = x;
+    for (int i = 0; i < 200; i++) {
+      term =
+          bfmgr.ifThenElse(
+              ifmgr.lessThan(term, ifmgr.makeNumber(i)),
+              ifmgr.add(term, ifmgr.makeNumber(1)),
+              ifmgr.subtract(term, x));
+    }
+    return ifmgr.greaterOrEquals(term, ifmgr.makeNumber(0));
+  }
+
   private BooleanFormula createTestFormula(FormulaManager mgr) {
     requireIntegers();
 
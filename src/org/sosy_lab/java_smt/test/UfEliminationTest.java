@@ -24,7 +24,10 @@ import org.sosy_lab.java_smt.SolverContextFactory.Solvers;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.Formula;
 import org.sosy_lab.java_smt.api.FunctionDeclaration;
+import org.sosy_lab.java_smt.api.Model;
 import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
 import org.sosy_lab.java_smt.api.SolverException;
 import org.sosy_lab.java_smt.utils.SolverUtils;
 import org.sosy_lab.java_smt.utils.UfElimination;
@@ -219,6 +222,70 @@ public class UfEliminationTest extends SolverBasedTest0.ParameterizedSolverBased
     Truth.assertThat(variablesAndUFs).isEqualTo(variables);
   }
 
+  @Test
+  public void constantArgumentsTest() throws SolverException, InterruptedException {
+    requireIntegers();
+
+    // f := uf(1) != uf(2) AND uf(v1) != uf(1)
+    IntegerFormula variable1 = imgr.makeVariable("variable1");
+    IntegerFormula one = imgr.makeNumber(1);
+
+    FunctionDeclaration<IntegerFormula> ufDecl = fmgr.declareUF("uf", IntegerType, IntegerType);
+    IntegerFormula f1 = fmgr.callUF(ufDecl, one);
+    IntegerFormula f2 = fmgr.callUF(ufDecl, imgr.makeNumber(2));
+    IntegerFormula f3 = fmgr.callUF(ufDecl, variable1);
+    BooleanFormula f = bmgr.and(bmgr.not(imgr.equal(f1, f2)), bmgr.not(imgr.equal(f3, f1)));
+    BooleanFormula argsEqual = imgr.equal(variable1, one);
+
+    BooleanFormula withOutUfs = ackermannization.eliminateUfs(f);
+    assertThatFormula(f).isSatisfiable(); // sanity check
+    assertThatFormula(withOutUfs).isSatisfiable();
+    assertThatFormula(bmgr.and(argsEqual, f)).isUnsatisfiable(); // sanity check
+    assertThatFormula(bmgr.and(argsEqual, withOutUfs)).isUnsatisfiable();
+  }
+
+  @Test
+  public void lazyConstraintsTest() throws SolverException, InterruptedException {
+    requireIntegers();
+
+    // f := uf(v1, v3) XOR uf(v2, v4)
+    IntegerFormula variable1 = imgr.makeVariable("variable1");
+    IntegerFormula variable2 = imgr.makeVariable("variable2");
+    IntegerFormula variable3 = imgr.makeVariable("variable3");
+    IntegerFormula variable4 = imgr.makeVariable("variable4");
+    BooleanFormula v1EqualsV2 = imgr.equal(variable1, variable2);
+    BooleanFormula v3EqualsV4 = imgr.equal(variable3, variable4);
+
+    FunctionDeclaration<BooleanFormula> uf2Decl =
+        fmgr.declareUF("uf", BooleanType, IntegerType, IntegerType);
+    BooleanFormula f1 = fmgr.callUF(uf2Decl, variable1, variable3);
+    BooleanFormula f2 = fmgr.callUF(uf2Decl, variable2, variable4);
+    BooleanFormula f = bmgr.xor(f1, f2);
+    BooleanFormula argsEqual = bmgr.and(v1EqualsV2, v3EqualsV4);
+
+    Truth.assertThat(isSatisfiableWithLazyConstraints(f)).isTrue();
+    Truth.assertThat(isSatisfiableWithLazyConstraints(bmgr.and(argsEqual, f))).isFalse();
+  }
+
+  /** Check the formula without UFs, and add violated constraints until the model is consistent. */
+  private boolean isSatisfiableWithLazyConstraints(BooleanFormula f)
+      throws SolverException, InterruptedException {
+    Result result = ackermannization.eliminateUfs(f, Result.empty(mgr));
+    try (ProverEnvironment prover = context.newProverEnvironment(ProverOptions.GENERATE_MODELS)) {
+      prover.push(result.getFormula());
+      while (!prover.isUnsat()) {
+        try (Model model = prover.getModel()) {
+          BooleanFormula violated = ackermannization.getViolatedConstraints(result, model);
+          if (bmgr.isTrue(violated)) {
+            return true;
+          }
+          prover.push(violated);
+        }
+      }
+      return false;
+    }
+  }
+
   @Test
   public void quantifierTest() {
     requireQuantifiers();
@@ -0,0 +1,179 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.utils;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Evaluator;
+import org.sosy_lab.java_smt.api.Model;
+import org.sosy_lab.java_smt.api.Model.ValueAssignment;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverException;
+import org.sosy_lab.java_smt.api.UserPropagator;
+
+/**
+ * A prover that is checked out from a {@link ProverPool}. The initial backtracking point of the
+ * underlying prover is hidden, and closing this prover returns the underlying prover to the pool.
+ */
+final class PooledProverEnvironment implements ProverEnvironment {
+
+  /** The number of levels of the underlying prover that are not visible to the user. */
+  private static final int BASE_LEVEL = 1;
+
+  private final ProverEnvironment delegate;
+  private final ProverPool pool;
+  private boolean reusable = true;
+  private boolean closed = false;
+
+  PooledProverEnvironment(ProverEnvironment pDelegate, ProverPool pPool) {
+    delegate = checkNotNull(pDelegate);
+    pool = checkNotNull(pPool);
+  }
+
+  private void checkOpen() {
+    checkState(!closed, "prover was already returned to its pool");
+  }
+
+  @Override
+  public void pop() {
+    checkOpen();
+    checkState(size() > 0, "no backtracking point to pop");
+    delegate.pop();
+  }
+
+  @Override
+  public @Nullable Void addConstraint(BooleanFormula constraint) throws InterruptedException {
+    checkOpen();
+    try {
+      return delegate.addConstraint(constraint);
+    } catch (InterruptedException e) {
+      reusable = false;
+      throw e;
+    }
+  }
+
+  @Override
+  public void push() throws InterruptedException {
+    checkOpen();
+    try {
+      delegate.push();
+    } catch (InterruptedException e) {
+      reusable = false;
+      throw e;
+    }
+  }
+
+  @Override
+  public int size() {
+    checkOpen();
+    return delegate.size() - BASE_LEVEL;
+  }
+
+  @Override
+  public boolean isUnsat() throws SolverException, InterruptedException {
+    checkOpen();
+    try {
+      return delegate.isUnsat();
+    } catch (InterruptedException e) {
+      reusable = false;
+      throw e;
+    }
+  }
+
+  @Override
+  public boolean isUnsatWithAssumptions(Collection<BooleanFormula> assumptions)
+      throws SolverException, InterruptedException {
+    checkOpen();
+    try {
+      return delegate.isUnsatWithAssumptions(assumptions);
+    } catch (InterruptedException e) {
+      reusable = false;
+      throw e;
+    }
+  }
+
+  @Override
+  public Model getModel() throws SolverException {
+    checkOpen();
+    return delegate.getModel();
+  }
+
+  @Override
+  public Evaluator getEvaluator() throws SolverException {
+    checkOpen();
+    return delegate.getEvaluator();
+  }
+
+  @Override
+  public ImmutableList<ValueAssignment> getModelAssignments() throws SolverException {
+    checkOpen();
+    return delegate.getModelAssignments();
+  }
+
+  @Override
+  public List<BooleanFormula> getUnsatCore() {
+    checkOpen();
+    return delegate.getUnsatCore();
+  }
+
+  @Override
+  public Optional<List<BooleanFormula>> unsatCoreOverAssumptions(
+      Collection<BooleanFormula> assumptions) throws SolverException, InterruptedException {
+    checkOpen();
+    try {
+      return delegate.unsatCoreOverAssumptions(assumptions);
+    } catch (InterruptedException e) {
+      reusable = false;
+      throw e;
+    }
+  }
+
+  @Override
+  public ImmutableMap<String, String> getStatistics() {
+    checkOpen();
+    return delegate.getStatistics();
+  }
+
+  @Override
+  public <R> R allSat(AllSatCallback<R> callback, List<BooleanFormula> important)
+      throws InterruptedException, SolverException {
+    checkOpen();
+    try {
+      return delegate.allSat(callback, important);
+    } catch (InterruptedException e) {
+      reusable = false;
+      throw e;
+    }
+  }
+
+  @Override
+  public boolean registerUserPropagator(UserPropagator propagator) {
+    checkOpen();
+    // a registered propagator can not be removed, thus the prover can not be reused.
+    reusable = false;
+    return delegate.registerUserPropagator(propagator);
+  }
+
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    pool.release(delegate, reusable);
+  }
+}
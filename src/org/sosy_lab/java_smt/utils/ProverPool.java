@@ -0,0 +1,214 @@
+// This file is part of JavaSMT,
+// an API wrapper for a collection of SMT solvers:
+// https://github.com/sosy-lab/java-smt
+//
+// SPDX-FileCopyrightText: 2025 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.java_smt.utils;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import org.sosy_lab.common.time.TimeSpan;
+import org.sosy_lab.java_smt.api.ProverEnvironment;
+import org.sosy_lab.java_smt.api.SolverContext;
+import org.sosy_lab.java_smt.api.SolverContext.ProverOptions;
+
+/**
+ * A pool of prover environments with the same {@link ProverOptions}, such that creating a prover
+ * becomes a cheap checkout of an idle one, if available.
+ *
+ * <p>Each prover of the pool has an initial backtracking point that is invisible to the user, as
+ * the prover of Boolector uses internally for its own reuse. When a prover is closed, it is
+ * returned to the pool by popping all levels including the initial one, which removes all
+ * assertions, and pushing a fresh initial level. Provers that can not be reset this way, e.g.,
+ * after they were interrupted or after a user propagator was registered, are closed instead. Idle
+ * provers are closed after a timeout and if there are more than a given number of idle provers.
+ *
+ * <p>Solver-internal state that survives a pop, e.g., learned lemmas, survives the reuse, which
+ * does not change the result of any query. The statistics of a reused prover accumulate over all
+ * its checkouts.
+ *
+ * <p>Idle provers stay open, thus a solver that supports only one prover at a time (like Boolector)
+ * can not create any other prover while the pool holds an idle one.
+ *
+ * <p>The pool itself is thread-safe, the provers are as thread-safe as the underlying context.
+ */
+public final class ProverPool implements AutoCloseable {
+
+  private static final class IdleProver {
+    private final ProverEnvironment prover;
+    private final long idleSince;
+
+    private IdleProver(ProverEnvironment pProver, long pIdleSince) {
+      prover = pProver;
+      idleSince = pIdleSince;
+    }
+  }
+
+  private final SolverContext context;
+  private final ProverOptions[] options;
+  private final int maxIdle;
+  private final long idleTimeoutNanos;
+
+  /** The idle provers, the most recently returned one first. */
+  @GuardedBy("this")
+  private final Deque<IdleProver> idle = new ArrayDeque<>();
+
+  @GuardedBy("this")
+  private boolean closed = false;
+
+  @GuardedBy("this")
+  private long created = 0;
+
+  @GuardedBy("this")
+  private long reused = 0;
+
+  @GuardedBy("this")
+  private long discarded = 0;
+
+  /**
+   * Create a pool of provers.
+   *
+   * @param pContext the context that creates the provers.
+   * @param pMaxIdle the maximal number of idle provers that are kept for reuse.
+   * @param pIdleTimeout the time after which an idle prover is closed.
+   * @param pOptions the options for all provers of this pool.
+   */
+  public ProverPool(
+      SolverContext pContext, int pMaxIdle, TimeSpan pIdleTimeout, ProverOptions... pOptions) {
+    checkArgument(pMaxIdle >= 0, "maximal number of idle provers must not be negative");
+    context = checkNotNull(pContext);
+    maxIdle = pMaxIdle;
+    idleTimeoutNanos = pIdleTimeout.asNanos();
+    options = pOptions.clone();
+  }
+
+  /**
+   * Return a prover without any assertion. Closing the returned prover returns it to this pool.
+   *
+   * @throws InterruptedException if the initial backtracking point of a new prover could not be
+   *     created.
+   */
+  public ProverEnvironment checkout() throws InterruptedException {
+    synchronized (this) {
+      checkState(!closed, "prover pool is already closed");
+      evictExpired(System.nanoTime());
+      IdleProver reusable = idle.pollFirst();
+      if (reusable != null) {
+        reused++;
+        return new PooledProverEnvironment(reusable.prover, this);
+      }
+      created++;
+    }
+    // Creating a prover can be expensive and does not need the lock.
+    ProverEnvironment prover = context.newProverEnvironment(options);
+    try {
+      prover.push();
+    } catch (InterruptedException | RuntimeException e) {
+      prover.close();
+      throw e;
+    }
+    return new PooledProverEnvironment(prover, this);
+  }
+
+  /**
+   * Take back a prover whose user closed it. The prover is reset to its initial backtracking point,
+   * or closed if that is not possible or not needed.
+   */
+  void release(ProverEnvironment pProver, boolean pReusable) {
+    boolean keep = pReusable && reset(pProver);
+    synchronized (this) {
+      long now = System.nanoTime();
+      evictExpired(now);
+      if (keep && !closed && maxIdle > 0) {
+        if (idle.size() >= maxIdle) {
+          discard(idle.pollLast().prover);
+        }
+        idle.addFirst(new IdleProver(pProver, now));
+        return;
+      }
+      discarded++;
+    }
+    pProver.close();
+  }
+
+  /** Remove all assertions and push a fresh initial level. Returns whether this succeeded. */
+  private static boolean reset(ProverEnvironment pProver) {
+    try {
+      while (pProver.size() > 0) {
+        pProver.pop();
+      }
+      pProver.push();
+      return pProver.size() == 1;
+    } catch (InterruptedException | RuntimeException e) {
+      // the prover is in an unexpected state and can not be reused.
+      return false;
+    }
+  }
+
+  /** Close all provers that are idle for longer than the timeout. */
+  public synchronized void evictIdle() {
+    evictExpired(System.nanoTime());
+  }
+
+  @GuardedBy("this")
+  private void evictExpired(long pNow) {
+    for (Iterator<IdleProver> it = idle.descendingIterator(); it.hasNext(); ) {
+      IdleProver candidate = it.next();
+      if (pNow - candidate.idleSince < idleTimeoutNanos) {
+        break; // all remaining provers were returned later.
+      }
+      it.remove();
+      discard(candidate.prover);
+    }
+  }
+
+  @GuardedBy("this")
+  private void discard(ProverEnvironment pProver) {
+    discarded++;
+    pProver.close();
+  }
+
+  /** Returns the number of provers that are available for reuse. */
+  public synchronized int getIdleCount() {
+    return idle.size();
+  }
+
+  public synchronized ImmutableMap<String, String> getStatistics() {
+    return ImmutableMap.of(
+        "created provers", Long.toString(created),
+        "reused provers", Long.toString(reused),
+        "discarded provers", Long.toString(discarded),
+        "idle provers", Integer.toString(idle.size()),
+        "idle timeout", TimeSpan.ofNanos(idleTimeoutNanos).formatAs(TimeUnit.SECONDS));
+  }
+
+  /**
+   * Close all idle provers. Provers that are checked out are closed when their users close them.
+   * The context stays open.
+   */
+  @Override
+  public void close() {
+    ImmutableList<IdleProver> remaining;
+    synchronized (this) {
+      closed = true;
+      remaining = ImmutableList.copyOf(idle);
+      idle.clear();
+      discarded += remaining.size();
+    }
+    for (IdleProver candidate : remaining) {
+      candidate.prover.close();
+    }
+  }
+}
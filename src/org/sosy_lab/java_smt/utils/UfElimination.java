@@ -10,27 +10,39 @@ package org.sosy_lab.java_smt.utils;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
-import static com.google.common.collect.Maps.difference;
 
 import com.google.auto.value.AutoValue;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.base.Verify;
-import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
-import com.google.common.collect.Streams;
+import com.google.common.collect.MultimapBuilder;
 import com.google.errorprone.annotations.CheckReturnValue;
+import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.atomic.AtomicBoolean;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.UniqueIdGenerator;
+import org.sosy_lab.common.rationals.Rational;
 import org.sosy_lab.java_smt.api.ArrayFormula;
 import org.sosy_lab.java_smt.api.BitvectorFormula;
 import org.sosy_lab.java_smt.api.BooleanFormula;
 import org.sosy_lab.java_smt.api.BooleanFormulaManager;
+import org.sosy_lab.java_smt.api.Evaluator;
 import org.sosy_lab.java_smt.api.FloatingPointFormula;
 import org.sosy_lab.java_smt.api.FloatingPointFormulaManager;
 import org.sosy_lab.java_smt.api.Formula;
@@ -40,37 +52,47 @@ import org.sosy_lab.java_smt.api.FunctionDeclaration;
 import org.sosy_lab.java_smt.api.FunctionDeclarationKind;
 import org.sosy_lab.java_smt.api.NumeralFormula;
 import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
-import org.sosy_lab.java_smt.api.QuantifiedFormulaManager;
 import org.sosy_lab.java_smt.api.QuantifiedFormulaManager.Quantifier;
 import org.sosy_lab.java_smt.api.StringFormula;
+import org.sosy_lab.java_smt.api.TransformationSession;
 import org.sosy_lab.java_smt.api.visitors.DefaultFormulaVisitor;
 import org.sosy_lab.java_smt.api.visitors.TraversalProcess;
 
 /**
  * UfElimination replaces UFs by fresh variables and adds constraints to enforce the functional
  * consistency.
+ *
+ * <p>The constraints for the functional consistency are only computed if they are requested via
+ * {@link Result#getConstraints()}. Applications of a UF that can not have equal arguments, because
+ * they differ in a constant argument, do not need a constraint. Alternatively, the constraints can
+ * be generated lazily, only for the applications whose functional consistency is violated by a
+ * model, see {@link #getViolatedConstraints}.
  */
 public class UfElimination {
 
   public static class Result {
 
     private final BooleanFormula formula;
-    private final BooleanFormula constraints;
+    private final Supplier<BooleanFormula> constraints;
     private final ImmutableMap<Formula, Formula> substitutions;
     private final ImmutableMultimap<FunctionDeclaration<?>, UninterpretedFunctionApplication> ufs;
 
     public static Result empty(FormulaManager pFormulaManager) {
       BooleanFormula trueFormula = pFormulaManager.getBooleanFormulaManager().makeTrue();
-      return new Result(trueFormula, trueFormula, ImmutableMap.of(), ImmutableListMultimap.of());
+      return new Result(
+          trueFormula,
+          Suppliers.ofInstance(trueFormula),
+          ImmutableMap.of(),
+          ImmutableListMultimap.of());
     }
 
     Result(
         BooleanFormula pFormula,
-        BooleanFormula pConstraints,
+        Supplier<BooleanFormula> pConstraints,
         ImmutableMap<Formula, Formula> pSubstitutions,
         ImmutableMultimap<FunctionDeclaration<?>, UninterpretedFunctionApplication> pUfs) {
       formula = checkNotNull(pFormula);
-      constraints = checkNotNull(pConstraints);
+      constraints = Suppliers.memoize(checkNotNull(pConstraints));
       substitutions = checkNotNull(pSubstitutions);
       ufs = checkNotNull(pUfs);
     }
@@ -83,10 +105,11 @@ public class UfElimination {
     }
 
     /**
-     * @return the constraints enforcing the functional consistency.
+     * @return the constraints enforcing the functional consistency, which are computed on the first
+     *     call.
      */
     public BooleanFormula getConstraints() {
-      return constraints;
+      return constraints.get();
     }
 
     /**
@@ -97,7 +120,7 @@ public class UfElimination {
     }
 
     /**
-     * @return all eliminated application of Ufs
+     * @return all eliminated application of Ufs, with arguments that do not contain UFs
      */
     Multimap<FunctionDeclaration<?>, UninterpretedFunctionApplication> getUfs() {
       return ufs;
@@ -145,59 +168,220 @@ public class UfElimination {
       f = pF;
     }
 
-    int depth = getNestingDepthOfUfs(f);
-    Multimap<FunctionDeclaration<?>, UninterpretedFunctionApplication> ufs = findUFs(f);
-    merge(ufs, pOtherResult);
+    List<UninterpretedFunctionApplication> applications = findUFs(f);
 
-    ImmutableMap.Builder<Formula, Formula> substitutionsBuilder = ImmutableMap.builder();
-    List<BooleanFormula> extraConstraints = new ArrayList<>();
+    Map<Formula, Formula> substitutionsBuilder = new LinkedHashMap<>();
+    for (UninterpretedFunctionApplication application : applications) {
+      substitutionsBuilder.put(application.getFormula(), application.getSubstitution());
+    }
+    pOtherResult.getSubstitution().forEach(substitutionsBuilder::putIfAbsent);
+    ImmutableMap<Formula, Formula> substitutions = ImmutableMap.copyOf(substitutionsBuilder);
+
+    // Get rid of UFs in the formula and in the arguments of all applications in one pass,
+    // such that shared sub terms are substituted only once.
+    // Nested applications, e.g. uf(uf(1, 2), 2), are replaced as a whole.
+    List<Formula> toSubstitute = new ArrayList<>();
+    toSubstitute.add(f);
+    for (UninterpretedFunctionApplication application : applications) {
+      toSubstitute.addAll(application.getArguments());
+    }
+    TransformationSession session = fmgr.newSubstitution(substitutions);
+    Iterator<Formula> substituted = Lists.transform(toSubstitute, session::transform).iterator();
+    BooleanFormula formulaWithoutUFs = (BooleanFormula) substituted.next();
+
+    ListMultimap<FunctionDeclaration<?>, UninterpretedFunctionApplication> ufs =
+        MultimapBuilder.linkedHashKeys().arrayListValues().build();
+    for (UninterpretedFunctionApplication application : applications) {
+      ImmutableList<Formula> args =
+          ImmutableList.copyOf(Iterators.limit(substituted, application.getArguments().size()));
+      ufs.put(
+          application.getDeclaration(),
+          UninterpretedFunctionApplication.create(
+              application.getDeclaration(),
+              application.getFormula(),
+              args,
+              application.getSubstitution()));
+    }
+    Verify.verify(!substituted.hasNext());
+    merge(ufs, pOtherResult);
 
-    for (FunctionDeclaration<?> function : ufs.keySet()) {
-      List<UninterpretedFunctionApplication> applications = new ArrayList<>(ufs.get(function));
-      for (int idx1 = 0; idx1 < applications.size(); idx1++) {
-        UninterpretedFunctionApplication application = applications.get(idx1);
+    ImmutableListMultimap<FunctionDeclaration<?>, UninterpretedFunctionApplication> allUfs =
+        ImmutableListMultimap.copyOf(ufs);
+    return new Result(formulaWithoutUFs, () -> makeConstraints(allUfs), substitutions, allUfs);
+  }
 
-        Formula uf = application.getFormula();
-        List<Formula> args = application.getArguments();
+  /**
+   * Return the constraints for the functional consistency of all pairs of applications in the
+   * {@link Result} that are violated by the given model, i.e., whose arguments evaluate to the same
+   * values, but whose results do not. The returned formula is {@code true} if the model satisfies
+   * the functional consistency.
+   *
+   * <p>This allows to add the constraints lazily: check {@link Result#getFormula()} without the
+   * constraints, and add the violated constraints until the model is consistent or the formula is
+   * unsatisfiable. Compared to {@link Result#getConstraints()}, only a linear number of evaluations
+   * is needed for each model, but several checks might be required. Note that the values of
+   * floating-point arguments are compared as values, not with the semantics of floating-point
+   * equality.
+   *
+   * @param pResult result of eliminating Ufs.
+   * @param pEvaluator model for the formula of the result, or of a conjunction containing it.
+   */
+  public BooleanFormula getViolatedConstraints(Result pResult, Evaluator pEvaluator) {
+    List<BooleanFormula> violatedConstraints = new ArrayList<>();
+    for (Collection<UninterpretedFunctionApplication> applications :
+        pResult.getUfs().asMap().values()) {
+      // applications with equal argument values must have equal results,
+      // thus it is sufficient to compare each application with the first one for its arguments.
+      Map<List<Object>, UninterpretedFunctionApplication> representatives = new HashMap<>();
+      for (UninterpretedFunctionApplication application : applications) {
+        List<Object> argumentValues = new ArrayList<>(application.getArguments().size());
+        for (Formula argument : application.getArguments()) {
+          argumentValues.add(pEvaluator.evaluate(argument));
+        }
+        UninterpretedFunctionApplication representative =
+            representatives.putIfAbsent(argumentValues, application);
+        if (representative != null
+            && !Objects.equals(
+                pEvaluator.evaluate(representative.getSubstitution()),
+                pEvaluator.evaluate(application.getSubstitution()))) {
+          violatedConstraints.add(makeConstraint(representative, application));
+        }
+      }
+    }
+    return bfmgr.and(violatedConstraints);
+  }
 
-        Formula substitution = application.getSubstitution();
-        substitutionsBuilder.put(uf, substitution);
+  private BooleanFormula makeConstraints(
+      ListMultimap<FunctionDeclaration<?>, UninterpretedFunctionApplication> pUfs) {
+    List<BooleanFormula> constraints = new ArrayList<>();
+    for (FunctionDeclaration<?> function : pUfs.keySet()) {
+      addConstraints(pUfs.get(function), constraints);
+    }
+    return bfmgr.and(constraints);
+  }
 
-        for (int idx2 = idx1 + 1; idx2 < applications.size(); idx2++) {
-          UninterpretedFunctionApplication application2 = applications.get(idx2);
-          List<Formula> otherArgs = application2.getArguments();
+  /**
+   * Add constraints to enforce the functional consistency of the given applications of the same
+   * function. Pairs of applications that differ in a constant argument can not be equal, thus we
+   * put the applications into buckets by the constant at one argument position, and only compare
+   * applications in the same bucket, or with a non-constant argument at this position.
+   */
+  private void addConstraints(
+      List<UninterpretedFunctionApplication> pApplications, List<BooleanFormula> pConstraints) {
+    int arity = pApplications.get(0).getArguments().size();
+    List<@Nullable Object[]> constants = new ArrayList<>(pApplications.size());
+    int[] constantsAtPosition = new int[arity];
+    for (UninterpretedFunctionApplication application : pApplications) {
+      List<Formula> args = application.getArguments();
+      Verify.verify(args.size() == arity);
+      @Nullable Object[] values = new Object[arity];
+      for (int i = 0; i < arity; i++) {
+        values[i] = getConstantValue(args.get(i));
+        if (values[i] != null) {
+          constantsAtPosition[i]++;
+        }
+      }
+      constants.add(values);
+    }
 
-          /*
-           * Add constraints to enforce functional consistency.
-           */
-          Verify.verify(args.size() == otherArgs.size());
-          BooleanFormula argumentsEquality =
-              Streams.zip(args.stream(), otherArgs.stream(), this::makeEqual)
-                  .collect(bfmgr.toConjunction());
+    // without constant arguments, all applications are in the same bucket
+    int position = 0;
+    for (int i = 1; i < arity; i++) {
+      if (constantsAtPosition[i] > constantsAtPosition[position]) {
+        position = i;
+      }
+    }
+    Map<Object, List<Integer>> buckets = new LinkedHashMap<>();
+    List<Integer> unbucketed = new ArrayList<>();
+    for (int idx = 0; idx < pApplications.size(); idx++) {
+      Object value = arity == 0 ? null : constants.get(idx)[position];
+      if (value == null) {
+        unbucketed.add(idx);
+      } else {
+        buckets.computeIfAbsent(value, v -> new ArrayList<>()).add(idx);
+      }
+    }
 
-          BooleanFormula functionEquality = makeEqual(substitution, application2.getSubstitution());
-          extraConstraints.add(bfmgr.implication(argumentsEquality, functionEquality));
+    List<List<Integer>> groups = new ArrayList<>(buckets.values());
+    groups.add(unbucketed);
+    for (List<Integer> group : groups) {
+      for (int i = 0; i < group.size(); i++) {
+        for (int j = i + 1; j < group.size(); j++) {
+          addConstraint(pApplications, constants, group.get(i), group.get(j), pConstraints);
         }
       }
     }
+    for (int idx1 : unbucketed) {
+      for (List<Integer> bucket : buckets.values()) {
+        for (int idx2 : bucket) {
+          addConstraint(pApplications, constants, idx1, idx2, pConstraints);
+        }
+      }
+    }
+  }
 
-    // Get rid of UFs.
-    ImmutableMap<Formula, Formula> substitutions = substitutionsBuilder.buildOrThrow();
-    BooleanFormula formulaWithoutUFs = fmgr.substitute(f, substitutions);
+  private void addConstraint(
+      List<UninterpretedFunctionApplication> pApplications,
+      List<@Nullable Object[]> pConstants,
+      int pIdx1,
+      int pIdx2,
+      List<BooleanFormula> pConstraints) {
+    @Nullable Object[] constants1 = pConstants.get(pIdx1);
+    @Nullable Object[] constants2 = pConstants.get(pIdx2);
+    for (int i = 0; i < constants1.length; i++) {
+      if (constants1[i] != null && constants2[i] != null && !constants1[i].equals(constants2[i])) {
+        return; // the arguments are distinct, thus the results need not be equal
+      }
+    }
+    pConstraints.add(makeConstraint(pApplications.get(pIdx1), pApplications.get(pIdx2)));
+  }
 
-    // substitute all UFs in the additional constraints,
-    // required if UFs are arguments of UFs, e.g. uf(uf(1, 2), 2)
-    for (int i = 0; i < depth; i++) {
-      extraConstraints.replaceAll(c -> fmgr.substitute(c, substitutions));
+  /** Return the constraint for the functional consistency of two applications of a function. */
+  private BooleanFormula makeConstraint(
+      UninterpretedFunctionApplication pApplication1,
+      UninterpretedFunctionApplication pApplication2) {
+    List<Formula> args = pApplication1.getArguments();
+    List<Formula> otherArgs = pApplication2.getArguments();
+    Verify.verify(args.size() == otherArgs.size());
+    List<BooleanFormula> argumentsEquality = new ArrayList<>(args.size());
+    for (int i = 0; i < args.size(); i++) {
+      if (!args.get(i).equals(otherArgs.get(i))) { // syntactically equal arguments are equal
+        argumentsEquality.add(makeEqual(args.get(i), otherArgs.get(i)));
+      }
     }
+    BooleanFormula functionEquality =
+        makeEqual(pApplication1.getSubstitution(), pApplication2.getSubstitution());
+    return bfmgr.implication(bfmgr.and(argumentsEquality), functionEquality);
+  }
+
+  /**
+   * Return the value of a constant, if constants with different values are guaranteed to be
+   * distinct, or null otherwise. Floating-point constants are excluded, because their equality
+   * differs from the equality of their values, e.g., for zeros and NaN.
+   */
+  private @Nullable Object getConstantValue(Formula pFormula) {
+    return fmgr.visit(
+        pFormula,
+        new DefaultFormulaVisitor<@Nullable Object>() {
+
+          @Override
+          protected @Nullable Object visitDefault(Formula pF) {
+            return null;
+          }
 
-    Map<Formula, Formula> otherSubstitution =
-        difference(pOtherResult.getSubstitution(), substitutions).entriesOnlyOnLeft();
-    substitutionsBuilder.putAll(otherSubstitution);
-    ImmutableMap<Formula, Formula> allSubstitutions = substitutionsBuilder.buildOrThrow();
-    BooleanFormula constraints = bfmgr.and(extraConstraints);
-    return new Result(
-        formulaWithoutUFs, constraints, allSubstitutions, ImmutableListMultimap.copyOf(ufs));
+          @Override
+          public @Nullable Object visitConstant(Formula pF, Object pValue) {
+            if (pValue instanceof Rational && ((Rational) pValue).isIntegral()) {
+              return ((Rational) pValue).getNum(); // same as the value of an integer constant
+            } else if (pValue instanceof Boolean
+                || pValue instanceof BigInteger
+                || pValue instanceof Rational
+                || pValue instanceof String) {
+              return pValue;
+            }
+            return null;
+          }
+        });
   }
 
   private void merge(
@@ -265,43 +449,8 @@ public class UfElimination {
     return result.get();
   }
 
-  private int getNestingDepthOfUfs(Formula pFormula) {
-    return fmgr.visit(
-        pFormula,
-        new DefaultFormulaVisitor<>() {
-
-          @Override
-          protected Integer visitDefault(Formula pF) {
-            return 0;
-          }
-
-          @Override
-          public Integer visitFunction(
-              Formula pF, List<Formula> pArgs, FunctionDeclaration<?> pFunctionDeclaration) {
-            int depthOfArgs = pArgs.stream().mapToInt(f -> fmgr.visit(f, this)).max().orElse(0);
-
-            // count only UFs
-            if (pFunctionDeclaration.getKind() == FunctionDeclarationKind.UF) {
-              return depthOfArgs + 1;
-            } else {
-              return depthOfArgs;
-            }
-          }
-
-          @Override
-          public Integer visitQuantifier(
-              BooleanFormula pF,
-              QuantifiedFormulaManager.Quantifier pQ,
-              List<Formula> pBoundVariables,
-              BooleanFormula pBody) {
-            return fmgr.visit(pBody, this);
-          }
-        });
-  }
-
-  private Multimap<FunctionDeclaration<?>, UninterpretedFunctionApplication> findUFs(
-      Formula pFormula) {
-    Multimap<FunctionDeclaration<?>, UninterpretedFunctionApplication> ufs = HashMultimap.create();
+  private List<UninterpretedFunctionApplication> findUFs(Formula pFormula) {
+    List<UninterpretedFunctionApplication> ufs = new ArrayList<>();
 
     fmgr.visitRecursively(
         pFormula,
@@ -317,7 +466,7 @@ public class UfElimination {
               Formula f, List<Formula> args, FunctionDeclaration<?> decl) {
             if (decl.getKind() == FunctionDeclarationKind.UF) {
               Formula substitution = freshUfReplaceVariable(decl.getType());
-              ufs.put(decl, UninterpretedFunctionApplication.create(f, args, substitution));
+              ufs.add(UninterpretedFunctionApplication.create(decl, f, args, substitution));
             }
             return TraversalProcess.CONTINUE;
           }
@@ -334,11 +483,16 @@ public class UfElimination {
   abstract static class UninterpretedFunctionApplication {
 
     static UninterpretedFunctionApplication create(
-        Formula pF, List<Formula> pArguments, Formula pSubstitution) {
+        FunctionDeclaration<?> pDeclaration,
+        Formula pF,
+        List<Formula> pArguments,
+        Formula pSubstitution) {
       return new AutoValue_UfElimination_UninterpretedFunctionApplication(
-          pF, ImmutableList.copyOf(pArguments), pSubstitution);
+          pDeclaration, pF, ImmutableList.copyOf(pArguments), pSubstitution);
     }
 
+    abstract FunctionDeclaration<?> getDeclaration();
+
     abstract Formula getFormula();
 
     abstract ImmutableList<Formula> getArguments();